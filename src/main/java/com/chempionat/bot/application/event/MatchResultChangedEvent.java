@@ -0,0 +1,22 @@
+package com.chempionat.bot.application.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A match result was approved or its score was edited.
+ */
+@Getter
+public class MatchResultChangedEvent extends ApplicationEvent {
+
+    private final Long tournamentId;
+    private final Long matchId;
+    private final Integer round;
+
+    public MatchResultChangedEvent(Object source, Long tournamentId, Long matchId, Integer round) {
+        super(source);
+        this.tournamentId = tournamentId;
+        this.matchId = matchId;
+        this.round = round;
+    }
+}
@@ -6,14 +6,11 @@ import com.chempionat.bot.domain.model.Team;
 import com.chempionat.bot.domain.model.Tournament;
 import com.chempionat.bot.domain.repository.MatchRepository;
 import com.chempionat.bot.domain.repository.TeamRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
@@ -21,21 +18,36 @@ import java.util.stream.Collectors;
 
 /**
  * Renders tournament bracket as a dark-themed PNG image.
- * Displays single elimination bracket tree with all rounds.
+ * Displays single elimination bracket tree with all rounds, or the upper bracket,
+ * lower bracket and grand final of a double elimination tournament.
  * Uses real team names, handles BYE matches, and adapts to any bracket size.
  */
 @Component
-@RequiredArgsConstructor
 public class BracketImageRenderer extends ImageRenderer {
 
     private final TeamRepository teamRepository;
     private final MatchRepository matchRepository;
 
-    private static final int MATCH_BOX_WIDTH = 200;
-    private static final int MATCH_BOX_HEIGHT = 70;
-    private static final int VERTICAL_GAP = 25;
-    private static final int HORIZONTAL_GAP = 80;
-    private static final int STAGE_HEADER_HEIGHT = 45;
+    public BracketImageRenderer(TeamRepository teamRepository, MatchRepository matchRepository, PngEncoder pngEncoder) {
+        super(pngEncoder);
+        this.teamRepository = teamRepository;
+        this.matchRepository = matchRepository;
+    }
+
+    private static final int MATCH_BOX_WIDTH = BracketLayout.BOX_WIDTH;
+    private static final int MATCH_BOX_HEIGHT = BracketLayout.BOX_HEIGHT;
+    private static final int STAGE_HEADER_HEIGHT = BracketLayout.STAGE_HEADER_HEIGHT;
+    // Double elimination brackets hold about twice as many matches, so they are packed tighter
+    private static final int DE_VERTICAL_GAP = 10;
+    private static final int DE_HORIZONTAL_GAP = 40;
+
+    /**
+     * Brackets with more first-round matches than this (over 32 teams) are split into quarters,
+     * double elimination brackets into an upper bracket tile and a lower bracket and finals tile.
+     */
+    private static final int MAX_SINGLE_IMAGE_LEAVES = 16;
+    private static final int REGION_COUNT = 4;
+    private static final int DOUBLE_ELIMINATION_TILE_COUNT = 2;
     
     // Colors specific to bracket
     private static final Color WINNER_COLOR = new Color(0x00, 0xff, 0x88);
@@ -67,24 +79,82 @@ public class BracketImageRenderer extends ImageRenderer {
         if (matchesByStage.isEmpty()) {
             return renderEmptyBracket(tournamentName);
         }
+        if (matchesByStage.containsKey(MatchStage.UPPER_BRACKET)) {
+            return renderDoubleElimination(tournamentName, matchesByStage, true, true);
+        }
 
-        // Determine bracket structure
-        int maxFirstRoundMatches = getFirstRoundMatchCount(matches);
-        int totalRounds = calculateTotalRounds(maxFirstRoundMatches);
-        
-        // Order stages from first round to final
-        List<MatchStage> orderedStages = getOrderedStages(matchesByStage.keySet(), totalRounds);
+        Optional<BracketLayout> layout = BracketLayout.singleElimination(matches);
+        if (layout.isEmpty()) {
+            return renderEmptyBracket(tournamentName);
+        }
+        return renderLayout(tournamentName + " — Bracket", layout.get());
+    }
+
+    /**
+     * Whether the bracket is large enough to be sent as region tiles instead of one image
+     * (more than 32 teams).
+     */
+    public boolean shouldRenderRegions(List<Match> matches) {
+        if (isDoubleElimination(matches)) {
+            return matches.stream().filter(m -> m.getStage() == MatchStage.UPPER_BRACKET)
+                    .map(Match::getRound).filter(Objects::nonNull).min(Integer::compareTo)
+                    .map(first -> matches.stream()
+                            .filter(m -> m.getStage() == MatchStage.UPPER_BRACKET && first.equals(m.getRound()))
+                            .count() > MAX_SINGLE_IMAGE_LEAVES)
+                    .orElse(false);
+        }
+        return BracketLayout.singleElimination(matches)
+                .map(layout -> layout.getLeaves() > MAX_SINGLE_IMAGE_LEAVES && layout.canSplit(REGION_COUNT))
+                .orElse(false);
+    }
 
+    /**
+     * Number of tiles {@link #renderRegion} produces: one per quarter plus the finals, or the upper
+     * bracket plus the lower bracket with the grand final for double elimination.
+     */
+    public int getRegionTileCount(List<Match> matches) {
+        return isDoubleElimination(matches) ? DOUBLE_ELIMINATION_TILE_COUNT : REGION_COUNT + 1;
+    }
+
+    /**
+     * Render one tile of a large bracket: quarters 0..3 up to their quarter-final, then tile 4
+     * with the semi-finals and final. Each tile is laid out and rasterised on its own,
+     * so the full tree is never drawn into one image.
+     * Double elimination tiles are the upper bracket (0) and the lower bracket with the grand final (1).
+     */
+    public byte[] renderRegion(String tournamentName, List<Match> matches, int tile) throws IOException {
+        if (isDoubleElimination(matches)) {
+            Map<MatchStage, List<Match>> matchesByStage = matches.stream()
+                    .filter(m -> m.getStage() != null)
+                    .collect(Collectors.groupingBy(Match::getStage));
+            return tile == 0
+                    ? renderDoubleElimination(tournamentName + " — " + getStageDisplayName(MatchStage.UPPER_BRACKET),
+                            matchesByStage, true, false)
+                    : renderDoubleElimination(tournamentName + " — " + getStageDisplayName(MatchStage.LOWER_BRACKET),
+                            matchesByStage, false, true);
+        }
+        BracketLayout layout = BracketLayout.singleElimination(matches)
+                .filter(l -> l.canSplit(REGION_COUNT))
+                .orElseThrow(() -> new IllegalArgumentException("Bracket cannot be split into regions"));
+        if (tile == REGION_COUNT) {
+            return renderLayout(tournamentName + " — Final bosqichi", layout.finals(REGION_COUNT));
+        }
+        return renderLayout(tournamentName + " — " + (tile + 1) + "/" + REGION_COUNT + " qism",
+                layout.region(tile, REGION_COUNT));
+    }
+
+    private static boolean isDoubleElimination(List<Match> matches) {
+        return matches.stream().anyMatch(m -> m.getStage() == MatchStage.UPPER_BRACKET);
+    }
+
+    private byte[] renderLayout(String title, BracketLayout layout) {
         // Calculate image dimensions
-        int bracketWidth = orderedStages.size() * (MATCH_BOX_WIDTH + HORIZONTAL_GAP) + PADDING * 2;
-        int bracketHeight = maxFirstRoundMatches * (MATCH_BOX_HEIGHT + VERTICAL_GAP) + STAGE_HEADER_HEIGHT;
-        
-        int imageWidth = Math.max(bracketWidth, 800);
+        int imageWidth = Math.max(layout.getWidth() + PADDING * 2, 800);
         int headerHeight = 80;
         int footerHeight = 50;
-        int totalHeight = headerHeight + bracketHeight + footerHeight + PADDING * 2;
+        int totalHeight = headerHeight + layout.getHeight() + footerHeight + PADDING * 2;
 
-        BufferedImage image = new BufferedImage(imageWidth, totalHeight, BufferedImage.TYPE_INT_RGB);
+        BufferedImage image = RasterPool.acquire(imageWidth, totalHeight);
         Graphics2D g2d = image.createGraphics();
 
         // Setup rendering
@@ -98,10 +168,10 @@ public class BracketImageRenderer extends ImageRenderer {
         int y = PADDING;
 
         // Draw header
-        y = drawHeader(g2d, tournamentName, y, imageWidth);
+        y = drawHeader(g2d, title, y, imageWidth);
 
         // Draw bracket
-        drawBracketByStage(g2d, matchesByStage, orderedStages, y, imageWidth, maxFirstRoundMatches);
+        drawLayout(g2d, layout, PADDING, y);
 
         // Draw footer
         drawFooter(g2d, totalHeight - 40, imageWidth);
@@ -111,128 +181,204 @@ public class BracketImageRenderer extends ImageRenderer {
         return toBytes(image);
     }
 
-    private int getFirstRoundMatchCount(List<Match> matches) {
-        // Find the first round (lowest round number or earliest stage)
-        int minRound = matches.stream()
-                .filter(m -> m.getRound() != null)
-                .mapToInt(Match::getRound)
-                .min()
-                .orElse(1);
-        
-        return (int) matches.stream()
-                .filter(m -> m.getRound() != null && m.getRound() == minRound)
-                .count();
+    /**
+     * Double elimination layout: upper bracket on top, lower bracket below, grand final (and reset)
+     * to the right. Columns are play rounds shared by both sections, so upper and lower bracket
+     * matches played in the same round line up. Single pass over the matches, no extra queries.
+     *
+     * @param withUpper          draw the upper bracket
+     * @param withLowerAndFinals draw the lower bracket and the grand final
+     */
+    private byte[] renderDoubleElimination(String title, Map<MatchStage, List<Match>> matchesByStage,
+                                           boolean withUpper, boolean withLowerAndFinals) throws IOException {
+        TreeMap<Integer, List<Match>> upperRounds = withUpper
+                ? groupByRound(matchesByStage.get(MatchStage.UPPER_BRACKET)) : new TreeMap<>();
+        TreeMap<Integer, List<Match>> lowerRounds = withLowerAndFinals
+                ? groupByRound(matchesByStage.get(MatchStage.LOWER_BRACKET)) : new TreeMap<>();
+        List<Match> finals = new ArrayList<>();
+        if (withLowerAndFinals) {
+            finals.addAll(matchesByStage.getOrDefault(MatchStage.GRAND_FINAL, List.of()));
+            finals.addAll(matchesByStage.getOrDefault(MatchStage.GRAND_FINAL_RESET, List.of()));
+        }
+        finals.sort(Comparator.comparing(m -> m.getRound() != null ? m.getRound() : 0));
+
+        // One column per play round of the drawn matches
+        TreeSet<Integer> rounds = new TreeSet<>(upperRounds.keySet());
+        rounds.addAll(lowerRounds.keySet());
+        finals.forEach(m -> rounds.add(m.getRound() != null ? m.getRound() : 0));
+        Map<Integer, Integer> columns = new HashMap<>();
+        for (Integer round : rounds) {
+            columns.put(round, columns.size());
+        }
+
+        int slotHeight = MATCH_BOX_HEIGHT + DE_VERTICAL_GAP;
+        int columnWidth = MATCH_BOX_WIDTH + DE_HORIZONTAL_GAP;
+        int upperHeight = maxRoundSize(upperRounds) * slotHeight;
+        int lowerHeight = maxRoundSize(lowerRounds) * slotHeight;
+
+        int imageWidth = Math.max(columns.size() * columnWidth + PADDING * 2, 800);
+        int headerHeight = 80;
+        int footerHeight = 50;
+        int bracketHeight = STAGE_HEADER_HEIGHT
+                + (upperRounds.isEmpty() ? 0 : STAGE_HEADER_HEIGHT + upperHeight)
+                + (lowerRounds.isEmpty() ? 0 : STAGE_HEADER_HEIGHT + lowerHeight)
+                + (upperRounds.isEmpty() && lowerRounds.isEmpty() ? STAGE_HEADER_HEIGHT + slotHeight : 0);
+        int totalHeight = headerHeight + bracketHeight + footerHeight + PADDING * 2;
+
+        BufferedImage image = RasterPool.acquire(imageWidth, totalHeight);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(BACKGROUND_COLOR);
+        g2d.fillRect(0, 0, imageWidth, totalHeight);
+
+        int y = drawHeader(g2d, title, PADDING, imageWidth);
+        Map<Long, Rectangle> matchPositions = new HashMap<>();
+
+        // Round numbers over the bracket columns; the finals carry their own labels
+        g2d.setFont(HEADER_FONT);
+        g2d.setColor(HEADER_TEXT_COLOR);
+        for (Integer round : rounds) {
+            if (upperRounds.containsKey(round) || lowerRounds.containsKey(round)) {
+                drawCenteredText(g2d, "Tur " + round, PADDING + columns.get(round) * columnWidth, y + 25, MATCH_BOX_WIDTH);
+            }
+        }
+        y += STAGE_HEADER_HEIGHT;
+
+        int upperTop = y + STAGE_HEADER_HEIGHT;
+        if (!upperRounds.isEmpty()) {
+            drawSectionTitle(g2d, getStageDisplayName(MatchStage.UPPER_BRACKET), y);
+            drawBandedColumns(g2d, upperRounds, columns, upperTop, upperHeight, columnWidth, matchPositions);
+            y = upperTop + upperHeight;
+        }
+
+        int lowerTop = y + STAGE_HEADER_HEIGHT;
+        if (!lowerRounds.isEmpty()) {
+            drawSectionTitle(g2d, getStageDisplayName(MatchStage.LOWER_BRACKET), y);
+            drawBandedColumns(g2d, lowerRounds, columns, lowerTop, lowerHeight, columnWidth, matchPositions);
+        }
+
+        // Grand final sits between the two sections, or beside the lower bracket in its own tile
+        int finalsY;
+        if (!upperRounds.isEmpty() && !lowerRounds.isEmpty()) {
+            finalsY = upperTop + upperHeight - MATCH_BOX_HEIGHT / 2;
+        } else if (!lowerRounds.isEmpty()) {
+            finalsY = lowerTop + (lowerHeight - MATCH_BOX_HEIGHT) / 2;
+        } else {
+            finalsY = upperTop + (Math.max(upperHeight, slotHeight) - MATCH_BOX_HEIGHT) / 2;
+        }
+        for (Match match : finals) {
+            int x = PADDING + columns.get(match.getRound() != null ? match.getRound() : 0) * columnWidth;
+            g2d.setFont(HEADER_FONT);
+            g2d.setColor(HEADER_TEXT_COLOR);
+            drawCenteredText(g2d, getStageDisplayName(match.getStage()), x, finalsY - 10, MATCH_BOX_WIDTH);
+            drawMatchBox(g2d, match, x, finalsY);
+            if (match.getId() != null) {
+                matchPositions.put(match.getId(), new Rectangle(x, finalsY, MATCH_BOX_WIDTH, MATCH_BOX_HEIGHT));
+            }
+        }
+
+        // Winner paths only; loser drops would cross the whole image
+        for (List<Match> stageMatches : matchesByStage.values()) {
+            for (Match match : stageMatches) {
+                Rectangle from = match.getId() != null ? matchPositions.get(match.getId()) : null;
+                Rectangle to = match.getNextMatch() != null ? matchPositions.get(match.getNextMatch().getId()) : null;
+                if (from != null && to != null) {
+                    drawConnectingLine(g2d, from, to);
+                }
+            }
+        }
+
+        drawFooter(g2d, totalHeight - 40, imageWidth);
+        g2d.dispose();
+        return toBytes(image);
     }
 
-    private int calculateTotalRounds(int firstRoundMatches) {
-        if (firstRoundMatches <= 1) return 1;
-        return (int) Math.ceil(Math.log(firstRoundMatches * 2) / Math.log(2));
+    private TreeMap<Integer, List<Match>> groupByRound(List<Match> matches) {
+        TreeMap<Integer, List<Match>> rounds = new TreeMap<>();
+        if (matches != null) {
+            for (Match match : matches) {
+                rounds.computeIfAbsent(match.getRound() != null ? match.getRound() : 0, k -> new ArrayList<>()).add(match);
+            }
+        }
+        return rounds;
     }
 
-    private List<MatchStage> getOrderedStages(Set<MatchStage> stages, int totalRounds) {
-        // Order stages from first round to final
-        List<MatchStage> allStages = List.of(
-                MatchStage.ROUND_OF_64,
-                MatchStage.ROUND_OF_32,
-                MatchStage.ROUND_OF_16,
-                MatchStage.QUARTER_FINAL,
-                MatchStage.SEMI_FINAL,
-                MatchStage.FINAL
-        );
-        
-        return allStages.stream()
-                .filter(stages::contains)
-                .collect(Collectors.toList());
+    private int maxRoundSize(TreeMap<Integer, List<Match>> rounds) {
+        return rounds.values().stream().mapToInt(List::size).max().orElse(0);
     }
 
-    private int drawHeader(Graphics2D g2d, String tournamentName, int y, int imageWidth) {
+    private void drawSectionTitle(Graphics2D g2d, String title, int y) {
+        g2d.setFont(HEADER_FONT);
+        g2d.setColor(HEADER_TEXT_COLOR);
+        g2d.drawString(title, PADDING, y + 28);
+    }
+
+    /**
+     * Draw each round in its column; every match is centred in an equal share of the section height.
+     */
+    private void drawBandedColumns(Graphics2D g2d, TreeMap<Integer, List<Match>> rounds, Map<Integer, Integer> columns,
+                                   int top, int height, int columnWidth, Map<Long, Rectangle> matchPositions) {
+        for (Map.Entry<Integer, List<Match>> round : rounds.entrySet()) {
+            List<Match> roundMatches = round.getValue();
+            int x = PADDING + columns.get(round.getKey()) * columnWidth;
+            roundMatches.sort(Comparator.comparing(m -> m.getBracketPosition() != null ? m.getBracketPosition() : 0));
+            int band = height / roundMatches.size();
+            for (int i = 0; i < roundMatches.size(); i++) {
+                Match match = roundMatches.get(i);
+                int matchY = top + i * band + (band - MATCH_BOX_HEIGHT) / 2;
+                drawMatchBox(g2d, match, x, matchY);
+                if (match.getId() != null) {
+                    matchPositions.put(match.getId(), new Rectangle(x, matchY, MATCH_BOX_WIDTH, MATCH_BOX_HEIGHT));
+                }
+            }
+        }
+    }
+
+    private int drawHeader(Graphics2D g2d, String title, int y, int imageWidth) {
         g2d.setColor(HEADER_BG_COLOR);
         g2d.fillRoundRect(PADDING, y, imageWidth - PADDING * 2, 60, 15, 15);
 
         g2d.setFont(TITLE_FONT);
         g2d.setColor(TEXT_COLOR);
-        String title = "🏆 " + tournamentName + " — Bracket";
-        drawCenteredText(g2d, title, 0, y + 40, imageWidth);
+        drawCenteredText(g2d, "🏆 " + title, 0, y + 40, imageWidth);
 
         return y + 70;
     }
 
-    private void drawBracketByStage(Graphics2D g2d, Map<MatchStage, List<Match>> matchesByStage,
-                                     List<MatchStage> orderedStages, int startY, int imageWidth,
-                                     int maxFirstRoundMatches) {
-        
-        // Store match positions for connecting lines
-        Map<Long, Rectangle> matchPositions = new HashMap<>();
-        
-        int stageIndex = 0;
-        for (MatchStage stage : orderedStages) {
-            List<Match> stageMatches = matchesByStage.get(stage);
-            if (stageMatches == null || stageMatches.isEmpty()) continue;
-            
-            int x = PADDING + stageIndex * (MATCH_BOX_WIDTH + HORIZONTAL_GAP);
-            
-            // Draw stage header
-            g2d.setFont(HEADER_FONT);
-            g2d.setColor(HEADER_TEXT_COLOR);
-            String stageName = getStageDisplayName(stage);
-            drawCenteredText(g2d, stageName, x, startY + 25, MATCH_BOX_WIDTH);
-            
-            // Calculate vertical spacing for this round
-            int matchesInStage = stageMatches.size();
-            int slotHeight = MATCH_BOX_HEIGHT + VERTICAL_GAP;
-            
-            // Calculate spacing to center matches vertically
-            int spacingMultiplier = maxFirstRoundMatches / matchesInStage;
-            int baseY = startY + STAGE_HEADER_HEIGHT;
-            
-            // Sort matches by bracket position if available
-            stageMatches.sort(Comparator.comparing(m -> 
-                    m.getBracketPosition() != null ? m.getBracketPosition() : 0));
-            
-            for (int matchIdx = 0; matchIdx < stageMatches.size(); matchIdx++) {
-                Match match = stageMatches.get(matchIdx);
-                
-                // Calculate Y position for this match (centered within allocated space)
-                int slotStart = matchIdx * spacingMultiplier;
-                int slotEnd = slotStart + spacingMultiplier - 1;
-                int centerSlot = (slotStart + slotEnd) / 2;
-                int matchY = baseY + centerSlot * slotHeight;
-
-                // Draw match box
-                drawMatchBox(g2d, match, x, matchY);
-                
-                // Store position for connecting lines
-                if (match.getId() != null) {
-                    matchPositions.put(match.getId(), new Rectangle(x, matchY, MATCH_BOX_WIDTH, MATCH_BOX_HEIGHT));
-                }
-            }
-            
-            stageIndex++;
+    private void drawLayout(Graphics2D g2d, BracketLayout layout, int originX, int originY) {
+        // Draw stage headers
+        g2d.setFont(HEADER_FONT);
+        g2d.setColor(HEADER_TEXT_COLOR);
+        List<MatchStage> stages = layout.getStages();
+        for (int column = 0; column < stages.size(); column++) {
+            drawCenteredText(g2d, getStageDisplayName(stages.get(column)),
+                    originX + layout.columnX(column), originY + 25, MATCH_BOX_WIDTH);
+        }
+
+        List<BracketLayout.Box> boxes = layout.boxes();
+        for (BracketLayout.Box box : boxes) {
+            drawMatchBox(g2d, box.match(), originX + box.x(), originY + box.y());
         }
 
         // Draw connecting lines
-        for (List<Match> stageMatches : matchesByStage.values()) {
-            for (Match match : stageMatches) {
-                if (match.getNextMatch() != null && match.getId() != null
-                        && matchPositions.containsKey(match.getId()) 
-                        && matchPositions.containsKey(match.getNextMatch().getId())) {
-                    drawConnectingLine(g2d, matchPositions.get(match.getId()), 
-                            matchPositions.get(match.getNextMatch().getId()));
-                }
-            }
+        for (BracketLayout.Connector connector : layout.connectors(boxes)) {
+            drawConnectingLine(g2d, boxRectangle(connector.from(), originX, originY),
+                    boxRectangle(connector.to(), originX, originY));
         }
     }
 
+    private static Rectangle boxRectangle(BracketLayout.Box box, int originX, int originY) {
+        return new Rectangle(originX + box.x(), originY + box.y(), MATCH_BOX_WIDTH, MATCH_BOX_HEIGHT);
+    }
+
     private void drawMatchBox(Graphics2D g2d, Match match, int x, int y) {
         boolean isBye = Boolean.TRUE.equals(match.getIsBye());
         
-        // Draw box background
-        g2d.setColor(isBye ? new Color(0x25, 0x35, 0x25) : MATCH_BOX_COLOR);
-        g2d.fill(new RoundRectangle2D.Float(x, y, MATCH_BOX_WIDTH, MATCH_BOX_HEIGHT, 10, 10));
-
-        // Draw border
-        g2d.setColor(isBye ? BYE_COLOR : MATCH_BOX_BORDER);
-        g2d.draw(new RoundRectangle2D.Float(x, y, MATCH_BOX_WIDTH, MATCH_BOX_HEIGHT, 10, 10));
+        // Box background, border and divider come from a cached sprite (+1 for the border stroke)
+        BufferedImage box = getSprite(isBye ? "bracket:box:bye" : "bracket:box",
+                MATCH_BOX_WIDTH + 1, MATCH_BOX_HEIGHT + 1, sprite -> drawEmptyMatchBox(sprite, isBye));
+        g2d.drawImage(box, x, y, null);
 
         // Get team display names - USE REAL NAMES
         String homeTeam = getTeamDisplayName(match.getHomeTeam());
@@ -278,7 +424,7 @@ public class BracketImageRenderer extends ImageRenderer {
         
         // Draw scores if available (not for BYE)
         if (match.getHomeScore() != null && match.getAwayScore() != null && !isBye) {
-            g2d.setFont(new Font("SansSerif", Font.BOLD, 16));
+            g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 16));
             int scoreX = x + MATCH_BOX_WIDTH - 35;
             
             g2d.setColor(homeColor);
@@ -288,18 +434,28 @@ public class BracketImageRenderer extends ImageRenderer {
             g2d.drawString(String.valueOf(match.getAwayScore()), scoreX, awayY);
         }
 
-        // Draw divider line between teams
-        g2d.setColor(MATCH_BOX_BORDER);
-        g2d.drawLine(x + 5, y + MATCH_BOX_HEIGHT / 2, x + MATCH_BOX_WIDTH - 5, y + MATCH_BOX_HEIGHT / 2);
-        
         // Draw BYE badge if applicable
         if (isBye) {
             g2d.setColor(BYE_COLOR);
-            g2d.setFont(new Font("SansSerif", Font.BOLD, 10));
+            g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 10));
             g2d.drawString("✓ AUTO", x + MATCH_BOX_WIDTH - 55, homeY);
         }
     }
 
+    private void drawEmptyMatchBox(Graphics2D g2d, boolean isBye) {
+        // Draw box background
+        g2d.setColor(isBye ? new Color(0x25, 0x35, 0x25) : MATCH_BOX_COLOR);
+        g2d.fill(new RoundRectangle2D.Float(0, 0, MATCH_BOX_WIDTH, MATCH_BOX_HEIGHT, 10, 10));
+
+        // Draw border
+        g2d.setColor(isBye ? BYE_COLOR : MATCH_BOX_BORDER);
+        g2d.draw(new RoundRectangle2D.Float(0, 0, MATCH_BOX_WIDTH, MATCH_BOX_HEIGHT, 10, 10));
+
+        // Draw divider line between teams
+        g2d.setColor(MATCH_BOX_BORDER);
+        g2d.drawLine(5, MATCH_BOX_HEIGHT / 2, MATCH_BOX_WIDTH - 5, MATCH_BOX_HEIGHT / 2);
+    }
+
     private void drawConnectingLine(Graphics2D g2d, Rectangle from, Rectangle to) {
         g2d.setColor(LINE_COLOR);
         g2d.setStroke(new BasicStroke(2));
@@ -326,7 +482,7 @@ public class BracketImageRenderer extends ImageRenderer {
     }
 
     private byte[] renderEmptyBracket(String tournamentName) throws IOException {
-        BufferedImage image = new BufferedImage(600, 200, BufferedImage.TYPE_INT_RGB);
+        BufferedImage image = RasterPool.acquire(600, 200);
         Graphics2D g2d = image.createGraphics();
 
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -348,7 +504,7 @@ public class BracketImageRenderer extends ImageRenderer {
     /**
      * Get display name for a team - uses REAL team name, not placeholder.
      */
-    private String getTeamDisplayName(Team team) {
+    static String getTeamDisplayName(Team team) {
         if (team == null) return "TBD";
         
         // Priority: Team name > Username > First name > "TBD"
@@ -366,9 +522,10 @@ public class BracketImageRenderer extends ImageRenderer {
         return "TBD";
     }
 
-    private String getStageDisplayName(MatchStage stage) {
+    static String getStageDisplayName(MatchStage stage) {
         if (stage == null) return "";
         return switch (stage) {
+            case ROUND_OF_128 -> "1/64";
             case ROUND_OF_64 -> "1/32";
             case ROUND_OF_32 -> "1/16";
             case ROUND_OF_16 -> "1/8";
@@ -376,16 +533,14 @@ public class BracketImageRenderer extends ImageRenderer {
             case SEMI_FINAL -> "Yarim Final";
             case THIRD_PLACE -> "3-o'rin";
             case FINAL -> "FINAL";
+            case UPPER_BRACKET -> "Yuqori to'r";
+            case LOWER_BRACKET -> "Quyi to'r";
+            case GRAND_FINAL -> "GRAND FINAL";
+            case GRAND_FINAL_RESET -> "GRAND FINAL (qayta)";
             default -> stage.name();
         };
     }
 
-    private byte[] toBytes(BufferedImage image) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "PNG", baos);
-        return baos.toByteArray();
-    }
-
     /**
      * Generate caption for bracket image with real match info.
      */
@@ -403,11 +558,11 @@ public class BracketImageRenderer extends ImageRenderer {
                 .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
                 .count();
         
-        // Find current stage
+        // Find current stage (earliest unfinished round; matches come final-first in heap order)
         String currentStage = matches.stream()
                 .filter(m -> m.getHomeScore() == null || m.getAwayScore() == null)
                 .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
-                .findFirst()
+                .min(Comparator.comparing(m -> m.getRound() != null ? m.getRound() : Integer.MAX_VALUE))
                 .map(m -> getStageDisplayName(m.getStage()))
                 .orElse("Tugallangan");
 
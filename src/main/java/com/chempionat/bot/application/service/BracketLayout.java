@@ -0,0 +1,199 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.MatchStage;
+import com.chempionat.bot.domain.model.Match;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Geometry of a single elimination bracket, shared by the raster, tiled and SVG renderers.
+ * One column per stage; each match is centred on the first-round slots it covers.
+ * Coordinates are relative to the top-left corner of the bracket area (stage headers included).
+ * <p>
+ * Regions split the bracket by first-round slots (halves, quarters): {@link #region} is one
+ * part up to the round where it has a single match left, {@link #finals} is everything after.
+ */
+final class BracketLayout {
+
+    static final int BOX_WIDTH = 200;
+    static final int BOX_HEIGHT = 70;
+    static final int VERTICAL_GAP = 25;
+    static final int HORIZONTAL_GAP = 80;
+    static final int STAGE_HEADER_HEIGHT = 45;
+
+    private static final List<MatchStage> STAGE_ORDER = List.of(
+            MatchStage.ROUND_OF_128,
+            MatchStage.ROUND_OF_64,
+            MatchStage.ROUND_OF_32,
+            MatchStage.ROUND_OF_16,
+            MatchStage.QUARTER_FINAL,
+            MatchStage.SEMI_FINAL,
+            MatchStage.FINAL
+    );
+
+    record Box(Match match, int x, int y) {
+    }
+
+    record Connector(Box from, Box to) {
+    }
+
+    private final List<MatchStage> stages;
+    private final List<List<Match>> columns;
+    private final int leaves;
+
+    private BracketLayout(List<MatchStage> stages, List<List<Match>> columns, int leaves) {
+        this.stages = stages;
+        this.columns = columns;
+        this.leaves = Math.max(1, leaves);
+    }
+
+    /**
+     * Layout of the staged matches, or empty if none of them has a knockout stage.
+     */
+    static Optional<BracketLayout> singleElimination(List<Match> matches) {
+        Map<MatchStage, List<Match>> byStage = matches.stream()
+                .filter(m -> m.getStage() != null)
+                .collect(Collectors.groupingBy(Match::getStage));
+
+        List<MatchStage> stages = new ArrayList<>();
+        List<List<Match>> columns = new ArrayList<>();
+        for (MatchStage stage : STAGE_ORDER) {
+            List<Match> stageMatches = byStage.get(stage);
+            if (stageMatches != null && !stageMatches.isEmpty()) {
+                List<Match> sorted = new ArrayList<>(stageMatches);
+                // Sort matches by bracket position if available
+                sorted.sort(Comparator.comparing(m -> m.getBracketPosition() != null ? m.getBracketPosition() : 0));
+                stages.add(stage);
+                columns.add(sorted);
+            }
+        }
+        if (columns.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new BracketLayout(stages, columns, firstRoundMatchCount(matches)));
+    }
+
+    private static int firstRoundMatchCount(List<Match> matches) {
+        // Find the first round (lowest round number or earliest stage)
+        int minRound = matches.stream()
+                .filter(m -> m.getRound() != null)
+                .mapToInt(Match::getRound)
+                .min()
+                .orElse(1);
+
+        return (int) matches.stream()
+                .filter(m -> m.getRound() != null && m.getRound() == minRound)
+                .count();
+    }
+
+    int getWidth() {
+        return columns.size() * (BOX_WIDTH + HORIZONTAL_GAP);
+    }
+
+    int getHeight() {
+        return leaves * (BOX_HEIGHT + VERTICAL_GAP) + STAGE_HEADER_HEIGHT;
+    }
+
+    int getLeaves() {
+        return leaves;
+    }
+
+    List<MatchStage> getStages() {
+        return stages;
+    }
+
+    int columnX(int column) {
+        return column * (BOX_WIDTH + HORIZONTAL_GAP);
+    }
+
+    List<Box> boxes() {
+        List<Box> boxes = new ArrayList<>();
+        int slotHeight = BOX_HEIGHT + VERTICAL_GAP;
+        for (int column = 0; column < columns.size(); column++) {
+            List<Match> columnMatches = columns.get(column);
+            // Calculate spacing to center matches vertically
+            int spacingMultiplier = Math.max(1, leaves / columnMatches.size());
+            for (int index = 0; index < columnMatches.size(); index++) {
+                int slotStart = index * spacingMultiplier;
+                int centerSlot = (slotStart + slotStart + spacingMultiplier - 1) / 2;
+                boxes.add(new Box(columnMatches.get(index), columnX(column),
+                        STAGE_HEADER_HEIGHT + centerSlot * slotHeight));
+            }
+        }
+        return boxes;
+    }
+
+    /**
+     * Lines from each match to the next match its winner plays, where both are in this layout.
+     */
+    List<Connector> connectors(List<Box> boxes) {
+        Map<Long, Box> byMatchId = new HashMap<>();
+        for (Box box : boxes) {
+            if (box.match().getId() != null) {
+                byMatchId.put(box.match().getId(), box);
+            }
+        }
+        List<Connector> connectors = new ArrayList<>();
+        for (Box box : boxes) {
+            Match next = box.match().getNextMatch();
+            if (next != null && box.match().getId() != null && byMatchId.containsKey(next.getId())) {
+                connectors.add(new Connector(box, byMatchId.get(next.getId())));
+            }
+        }
+        return connectors;
+    }
+
+    /**
+     * Whether the bracket is complete enough to split into the given number of regions.
+     */
+    boolean canSplit(int parts) {
+        if (parts < 2 || Integer.bitCount(parts) != 1 || leaves % parts != 0 || columns.get(0).size() != leaves) {
+            return false;
+        }
+        for (int column = 0; column < columns.size(); column++) {
+            if (columns.get(column).size() != leaves >> column) {
+                return false;
+            }
+        }
+        return leaves >> (columns.size() - 1) == 1;
+    }
+
+    /**
+     * Part {@code part} (0-based) of {@code parts}, from the first round to its regional final.
+     */
+    BracketLayout region(int part, int parts) {
+        if (!canSplit(parts) || part < 0 || part >= parts) {
+            throw new IllegalArgumentException("Cannot take region " + part + " of " + parts);
+        }
+        List<MatchStage> regionStages = new ArrayList<>();
+        List<List<Match>> regionColumns = new ArrayList<>();
+        for (int column = 0; column < columns.size(); column++) {
+            int perPart = columns.get(column).size() / parts;
+            if (perPart < 1) {
+                break;
+            }
+            regionStages.add(stages.get(column));
+            regionColumns.add(columns.get(column).subList(part * perPart, (part + 1) * perPart));
+        }
+        return new BracketLayout(regionStages, regionColumns, leaves / parts);
+    }
+
+    /**
+     * The rounds after the regional finals of {@code parts} regions.
+     */
+    BracketLayout finals(int parts) {
+        if (!canSplit(parts)) {
+            throw new IllegalArgumentException("Cannot split bracket into " + parts + " parts");
+        }
+        List<MatchStage> finalStages = new ArrayList<>();
+        List<List<Match>> finalColumns = new ArrayList<>();
+        for (int column = 0; column < columns.size(); column++) {
+            if (columns.get(column).size() < parts) {
+                finalStages.add(stages.get(column));
+                finalColumns.add(columns.get(column));
+            }
+        }
+        return new BracketLayout(finalStages, finalColumns, finalColumns.get(0).size());
+    }
+}
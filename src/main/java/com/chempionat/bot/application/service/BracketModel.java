@@ -0,0 +1,159 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+
+import java.util.Collection;
+
+/**
+ * Immutable snapshot of a single elimination bracket laid out as a binary heap on bracketPosition.
+ * Slot 1 is the final, slot p is fed by slots 2p (winner plays at home) and 2p + 1,
+ * and the first round occupies slots [firstRoundSize, 2 * firstRoundSize).
+ * Partner and next-match lookups are plain index arithmetic.
+ * <p>
+ * Slots hold ids and scores only, never JPA entities; changes produce a new model.
+ */
+final class BracketModel {
+
+    /**
+     * What the bracket needs to know about one match.
+     */
+    record Slot(Long matchId, Long homeTeamId, Long awayTeamId,
+                Integer homeScore, Integer awayScore, boolean bye) {
+
+        static Slot of(Match match) {
+            return new Slot(match.getId(), teamId(match.getHomeTeam()), teamId(match.getAwayTeam()),
+                    match.getHomeScore(), match.getAwayScore(), Boolean.TRUE.equals(match.getIsBye()));
+        }
+
+        boolean hasResult() {
+            return homeScore != null && awayScore != null;
+        }
+
+        /**
+         * Winning team id; for BYE slots the only real participant, null while undecided or drawn.
+         */
+        Long winnerId() {
+            if (bye) {
+                return homeTeamId;
+            }
+            if (!hasResult() || homeScore.equals(awayScore)) {
+                return null;
+            }
+            return homeScore > awayScore ? homeTeamId : awayTeamId;
+        }
+
+        /**
+         * Losing team id; null for BYE slots and while undecided or drawn.
+         */
+        Long loserId() {
+            if (bye || !hasResult() || homeScore.equals(awayScore)) {
+                return null;
+            }
+            return homeScore > awayScore ? awayTeamId : homeTeamId;
+        }
+
+        Slot withTeam(boolean home, Long teamId) {
+            return home
+                    ? new Slot(matchId, teamId, awayTeamId, homeScore, awayScore, bye)
+                    : new Slot(matchId, homeTeamId, teamId, homeScore, awayScore, bye);
+        }
+
+        private static Long teamId(Team team) {
+            return team != null ? team.getId() : null;
+        }
+    }
+
+    private final int firstRoundSize;
+    private final Slot[] slots;
+
+    private BracketModel(int firstRoundSize, Slot[] slots) {
+        this.firstRoundSize = firstRoundSize;
+        this.slots = slots;
+    }
+
+    /**
+     * Snapshot of the given matches, each placed at its bracket position.
+     */
+    static BracketModel of(int firstRoundSize, Collection<Match> matches) {
+        if (Integer.bitCount(firstRoundSize) != 1) {
+            throw new IllegalArgumentException("First round size must be a power of 2: " + firstRoundSize);
+        }
+        BracketModel bracket = new BracketModel(firstRoundSize, new Slot[firstRoundSize * 2]);
+        for (Match match : matches) {
+            bracket.slots[bracket.checkedPosition(match.getBracketPosition())] = Slot.of(match);
+        }
+        return bracket;
+    }
+
+    static int parent(int position) {
+        return position >> 1;
+    }
+
+    static int partner(int position) {
+        return position ^ 1;
+    }
+
+    /**
+     * Whether the winner of this slot plays at home in the next match.
+     */
+    static boolean feedsHome(int position) {
+        return (position & 1) == 0;
+    }
+
+    /**
+     * Distance from the final: 0 for the final, 1 for semi-finals, ...
+     */
+    static int depth(int position) {
+        return 31 - Integer.numberOfLeadingZeros(position);
+    }
+
+    int getFirstRoundSize() {
+        return firstRoundSize;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    boolean contains(int position) {
+        return position >= 1 && position < slots.length;
+    }
+
+    Slot get(int position) {
+        return contains(position) ? slots[position] : null;
+    }
+
+    Slot finalSlot() {
+        return slots[1];
+    }
+
+    /**
+     * Copy with the given slot replaced.
+     */
+    BracketModel with(int position, Slot slot) {
+        Slot[] copy = slots.clone();
+        copy[checkedPosition(position)] = slot;
+        return new BracketModel(firstRoundSize, copy);
+    }
+
+    /**
+     * Copy with one team of an existing slot filled in; unknown slots are left as they are.
+     */
+    BracketModel withTeam(int position, boolean home, Long teamId) {
+        Slot slot = get(position);
+        if (slot == null) {
+            return this;
+        }
+        Slot[] copy = slots.clone();
+        copy[position] = slot.withTeam(home, teamId);
+        return new BracketModel(firstRoundSize, copy);
+    }
+
+    private int checkedPosition(Integer position) {
+        if (position == null || !contains(position)) {
+            throw new IllegalArgumentException("Bracket position out of range: " + position);
+        }
+        return position;
+    }
+}
@@ -0,0 +1,182 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.MatchStage;
+import com.chempionat.bot.domain.model.Match;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Renders a single elimination bracket as an SVG document, written element by element
+ * to the given writer. Uses the same layout and colours as {@link BracketImageRenderer},
+ * but never rasterises, so memory stays proportional to the number of matches.
+ */
+@Component
+public class BracketSvgRenderer {
+
+    private static final int PADDING = 30;
+    private static final int HEADER_HEIGHT = 80;
+    private static final int FOOTER_HEIGHT = 50;
+    private static final int MAX_NAME_LENGTH = 18;
+
+    private static final String FONT_FAMILY = "DejaVu Sans, Arial, sans-serif";
+    private static final String BACKGROUND = "#1a1a2e";
+    private static final String HEADER_BG = "#16213e";
+    private static final String HEADER_TEXT = "#00d9ff";
+    private static final String TEXT = "#ffffff";
+    private static final String WINNER = "#00ff88";
+    private static final String LOSER = "#888888";
+    private static final String TBD = "#666688";
+    private static final String BYE = "#558855";
+    private static final String BOX = "#2a2a4a";
+    private static final String BOX_BYE = "#253525";
+    private static final String BORDER = "#4a4a7a";
+    private static final String FOOTER = "#666666";
+
+    /**
+     * Whether the matches contain a single elimination bracket this renderer can draw.
+     */
+    public boolean supports(List<Match> matches) {
+        return matches.stream().noneMatch(m -> m.getStage() == MatchStage.UPPER_BRACKET)
+                && BracketLayout.singleElimination(matches).isPresent();
+    }
+
+    /**
+     * Write the bracket as SVG.
+     *
+     * @throws IllegalArgumentException if the matches hold no single elimination bracket
+     */
+    public void write(String tournamentName, List<Match> matches, Writer out) throws IOException {
+        if (!supports(matches)) {
+            throw new IllegalArgumentException("No single elimination bracket to render");
+        }
+        BracketLayout layout = BracketLayout.singleElimination(matches).orElseThrow();
+
+        int width = Math.max(layout.getWidth() + PADDING * 2, 800);
+        int height = HEADER_HEIGHT + layout.getHeight() + FOOTER_HEIGHT + PADDING * 2;
+        int originX = PADDING;
+        int originY = PADDING + HEADER_HEIGHT - 10;
+
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                + "\" viewBox=\"0 0 " + width + " " + height + "\" font-family=\"" + FONT_FAMILY + "\">\n");
+        out.write("<rect width=\"100%\" height=\"100%\" fill=\"" + BACKGROUND + "\"/>\n");
+
+        // Header
+        out.write("<rect x=\"" + PADDING + "\" y=\"" + PADDING + "\" width=\"" + (width - PADDING * 2)
+                + "\" height=\"60\" rx=\"8\" fill=\"" + HEADER_BG + "\"/>\n");
+        text(out, width / 2, PADDING + 40, 28, "bold", TEXT, "middle", "🏆 " + tournamentName + " — Bracket");
+
+        List<MatchStage> stages = layout.getStages();
+        for (int column = 0; column < stages.size(); column++) {
+            text(out, originX + layout.columnX(column) + BracketLayout.BOX_WIDTH / 2, originY + 25, 18, "bold",
+                    HEADER_TEXT, "middle", BracketImageRenderer.getStageDisplayName(stages.get(column)));
+        }
+
+        List<BracketLayout.Box> boxes = layout.boxes();
+        for (BracketLayout.Box box : boxes) {
+            writeMatch(out, box.match(), originX + box.x(), originY + box.y());
+        }
+
+        // Connecting lines
+        out.write("<g fill=\"none\" stroke=\"" + BORDER + "\" stroke-width=\"2\">\n");
+        for (BracketLayout.Connector connector : layout.connectors(boxes)) {
+            int fromX = originX + connector.from().x() + BracketLayout.BOX_WIDTH;
+            int fromY = originY + connector.from().y() + BracketLayout.BOX_HEIGHT / 2;
+            int toX = originX + connector.to().x();
+            int toY = originY + connector.to().y() + BracketLayout.BOX_HEIGHT / 2;
+            int midX = fromX + (toX - fromX) / 2;
+            out.write("<path d=\"M" + fromX + " " + fromY + "H" + midX + "V" + toY + "H" + toX + "\"/>\n");
+        }
+        out.write("</g>\n");
+
+        text(out, width / 2, height - 40, 14, "normal", FOOTER, "middle", "Generated by Chempionat-X Bot");
+        out.write("</svg>\n");
+        out.flush();
+    }
+
+    private void writeMatch(Writer out, Match match, int x, int y) throws IOException {
+        boolean isBye = Boolean.TRUE.equals(match.getIsBye());
+        boolean hasScore = match.getHomeScore() != null && match.getAwayScore() != null && !isBye;
+
+        String homeColor = TEXT;
+        String awayColor = isBye ? BYE : TEXT;
+        if (hasScore) {
+            if (match.getHomeScore() > match.getAwayScore()) {
+                homeColor = WINNER;
+                awayColor = LOSER;
+            } else if (match.getAwayScore() > match.getHomeScore()) {
+                homeColor = LOSER;
+                awayColor = WINNER;
+            }
+        } else if (match.getHomeTeam() == null) {
+            homeColor = TBD;
+        }
+        if (match.getAwayTeam() == null && !isBye) {
+            awayColor = TBD;
+        }
+
+        String homeTeam = BracketImageRenderer.getTeamDisplayName(match.getHomeTeam());
+        String awayTeam = isBye ? "BYE" : BracketImageRenderer.getTeamDisplayName(match.getAwayTeam());
+
+        out.write("<g>\n<title>" + escape(homeTeam + " — " + awayTeam) + "</title>\n");
+        out.write("<rect x=\"" + x + "\" y=\"" + y + "\" width=\"" + BracketLayout.BOX_WIDTH + "\" height=\""
+                + BracketLayout.BOX_HEIGHT + "\" rx=\"5\" fill=\"" + (isBye ? BOX_BYE : BOX)
+                + "\" stroke=\"" + (isBye ? BYE : BORDER) + "\"/>\n");
+        out.write("<line x1=\"" + (x + 5) + "\" y1=\"" + (y + BracketLayout.BOX_HEIGHT / 2) + "\" x2=\""
+                + (x + BracketLayout.BOX_WIDTH - 5) + "\" y2=\"" + (y + BracketLayout.BOX_HEIGHT / 2)
+                + "\" stroke=\"" + BORDER + "\"/>\n");
+        text(out, x + 12, y + 26, 16, "normal", homeColor, "start", shorten(homeTeam));
+        text(out, x + 12, y + 52, 16, "normal", awayColor, "start", shorten(awayTeam));
+        if (hasScore) {
+            int scoreX = x + BracketLayout.BOX_WIDTH - 35;
+            text(out, scoreX, y + 26, 16, "bold", homeColor, "start", String.valueOf(match.getHomeScore()));
+            text(out, scoreX, y + 52, 16, "bold", awayColor, "start", String.valueOf(match.getAwayScore()));
+        }
+        if (isBye) {
+            text(out, x + BracketLayout.BOX_WIDTH - 55, y + 26, 10, "bold", BYE, "start", "✓ AUTO");
+        }
+        out.write("</g>\n");
+    }
+
+    private static void text(Writer out, int x, int y, int size, String weight, String color, String anchor,
+                             String value) throws IOException {
+        out.write("<text x=\"" + x + "\" y=\"" + y + "\" font-size=\"" + size + "\" font-weight=\"" + weight
+                + "\" fill=\"" + color + "\" text-anchor=\"" + anchor + "\">" + escape(value) + "</text>\n");
+    }
+
+    private static String shorten(String name) {
+        if (name.length() <= MAX_NAME_LENGTH) {
+            return name;
+        }
+        int end = MAX_NAME_LENGTH - 1;
+        // Do not split a surrogate pair (emoji in team names)
+        if (Character.isHighSurrogate(name.charAt(end - 1))) {
+            end--;
+        }
+        return name.substring(0, end) + "…";
+    }
+
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&apos;");
+                default -> {
+                    // Control characters are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.chempionat.bot.application.service;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A message for {@link BroadcastService}: a template whose {@code {name}} placeholders are
+ * filled in per recipient (by Telegram id), and an optional photo the text is the caption of.
+ */
+@Getter
+@Builder
+public class BroadcastRequest {
+
+    /**
+     * What is announced, e.g. tournament_start; shown in logs and progress.
+     */
+    private final String kind;
+
+    private final Long tournamentId;
+
+    private final String template;
+
+    @Singular
+    private final Map<Long, Map<String, String>> recipients;
+
+    private final byte[] image;
+
+    private final String imageName;
+
+    public static class BroadcastRequestBuilder {
+
+        /**
+         * Add recipients that get the template without variables.
+         */
+        public BroadcastRequestBuilder recipientIds(Collection<Long> telegramIds) {
+            telegramIds.forEach(telegramId -> recipient(telegramId, Map.of()));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.BroadcastStatus;
+import com.chempionat.bot.domain.enums.DeliveryStatus;
+import com.chempionat.bot.domain.model.Broadcast;
+import com.chempionat.bot.domain.model.BroadcastRecipient;
+import com.chempionat.bot.domain.repository.BroadcastRecipientRepository;
+import com.chempionat.bot.domain.repository.BroadcastRepository;
+import com.chempionat.bot.infrastructure.telegram.TelegramBot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Sends one message to many users in the background, several at a time but within
+ * Telegram's rate limit.
+ * <p>
+ * A broadcast and the delivery state of each recipient are stored in the caller's transaction
+ * and sent after it commits, so callers never wait for Telegram. Broadcasts still running at
+ * shutdown resume on the next start; a message in flight at that moment may be sent twice.
+ * Users who blocked the bot fail at once, other errors are retried up to {@code max-attempts}.
+ */
+@Slf4j
+@Service
+public class BroadcastService {
+
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private final BroadcastRepository broadcastRepository;
+    private final BroadcastRecipientRepository recipientRepository;
+    private final TelegramBot telegramBot;
+    private final SendRateLimiter rateLimiter;
+    private final int maxAttempts;
+
+    /**
+     * Runs one broadcast at a time, handing its messages to {@link #senders}.
+     */
+    private final ThreadPoolTaskExecutor dispatcher;
+    private final ThreadPoolTaskExecutor senders;
+
+    /**
+     * Broadcasts queued or running on the dispatcher.
+     */
+    private final Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter retried;
+    private final Timer duration;
+
+    // Use @Lazy to break circular dependency
+    public BroadcastService(BroadcastRepository broadcastRepository,
+                            BroadcastRecipientRepository recipientRepository,
+                            @Lazy TelegramBot telegramBot,
+                            MeterRegistry meterRegistry,
+                            @Qualifier("broadcastDispatchExecutor") ThreadPoolTaskExecutor dispatcher,
+                            @Qualifier("broadcastSendExecutor") ThreadPoolTaskExecutor senders,
+                            @Value("${telegram.broadcast.messages-per-second:25}") double messagesPerSecond,
+                            @Value("${telegram.broadcast.max-attempts:3}") int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Broadcast attempts must be positive: " + maxAttempts);
+        }
+        this.broadcastRepository = broadcastRepository;
+        this.recipientRepository = recipientRepository;
+        this.telegramBot = telegramBot;
+        this.rateLimiter = new SendRateLimiter(messagesPerSecond);
+        this.maxAttempts = maxAttempts;
+        this.dispatcher = dispatcher;
+        this.senders = senders;
+
+        this.sent = messageCounter(meterRegistry, "sent");
+        this.failed = messageCounter(meterRegistry, "failed");
+        this.retried = messageCounter(meterRegistry, "retried");
+        this.duration = Timer.builder("broadcast.duration")
+                .description("Time to deliver a broadcast to every recipient")
+                .register(meterRegistry);
+        Gauge.builder("broadcast.active", dispatched, Set::size)
+                .description("Broadcasts queued or being sent")
+                .register(meterRegistry);
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("broadcast.messages").tag("result", result)
+                .description("Broadcast messages by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Progress of a broadcast; the counts are final once the status is COMPLETED.
+     */
+    public record Progress(Long broadcastId, String kind, BroadcastStatus status, int total,
+                           long sent, long failed, long pending) {
+    }
+
+    /**
+     * Store a broadcast and start sending it once the current transaction commits.
+     *
+     * @return the broadcast id, for {@link #getProgress}, or null if there are no recipients
+     */
+    @Transactional
+    public Long broadcast(BroadcastRequest request) {
+        if (request.getTemplate() == null || request.getTemplate().isBlank()) {
+            throw new IllegalArgumentException("Broadcast message must not be empty");
+        }
+        if (request.getRecipients().isEmpty()) {
+            log.debug("Broadcast {} has no recipients", request.getKind());
+            return null;
+        }
+        Broadcast broadcast = broadcastRepository.save(Broadcast.builder()
+                .kind(request.getKind())
+                .tournamentId(request.getTournamentId())
+                .status(BroadcastStatus.RUNNING)
+                .image(request.getImage())
+                .imageName(request.getImageName())
+                .totalRecipients(request.getRecipients().size())
+                .build());
+
+        List<BroadcastRecipient> recipients = new ArrayList<>(request.getRecipients().size());
+        request.getRecipients().forEach((telegramId, variables) -> recipients.add(BroadcastRecipient.builder()
+                .broadcastId(broadcast.getId())
+                .telegramId(telegramId)
+                .text(fill(request.getTemplate(), variables))
+                .status(DeliveryStatus.PENDING)
+                .build()));
+        recipientRepository.saveAll(recipients);
+        log.info("Broadcast {} ({}) queued for {} recipients", broadcast.getId(), broadcast.getKind(), recipients.size());
+
+        Long broadcastId = broadcast.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(broadcastId);
+            }
+        });
+        return broadcastId;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Progress> getProgress(Long broadcastId) {
+        return broadcastRepository.findById(broadcastId).map(broadcast -> {
+            long sentCount = recipientRepository.countByBroadcastIdAndStatus(broadcastId, DeliveryStatus.SENT);
+            long failedCount = recipientRepository.countByBroadcastIdAndStatus(broadcastId, DeliveryStatus.FAILED);
+            long pending = recipientRepository.countByBroadcastIdAndStatus(broadcastId, DeliveryStatus.PENDING);
+            return new Progress(broadcastId, broadcast.getKind(), broadcast.getStatus(),
+                    broadcast.getTotalRecipients(), sentCount, failedCount, pending);
+        });
+    }
+
+    /**
+     * Pick up broadcasts a previous run did not finish.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        List<Broadcast> running = broadcastRepository.findByStatus(BroadcastStatus.RUNNING);
+        if (!running.isEmpty()) {
+            log.info("Resuming {} unfinished broadcasts", running.size());
+        }
+        running.forEach(broadcast -> dispatch(broadcast.getId()));
+    }
+
+    private void dispatch(Long broadcastId) {
+        if (!dispatched.add(broadcastId)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    run(broadcastId);
+                } catch (RuntimeException e) {
+                    log.error("Broadcast {} stopped, it resumes on the next start", broadcastId, e);
+                } finally {
+                    dispatched.remove(broadcastId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dispatched.remove(broadcastId);
+            log.warn("Broadcast {} not started during shutdown, it resumes on the next start", broadcastId);
+        }
+    }
+
+    void run(Long broadcastId) {
+        Broadcast broadcast = broadcastRepository.findById(broadcastId).orElse(null);
+        if (broadcast == null || broadcast.getStatus() == BroadcastStatus.COMPLETED) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            List<BroadcastRecipient> batch;
+            while (!(batch = recipientRepository.findTop100ByBroadcastIdAndStatusOrderByIdAsc(
+                    broadcastId, DeliveryStatus.PENDING)).isEmpty()) {
+                List<Future<?>> sends = new ArrayList<>(batch.size());
+                for (BroadcastRecipient recipient : batch) {
+                    rateLimiter.acquire();
+                    sends.add(senders.submit(() -> deliver(broadcast, recipient)));
+                }
+                for (Future<?> send : sends) {
+                    send.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Broadcast {} interrupted, it resumes on the next start", broadcastId);
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Broadcast " + broadcastId + " send failed", e.getCause());
+        }
+        complete(broadcast, System.nanoTime() - startedAt);
+    }
+
+    /**
+     * Send to one recipient, retrying transient errors, and store the outcome.
+     */
+    private void deliver(Broadcast broadcast, BroadcastRecipient recipient) {
+        try {
+            while (true) {
+                recipient.setAttempts(recipient.getAttempts() + 1);
+                try {
+                    telegramBot.deliver(recipient.getTelegramId(), recipient.getText(),
+                            broadcast.getImage(), broadcast.getImageName());
+                    recipient.setStatus(DeliveryStatus.SENT);
+                    recipient.setSentAt(LocalDateTime.now());
+                    recipient.setLastError(null);
+                    sent.increment();
+                    return;
+                } catch (TelegramApiException e) {
+                    recipient.setLastError(describe(e));
+                    Integer retryAfter = retryAfterSeconds(e);
+                    if (retryAfter != null) {
+                        rateLimiter.pause(Duration.ofSeconds(retryAfter));
+                    }
+                    if (isPermanent(e) || recipient.getAttempts() >= maxAttempts) {
+                        log.debug("Broadcast {} to {} failed: {}", broadcast.getId(), recipient.getTelegramId(),
+                                recipient.getLastError());
+                        recipient.setStatus(DeliveryStatus.FAILED);
+                        failed.increment();
+                        return;
+                    }
+                    retried.increment();
+                    if (retryAfter == null) {
+                        Thread.sleep(RETRY_BACKOFF_MS * recipient.getAttempts());
+                    }
+                    rateLimiter.acquire();
+                } catch (RuntimeException e) {
+                    log.warn("Broadcast {} to {} failed", broadcast.getId(), recipient.getTelegramId(), e);
+                    recipient.setLastError(describe(e));
+                    recipient.setStatus(DeliveryStatus.FAILED);
+                    failed.increment();
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Left pending for the next start
+            Thread.currentThread().interrupt();
+        } finally {
+            recipientRepository.save(recipient);
+        }
+    }
+
+    private void complete(Broadcast broadcast, long elapsedNanos) {
+        long sentCount = recipientRepository.countByBroadcastIdAndStatus(broadcast.getId(), DeliveryStatus.SENT);
+        long failedCount = recipientRepository.countByBroadcastIdAndStatus(broadcast.getId(), DeliveryStatus.FAILED);
+        broadcast.setSentCount((int) sentCount);
+        broadcast.setFailedCount((int) failedCount);
+        broadcast.setStatus(BroadcastStatus.COMPLETED);
+        broadcast.setCompletedAt(LocalDateTime.now());
+        broadcastRepository.save(broadcast);
+        duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Broadcast {} ({}) completed: {} sent, {} failed of {} in {} ms", broadcast.getId(),
+                broadcast.getKind(), sentCount, failedCount, broadcast.getTotalRecipients(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    /**
+     * Replace each {@code {name}} in the template with its variable; unknown placeholders stay as they are.
+     */
+    static String fill(String template, Map<String, String> variables) {
+        String text = template;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            text = text.replace("{" + variable.getKey() + "}", variable.getValue());
+        }
+        return text;
+    }
+
+    /**
+     * The user blocked the bot, deleted the account or never opened the chat: retrying cannot help.
+     */
+    private static boolean isPermanent(TelegramApiException e) {
+        if (e instanceof TelegramApiRequestException request && request.getErrorCode() != null) {
+            return request.getErrorCode() == 400 || request.getErrorCode() == 403;
+        }
+        return false;
+    }
+
+    private static Integer retryAfterSeconds(TelegramApiException e) {
+        if (e instanceof TelegramApiRequestException request && request.getParameters() != null) {
+            return request.getParameters().getRetryAfter();
+        }
+        return null;
+    }
+
+    private static String describe(Exception e) {
+        String message = e instanceof TelegramApiRequestException request && request.getApiResponse() != null
+                ? request.getErrorCode() + " " + request.getApiResponse()
+                : String.valueOf(e.getMessage());
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,373 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.MatchLifecycleState;
+import com.chempionat.bot.domain.enums.MatchStage;
+import com.chempionat.bot.domain.enums.TournamentStatus;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.domain.repository.TeamRepository;
+import com.chempionat.bot.domain.repository.TournamentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Double elimination bracket: winners (upper) bracket, losers (lower) bracket and a grand final.
+ * The whole tree is created at start. Every match links to where its winner goes
+ * (nextMatch/winnerToHome) and upper bracket matches also link to where their loser drops
+ * (loserNextMatch/loserToHome), so propagating a result is at most two slot updates.
+ * Lower bracket matches that BYEs leave with fewer than two entrants are resolved when the
+ * bracket is built and never created. A reset match is added only if the lower bracket
+ * champion wins the grand final.
+ */
+@Slf4j
+@Service
+public class DoubleEliminationService {
+
+    private final MatchRepository matchRepository;
+    private final TeamRepository teamRepository;
+    private final TournamentRepository tournamentRepository;
+    private final SingleEliminationService singleEliminationService;
+    private final MatchSlotScheduler matchSlotScheduler;
+
+    public DoubleEliminationService(
+            MatchRepository matchRepository,
+            TeamRepository teamRepository,
+            TournamentRepository tournamentRepository,
+            @Lazy SingleEliminationService singleEliminationService,
+            MatchSlotScheduler matchSlotScheduler) {
+        this.matchRepository = matchRepository;
+        this.teamRepository = teamRepository;
+        this.tournamentRepository = tournamentRepository;
+        this.singleEliminationService = singleEliminationService;
+        this.matchSlotScheduler = matchSlotScheduler;
+    }
+
+    /**
+     * A team arriving in a match: the winner or the loser of the source match.
+     */
+    private record Feed(Match source, boolean loser) {
+    }
+
+    /**
+     * Generate the complete double elimination bracket and save it in one batch.
+     *
+     * @return the first upper bracket round
+     */
+    @Transactional
+    public List<Match> generateBracket(Tournament tournament, List<Team> teams) {
+        if (teams.size() < 2) {
+            throw new IllegalArgumentException("At least 2 teams required for double elimination");
+        }
+
+        List<Team> shuffledTeams = new ArrayList<>(teams);
+        Collections.shuffle(shuffledTeams);
+
+        int bracketSize = singleEliminationService.calculateBracketSize(teams.size());
+        int upperRounds = Integer.numberOfTrailingZeros(bracketSize);
+        int lowerRounds = 2 * (upperRounds - 1);
+
+        Match[][] upper = new Match[upperRounds + 1][];
+        for (int r = 1; r <= upperRounds; r++) {
+            upper[r] = new Match[bracketSize >> r];
+            for (int i = 0; i < upper[r].length; i++) {
+                upper[r][i] = emptyMatch(tournament, MatchStage.UPPER_BRACKET, upperPlayRound(r));
+            }
+        }
+        // Lower round 2j - 1 pairs survivors, lower round 2j takes the losers of upper round j + 1
+        Match[][] lower = new Match[lowerRounds + 1][];
+        for (int l = 1; l <= lowerRounds; l++) {
+            lower[l] = new Match[bracketSize >> ((l + 1) / 2 + 1)];
+            for (int i = 0; i < lower[l].length; i++) {
+                lower[l][i] = emptyMatch(tournament, MatchStage.LOWER_BRACKET, l + 1);
+            }
+        }
+        Match grandFinal = emptyMatch(tournament, MatchStage.GRAND_FINAL, 2 * upperRounds);
+
+        // Upper bracket first round, BYEs go to the strongest seed slots
+        int[] seedOrder = singleEliminationService.buildSeedOrder(bracketSize);
+        for (int i = 0; i < upper[1].length; i++) {
+            Team home = seedOrder[2 * i] <= shuffledTeams.size() ? shuffledTeams.get(seedOrder[2 * i] - 1) : null;
+            Team away = seedOrder[2 * i + 1] <= shuffledTeams.size() ? shuffledTeams.get(seedOrder[2 * i + 1] - 1) : null;
+            Match match = upper[1][i];
+            if (home == null || away == null) {
+                Team team = home != null ? home : away;
+                match.setHomeTeam(team);
+                match.setAwayTeam(team); // Set both to same team for BYE
+                match.setIsBye(true);
+                match.setState(MatchLifecycleState.APPROVED);
+                match.setHomeScore(0);
+                match.setAwayScore(0);
+            } else {
+                match.setHomeTeam(home);
+                match.setAwayTeam(away);
+            }
+        }
+
+        // Wire winner and loser links, remembering what arrives in every match
+        Map<Match, List<Feed>> incoming = new IdentityHashMap<>();
+        for (int r = 1; r <= upperRounds; r++) {
+            for (int i = 0; i < upper[r].length; i++) {
+                Match match = upper[r][i];
+                if (r < upperRounds) {
+                    link(incoming, new Feed(match, false), upper[r + 1][i / 2], i % 2 == 0);
+                } else {
+                    link(incoming, new Feed(match, false), grandFinal, true);
+                }
+
+                if (Boolean.TRUE.equals(match.getIsBye())) {
+                    continue; // BYE has no loser
+                }
+                if (r == 1 && lowerRounds > 0) {
+                    link(incoming, new Feed(match, true), lower[1][i / 2], i % 2 == 0);
+                } else if (r == 1) {
+                    link(incoming, new Feed(match, true), grandFinal, false);
+                } else {
+                    // Drop-ins are mirrored to keep early rematches apart
+                    Match[] target = lower[2 * r - 2];
+                    link(incoming, new Feed(match, true), target[target.length - 1 - i], false);
+                }
+            }
+        }
+        for (int l = 1; l <= lowerRounds; l++) {
+            for (int i = 0; i < lower[l].length; i++) {
+                Feed feed = new Feed(lower[l][i], false);
+                if (l == lowerRounds) {
+                    link(incoming, feed, grandFinal, false);
+                } else if (l % 2 == 1) {
+                    link(incoming, feed, lower[l + 1][i], true);
+                } else {
+                    link(incoming, feed, lower[l + 1][i / 2], i % 2 == 0);
+                }
+            }
+        }
+
+        // Dependency order: every match comes after all matches feeding it
+        List<Match> order = new ArrayList<>(Arrays.asList(upper[1]));
+        for (int r = 2; r <= upperRounds; r++) {
+            order.addAll(Arrays.asList(upper[r]));
+            order.addAll(Arrays.asList(lower[2 * r - 3]));
+            order.addAll(Arrays.asList(lower[2 * r - 2]));
+        }
+        order.add(grandFinal);
+
+        Set<Match> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Match match : order) {
+            if (match.getRound() == 1) {
+                // BYE winners are known already
+                if (Boolean.TRUE.equals(match.getIsBye())) {
+                    placeTeam(match.getNextMatch(), match.getWinnerToHome(), match.getHomeTeam());
+                }
+                continue;
+            }
+            List<Feed> feeds = incoming.getOrDefault(match, List.of());
+            if (feeds.size() == 2) {
+                continue;
+            }
+            // A lower bracket match with a single entrant passes it straight on; with none it disappears
+            skipped.add(match);
+            Match target = match.getNextMatch();
+            List<Feed> targetFeeds = incoming.get(target);
+            targetFeeds.removeIf(f -> f.source() == match && !f.loser());
+            if (feeds.size() == 1) {
+                Feed feed = feeds.get(0);
+                link(incoming, feed, target, match.getWinnerToHome());
+            }
+        }
+
+        int bracketPosition = 1;
+        List<Match> kept = new ArrayList<>();
+        for (Match match : order) {
+            if (!skipped.contains(match)) {
+                match.setBracketPosition(bracketPosition++);
+                kept.add(match);
+            }
+        }
+        // Targets before the matches that link to them
+        Collections.reverse(kept);
+        matchRepository.saveAll(kept);
+
+        log.info("Generated double elimination bracket for tournament {}: {} teams, {} matches ({} lower bracket slots resolved by BYEs)",
+                tournament.getId(), teams.size(), kept.size(), skipped.size());
+        return Arrays.asList(upper[1]);
+    }
+
+    /**
+     * Apply an approved result: the winner moves on, the loser drops to the lower bracket
+     * or is eliminated. Each move is a single slot update on a linked match.
+     */
+    @Transactional
+    public void propagateResult(Match match) {
+        if (Boolean.TRUE.equals(match.getIsBye())) {
+            return;
+        }
+        Team winner = singleEliminationService.determineWinner(match);
+        Team loser = singleEliminationService.determineLoser(match);
+        if (winner == null) {
+            log.warn("Cannot determine winner for match {}: draw not allowed in double elimination", match.getId());
+            return;
+        }
+
+        if (match.getStage() == MatchStage.GRAND_FINAL) {
+            if (winner.getId().equals(match.getHomeTeam().getId())) {
+                // Upper bracket champion has not lost yet
+                finishTournament(match.getTournament(), winner);
+            } else if (match.getNextMatch() == null) {
+                createReset(match);
+            }
+            return;
+        }
+        if (match.getStage() == MatchStage.GRAND_FINAL_RESET) {
+            finishTournament(match.getTournament(), winner);
+            return;
+        }
+
+        if (match.getNextMatch() != null) {
+            assignSlot(match.getNextMatch(), match.getWinnerToHome(), winner);
+            singleEliminationService.notifyAdvancement(winner, match.getTournament(), match.getNextMatch().getStage());
+        }
+        if (match.getLoserNextMatch() != null) {
+            assignSlot(match.getLoserNextMatch(), match.getLoserToHome(), loser);
+        } else {
+            singleEliminationService.notifyElimination(loser, match);
+        }
+    }
+
+    /**
+     * Final placements: grand final (or reset) decides 1st and 2nd, then teams knocked out
+     * later in the lower bracket place higher.
+     */
+    @Transactional(readOnly = true)
+    public List<TeamStanding> calculatePlacements(Tournament tournament) {
+        List<Team> teams = teamRepository.findByTournament(tournament);
+        List<Match> matches = matchRepository.findByTournamentOrderedByBracketPosition(tournament);
+
+        Match grandFinal = null;
+        Match reset = null;
+        List<Match> lowerMatches = new ArrayList<>();
+        for (Match match : matches) {
+            if (match.getStage() == MatchStage.GRAND_FINAL) {
+                grandFinal = match;
+            } else if (match.getStage() == MatchStage.GRAND_FINAL_RESET) {
+                reset = match;
+            } else if (match.getStage() == MatchStage.LOWER_BRACKET) {
+                lowerMatches.add(match);
+            }
+        }
+
+        List<TeamStanding> placements = new ArrayList<>();
+        Set<Long> placedTeamIds = new HashSet<>();
+
+        Match decider = reset != null ? reset : grandFinal;
+        if (decider != null && decider.getHomeScore() != null && decider.getAwayScore() != null) {
+            addPlacement(placements, placedTeamIds, singleEliminationService.determineWinner(decider));
+            addPlacement(placements, placedTeamIds, singleEliminationService.determineLoser(decider));
+        }
+
+        lowerMatches.sort(Comparator.comparing(Match::getRound).reversed()
+                .thenComparing(Match::getBracketPosition));
+        for (Match match : lowerMatches) {
+            if (match.getHomeScore() != null && match.getAwayScore() != null) {
+                addPlacement(placements, placedTeamIds, singleEliminationService.determineLoser(match));
+            }
+        }
+
+        for (Team team : teams) {
+            addPlacement(placements, placedTeamIds, team);
+        }
+        return placements;
+    }
+
+    /**
+     * Number of matches played when the grand final needs no reset.
+     */
+    public long calculateTotalMatches(int teamCount) {
+        return 2L * (teamCount - 1);
+    }
+
+    private void createReset(Match grandFinal) {
+        Match reset = Match.builder()
+                .tournament(grandFinal.getTournament())
+                .homeTeam(grandFinal.getHomeTeam())
+                .awayTeam(grandFinal.getAwayTeam())
+                .state(MatchLifecycleState.CREATED)
+                .round(grandFinal.getRound() + 1)
+                .stage(MatchStage.GRAND_FINAL_RESET)
+                .bracketPosition(grandFinal.getBracketPosition() + 1)
+                .isBye(false)
+                .build();
+        matchSlotScheduler.scheduleMatches(grandFinal.getTournament(), List.of(reset));
+        matchRepository.save(reset);
+        matchRepository.linkToNextMatch(grandFinal.getId(), reset, true);
+        log.info("Tournament {}: lower bracket champion won the grand final, reset match {} created",
+                grandFinal.getTournament().getId(), reset.getId());
+    }
+
+    private void finishTournament(Tournament tournament, Team champion) {
+        tournament.setStatus(TournamentStatus.FINISHED);
+        tournament.setIsActive(false);
+        tournamentRepository.save(tournament);
+        log.info("Tournament {} completed! Winner: {}", tournament.getId(), champion.getName());
+    }
+
+    private void assignSlot(Match target, Boolean toHome, Team team) {
+        if (Boolean.TRUE.equals(toHome)) {
+            matchRepository.assignHomeTeam(target.getId(), team);
+        } else {
+            matchRepository.assignAwayTeam(target.getId(), team);
+        }
+        // Keep the linked entity in step for readers in the same session
+        placeTeam(target, toHome, team);
+        matchSlotScheduler.scheduleWhenTeamsKnown(target.getId());
+    }
+
+    private void link(Map<Match, List<Feed>> incoming, Feed feed, Match target, boolean toHome) {
+        if (feed.loser()) {
+            feed.source().setLoserNextMatch(target);
+            feed.source().setLoserToHome(toHome);
+        } else {
+            feed.source().setNextMatch(target);
+            feed.source().setWinnerToHome(toHome);
+        }
+        incoming.computeIfAbsent(target, k -> new ArrayList<>(2)).add(feed);
+    }
+
+    private void placeTeam(Match target, Boolean toHome, Team team) {
+        if (Boolean.TRUE.equals(toHome)) {
+            target.setHomeTeam(team);
+        } else {
+            target.setAwayTeam(team);
+        }
+    }
+
+    private Match emptyMatch(Tournament tournament, MatchStage stage, int round) {
+        return Match.builder()
+                .tournament(tournament)
+                .state(MatchLifecycleState.CREATED)
+                .round(round)
+                .stage(stage)
+                .isBye(false)
+                .build();
+    }
+
+    /**
+     * Play order of upper round r: round 1 first, later rounds alongside the lower rounds they feed.
+     */
+    private int upperPlayRound(int r) {
+        return r == 1 ? 1 : 2 * r - 2;
+    }
+
+    private void addPlacement(List<TeamStanding> placements, Set<Long> placedTeamIds, Team team) {
+        if (team == null || !placedTeamIds.add(team.getId())) {
+            return;
+        }
+        TeamStanding standing = new TeamStanding(team.getId(), team.getName());
+        standing.setPosition(placements.size() + 1);
+        placements.add(standing);
+    }
+}
@@ -3,16 +3,14 @@ package com.chempionat.bot.application.service;
 import com.chempionat.bot.domain.model.Match;
 import org.springframework.stereotype.Component;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
 
 /**
  * Renders tournament fixtures/rounds as a dark-themed PNG image.
@@ -26,6 +24,10 @@ public class FixturesImageRenderer extends ImageRenderer {
     
     private static final int FIXTURE_HEIGHT = 65;
     private static final int ROUND_HEADER_HEIGHT = 45;
+
+    // Static layer layout codes
+    private static final char LAYOUT_ROUND = 'R';
+    private static final char LAYOUT_MATCH = 'M';
     
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
@@ -35,6 +37,10 @@ public class FixturesImageRenderer extends ImageRenderer {
     private static final Color FT_COLOR = new Color(0x00, 0xff, 0x88);
     private static final Color SCHEDULED_COLOR = new Color(0x88, 0x88, 0x88);
 
+    public FixturesImageRenderer(PngEncoder pngEncoder) {
+        super(pngEncoder);
+    }
+
     public void setItemsPerPage(int itemsPerPage) {
         this.itemsPerPage = itemsPerPage;
     }
@@ -48,24 +54,26 @@ public class FixturesImageRenderer extends ImageRenderer {
      * @return PNG image as byte array
      */
     public byte[] render(String tournamentName, List<Match> matches, int page) throws IOException {
-        // Group matches by round
-        Map<Integer, List<Match>> matchesByRound = matches.stream()
-                .filter(m -> m.getRound() != null)
-                .sorted(Comparator.comparing(Match::getRound)
-                        .thenComparing(m -> m.getScheduledTime() != null ? m.getScheduledTime() : LocalDateTime.MAX))
-                .collect(Collectors.groupingBy(Match::getRound, LinkedHashMap::new, Collectors.toList()));
+        List<List<Object>> pages = paginate(matches);
+        return renderPage(tournamentName, pages, Math.max(0, Math.min(page, pages.size() - 1)));
+    }
 
-        // Flatten to list for pagination
-        List<Object> items = new ArrayList<>();
-        for (Map.Entry<Integer, List<Match>> entry : matchesByRound.entrySet()) {
-            items.add("ROUND:" + entry.getKey());
-            items.addAll(entry.getValue());
+    /**
+     * One render per page, in page order, sharing a single pass over the matches.
+     */
+    public List<Callable<byte[]>> pageRenders(String tournamentName, List<Match> matches) {
+        List<List<Object>> pages = paginate(matches);
+        List<Callable<byte[]>> renders = new ArrayList<>(pages.size());
+        for (int page = 0; page < pages.size(); page++) {
+            int pageIndex = page;
+            renders.add(() -> renderPage(tournamentName, pages, pageIndex));
         }
+        return renders;
+    }
 
-        int totalPages = calculateTotalPages(items);
-        page = Math.max(0, Math.min(page, totalPages - 1));
-
-        List<Object> pageItems = getPageItems(items, page);
+    private byte[] renderPage(String tournamentName, List<List<Object>> pages, int page) throws IOException {
+        int totalPages = pages.size();
+        List<Object> pageItems = pages.get(page);
 
         // Calculate image height
         int headerCardHeight = 90;
@@ -73,11 +81,11 @@ public class FixturesImageRenderer extends ImageRenderer {
         int footerHeight = 50;
         int totalHeight = headerCardHeight + contentHeight + footerHeight + PADDING * 2;
 
-        BufferedImage image = createImage(totalHeight);
-        Graphics2D g2d = image.createGraphics();
-
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        // Card, round header bars and row stripes depend only on the sequence of item kinds
+        String layout = layoutOf(pageItems);
+        BufferedImage image = createImageFromLayer("fixtures:" + layout, IMAGE_WIDTH, totalHeight,
+                layer -> drawStaticLayer(layer, layout));
+        Graphics2D g2d = createGraphics(image);
 
         int y = PADDING;
 
@@ -113,11 +121,10 @@ public class FixturesImageRenderer extends ImageRenderer {
         int footerHeight = 50;
         int totalHeight = headerCardHeight + contentHeight + footerHeight + PADDING * 2;
 
-        BufferedImage image = createImage(totalHeight);
-        Graphics2D g2d = image.createGraphics();
-
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        String layout = LAYOUT_ROUND + String.valueOf(LAYOUT_MATCH).repeat(pageMatches.size());
+        BufferedImage image = createImageFromLayer("fixtures:" + layout, IMAGE_WIDTH, totalHeight,
+                layer -> drawStaticLayer(layer, layout));
+        Graphics2D g2d = createGraphics(image);
 
         int y = PADDING;
 
@@ -130,7 +137,7 @@ public class FixturesImageRenderer extends ImageRenderer {
         // Draw fixtures
         for (int i = 0; i < pageMatches.size(); i++) {
             Match match = pageMatches.get(i);
-            drawFixture(g2d, match, y, i % 2 == 0);
+            drawFixture(g2d, match, y);
             y += FIXTURE_HEIGHT;
         }
 
@@ -143,16 +150,45 @@ public class FixturesImageRenderer extends ImageRenderer {
         return toBytes(image);
     }
 
-    private int drawHeaderCard(Graphics2D g2d, String tournamentName, int currentPage, int totalPages, int y) {
+    /**
+     * Layout key of a page: one {@link #LAYOUT_ROUND} per round header, one {@link #LAYOUT_MATCH} per fixture.
+     */
+    private String layoutOf(List<Object> items) {
+        StringBuilder layout = new StringBuilder(items.size());
+        for (Object item : items) {
+            layout.append(item instanceof Match ? LAYOUT_MATCH : LAYOUT_ROUND);
+        }
+        return layout.toString();
+    }
+
+    /**
+     * Data-independent part of a page: header card, round header bars, fixture row stripes and borders.
+     */
+    private void drawStaticLayer(Graphics2D g2d, String layout) {
+        int y = PADDING;
         g2d.setColor(HEADER_BG_COLOR);
         g2d.fillRoundRect(PADDING, y, IMAGE_WIDTH - PADDING * 2, 70, 15, 15);
+        y += 80;
+
+        int matchIdx = 0;
+        for (int i = 0; i < layout.length(); i++) {
+            if (layout.charAt(i) == LAYOUT_ROUND) {
+                drawRoundHeaderBackground(g2d, y);
+                y += ROUND_HEADER_HEIGHT;
+            } else {
+                drawFixtureBackground(g2d, y, matchIdx++ % 2 == 0);
+                y += FIXTURE_HEIGHT;
+            }
+        }
+    }
 
+    private int drawHeaderCard(Graphics2D g2d, String tournamentName, int currentPage, int totalPages, int y) {
         g2d.setFont(TITLE_FONT);
         g2d.setColor(TEXT_COLOR);
         String title = tournamentName + " — Fixtures";
         drawLeftText(g2d, title, PADDING + 20, y + 42);
 
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 16));
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 16));
         g2d.setColor(HEADER_TEXT_COLOR);
         String pageText = "Page " + currentPage + "/" + totalPages;
         drawRightText(g2d, pageText, PADDING, y + 42, IMAGE_WIDTH - PADDING * 2 - 20);
@@ -161,15 +197,12 @@ public class FixturesImageRenderer extends ImageRenderer {
     }
 
     private int drawHeaderCardForRound(Graphics2D g2d, String tournamentName, int round, int currentPage, int totalPages, int y) {
-        g2d.setColor(HEADER_BG_COLOR);
-        g2d.fillRoundRect(PADDING, y, IMAGE_WIDTH - PADDING * 2, 70, 15, 15);
-
         g2d.setFont(TITLE_FONT);
         g2d.setColor(TEXT_COLOR);
         String title = tournamentName + " — Round " + round;
         drawLeftText(g2d, title, PADDING + 20, y + 42);
 
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 16));
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 16));
         g2d.setColor(HEADER_TEXT_COLOR);
         String pageText = "Page " + currentPage + "/" + totalPages;
         drawRightText(g2d, pageText, PADDING, y + 42, IMAGE_WIDTH - PADDING * 2 - 20);
@@ -178,75 +211,37 @@ public class FixturesImageRenderer extends ImageRenderer {
     }
 
     /**
-     * Get items for a specific page, ensuring round headers are properly placed.
+     * Group matches by round and split them into pages of {@code itemsPerPage} matches.
      * If a round is split across pages, the round header is repeated on each page.
      */
-    private List<Object> getPageItems(List<Object> items, int page) {
-        // First, organize items into rounds
-        List<RoundGroup> roundGroups = new ArrayList<>();
-        RoundGroup currentGroup = null;
-        
-        for (Object item : items) {
-            if (item instanceof String s && s.startsWith("ROUND:")) {
-                int roundNum = Integer.parseInt(s.substring(6));
-                currentGroup = new RoundGroup(roundNum);
-                roundGroups.add(currentGroup);
-            } else if (item instanceof Match && currentGroup != null) {
-                currentGroup.matches.add((Match) item);
-            }
-        }
-        
-        // Now paginate: each page has itemsPerPage matches maximum
-        // Round headers are added when a round's matches appear on the page
-        List<Object> result = new ArrayList<>();
-        int matchesSeen = 0;
-        int pageStart = page * itemsPerPage;
-        int pageEnd = pageStart + itemsPerPage;
-        
-        for (RoundGroup group : roundGroups) {
-            boolean roundHeaderAddedForThisPage = false;
-            
-            for (Match match : group.matches) {
-                if (matchesSeen >= pageStart && matchesSeen < pageEnd) {
-                    // Add round header if this is the first match of this round on this page
-                    if (!roundHeaderAddedForThisPage) {
-                        result.add("ROUND:" + group.roundNumber);
-                        roundHeaderAddedForThisPage = true;
-                    }
-                    result.add(match);
-                }
-                matchesSeen++;
-                
-                // Stop if we've filled this page
-                if (matchesSeen >= pageEnd) {
-                    break;
-                }
+    private List<List<Object>> paginate(List<Match> matches) {
+        List<Match> sorted = matches.stream()
+                .filter(m -> m.getRound() != null)
+                .sorted(Comparator.comparing(Match::getRound)
+                        .thenComparing(m -> m.getScheduledTime() != null ? m.getScheduledTime() : LocalDateTime.MAX))
+                .toList();
+
+        List<List<Object>> pages = new ArrayList<>();
+        List<Object> page = new ArrayList<>();
+        int pageMatches = 0;
+        Integer pageRound = null;
+        for (Match match : sorted) {
+            if (pageMatches == itemsPerPage) {
+                pages.add(page);
+                page = new ArrayList<>();
+                pageMatches = 0;
+                pageRound = null;
             }
-            
-            // Stop iterating rounds if we've filled this page
-            if (matchesSeen >= pageEnd) {
-                break;
+            // Round header when a round's first match on this page appears
+            if (!match.getRound().equals(pageRound)) {
+                page.add("ROUND:" + match.getRound());
+                pageRound = match.getRound();
             }
+            page.add(match);
+            pageMatches++;
         }
-        
-        return result;
-    }
-    
-    /**
-     * Helper class to group matches by round.
-     */
-    private static class RoundGroup {
-        final int roundNumber;
-        final List<Match> matches = new ArrayList<>();
-        
-        RoundGroup(int roundNumber) {
-            this.roundNumber = roundNumber;
-        }
-    }
-
-    private int calculateTotalPages(List<Object> items) {
-        long matchCount = items.stream().filter(i -> i instanceof Match).count();
-        return Math.max(1, (int) Math.ceil((double) matchCount / itemsPerPage));
+        pages.add(page);
+        return pages;
     }
 
     private int calculateContentHeight(List<Object> items) {
@@ -262,40 +257,46 @@ public class FixturesImageRenderer extends ImageRenderer {
     }
 
     private int drawContent(Graphics2D g2d, List<Object> items, int y) {
-        int matchIdx = 0;
         for (Object item : items) {
             if (item instanceof String s && s.startsWith("ROUND:")) {
                 int round = Integer.parseInt(s.substring(6));
                 y = drawRoundHeader(g2d, round, y);
             } else if (item instanceof Match match) {
-                drawFixture(g2d, match, y, matchIdx % 2 == 0);
+                drawFixture(g2d, match, y);
                 y += FIXTURE_HEIGHT;
-                matchIdx++;
             }
         }
         return y;
     }
 
-    private int drawRoundHeader(Graphics2D g2d, int round, int y) {
+    private void drawRoundHeaderBackground(Graphics2D g2d, int y) {
         g2d.setColor(new Color(0x0f, 0x0f, 0x23));
         g2d.fillRect(PADDING, y, IMAGE_WIDTH - PADDING * 2, ROUND_HEADER_HEIGHT);
 
+        g2d.setColor(BORDER_COLOR);
+        g2d.drawLine(PADDING, y + ROUND_HEADER_HEIGHT - 1, IMAGE_WIDTH - PADDING, y + ROUND_HEADER_HEIGHT - 1);
+    }
+
+    private int drawRoundHeader(Graphics2D g2d, int round, int y) {
         g2d.setFont(HEADER_FONT);
         g2d.setColor(HEADER_TEXT_COLOR);
         int textY = y + (ROUND_HEADER_HEIGHT + g2d.getFontMetrics().getAscent()) / 2 - 5;
         drawCenteredText(g2d, "⚽ Round " + round, 0, textY, IMAGE_WIDTH);
 
-        g2d.setColor(BORDER_COLOR);
-        g2d.drawLine(PADDING, y + ROUND_HEADER_HEIGHT - 1, IMAGE_WIDTH - PADDING, y + ROUND_HEADER_HEIGHT - 1);
-
         return y + ROUND_HEADER_HEIGHT;
     }
 
-    private void drawFixture(Graphics2D g2d, Match match, int y, boolean isEven) {
+    private void drawFixtureBackground(Graphics2D g2d, int y, boolean isEven) {
         // Row background
         g2d.setColor(isEven ? ROW_EVEN_COLOR : ROW_ODD_COLOR);
         g2d.fillRect(PADDING, y, IMAGE_WIDTH - PADDING * 2, FIXTURE_HEIGHT);
 
+        // Bottom border
+        g2d.setColor(BORDER_COLOR);
+        g2d.drawLine(PADDING, y + FIXTURE_HEIGHT - 1, IMAGE_WIDTH - PADDING, y + FIXTURE_HEIGHT - 1);
+    }
+
+    private void drawFixture(Graphics2D g2d, Match match, int y) {
         // Handle bye matches
         if (match.getIsBye() != null && match.getIsBye()) {
             g2d.setFont(DATA_FONT);
@@ -306,10 +307,6 @@ public class FixturesImageRenderer extends ImageRenderer {
         } else {
             drawRegularFixture(g2d, match, y);
         }
-
-        // Bottom border
-        g2d.setColor(BORDER_COLOR);
-        g2d.drawLine(PADDING, y + FIXTURE_HEIGHT - 1, IMAGE_WIDTH - PADDING, y + FIXTURE_HEIGHT - 1);
     }
 
     private void drawRegularFixture(Graphics2D g2d, Match match, int y) {
@@ -343,9 +340,8 @@ public class FixturesImageRenderer extends ImageRenderer {
             scoreColor = SCHEDULED_COLOR;
         }
         
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 18));
-        FontMetrics scoreFm = g2d.getFontMetrics();
-        int scoreWidth = scoreFm.stringWidth(scoreOrVs);
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 18));
+        int scoreWidth = FontRegistry.advances(g2d.getFontMetrics()).stringWidth(scoreOrVs);
         int scoreMargin = 25; // margin between score and team names
         
         // Team areas - dynamically calculated based on score position
@@ -355,7 +351,7 @@ public class FixturesImageRenderer extends ImageRenderer {
         int awayTeamWidth = contentStartX + contentWidth - awayTeamStartX;
         
         // Draw time
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 14));
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 14));
         g2d.setColor(new Color(0x88, 0x88, 0xaa));
         String time = match.getScheduledTime() != null ? match.getScheduledTime().format(TIME_FORMAT) : "--:--";
         drawLeftText(g2d, time, timeX, textY);
@@ -364,12 +360,12 @@ public class FixturesImageRenderer extends ImageRenderer {
         g2d.setFont(DATA_FONT);
         g2d.setColor(TEXT_COLOR);
         String homeTeam = truncateText(getTeamName(match.getHomeTeam()), homeTeamWidth - 10, g2d.getFontMetrics());
-        int homeTeamTextWidth = g2d.getFontMetrics().stringWidth(homeTeam);
+        int homeTeamTextWidth = FontRegistry.advances(g2d.getFontMetrics()).stringWidth(homeTeam);
         int homeTeamX = homeTeamEndX - homeTeamTextWidth;
         g2d.drawString(homeTeam, homeTeamX, textY);
         
         // Draw score (centered)
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 18));
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 18));
         g2d.setColor(scoreColor);
         int scoreX = scoreCenterX - scoreWidth / 2;
         g2d.drawString(scoreOrVs, scoreX, textY);
@@ -385,7 +381,7 @@ public class FixturesImageRenderer extends ImageRenderer {
         if (status == MatchStatus.LIVE) {
             drawLiveBadge(g2d, statusX, y + (FIXTURE_HEIGHT - 20) / 2);
         } else if (status == MatchStatus.FT) {
-            g2d.setFont(new Font("SansSerif", Font.BOLD, 12));
+            g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 12));
             g2d.setColor(FT_COLOR);
             drawLeftText(g2d, "FT", statusX, textY);
         }
@@ -396,7 +392,7 @@ public class FixturesImageRenderer extends ImageRenderer {
         g2d.setColor(LIVE_COLOR);
         g2d.fillRoundRect(x, y, 50, 20, 10, 10);
         
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 11));
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 11));
         g2d.setColor(Color.WHITE);
         drawCenteredText(g2d, "LIVE", x, y + 15, 50);
     }
@@ -435,16 +431,17 @@ public class FixturesImageRenderer extends ImageRenderer {
         return MatchStatus.SCHEDULED;
     }
 
-    private byte[] toBytes(BufferedImage image) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "PNG", baos);
-        return baos.toByteArray();
-    }
-
     public int getTotalPages(List<Match> matches) {
         return Math.max(1, (int) Math.ceil((double) matches.size() / itemsPerPage));
     }
 
+    /**
+     * Page that shows the match at the given list position.
+     */
+    public int getPageOf(int index) {
+        return index / itemsPerPage;
+    }
+
     /**
      * Generate caption with match count summary (excluding bye matches).
      */
@@ -0,0 +1,124 @@
+package com.chempionat.bot.application.service;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared fonts and glyph advance widths for the image renderers.
+ * Fonts are created once per style/size instead of inside drawing loops, and text widths
+ * are summed from cached per-character advances instead of asking the font metrics each time.
+ */
+public final class FontRegistry {
+
+    private static final String FAMILY = "SansSerif";
+
+    /**
+     * Characters below this code point (Latin, Cyrillic and common punctuation) get array slots;
+     * anything else is measured through the font metrics and kept in a map.
+     */
+    private static final int DENSE_RANGE = 0x500;
+
+    private static final Map<Integer, Font> FONTS = new ConcurrentHashMap<>();
+    private static final Map<AdvanceKey, GlyphAdvances> ADVANCES = new ConcurrentHashMap<>();
+
+    private FontRegistry() {
+    }
+
+    /**
+     * Shared SansSerif font, e.g. {@code sansSerif(Font.BOLD, 16)}.
+     */
+    public static Font sansSerif(int style, int size) {
+        return FONTS.computeIfAbsent(style << 16 | size, key -> new Font(FAMILY, style, size));
+    }
+
+    /**
+     * Glyph advances for the font and render context of the given metrics.
+     */
+    public static GlyphAdvances advances(FontMetrics fm) {
+        return ADVANCES.computeIfAbsent(new AdvanceKey(fm.getFont(), fm.getFontRenderContext()),
+                key -> new GlyphAdvances(fm));
+    }
+
+    private record AdvanceKey(Font font, FontRenderContext frc) {
+    }
+
+    /**
+     * Per-font advance width cache. Thread-safe: racing writers store the same value.
+     */
+    public static final class GlyphAdvances {
+
+        private final FontMetrics fm;
+        private final int[] dense = new int[DENSE_RANGE];
+        private final Map<Integer, Integer> sparse = new ConcurrentHashMap<>();
+
+        private GlyphAdvances(FontMetrics fm) {
+            this.fm = fm;
+            Arrays.fill(dense, -1);
+        }
+
+        /**
+         * Advance width of a single code point.
+         */
+        public int advance(int codePoint) {
+            if (codePoint < DENSE_RANGE) {
+                int width = dense[codePoint];
+                if (width < 0) {
+                    width = fm.charWidth(codePoint);
+                    dense[codePoint] = width;
+                }
+                return width;
+            }
+            return sparse.computeIfAbsent(codePoint, cp -> fm.stringWidth(new String(Character.toChars(cp))));
+        }
+
+        /**
+         * Width of the whole string.
+         */
+        public int stringWidth(String text) {
+            int width = 0;
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                width += advance(codePoint);
+                i += Character.charCount(codePoint);
+            }
+            return width;
+        }
+
+        /**
+         * Longest prefix of {@code text} (never splitting a surrogate pair) that fits in
+         * {@code maxWidth}, found by binary search over cumulative advances.
+         *
+         * @return length of the prefix in chars
+         */
+        public int fittingPrefix(String text, int maxWidth) {
+            int[] ends = new int[text.length() + 1];
+            int[] widths = new int[text.length() + 1];
+            int count = 0;
+            int width = 0;
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                i += Character.charCount(codePoint);
+                width += advance(codePoint);
+                count++;
+                ends[count] = i;
+                widths[count] = width;
+            }
+
+            // Cumulative widths never decrease, so the last fitting index can be bisected
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (widths[mid] <= maxWidth) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return ends[low];
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.MatchStage;
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.domain.repository.TeamRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Group stage + knockout format.
+ * Splits teams into round-robin groups (scheduled through RoundService) and, once every
+ * group match is finished, seeds the top finishers into a SingleEliminationService bracket.
+ */
+@Slf4j
+@Service
+public class GroupStageService {
+
+    private static final int DEFAULT_GROUP_SIZE = 4;
+    private static final int DEFAULT_ADVANCE_PER_GROUP = 2;
+    private static final int MIN_TEAMS = 4;
+
+    private final MatchRepository matchRepository;
+    private final TeamRepository teamRepository;
+    private final RoundService roundService;
+    private final SingleEliminationService singleEliminationService;
+    private final TournamentLockService tournamentLockService;
+
+    public GroupStageService(
+            MatchRepository matchRepository,
+            TeamRepository teamRepository,
+            RoundService roundService,
+            @Lazy SingleEliminationService singleEliminationService,
+            TournamentLockService tournamentLockService) {
+        this.matchRepository = matchRepository;
+        this.teamRepository = teamRepository;
+        this.roundService = roundService;
+        this.singleEliminationService = singleEliminationService;
+        this.tournamentLockService = tournamentLockService;
+    }
+
+    /**
+     * Split teams into groups and generate the round-robin schedule of every group.
+     * Round numbers are shared between groups so all groups play round 1 together.
+     */
+    @Transactional
+    public List<Match> generateGroupStage(Tournament tournament, List<Team> teams) {
+        if (teams.size() < MIN_TEAMS) {
+            throw new IllegalStateException("At least " + MIN_TEAMS + " teams required for group stage");
+        }
+
+        int groupCount = resolveGroupCount(tournament, teams.size());
+        tournament.setGroupCount(groupCount);
+        if (tournament.getAdvancePerGroup() == null) {
+            tournament.setAdvancePerGroup(DEFAULT_ADVANCE_PER_GROUP);
+        }
+
+        List<Team> shuffled = new ArrayList<>(teams);
+        Collections.shuffle(shuffled);
+
+        Map<Integer, List<Team>> groups = new TreeMap<>();
+        for (int i = 0; i < shuffled.size(); i++) {
+            int group = i % groupCount + 1;
+            shuffled.get(i).setGroupNumber(group);
+            groups.computeIfAbsent(group, k -> new ArrayList<>()).add(shuffled.get(i));
+        }
+        teamRepository.saveAll(shuffled);
+
+        int numberOfRounds = tournament.getNumberOfRounds() != null ? tournament.getNumberOfRounds() : 1;
+        List<Match> matches = new ArrayList<>();
+        for (List<Team> groupTeams : groups.values()) {
+            List<Match> groupMatches = roundService.generateRoundRobinWithByes(tournament, groupTeams, numberOfRounds);
+            groupMatches.forEach(m -> m.setStage(MatchStage.GROUP_STAGE));
+            matches.addAll(groupMatches);
+        }
+
+        log.info("Generated group stage for tournament {}: {} groups, {} matches",
+                tournament.getId(), groupCount, matches.size());
+        return matches;
+    }
+
+    /**
+     * Compute standings of every group. Groups are independent, so they are ranked in parallel.
+     *
+     * @return standings per group number, best team first
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, List<TeamStanding>> calculateGroupStandings(Tournament tournament) {
+        List<Team> teams = teamRepository.findByTournament(tournament);
+        List<Match> groupMatches = matchRepository.findByTournamentAndStage(tournament, MatchStage.GROUP_STAGE);
+
+        Map<Integer, List<Team>> teamsByGroup = teams.stream()
+                .filter(t -> t.getGroupNumber() != null)
+                .collect(Collectors.groupingBy(Team::getGroupNumber));
+        Map<Long, Integer> groupByTeamId = teams.stream()
+                .filter(t -> t.getGroupNumber() != null)
+                .collect(Collectors.toMap(Team::getId, Team::getGroupNumber));
+        Map<Integer, List<Match>> matchesByGroup = groupMatches.stream()
+                .filter(m -> groupByTeamId.containsKey(m.getHomeTeam().getId()))
+                .collect(Collectors.groupingBy(m -> groupByTeamId.get(m.getHomeTeam().getId())));
+
+        Map<Integer, List<TeamStanding>> standings = new TreeMap<>();
+        teamsByGroup.entrySet().parallelStream()
+                .map(e -> Map.entry(e.getKey(),
+                        rankGroup(e.getValue(), matchesByGroup.getOrDefault(e.getKey(), List.of()))))
+                .sequential()
+                .forEach(e -> standings.put(e.getKey(), e.getValue()));
+        return standings;
+    }
+
+    /**
+     * Group standings flattened into a single table (group A first), with each team
+     * name prefixed by its group so the regular standings renderers can show it.
+     */
+    @Transactional(readOnly = true)
+    public List<TeamStanding> getGroupStageTable(Tournament tournament) {
+        List<TeamStanding> table = new ArrayList<>();
+        calculateGroupStandings(tournament).forEach((group, standings) -> {
+            for (TeamStanding standing : standings) {
+                standing.setTeamName(getGroupName(group) + " · " + standing.getTeamName());
+                table.add(standing);
+            }
+        });
+        return table;
+    }
+
+    /**
+     * Check whether every real group match has a result.
+     */
+    @Transactional(readOnly = true)
+    public boolean isGroupStageComplete(Tournament tournament) {
+        List<Match> groupMatches = matchRepository.findByTournamentAndStage(tournament, MatchStage.GROUP_STAGE);
+        return !groupMatches.isEmpty() && groupMatches.stream()
+                .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
+                .allMatch(m -> m.getHomeScore() != null && m.getAwayScore() != null);
+    }
+
+    /**
+     * Check whether the knockout bracket has already been created.
+     */
+    @Transactional(readOnly = true)
+    public boolean hasKnockoutStarted(Tournament tournament) {
+        return !matchRepository.findByTournamentOrderedByBracketPosition(tournament).isEmpty();
+    }
+
+    /**
+     * Seed the top finishers of every group into the knockout bracket.
+     * Called from the completion pipeline once the group stage is finished; does nothing
+     * if the bracket already exists. The tournament row is locked before the final check,
+     * so concurrent completion checks create one bracket and only the first reports it.
+     *
+     * @return the created first-round bracket matches (empty if nothing was done)
+     */
+    @Transactional
+    public List<Match> advanceToKnockout(Tournament tournament) {
+        if (tournament.getType() != TournamentType.GROUP_KNOCKOUT
+                || hasKnockoutStarted(tournament) || !isGroupStageComplete(tournament)) {
+            return List.of();
+        }
+        tournament = tournamentLockService.lock(tournament);
+        if (hasKnockoutStarted(tournament)) {
+            return List.of();
+        }
+
+        Map<Integer, List<TeamStanding>> standings = calculateGroupStandings(tournament);
+        int advance = tournament.getAdvancePerGroup() != null ? tournament.getAdvancePerGroup() : DEFAULT_ADVANCE_PER_GROUP;
+        List<Team> seeded = seedQualifiers(standings, advance);
+
+        if (seeded.size() < 2) {
+            log.warn("Tournament {}: not enough qualifiers ({}) for knockout", tournament.getId(), seeded.size());
+            return List.of();
+        }
+
+        int firstKnockoutRound = roundService.getMaxRoundNumber(tournament) + 1;
+        List<Match> bracket = singleEliminationService.generateSeededBracket(tournament, seeded, firstKnockoutRound);
+
+        log.info("Tournament {}: {} teams advanced from {} groups to knockout",
+                tournament.getId(), seeded.size(), standings.size());
+        return bracket;
+    }
+
+    /**
+     * Order qualifiers by seed: all group winners first, then runners-up, and so on.
+     * Within the same finishing place, better records get better seeds.
+     * Adjacent seeds from the same group are swapped apart where possible so that
+     * group-mates do not meet again in the first knockout round.
+     */
+    List<Team> seedQualifiers(Map<Integer, List<TeamStanding>> standings, int advancePerGroup) {
+        List<TeamStanding> seeded = new ArrayList<>();
+        for (int place = 0; place < advancePerGroup; place++) {
+            List<TeamStanding> tier = new ArrayList<>();
+            for (List<TeamStanding> group : standings.values()) {
+                if (place < group.size()) {
+                    tier.add(group.get(place));
+                }
+            }
+            Collections.sort(tier);
+            seeded.addAll(tier);
+        }
+
+        List<Team> teams = seeded.stream().map(TeamStanding::getTeam).collect(Collectors.toCollection(ArrayList::new));
+        int bracketSize = singleEliminationService.calculateBracketSize(teams.size());
+        int[] seedOrder = singleEliminationService.buildSeedOrder(bracketSize);
+
+        // Seed pairs that meet in round 1: (order[0], order[1]), (order[2], order[3]), ...
+        for (int i = 0; i < bracketSize; i += 2) {
+            int high = seedOrder[i] - 1;
+            int low = seedOrder[i + 1] - 1;
+            if (low >= teams.size() || !sameGroup(teams.get(high), teams.get(low))) {
+                continue;
+            }
+            // Swap the lower seed with another lower seed that resolves the conflict
+            for (int j = 0; j < bracketSize; j += 2) {
+                int otherHigh = seedOrder[j] - 1;
+                int otherLow = seedOrder[j + 1] - 1;
+                if (j == i || otherLow >= teams.size()) {
+                    continue;
+                }
+                if (!sameGroup(teams.get(high), teams.get(otherLow)) && !sameGroup(teams.get(otherHigh), teams.get(low))) {
+                    Collections.swap(teams, low, otherLow);
+                    break;
+                }
+            }
+        }
+        return teams;
+    }
+
+    /**
+     * Display name of a group: 1 -> "A", 2 -> "B", ...
+     */
+    public String getGroupName(Integer groupNumber) {
+        if (groupNumber == null || groupNumber < 1) {
+            return "?";
+        }
+        return groupNumber <= 26 ? String.valueOf((char) ('A' + groupNumber - 1)) : String.valueOf(groupNumber);
+    }
+
+    private boolean sameGroup(Team a, Team b) {
+        return a.getGroupNumber() != null && a.getGroupNumber().equals(b.getGroupNumber());
+    }
+
+    private int resolveGroupCount(Tournament tournament, int teamCount) {
+        Integer configured = tournament.getGroupCount();
+        if (configured != null && configured > 0 && teamCount / configured >= 2) {
+            return configured;
+        }
+        return Math.max(2, (int) Math.round((double) teamCount / DEFAULT_GROUP_SIZE));
+    }
+
+    /**
+     * Rank one group with the league table rules and number the positions.
+     */
+    private List<TeamStanding> rankGroup(List<Team> teams, List<Match> matches) {
+        List<TeamStanding> ranking = StandingsService.calculateLeagueStandings(teams, matches);
+        for (int i = 0; i < ranking.size(); i++) {
+            ranking.get(i).setPosition(i + 1);
+        }
+        return ranking;
+    }
+}
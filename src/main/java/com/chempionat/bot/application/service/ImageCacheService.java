@@ -5,15 +5,23 @@ import com.chempionat.bot.domain.model.Tournament;
 import com.chempionat.bot.infrastructure.config.CacheConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * Service for generating and caching tournament images.
- * Images are cached by tournament ID, page, and last update time.
+ * Images are cached by tournament ID, page, and the tournament's data version, which increases
+ * after every committed change, so an entry stays valid until the data it shows changes.
+ * Lookups are synchronized per key: concurrent requests for an image being rendered wait for
+ * that render instead of rendering it again. Renders run on the {@link ImageRenderExecutor} pool.
+ * A failed or rejected render throws and caches nothing, so the next request renders again.
  */
 @Slf4j
 @Service
@@ -22,49 +30,184 @@ public class ImageCacheService {
 
     private final StandingsImageRenderer standingsRenderer;
     private final FixturesImageRenderer fixturesRenderer;
+    private final BracketImageRenderer bracketRenderer;
+    private final ImageRenderExecutor renderExecutor;
+    private final CacheManager cacheManager;
 
     /**
      * Get standings image from cache or generate new one.
-     * Cache key includes tournament ID, page, and last updated timestamp.
+     * Cache key includes tournament ID, page, and data version.
      */
-    @Cacheable(value = CacheConfig.IMAGE_CACHE, key = "'standings:' + #tournament.id + ':' + #page + ':' + #tournament.updatedAt?.toLocalDate()")
+    @Cacheable(value = CacheConfig.IMAGE_CACHE, sync = true, key = "'standings:' + #tournament.id + ':' + #page + ':v' + #tournament.dataVersion")
     public byte[] getStandingsImage(Tournament tournament, List<TeamStanding> standings, int page) {
         log.debug("Generating standings image for tournament {} page {}", tournament.getId(), page);
-        try {
-            return standingsRenderer.render(tournament.getName(), standings, page);
-        } catch (Exception e) {
-            log.error("Failed to generate standings image for tournament {}", tournament.getId(), e);
-            return createErrorImage("Failed to generate standings image");
-        }
+        return renderExecutor.render(() -> standingsRenderer.render(tournament.getId(), tournament.getName(), standings, page));
     }
 
     /**
      * Get fixtures image from cache or generate new one.
-     * Cache key includes tournament ID, page, and the latest match update time.
+     * Cache key includes tournament ID, page, and data version.
      */
-    @Cacheable(value = CacheConfig.IMAGE_CACHE, key = "'fixtures:' + #tournament.id + ':' + #page + ':' + #latestUpdate?.toLocalDate()")
-    public byte[] getFixturesImage(Tournament tournament, List<Match> matches, int page, LocalDateTime latestUpdate) {
+    @Cacheable(value = CacheConfig.IMAGE_CACHE, sync = true, key = "'fixtures:' + #tournament.id + ':' + #page + ':v' + #tournament.dataVersion")
+    public byte[] getFixturesImage(Tournament tournament, List<Match> matches, int page) {
         log.debug("Generating fixtures image for tournament {} page {}", tournament.getId(), page);
-        try {
-            return fixturesRenderer.render(tournament.getName(), matches, page);
-        } catch (Exception e) {
-            log.error("Failed to generate fixtures image for tournament {}", tournament.getId(), e);
-            return createErrorImage("Failed to generate fixtures image");
-        }
+        return renderExecutor.render(() -> fixturesRenderer.render(tournament.getName(), matches, page));
     }
 
     /**
      * Get fixtures image for a specific round.
      */
-    @Cacheable(value = CacheConfig.IMAGE_CACHE, key = "'fixtures_round:' + #tournament.id + ':' + #roundNumber + ':' + #page + ':' + #latestUpdate?.toLocalDate()")
-    public byte[] getFixturesRoundImage(Tournament tournament, int roundNumber, List<Match> roundMatches, int page, LocalDateTime latestUpdate) {
+    @Cacheable(value = CacheConfig.IMAGE_CACHE, sync = true, key = "'fixtures_round:' + #tournament.id + ':' + #roundNumber + ':' + #page + ':v' + #tournament.dataVersion")
+    public byte[] getFixturesRoundImage(Tournament tournament, int roundNumber, List<Match> roundMatches, int page) {
         log.debug("Generating fixtures image for tournament {} round {} page {}", tournament.getId(), roundNumber, page);
-        try {
-            return fixturesRenderer.renderRound(tournament.getName(), roundNumber, roundMatches, page);
-        } catch (Exception e) {
-            log.error("Failed to generate fixtures round image for tournament {} round {}", tournament.getId(), roundNumber, e);
-            return createErrorImage("Failed to generate fixtures image");
+        return renderExecutor.render(() -> fixturesRenderer.renderRound(tournament.getName(), roundNumber, roundMatches, page));
+    }
+
+    /**
+     * Get bracket image from cache or generate new one.
+     */
+    @Cacheable(value = CacheConfig.IMAGE_CACHE, sync = true, key = "'bracket:' + #tournament.id + ':v' + #tournament.dataVersion")
+    public byte[] getBracketImage(Tournament tournament, List<Match> bracketMatches) {
+        log.debug("Generating bracket image for tournament {}", tournament.getId());
+        return renderExecutor.render(() -> bracketRenderer.render(tournament.getName(), bracketMatches));
+    }
+
+    /**
+     * Every standings page, rendered in parallel. Shares cache entries with {@link #getStandingsImage}.
+     */
+    public List<byte[]> getAllStandingsImages(Tournament tournament, List<TeamStanding> standings) {
+        List<Callable<byte[]>> renders = standingsRenderer.pageRenders(tournament.getId(), tournament.getName(), standings);
+        List<String> keys = new ArrayList<>(renders.size());
+        for (int page = 0; page < renders.size(); page++) {
+            keys.add(standingsKey(tournament, page));
+        }
+        return getAll(keys, renders);
+    }
+
+    /**
+     * Every fixtures page, rendered in parallel. Shares cache entries with {@link #getFixturesImage}.
+     */
+    public List<byte[]> getAllFixturesImages(Tournament tournament, List<Match> matches) {
+        List<Callable<byte[]>> renders = fixturesRenderer.pageRenders(tournament.getName(), matches);
+        List<String> keys = new ArrayList<>(renders.size());
+        for (int page = 0; page < renders.size(); page++) {
+            keys.add(fixturesKey(tournament, page));
         }
+        return getAll(keys, renders);
+    }
+
+    /**
+     * Whether the bracket is sent as region tiles ({@link #getBracketTiles}) rather than one image.
+     */
+    public boolean isBracketTiled(List<Match> bracketMatches) {
+        return bracketRenderer.shouldRenderRegions(bracketMatches);
+    }
+
+    /**
+     * Every region tile of a large bracket, rendered in parallel.
+     */
+    public List<byte[]> getBracketTiles(Tournament tournament, List<Match> bracketMatches) {
+        List<Callable<byte[]>> renders = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (int tile = 0; tile < bracketRenderer.getRegionTileCount(bracketMatches); tile++) {
+            int tileIndex = tile;
+            renders.add(() -> bracketRenderer.renderRegion(tournament.getName(), bracketMatches, tileIndex));
+            keys.add("bracket:" + tournament.getId() + ":tile" + tile + ":v" + tournament.getDataVersion());
+        }
+        return getAll(keys, renders);
+    }
+
+    /**
+     * Standings page already rendered for the current data, or null. Never renders.
+     */
+    public byte[] getCachedStandingsImage(Tournament tournament, int page) {
+        List<byte[]> cached = getCached(List.of(standingsKey(tournament, page)));
+        return cached != null ? cached.get(0) : null;
+    }
+
+    /**
+     * Fixtures page already rendered for the current data, or null. Never renders.
+     */
+    public byte[] getCachedFixturesImage(Tournament tournament, int page) {
+        List<byte[]> cached = getCached(List.of(fixturesKey(tournament, page)));
+        return cached != null ? cached.get(0) : null;
+    }
+
+    /**
+     * Standings pages already rendered for the current data, or null if any page would have to
+     * be rendered. Never renders, so it is safe to call under load.
+     */
+    public List<byte[]> getCachedStandingsImages(Tournament tournament, int totalPages) {
+        List<String> keys = new ArrayList<>(totalPages);
+        for (int page = 0; page < totalPages; page++) {
+            keys.add(standingsKey(tournament, page));
+        }
+        return getCached(keys);
+    }
+
+    /**
+     * Fixtures pages already rendered for the current data, or null if any page would have to
+     * be rendered. Never renders, so it is safe to call under load.
+     */
+    public List<byte[]> getCachedFixturesImages(Tournament tournament, int totalPages) {
+        List<String> keys = new ArrayList<>(totalPages);
+        for (int page = 0; page < totalPages; page++) {
+            keys.add(fixturesKey(tournament, page));
+        }
+        return getCached(keys);
+    }
+
+    private List<byte[]> getCached(List<String> keys) {
+        Cache cache = cacheManager.getCache(CacheConfig.IMAGE_CACHE);
+        if (cache == null) {
+            return null;
+        }
+        List<byte[]> images = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            byte[] image = cache.get(key, byte[].class);
+            if (image == null) {
+                return null;
+            }
+            images.add(image);
+        }
+        return images;
+    }
+
+    private static String standingsKey(Tournament tournament, int page) {
+        return "standings:" + tournament.getId() + ":" + page + ":v" + tournament.getDataVersion();
+    }
+
+    private static String fixturesKey(Tournament tournament, int page) {
+        return "fixtures:" + tournament.getId() + ":" + page + ":v" + tournament.getDataVersion();
+    }
+
+    /**
+     * Cached images for the keys, rendering the missing ones together on the render pool.
+     * Keys must match the {@code @Cacheable} keys of the single-image methods. Unlike those,
+     * a page already being rendered by another request is rendered again rather than awaited.
+     */
+    private List<byte[]> getAll(List<String> keys, List<Callable<byte[]>> renders) {
+        Cache cache = cacheManager.getCache(CacheConfig.IMAGE_CACHE);
+        byte[][] images = new byte[keys.size()][];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            images[i] = cache != null ? cache.get(keys.get(i), byte[].class) : null;
+            if (images[i] == null) {
+                missing.add(i);
+            }
+        }
+        if (!missing.isEmpty()) {
+            log.debug("Rendering {} of {} pages for {}", missing.size(), keys.size(), keys.get(0));
+            List<byte[]> rendered = renderExecutor.renderAll(missing.stream().map(renders::get).toList());
+            for (int i = 0; i < missing.size(); i++) {
+                int index = missing.get(i);
+                images[index] = rendered.get(i);
+                if (cache != null) {
+                    cache.put(keys.get(index), images[index]);
+                }
+            }
+        }
+        return Arrays.asList(images);
     }
 
     /**
@@ -81,17 +224,6 @@ public class ImageCacheService {
         return fixturesRenderer.generateCaption(matches, roundNumber);
     }
 
-    /**
-     * Get the latest update time from a list of matches.
-     */
-    public LocalDateTime getLatestMatchUpdate(List<Match> matches) {
-        return matches.stream()
-                .map(Match::getUpdatedAt)
-                .filter(java.util.Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now());
-    }
-
     public int getStandingsTotalPages(int totalItems) {
         return standingsRenderer.getTotalPages(totalItems);
     }
@@ -101,25 +233,14 @@ public class ImageCacheService {
     }
 
     /**
-     * Create a simple error image when rendering fails.
-     */
-    private byte[] createErrorImage(String message) {
-        try {
-            java.awt.image.BufferedImage image = new java.awt.image.BufferedImage(400, 100, java.awt.image.BufferedImage.TYPE_INT_RGB);
-            java.awt.Graphics2D g2d = image.createGraphics();
-            g2d.setColor(new java.awt.Color(0x1a, 0x1a, 0x2e));
-            g2d.fillRect(0, 0, 400, 100);
-            g2d.setColor(java.awt.Color.RED);
-            g2d.setFont(new java.awt.Font("SansSerif", java.awt.Font.BOLD, 14));
-            g2d.drawString(message, 50, 55);
-            g2d.dispose();
-            
-            java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
-            javax.imageio.ImageIO.write(image, "PNG", baos);
-            return baos.toByteArray();
-        } catch (Exception e) {
-            log.error("Failed to create error image", e);
-            return new byte[0];
+     * Fixtures page that shows the match, or the first page if it is not in the list.
+     */
+    public int getFixturesPageOf(List<Match> matches, Long matchId) {
+        for (int i = 0; i < matches.size(); i++) {
+            if (matchId.equals(matches.get(i).getId())) {
+                return fixturesRenderer.getPageOf(i);
+            }
         }
+        return 0;
     }
 }
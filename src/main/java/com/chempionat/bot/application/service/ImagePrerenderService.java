@@ -0,0 +1,175 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.application.event.MatchResultChangedEvent;
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Tournament;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the images a result change makes stale (first standings page, the round page
+ * showing the match, and the bracket) in the background after commit, so the views that
+ * follow an approval are served from the image cache.
+ * <p>
+ * Work is queued per tournament: changes arriving while a tournament is still queued are
+ * merged into that task. The queue is bounded; when it is full, new work is dropped and the
+ * images are rendered on demand as before.
+ */
+@Slf4j
+@Service
+public class ImagePrerenderService {
+
+    private static final Set<TournamentType> BRACKET_TYPES = EnumSet.of(
+            TournamentType.PLAYOFF, TournamentType.GROUP_KNOCKOUT, TournamentType.DOUBLE_ELIMINATION);
+
+    private final TournamentService tournamentService;
+    private final StandingsService standingsService;
+    private final RoundService roundService;
+    private final SingleEliminationService singleEliminationService;
+    private final ImageCacheService imageCacheService;
+    private final boolean enabled;
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Tournament id to the changed matches (match id to round) not yet rendered.
+     * Only mutated inside compute/remove, so a queued task never misses a merged change.
+     */
+    private final ConcurrentHashMap<Long, Map<Long, Integer>> pending = new ConcurrentHashMap<>();
+
+    private final Counter submitted;
+    private final Counter merged;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer renderTimer;
+
+    public ImagePrerenderService(TournamentService tournamentService,
+                                 StandingsService standingsService,
+                                 RoundService roundService,
+                                 SingleEliminationService singleEliminationService,
+                                 ImageCacheService imageCacheService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${image.prerender.enabled:true}") boolean enabled,
+                                 @Qualifier("prerenderExecutor") ThreadPoolTaskExecutor executor) {
+        this.tournamentService = tournamentService;
+        this.standingsService = standingsService;
+        this.roundService = roundService;
+        this.singleEliminationService = singleEliminationService;
+        this.imageCacheService = imageCacheService;
+        this.enabled = enabled;
+        this.executor = executor;
+
+        this.submitted = counter(meterRegistry, "submitted");
+        this.merged = counter(meterRegistry, "merged");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.failed = counter(meterRegistry, "failed");
+        this.renderTimer = Timer.builder("image.prerender.duration")
+                .description("Time to pre-render the images of one tournament")
+                .register(meterRegistry);
+        Gauge.builder("image.prerender.queue", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Tournaments waiting for pre-rendering")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("image.prerender").tag("result", result)
+                .description("Pre-render requests by outcome")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultChanged(MatchResultChangedEvent event) {
+        if (enabled) {
+            submit(event.getTournamentId(), event.getMatchId(), event.getRound());
+        }
+    }
+
+    /**
+     * Queue pre-rendering for a changed match, merging with work already queued for its tournament.
+     */
+    public void submit(Long tournamentId, Long matchId, Integer round) {
+        boolean[] queued = {false};
+        pending.compute(tournamentId, (id, matches) -> {
+            if (matches == null) {
+                matches = new HashMap<>();
+                queued[0] = true;
+            }
+            matches.put(matchId, round);
+            return matches;
+        });
+        if (!queued[0]) {
+            merged.increment();
+            return;
+        }
+
+        try {
+            executor.execute(() -> run(tournamentId));
+            submitted.increment();
+        } catch (TaskRejectedException e) {
+            pending.remove(tournamentId);
+            dropped.increment();
+            log.debug("Pre-render queue full, tournament {} will render on demand", tournamentId);
+        }
+    }
+
+    private void run(Long tournamentId) {
+        Map<Long, Integer> changedMatches = pending.remove(tournamentId);
+        if (changedMatches == null) {
+            return;
+        }
+        try {
+            renderTimer.record(() -> tournamentService.getTournamentById(tournamentId)
+                    .ifPresent(tournament -> render(tournament, changedMatches)));
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Failed to pre-render images for tournament {}", tournamentId, e);
+        }
+    }
+
+    private void render(Tournament tournament, Map<Long, Integer> changedMatches) {
+        List<TeamStanding> standings = standingsService.calculateStandings(tournament);
+        if (!standings.isEmpty()) {
+            imageCacheService.getStandingsImage(tournament, standings, 0);
+        }
+
+        Map<Integer, List<Long>> matchesByRound = new HashMap<>();
+        changedMatches.forEach((matchId, round) -> {
+            if (round != null) {
+                matchesByRound.computeIfAbsent(round, r -> new ArrayList<>()).add(matchId);
+            }
+        });
+        matchesByRound.forEach((round, matchIds) -> {
+            List<Match> roundMatches = roundService.getMatchesForRoundByKickoff(tournament, round);
+            if (roundMatches.isEmpty()) {
+                return;
+            }
+            Set<Integer> pages = new TreeSet<>();
+            matchIds.forEach(matchId -> pages.add(imageCacheService.getFixturesPageOf(roundMatches, matchId)));
+            pages.forEach(page -> imageCacheService.getFixturesRoundImage(tournament, round, roundMatches, page));
+        });
+
+        if (BRACKET_TYPES.contains(tournament.getType())) {
+            List<Match> bracketMatches = singleEliminationService.getBracketTree(tournament);
+            if (!bracketMatches.isEmpty()) {
+                if (imageCacheService.isBracketTiled(bracketMatches)) {
+                    imageCacheService.getBracketTiles(tournament, bracketMatches);
+                } else {
+                    imageCacheService.getBracketImage(tournament, bracketMatches);
+                }
+            }
+        }
+        log.debug("Pre-rendered images for tournament {} (v{})", tournament.getId(), tournament.getDataVersion());
+    }
+}
@@ -0,0 +1,193 @@
+package com.chempionat.bot.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs image renders on a dedicated worker pool sized to the CPU count, so heavy renders
+ * cannot occupy every update-handling thread or allocate canvases without limit.
+ * <p>
+ * At most {@code threads + queue-capacity} renders are admitted at once. Further renders are
+ * rejected at once with a {@link RejectedExecutionException} rather than parking the calling
+ * update handler; nothing is cached for a rejected render.
+ */
+@Slf4j
+@Component
+public class ImageRenderExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final int capacity;
+
+    private final Timer queueTimer;
+    private final Timer renderTimer;
+    private final Counter rejected;
+
+    public ImageRenderExecutor(MeterRegistry meterRegistry,
+                               @Value("${image.render.threads:0}") int threads,
+                               @Value("${image.render.queue-capacity:16}") int queueCapacity) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("Render queue capacity must not be negative: " + queueCapacity);
+        }
+        this.capacity = workers + queueCapacity;
+        this.slots = new Semaphore(capacity);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Admission is bounded by the semaphore, so the queue itself never grows past queueCapacity
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.queueTimer = Timer.builder("image.render.queue.wait")
+                .description("Time a render waited for a worker")
+                .register(meterRegistry);
+        this.renderTimer = Timer.builder("image.render.duration")
+                .description("Time to render and encode an image")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("image.render.rejected")
+                .description("Renders rejected because the render pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("image.render.queue", executor, e -> e.getQueue().size())
+                .description("Renders waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("image.render.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Renders in progress")
+                .register(meterRegistry);
+        Gauge.builder("image.raster.pool.bytes", RasterPool::getPooledBytes)
+                .baseUnit("bytes")
+                .description("Bytes held by pooled render canvases")
+                .register(meterRegistry);
+        FunctionCounter.builder("image.raster.pool", RasterPool.class, pool -> RasterPool.getHits())
+                .tag("result", "hit")
+                .description("Render canvases taken from the pool")
+                .register(meterRegistry);
+        FunctionCounter.builder("image.raster.pool", RasterPool.class, pool -> RasterPool.getMisses())
+                .tag("result", "miss")
+                .description("Render canvases newly allocated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Render on the pool and wait for the result.
+     *
+     * @throws RejectedExecutionException if every slot is taken
+     */
+    public byte[] render(Callable<byte[]> render) {
+        return await(submit(render));
+    }
+
+    /**
+     * Render several images in parallel on the pool and wait for all of them, in order.
+     * If one fails or is rejected, renders not yet finished are cancelled.
+     *
+     * @throws RejectedExecutionException if there are not enough free slots for the batch
+     */
+    public List<byte[]> renderAll(List<Callable<byte[]>> renders) {
+        List<Submitted> submitted = new ArrayList<>(renders.size());
+        try {
+            for (Callable<byte[]> render : renders) {
+                submitted.add(submit(render));
+            }
+            List<byte[]> images = new ArrayList<>(submitted.size());
+            for (Submitted task : submitted) {
+                images.add(await(task));
+            }
+            return images;
+        } catch (RuntimeException e) {
+            submitted.forEach(Submitted::cancel);
+            throw e;
+        }
+    }
+
+    /**
+     * Share of admission slots in use, from 0 (idle) to 1 (renders are rejected).
+     */
+    public double getLoad() {
+        return (double) (capacity - slots.availablePermits()) / capacity;
+    }
+
+    /**
+     * A render on the pool holding one admission slot until it finishes, or until it is
+     * cancelled before it started. Java2D ignores interrupts, so a render that already
+     * started keeps its slot until it actually returns.
+     */
+    private record Submitted(Future<byte[]> result, AtomicBoolean started, Runnable releaseSlot) {
+        void cancel() {
+            if (started.compareAndSet(false, true)) {
+                result.cancel(false);
+                releaseSlot.run();
+            } else {
+                result.cancel(true);
+            }
+        }
+    }
+
+    private Submitted submit(Callable<byte[]> render) {
+        if (!slots.tryAcquire()) {
+            rejected.increment();
+            throw new RejectedExecutionException("Image render pool is saturated");
+        }
+
+        // Whoever flips started owns the slot: the task once it runs, or a caller that
+        // cancels before it ran
+        AtomicBoolean started = new AtomicBoolean();
+        Runnable releaseSlot = slots::release;
+
+        try {
+            long queuedAt = System.nanoTime();
+            Future<byte[]> result = executor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    queueTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                    return renderTimer.recordCallable(render);
+                } finally {
+                    releaseSlot.run();
+                }
+            });
+            return new Submitted(result, started, releaseSlot);
+        } catch (RejectedExecutionException e) {
+            releaseSlot.run();
+            throw e;
+        }
+    }
+
+    private byte[] await(Submitted task) {
+        try {
+            return task.result().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Image render failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel();
+            throw new IllegalStateException("Interrupted while waiting for a render", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,10 +1,18 @@
 package com.chempionat.bot.application.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.BitSet;
+import java.util.function.Consumer;
 
 /**
  * Base utility class for rendering dark-themed table images.
+ * Parts that do not depend on the data (background, cards, table grid) are painted once per
+ * layout into cached static layers; a render starts from a copy of its layer and only draws text.
  */
 public abstract class ImageRenderer {
 
@@ -28,16 +36,33 @@ public abstract class ImageRenderer {
     protected static final Color SCORE_COLOR = new Color(0x00, 0xff, 0x88);
     
     // Fonts
-    protected static final Font TITLE_FONT = new Font("SansSerif", Font.BOLD, 28);
-    protected static final Font HEADER_FONT = new Font("SansSerif", Font.BOLD, 18);
-    protected static final Font DATA_FONT = new Font("SansSerif", Font.PLAIN, 16);
-    protected static final Font FOOTER_FONT = new Font("SansSerif", Font.ITALIC, 14);
+    protected static final Font TITLE_FONT = FontRegistry.sansSerif(Font.BOLD, 28);
+    protected static final Font HEADER_FONT = FontRegistry.sansSerif(Font.BOLD, 18);
+    protected static final Font DATA_FONT = FontRegistry.sansSerif(Font.PLAIN, 16);
+    protected static final Font FOOTER_FONT = FontRegistry.sansSerif(Font.ITALIC, 14);
+
+    /**
+     * Upper bound for cached layer pixels per renderer (4 bytes each, so about 64 MB).
+     */
+    private static final long MAX_LAYER_PIXELS = 16L * 1024 * 1024;
+
+    private final Cache<String, BufferedImage> staticLayers = Caffeine.newBuilder()
+            .maximumWeight(MAX_LAYER_PIXELS)
+            .weigher((String key, BufferedImage layer) -> layer.getWidth() * layer.getHeight())
+            .build();
+    private volatile boolean staticLayerCacheEnabled = true;
+
+    private final PngEncoder pngEncoder;
+
+    protected ImageRenderer(PngEncoder pngEncoder) {
+        this.pngEncoder = pngEncoder;
+    }
 
     /**
      * Create a buffered image with proper rendering hints.
      */
     protected BufferedImage createImage(int height) {
-        BufferedImage image = new BufferedImage(IMAGE_WIDTH, height, BufferedImage.TYPE_INT_RGB);
+        BufferedImage image = RasterPool.acquire(IMAGE_WIDTH, height);
         Graphics2D g2d = image.createGraphics();
         
         // Enable anti-aliasing for smooth text
@@ -53,12 +78,115 @@ public abstract class ImageRenderer {
         return image;
     }
 
+    /**
+     * Create an opaque image that starts as a copy of the cached static layer for {@code key}.
+     * The painter receives a background-filled canvas and must draw only data-independent parts.
+     */
+    protected BufferedImage createImageFromLayer(String key, int width, int height, Consumer<Graphics2D> painter) {
+        if (!staticLayerCacheEnabled) {
+            return paintLayer(width, height, BufferedImage.TYPE_INT_RGB, painter);
+        }
+        BufferedImage layer = staticLayers.get(key + "@" + width + "x" + height,
+                k -> paintLayer(width, height, BufferedImage.TYPE_INT_RGB, painter));
+        // The copy overwrites every pixel, so a pooled canvas needs no clearing
+        BufferedImage image = RasterPool.acquire(width, height);
+        int[] source = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+        int[] target = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        System.arraycopy(source, 0, target, 0, source.length);
+        return image;
+    }
+
+    /**
+     * Copy rows {@code [y, y + height)} of the cached static layer for {@code key} back into the image,
+     * erasing whatever was drawn over them. The image must have the layer's size.
+     */
+    protected void restoreFromLayer(BufferedImage image, String key, int y, int height, Consumer<Graphics2D> painter) {
+        int width = image.getWidth();
+        BufferedImage layer = staticLayerCacheEnabled
+                ? staticLayers.get(key + "@" + width + "x" + image.getHeight(),
+                        k -> paintLayer(width, image.getHeight(), BufferedImage.TYPE_INT_RGB, painter))
+                : paintLayer(width, image.getHeight(), BufferedImage.TYPE_INT_RGB, painter);
+        int[] source = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+        int[] target = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        System.arraycopy(source, y * width, target, y * width, height * width);
+    }
+
+    /**
+     * Cached translucent sprite (e.g. an empty box) to be drawn with {@link Graphics2D#drawImage}.
+     * Callers must not modify the returned image.
+     */
+    protected BufferedImage getSprite(String key, int width, int height, Consumer<Graphics2D> painter) {
+        if (!staticLayerCacheEnabled) {
+            return paintLayer(width, height, BufferedImage.TYPE_INT_ARGB, painter);
+        }
+        return staticLayers.get(key + "@" + width + "x" + height,
+                k -> paintLayer(width, height, BufferedImage.TYPE_INT_ARGB, painter));
+    }
+
+    /**
+     * Turn static layer caching on or off (off repaints every layer, as before caching existed).
+     */
+    public void setStaticLayerCacheEnabled(boolean enabled) {
+        this.staticLayerCacheEnabled = enabled;
+        if (!enabled) {
+            staticLayers.invalidateAll();
+        }
+    }
+
+    /**
+     * Graphics with the anti-aliasing hints used by all renderers.
+     */
+    protected Graphics2D createGraphics(BufferedImage image) {
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        return g2d;
+    }
+
+    private BufferedImage paintLayer(int width, int height, int imageType, Consumer<Graphics2D> painter) {
+        BufferedImage layer = new BufferedImage(width, height, imageType);
+        Graphics2D g2d = createGraphics(layer);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        if (imageType == BufferedImage.TYPE_INT_RGB) {
+            g2d.setColor(BACKGROUND_COLOR);
+            g2d.fillRect(0, 0, width, height);
+        }
+        painter.accept(g2d);
+        g2d.dispose();
+        return layer;
+    }
+
+    /**
+     * Encode a finished image with the shared PNG encoder.
+     * The image goes back to the {@link RasterPool} and must not be used afterwards.
+     */
+    protected byte[] toBytes(BufferedImage image) {
+        try {
+            return pngEncoder.encode(image);
+        } finally {
+            RasterPool.release(image);
+        }
+    }
+
+    /**
+     * Encode an image that is kept for later incremental re-encodes (not returned to the pool).
+     */
+    protected PngEncoder.BandedPng encodeBanded(BufferedImage image, int[] bandStarts) {
+        return pngEncoder.encodeBanded(image, bandStarts);
+    }
+
+    /**
+     * Re-encode a kept image of which only {@code changedBands} were repainted.
+     */
+    protected PngEncoder.BandedPng reencode(PngEncoder.BandedPng previous, BufferedImage image, BitSet changedBands) {
+        return pngEncoder.reencode(previous, image, changedBands);
+    }
+
     /**
      * Draw centered text.
      */
     protected void drawCenteredText(Graphics2D g2d, String text, int x, int y, int width) {
-        FontMetrics fm = g2d.getFontMetrics();
-        int textWidth = fm.stringWidth(text);
+        int textWidth = FontRegistry.advances(g2d.getFontMetrics()).stringWidth(text);
         int textX = x + (width - textWidth) / 2;
         g2d.drawString(text, textX, y);
     }
@@ -74,8 +202,7 @@ public abstract class ImageRenderer {
      * Draw right-aligned text.
      */
     protected void drawRightText(Graphics2D g2d, String text, int x, int y, int width) {
-        FontMetrics fm = g2d.getFontMetrics();
-        int textWidth = fm.stringWidth(text);
+        int textWidth = FontRegistry.advances(g2d.getFontMetrics()).stringWidth(text);
         g2d.drawString(text, x + width - textWidth, y);
     }
 
@@ -104,18 +231,11 @@ public abstract class ImageRenderer {
      */
     protected String truncateText(String text, int maxWidth, FontMetrics fm) {
         if (text == null) return "";
-        if (fm.stringWidth(text) <= maxWidth) return text;
+        FontRegistry.GlyphAdvances advances = FontRegistry.advances(fm);
+        if (advances.stringWidth(text) <= maxWidth) return text;
         
         String ellipsis = "...";
-        int ellipsisWidth = fm.stringWidth(ellipsis);
-        
-        StringBuilder truncated = new StringBuilder();
-        for (char c : text.toCharArray()) {
-            if (fm.stringWidth(truncated.toString() + c) + ellipsisWidth > maxWidth) {
-                break;
-            }
-            truncated.append(c);
-        }
-        return truncated + ellipsis;
+        int ellipsisWidth = advances.stringWidth(ellipsis);
+        return text.substring(0, advances.fittingPrefix(text, maxWidth - ellipsisWidth)) + ellipsis;
     }
 }
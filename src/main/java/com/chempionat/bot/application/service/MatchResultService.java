@@ -1,6 +1,8 @@
 package com.chempionat.bot.application.service;
 
+import com.chempionat.bot.application.event.MatchResultChangedEvent;
 import com.chempionat.bot.domain.enums.MatchLifecycleState;
+import com.chempionat.bot.domain.enums.MatchStage;
 import com.chempionat.bot.domain.enums.TournamentType;
 import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.MatchResult;
@@ -12,6 +14,7 @@ import com.chempionat.bot.domain.repository.MatchResultRepository;
 import com.chempionat.bot.domain.repository.TournamentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +35,10 @@ public class MatchResultService {
     private final NotificationService notificationService;
     private final TournamentCompletionService tournamentCompletionService;
     private final SingleEliminationService singleEliminationService;
+    private final RoundService roundService;
+    private final SwissPairingService swissPairingService;
+    private final DoubleEliminationService doubleEliminationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public MatchResultService(
             MatchResultRepository matchResultRepository,
@@ -39,13 +46,21 @@ public class MatchResultService {
             TournamentRepository tournamentRepository,
             NotificationService notificationService,
             @Lazy TournamentCompletionService tournamentCompletionService,
-            @Lazy SingleEliminationService singleEliminationService) {
+            @Lazy SingleEliminationService singleEliminationService,
+            RoundService roundService,
+            SwissPairingService swissPairingService,
+            @Lazy DoubleEliminationService doubleEliminationService,
+            ApplicationEventPublisher eventPublisher) {
         this.matchResultRepository = matchResultRepository;
         this.matchRepository = matchRepository;
         this.tournamentRepository = tournamentRepository;
         this.notificationService = notificationService;
         this.tournamentCompletionService = tournamentCompletionService;
         this.singleEliminationService = singleEliminationService;
+        this.roundService = roundService;
+        this.swissPairingService = swissPairingService;
+        this.doubleEliminationService = doubleEliminationService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -113,6 +128,9 @@ public class MatchResultService {
         
         log.info("Result approved for match {}: {}:{}", match.getId(), 
                 result.getHomeScore(), result.getAwayScore());
+
+        // Pre-render the affected images once this transaction commits
+        eventPublisher.publishEvent(new MatchResultChangedEvent(this, tournament.getId(), match.getId(), match.getRound()));
                 
         // Notify submitter about approval
         notificationService.notifyUser(result.getSubmittedBy().getTelegramId(),
@@ -127,7 +145,20 @@ public class MatchResultService {
         // Handle playoff-specific logic: winner propagation
         if (tournament.getType() == TournamentType.PLAYOFF) {
             handlePlayoffMatchApproval(match);
+        } else if (tournament.getType() == TournamentType.GROUP_KNOCKOUT && match.getStage() != MatchStage.GROUP_STAGE) {
+            handlePlayoffMatchApproval(match);
+        } else if (tournament.getType() == TournamentType.DOUBLE_ELIMINATION) {
+            // Winner and loser move along their linked matches; the grand final may add a reset match
+            doubleEliminationService.propagateResult(match);
+            tournamentCompletionService.checkAndNotifyIfComplete(tournament);
+        } else if (tournament.getType() == TournamentType.SWISS) {
+            // Pair the next Swiss round once the current one is finished
+            swissPairingService.pairNextRoundIfDue(tournament);
+            tournamentCompletionService.checkAndNotifyIfComplete(tournament);
         } else {
+            // League and group stage: the completion pipeline also advances finished groups to the knockout
+            // Lazy leagues write the next round once the current one is nearly done
+            roundService.materializeNextRoundIfDue(tournament);
             // For league tournaments, check if tournament is complete
             tournamentCompletionService.checkAndNotifyIfComplete(tournament);
         }
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Slf4j
@@ -31,6 +32,8 @@ public class MatchService {
             List<Match> matches = matchRepository.findTodaysMatchesForTeam(team, today);
             todaysMatches.addAll(matches);
         }
+        // Several tournaments may share the day: keep the slots in time order
+        todaysMatches.sort(Comparator.comparing(Match::getScheduledTime));
         
         log.debug("Found {} matches for user {}", todaysMatches.size(), user.getId());
         return todaysMatches;
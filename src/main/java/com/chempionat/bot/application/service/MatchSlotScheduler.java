@@ -0,0 +1,330 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.PlayerAvailability;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.model.User;
+import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.domain.repository.PlayerAvailabilityRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Assigns matches to real time slots.
+ * Each day is split into fixed slots (tournament settings). A match goes into the earliest slot
+ * where both players are free and available, neither has reached the daily match limit and the
+ * slot still has capacity. Busy slots and full days are kept as bitsets per player, so checking
+ * a slot is a handful of bit lookups. Rounds are scheduled in order and, inside a round, matches
+ * of the players with the narrowest availability go first.
+ * Matches that already have a time keep it. Bracket matches whose teams are filled in later
+ * are scheduled once both teams are known ({@link #scheduleWhenTeamsKnown}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MatchSlotScheduler {
+
+    static final int DEFAULT_SLOT_MINUTES = 60;
+    static final LocalTime DEFAULT_DAY_START = LocalTime.of(10, 0);
+    static final LocalTime DEFAULT_DAY_END = LocalTime.of(22, 0);
+    static final int DEFAULT_MAX_MATCHES_PER_DAY = 1;
+
+    /**
+     * Days searched for a slot inside both players' windows before the windows are ignored.
+     */
+    private static final int AVAILABILITY_LOOKAHEAD_DAYS = 28;
+
+    private final MatchRepository matchRepository;
+    private final PlayerAvailabilityRepository playerAvailabilityRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Give a bracket match a time once both of its teams are known. Teams are filled in with
+     * single-column updates, so the row is read again; the caller's update holds its lock, so
+     * of two feeders finishing together the second one sees both teams.
+     */
+    public void scheduleWhenTeamsKnown(Long matchId) {
+        Match match = entityManager.find(Match.class, matchId);
+        if (match == null) {
+            return;
+        }
+        entityManager.refresh(match);
+        if (match.getScheduledTime() == null && match.hasBothTeams()) {
+            scheduleMatches(match.getTournament(), List.of(match));
+        }
+    }
+
+    /**
+     * Schedule new matches around the tournament's already scheduled ones, starting tomorrow.
+     */
+    public void scheduleMatches(Tournament tournament, List<Match> matches) {
+        List<Match> existing = tournament.getId() != null ? matchRepository.findByTournament(tournament) : List.of();
+        scheduleMatches(tournament, matches, existing);
+    }
+
+    /**
+     * Schedule new matches; {@code existing} matches keep their times and occupy their slots.
+     */
+    public void scheduleMatches(Tournament tournament, List<Match> matches, List<Match> existing) {
+        if (matches.stream().noneMatch(MatchSlotScheduler::needsSlot)) {
+            return;
+        }
+        Set<User> users = matches.stream()
+                .filter(MatchSlotScheduler::needsSlot)
+                .flatMap(m -> Stream.of(m.getHomeTeam().getUser(), m.getAwayTeam().getUser()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, List<PlayerAvailability>> windows = users.isEmpty() ? Map.of()
+                : playerAvailabilityRepository.findByUserIn(users).stream()
+                        .collect(Collectors.groupingBy(a -> a.getUser().getId()));
+
+        SlotGrid grid = SlotGrid.of(tournament, LocalDate.now().plusDays(1));
+        int scheduled = assign(grid, matches, existing, windows);
+        log.info("Scheduled {} matches of tournament {} into {}-minute slots ({} per day, capacity {})",
+                scheduled, tournament.getId(), grid.slotMinutes(), grid.slotsPerDay(),
+                grid.capacity() == Integer.MAX_VALUE ? "unlimited" : grid.capacity());
+    }
+
+    /**
+     * Greedy slot assignment.
+     *
+     * @return number of matches that received a time
+     */
+    int assign(SlotGrid grid, List<Match> matches, List<Match> existing, Map<Long, List<PlayerAvailability>> windows) {
+        SlotState state = new SlotState(grid, windows);
+
+        List<Match> pending = matches.stream().filter(MatchSlotScheduler::needsSlot).toList();
+        Set<Long> newIds = pending.stream().map(Match::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        for (Match match : existing) {
+            if (match.getScheduledTime() == null || !match.hasBothTeams() || Boolean.TRUE.equals(match.getIsBye())
+                    || (match.getId() != null && newIds.contains(match.getId()))) {
+                continue;
+            }
+            int slot = grid.slotOf(match.getScheduledTime());
+            if (slot >= 0) {
+                state.occupy(slot, state.player(match.getHomeTeam()), state.player(match.getAwayTeam()));
+            }
+        }
+
+        TreeMap<Integer, List<Match>> rounds = pending.stream()
+                .collect(Collectors.groupingBy(m -> m.getRound() != null ? m.getRound() : 0, TreeMap::new, Collectors.toList()));
+
+        int scheduled = 0;
+        for (List<Match> round : rounds.values()) {
+            List<Match> real = new ArrayList<>();
+            List<Match> byes = new ArrayList<>();
+            for (Match match : round) {
+                (Boolean.TRUE.equals(match.getIsBye()) ? byes : real).add(match);
+            }
+            // Most constrained first
+            real.sort(Comparator.comparingInt(m -> Math.min(
+                    state.player(m.getHomeTeam()).freedom, state.player(m.getAwayTeam()).freedom)));
+
+            int roundStart = Integer.MAX_VALUE;
+            for (Match match : real) {
+                PlayerSlots home = state.player(match.getHomeTeam());
+                PlayerSlots away = state.player(match.getAwayTeam());
+                int slot = state.findSlot(home, away);
+                state.occupy(slot, home, away);
+                match.setScheduledTime(grid.timeOf(slot));
+                roundStart = Math.min(roundStart, slot);
+                scheduled++;
+            }
+            for (Match bye : byes) {
+                int slot = roundStart != Integer.MAX_VALUE ? roundStart : state.player(bye.getHomeTeam()).last + 1;
+                bye.setScheduledTime(grid.timeOf(slot));
+                scheduled++;
+            }
+        }
+        return scheduled;
+    }
+
+    private static boolean needsSlot(Match match) {
+        return match.hasBothTeams() && match.getScheduledTime() == null;
+    }
+
+    /**
+     * Daily slot grid of a tournament. Slot s is slot (s % slotsPerDay) of day (s / slotsPerDay) after firstDay.
+     */
+    record SlotGrid(LocalDate firstDay, LocalTime dayStart, int slotMinutes, int slotsPerDay,
+                    int capacity, int maxPerDay) {
+
+        static SlotGrid of(Tournament tournament, LocalDate firstDay) {
+            int slotMinutes = positiveOr(tournament.getSlotMinutes(), DEFAULT_SLOT_MINUTES);
+            LocalTime start = tournament.getDayStartTime() != null ? tournament.getDayStartTime() : DEFAULT_DAY_START;
+            LocalTime end = tournament.getDayEndTime() != null ? tournament.getDayEndTime() : DEFAULT_DAY_END;
+            long dayMinutes = end.isAfter(start) ? Duration.between(start, end).toMinutes()
+                    : Duration.between(start, LocalTime.MAX).toMinutes() + 1;
+            int slotsPerDay = (int) Math.max(1, dayMinutes / slotMinutes);
+            return new SlotGrid(firstDay, start, slotMinutes, slotsPerDay,
+                    positiveOr(tournament.getSlotCapacity(), Integer.MAX_VALUE),
+                    positiveOr(tournament.getMaxMatchesPerDay(), DEFAULT_MAX_MATCHES_PER_DAY));
+        }
+
+        LocalDateTime timeOf(int slot) {
+            return firstDay.plusDays(slot / slotsPerDay).atTime(dayStart)
+                    .plusMinutes((long) (slot % slotsPerDay) * slotMinutes);
+        }
+
+        /**
+         * Slot containing the given time, or -1 if it lies before the grid or outside the daily window.
+         */
+        int slotOf(LocalDateTime time) {
+            long day = ChronoUnit.DAYS.between(firstDay, time.toLocalDate());
+            long minutes = Duration.between(dayStart, time.toLocalTime()).toMinutes();
+            if (day < 0 || minutes < 0 || minutes >= (long) slotsPerDay * slotMinutes) {
+                return -1;
+            }
+            return (int) (day * slotsPerDay + minutes / slotMinutes);
+        }
+
+        int minuteOfDay(int slotOfDay) {
+            return dayStart.toSecondOfDay() / 60 + slotOfDay * slotMinutes;
+        }
+
+        private static int positiveOr(Integer value, int fallback) {
+            return value != null && value > 0 ? value : fallback;
+        }
+    }
+
+    /**
+     * Bitsets of one player: occupied slots, days at the match limit and the weekly availability pattern.
+     */
+    private static final class PlayerSlots {
+        final BitSet busy = new BitSet();
+        final BitSet fullDays = new BitSet();
+        /**
+         * Bit (dayOfWeek * slotsPerDay + slotOfDay) set when the player can play; null means always.
+         */
+        final BitSet weekly;
+        final int freedom;
+        int[] dayCounts = new int[8];
+        int last = -1;
+
+        PlayerSlots(BitSet weekly, int slotsPerDay) {
+            this.weekly = weekly;
+            this.freedom = weekly != null ? weekly.cardinality() : 7 * slotsPerDay;
+        }
+    }
+
+    private static final class SlotState {
+        private final SlotGrid grid;
+        private final Map<Long, List<PlayerAvailability>> windows;
+        private final Map<Long, PlayerSlots> players = new HashMap<>();
+        private final BitSet fullSlots = new BitSet();
+        private final int firstDayOfWeek;
+        private int[] load = new int[64];
+
+        SlotState(SlotGrid grid, Map<Long, List<PlayerAvailability>> windows) {
+            this.grid = grid;
+            this.windows = windows;
+            this.firstDayOfWeek = grid.firstDay().getDayOfWeek().getValue() - 1;
+        }
+
+        PlayerSlots player(Team team) {
+            return players.computeIfAbsent(team.getId(), id -> new PlayerSlots(weeklyPattern(team), grid.slotsPerDay()));
+        }
+
+        int findSlot(PlayerSlots home, PlayerSlots away) {
+            // Never before either player's previous match, so rounds stay in order
+            int from = Math.max(home.last, away.last) + 1;
+            int slot = search(home, away, from, from + AVAILABILITY_LOOKAHEAD_DAYS * grid.slotsPerDay(), true);
+            if (slot < 0) {
+                // Windows never overlap in time: the match still has to be played
+                slot = search(home, away, from, Integer.MAX_VALUE, false);
+            }
+            return slot;
+        }
+
+        private int search(PlayerSlots home, PlayerSlots away, int from, int limit, boolean checkWindows) {
+            int slotsPerDay = grid.slotsPerDay();
+            int slot = from;
+            while (slot < limit) {
+                slot = fullSlots.nextClearBit(slot);
+                int day = slot / slotsPerDay;
+                if (home.fullDays.get(day) || away.fullDays.get(day)) {
+                    slot = (day + 1) * slotsPerDay;
+                } else if (home.busy.get(slot) || away.busy.get(slot)
+                        || (checkWindows && (!available(home, slot) || !available(away, slot)))) {
+                    slot++;
+                } else {
+                    return slot < limit ? slot : -1;
+                }
+            }
+            return -1;
+        }
+
+        void occupy(int slot, PlayerSlots home, PlayerSlots away) {
+            if (slot >= load.length) {
+                load = Arrays.copyOf(load, Math.max(load.length * 2, slot + 1));
+            }
+            if (++load[slot] >= grid.capacity()) {
+                fullSlots.set(slot);
+            }
+            int day = slot / grid.slotsPerDay();
+            for (PlayerSlots player : List.of(home, away)) {
+                player.busy.set(slot);
+                player.last = Math.max(player.last, slot);
+                if (day >= player.dayCounts.length) {
+                    player.dayCounts = Arrays.copyOf(player.dayCounts, Math.max(player.dayCounts.length * 2, day + 1));
+                }
+                if (++player.dayCounts[day] >= grid.maxPerDay()) {
+                    player.fullDays.set(day);
+                }
+            }
+        }
+
+        private boolean available(PlayerSlots player, int slot) {
+            if (player.weekly == null) {
+                return true;
+            }
+            int slotsPerDay = grid.slotsPerDay();
+            int dayOfWeek = (firstDayOfWeek + slot / slotsPerDay) % 7;
+            return player.weekly.get(dayOfWeek * slotsPerDay + slot % slotsPerDay);
+        }
+
+        private BitSet weeklyPattern(Team team) {
+            List<PlayerAvailability> playerWindows = team.getUser() != null
+                    ? windows.get(team.getUser().getId()) : null;
+            if (playerWindows == null || playerWindows.isEmpty()) {
+                return null;
+            }
+            int slotsPerDay = grid.slotsPerDay();
+            BitSet weekly = new BitSet(7 * slotsPerDay);
+            for (PlayerAvailability window : playerWindows) {
+                int start = window.getStartTime().toSecondOfDay() / 60;
+                int end = window.getEndTime().isAfter(window.getStartTime())
+                        ? window.getEndTime().toSecondOfDay() / 60 : 24 * 60;
+                for (int d = 0; d < 7; d++) {
+                    if (!window.appliesTo(DayOfWeek.of(d + 1))) {
+                        continue;
+                    }
+                    for (int k = 0; k < slotsPerDay; k++) {
+                        int slotStart = grid.minuteOfDay(k);
+                        if (slotStart >= start && slotStart + grid.slotMinutes() <= end) {
+                            weekly.set(d * slotsPerDay + k);
+                        }
+                    }
+                }
+            }
+            // Windows outside the tournament's hours would block the player completely
+            return weekly.isEmpty() ? null : weekly;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.chempionat.bot.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+/**
+ * Buffers text notifications per user and sends everything that arrived within a short window
+ * as one message, so a result approval followed by the next opponent and a round start reach
+ * the user as a single digest. The window starts with the first buffered notification, so
+ * nothing waits longer than the window.
+ */
+@Slf4j
+final class NotificationCoalescer {
+
+    static final int MAX_MESSAGE_LENGTH = 4096;
+    private static final String SEPARATOR = "\n\n➖➖➖➖➖\n\n";
+
+    private final BiConsumer<Long, String> sender;
+    private final long windowMs;
+    private final TaskScheduler scheduler;
+
+    /**
+     * Buffered messages by Telegram id, oldest first. Lists are only touched inside map operations.
+     */
+    private final ConcurrentHashMap<Long, List<String>> pending = new ConcurrentHashMap<>();
+
+    private final Counter buffered;
+    private final Counter sent;
+
+    NotificationCoalescer(BiConsumer<Long, String> sender, long windowMs, TaskScheduler scheduler,
+                          MeterRegistry meterRegistry) {
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("Coalescing window must be positive: " + windowMs);
+        }
+        this.sender = sender;
+        this.windowMs = windowMs;
+        this.scheduler = scheduler;
+        this.buffered = Counter.builder("notification.coalesced").tag("stage", "buffered")
+                .description("Notifications buffered for a digest")
+                .register(meterRegistry);
+        this.sent = Counter.builder("notification.coalesced").tag("stage", "sent")
+                .description("Messages sent for buffered notifications")
+                .register(meterRegistry);
+        Gauge.builder("notification.coalesced.pending", pending, ConcurrentHashMap::size)
+                .description("Users with a digest waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffer a message; the user's digest is sent when the window of its first message ends.
+     */
+    void add(Long telegramId, String message) {
+        buffered.increment();
+        pending.compute(telegramId, (id, messages) -> {
+            if (messages == null) {
+                messages = new ArrayList<>();
+                schedule(id);
+            }
+            messages.add(message);
+            return messages;
+        });
+    }
+
+    private void schedule(Long telegramId) {
+        try {
+            scheduler.schedule(() -> flush(telegramId), Instant.now().plusMillis(windowMs));
+        } catch (RejectedExecutionException e) {
+            // Shutting down: flushAll sends what is left
+            log.debug("Digest for {} not scheduled during shutdown", telegramId);
+        }
+    }
+
+    /**
+     * Send the user's buffered messages now, e.g. before an urgent message so order is kept.
+     */
+    void flush(Long telegramId) {
+        List<String> messages = pending.remove(telegramId);
+        if (messages == null) {
+            return;
+        }
+        for (String digest : merge(messages)) {
+            try {
+                sender.accept(telegramId, digest);
+                sent.increment();
+            } catch (RuntimeException e) {
+                log.error("Failed to send notification digest to user {}", telegramId, e);
+            }
+        }
+    }
+
+    /**
+     * Send every buffered digest now, e.g. at shutdown.
+     */
+    void flushAll() {
+        new ArrayList<>(pending.keySet()).forEach(this::flush);
+    }
+
+    /**
+     * Join messages, separated by a divider, into as few Telegram messages as fit the length limit.
+     */
+    static List<String> merge(List<String> messages) {
+        List<String> digests = new ArrayList<>();
+        StringBuilder digest = new StringBuilder();
+        int inDigest = 0;
+        for (String message : messages) {
+            if (inDigest > 0 && digest.length() + SEPARATOR.length() + message.length() > MAX_MESSAGE_LENGTH) {
+                digests.add(digest.toString());
+                digest.setLength(0);
+                inDigest = 0;
+            }
+            if (inDigest > 0) {
+                digest.append(SEPARATOR);
+            }
+            digest.append(message);
+            inDigest++;
+        }
+        digests.add(digest.toString());
+        return digests;
+    }
+}
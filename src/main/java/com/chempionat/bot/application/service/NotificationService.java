@@ -1,65 +1,93 @@
 package com.chempionat.bot.application.service;
 
 import com.chempionat.bot.domain.enums.Role;
-import com.chempionat.bot.domain.model.User;
-import com.chempionat.bot.domain.repository.UserRepository;
 import com.chempionat.bot.infrastructure.telegram.TelegramBot;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 
 import java.util.List;
 
+/**
+ * Sends notifications to users. Plain text notifications to one user are coalesced: those
+ * arriving within {@code telegram.notifications.coalesce-window-ms} go out as one message.
+ * Notifications with a keyboard or photo (approval requests and the like) are sent at once,
+ * after anything already buffered for that user.
+ */
 @Slf4j
 @Service
 public class NotificationService {
 
-    private final UserRepository userRepository;
+    private final RoleIndex roleIndex;
     private final TelegramBot telegramBot;
+    private final BroadcastService broadcastService;
+
+    /**
+     * Null when coalescing is disabled.
+     */
+    private final NotificationCoalescer coalescer;
 
     // Use @Lazy to break circular dependency
-    public NotificationService(UserRepository userRepository, @Lazy TelegramBot telegramBot) {
-        this.userRepository = userRepository;
+    public NotificationService(RoleIndex roleIndex, @Lazy TelegramBot telegramBot,
+                               BroadcastService broadcastService, TaskScheduler taskScheduler,
+                               MeterRegistry meterRegistry,
+                               @Value("${telegram.notifications.coalesce-window-ms:5000}") long coalesceWindowMs) {
+        this.roleIndex = roleIndex;
         this.telegramBot = telegramBot;
+        this.broadcastService = broadcastService;
+        this.coalescer = coalesceWindowMs > 0
+                ? new NotificationCoalescer(telegramBot::sendMessage, coalesceWindowMs, taskScheduler, meterRegistry)
+                : null;
     }
 
     /**
      * Send message to all admins
      */
     public void notifyAdmins(String message) {
-        List<User> admins = userRepository.findByRole(Role.ADMIN);
-        
-        for (User admin : admins) {
-            try {
-                telegramBot.sendMessage(admin.getTelegramId(), message);
-                log.debug("Notification sent to admin: {}", admin.getTelegramId());
-            } catch (Exception e) {
-                log.error("Failed to send notification to admin {}", admin.getTelegramId(), e);
-            }
-        }
+        List<Long> adminIds = roleIndex.getTelegramIds(Role.ADMIN);
+        broadcast(BroadcastRequest.builder()
+                .kind("admins")
+                .template(message)
+                .recipientIds(adminIds)
+                .build());
+    }
+
+    /**
+     * Send a message to many users in the background, after the current transaction commits.
+     *
+     * @return the broadcast id, for {@link BroadcastService#getProgress}, or null if there are no recipients
+     */
+    public Long broadcast(BroadcastRequest request) {
+        return broadcastService.broadcast(request);
     }
 
     /**
      * Send message with inline keyboard to all admins
      */
     public void notifyAdminsWithKeyboard(String message, InlineKeyboardMarkup keyboard) {
-        List<User> admins = userRepository.findByRole(Role.ADMIN);
-        
-        for (User admin : admins) {
+        for (Long adminId : roleIndex.getTelegramIds(Role.ADMIN)) {
             try {
-                telegramBot.sendMessage(admin.getTelegramId(), message, keyboard);
-                log.debug("Notification with keyboard sent to admin: {}", admin.getTelegramId());
+                telegramBot.sendMessage(adminId, message, keyboard);
+                log.debug("Notification with keyboard sent to admin: {}", adminId);
             } catch (Exception e) {
-                log.error("Failed to send notification to admin {}", admin.getTelegramId(), e);
+                log.error("Failed to send notification to admin {}", adminId, e);
             }
         }
     }
 
     /**
-     * Send message to specific user
+     * Send message to specific user, merged with other notifications sent to them within the coalescing window
      */
     public void notifyUser(Long telegramId, String message) {
+        if (coalescer != null) {
+            coalescer.add(telegramId, message);
+            return;
+        }
         try {
             telegramBot.sendMessage(telegramId, message);
             log.debug("Notification sent to user: {}", telegramId);
@@ -72,6 +100,7 @@ public class NotificationService {
      * Send message with inline keyboard to specific user
      */
     public void notifyUserWithKeyboard(Long telegramId, String message, InlineKeyboardMarkup keyboard) {
+        flushBuffered(telegramId);
         try {
             telegramBot.sendMessage(telegramId, message, keyboard);
             log.debug("Notification with keyboard sent to user: {}", telegramId);
@@ -84,6 +113,7 @@ public class NotificationService {
      * Send photo with caption and keyboard to specific user
      */
     public void notifyUserWithPhoto(Long telegramId, String photoFileId, String caption, InlineKeyboardMarkup keyboard) {
+        flushBuffered(telegramId);
         try {
             telegramBot.sendPhoto(telegramId, photoFileId, caption);
             // Send keyboard in separate message since photo caption doesn't support inline keyboards well
@@ -100,6 +130,7 @@ public class NotificationService {
      * Send photo from byte array with caption to specific user
      */
     public void notifyUserWithImage(Long telegramId, byte[] imageData, String filename, String caption) {
+        flushBuffered(telegramId);
         try {
             telegramBot.sendPhoto(telegramId, imageData, filename, caption);
             log.debug("Image notification sent to user: {}", telegramId);
@@ -107,4 +138,20 @@ public class NotificationService {
             log.error("Failed to send image notification to user {}", telegramId, e);
         }
     }
+
+    /**
+     * Send notifications still buffered for the user, so a message sent right away does not overtake them.
+     */
+    private void flushBuffered(Long telegramId) {
+        if (coalescer != null) {
+            coalescer.flush(telegramId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (coalescer != null) {
+            coalescer.flushAll();
+        }
+    }
 }
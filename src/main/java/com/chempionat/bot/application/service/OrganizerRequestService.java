@@ -26,6 +26,7 @@ public class OrganizerRequestService {
     private final OrganizerRequestRepository requestRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final RoleIndex roleIndex;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
 
@@ -69,6 +70,7 @@ public class OrganizerRequestService {
         User user = request.getUser();
         user.setRole(Role.ORGANIZER);
         userRepository.save(user);
+        roleIndex.update(user);
 
         // Update request
         request.setStatus("APPROVED");
@@ -0,0 +1,72 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.model.PlayerAvailability;
+import com.chempionat.bot.domain.model.User;
+import com.chempionat.bot.domain.repository.PlayerAvailabilityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Player availability windows used by MatchSlotScheduler.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlayerAvailabilityService {
+
+    private final PlayerAvailabilityRepository playerAvailabilityRepository;
+
+    @Transactional(readOnly = true)
+    public List<PlayerAvailability> getWindows(User user) {
+        return playerAvailabilityRepository.findByUser(user).stream()
+                .sorted(Comparator.comparing((PlayerAvailability a) -> a.getDayOfWeek() != null ? a.getDayOfWeek().getValue() : 0)
+                        .thenComparing(PlayerAvailability::getStartTime))
+                .toList();
+    }
+
+    /**
+     * Add a window such as "18:00-22:00".
+     *
+     * @param dayOfWeek day the window applies to, or null for every day
+     */
+    @Transactional
+    public PlayerAvailability addWindow(User user, DayOfWeek dayOfWeek, String range) {
+        String[] parts = range.trim().split("-");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Time range must look like 18:00-22:00");
+        }
+        LocalTime start;
+        LocalTime end;
+        try {
+            start = LocalTime.parse(parts[0].trim());
+            end = LocalTime.parse(parts[1].trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time: " + range);
+        }
+        if (start.equals(end)) {
+            throw new IllegalArgumentException("Time range is empty: " + range);
+        }
+
+        PlayerAvailability window = PlayerAvailability.builder()
+                .user(user)
+                .dayOfWeek(dayOfWeek)
+                .startTime(start)
+                .endTime(end)
+                .build();
+        log.info("User {} available {} {}-{}", user.getId(), dayOfWeek != null ? dayOfWeek : "daily", start, end);
+        return playerAvailabilityRepository.save(window);
+    }
+
+    @Transactional
+    public void clearWindows(User user) {
+        playerAvailabilityRepository.deleteByUser(user);
+    }
+}
@@ -0,0 +1,711 @@
+package com.chempionat.bot.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * PNG encoder for rendered images.
+ * Can quantise to an 8-bit indexed palette (the dark theme plus anti-aliased text rarely needs
+ * more than a few hundred colours), and lets the deflate level and row filter be chosen.
+ * Encoded size and time are logged and published as {@code image.png.bytes} / {@code image.png.encode}.
+ */
+@Slf4j
+@Component
+public class PngEncoder {
+
+    public enum ColorMode {
+        TRUECOLOR,
+        INDEXED
+    }
+
+    /**
+     * PNG row filters; ADAPTIVE picks the cheapest filter per row (minimum sum of absolute differences).
+     */
+    public enum Filter {
+        NONE,
+        SUB,
+        UP,
+        AVERAGE,
+        PAETH,
+        ADAPTIVE
+    }
+
+    public record Options(ColorMode colorMode, int deflateLevel, Filter filter) {
+        public Options {
+            if (deflateLevel < Deflater.DEFAULT_COMPRESSION || deflateLevel > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("Deflate level must be between -1 and 9: " + deflateLevel);
+            }
+        }
+    }
+
+    /**
+     * Encoded image with the numbers needed to compare settings.
+     */
+    public record EncodedPng(byte[] bytes, int paletteSize, long encodeNanos) {
+    }
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final int MAX_PALETTE_SIZE = 256;
+
+    private final Options options;
+    private final Timer encodeTimer;
+    private final DistributionSummary encodedBytes;
+    private final Counter bandsEncoded;
+    private final Counter bandsReused;
+
+    public PngEncoder(
+            @Value("${image.png.color-mode:INDEXED}") ColorMode colorMode,
+            @Value("${image.png.deflate-level:6}") int deflateLevel,
+            @Value("${image.png.filter:NONE}") Filter filter,
+            MeterRegistry meterRegistry) {
+        this.options = new Options(colorMode, deflateLevel, filter);
+        this.encodeTimer = Timer.builder("image.png.encode")
+                .description("PNG encoding time")
+                .tag("mode", colorMode.name())
+                .register(meterRegistry);
+        this.encodedBytes = DistributionSummary.builder("image.png.bytes")
+                .description("Encoded PNG size")
+                .baseUnit("bytes")
+                .tag("mode", colorMode.name())
+                .register(meterRegistry);
+        this.bandsEncoded = Counter.builder("image.png.bands").tag("result", "encoded")
+                .description("Row bands deflated by banded PNG encodes")
+                .register(meterRegistry);
+        this.bandsReused = Counter.builder("image.png.bands").tag("result", "reused")
+                .description("Row bands reused unchanged from the previous encode")
+                .register(meterRegistry);
+    }
+
+    public Options getOptions() {
+        return options;
+    }
+
+    /**
+     * Encode with the configured options and record size/time metrics.
+     */
+    public byte[] encode(BufferedImage image) {
+        EncodedPng encoded = encode(image, options);
+        encodeTimer.record(encoded.encodeNanos(), TimeUnit.NANOSECONDS);
+        encodedBytes.record(encoded.bytes().length);
+        log.debug("Encoded {}x{} PNG: {} bytes, {} palette colours, {} ms", image.getWidth(), image.getHeight(),
+                encoded.bytes().length, encoded.paletteSize(), encoded.encodeNanos() / 1_000_000);
+        return encoded.bytes();
+    }
+
+    /**
+     * Encode with explicit options (no metrics), e.g. to compare settings.
+     */
+    public EncodedPng encode(BufferedImage image, Options options) {
+        long start = System.nanoTime();
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = rgbPixels(image);
+
+        Palette palette = options.colorMode() == ColorMode.INDEXED ? Palette.build(pixels) : null;
+        int bytesPerPixel = palette != null ? 1 : 3;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(width * height / 4);
+        try {
+            out.write(SIGNATURE);
+            writeChunk(out, "IHDR", header(width, height, palette != null));
+            if (palette != null) {
+                writeChunk(out, "PLTE", palette.toBytes());
+            }
+            writeChunk(out, "IDAT", imageData(pixels, width, height, palette, bytesPerPixel, options));
+            writeChunk(out, "IEND", new byte[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedPng(out.toByteArray(), palette != null ? palette.size() : 0, System.nanoTime() - start);
+    }
+
+    /**
+     * Encode with the image data deflated in independent horizontal bands starting at the given rows,
+     * so that a later {@link #reencode} of the same layout only recompresses bands that changed.
+     */
+    public BandedPng encodeBanded(BufferedImage image, int[] bandStarts) {
+        long start = System.nanoTime();
+        int[] pixels = rgbPixels(image);
+        Palette palette = options.colorMode() == ColorMode.INDEXED ? Palette.build(pixels) : null;
+        int[] starts = normalizeBands(bandStarts, image.getHeight());
+        BandedPng png = new BandedPng(image.getWidth(), image.getHeight(), options, palette, starts);
+        for (int band = 0; band < starts.length; band++) {
+            png.deflateBand(pixels, band);
+        }
+        png.assemble();
+        recordEncode(image, png.getBytes(), start);
+        bandsEncoded.increment(starts.length);
+        return png;
+    }
+
+    /**
+     * Encode an image that differs from the one behind {@code previous} only in {@code changedBands},
+     * reusing the compressed data of every other band. Falls back to a full banded encode when the
+     * size or options differ or a changed band uses a colour missing from the previous palette.
+     */
+    public BandedPng reencode(BandedPng previous, BufferedImage image, BitSet changedBands) {
+        if (previous.width != image.getWidth() || previous.height != image.getHeight()
+                || !previous.options.equals(options)) {
+            return encodeBanded(image, previous.bandStarts);
+        }
+        long start = System.nanoTime();
+        int[] pixels = rgbPixels(image);
+
+        BitSet dirty = (BitSet) changedBands.clone();
+        if (options.filter() != Filter.NONE && options.filter() != Filter.SUB) {
+            // The first row of a band is filtered against the last row of the band above
+            dirty.or(shiftedByOne(changedBands));
+        }
+        dirty.clear(previous.bandStarts.length, Math.max(dirty.length(), previous.bandStarts.length));
+        if (previous.palette != null) {
+            for (int band = dirty.nextSetBit(0); band >= 0; band = dirty.nextSetBit(band + 1)) {
+                if (!previous.palette.containsAll(pixels, previous.bandStart(band) * previous.width,
+                        previous.bandEnd(band) * previous.width)) {
+                    return encodeBanded(image, previous.bandStarts);
+                }
+            }
+        }
+
+        BandedPng png = previous.copy();
+        for (int band = dirty.nextSetBit(0); band >= 0; band = dirty.nextSetBit(band + 1)) {
+            png.deflateBand(pixels, band);
+        }
+        png.assemble();
+        recordEncode(image, png.getBytes(), start);
+        bandsEncoded.increment(dirty.cardinality());
+        bandsReused.increment(png.bandStarts.length - dirty.cardinality());
+        return png;
+    }
+
+    private void recordEncode(BufferedImage image, byte[] bytes, long start) {
+        long nanos = System.nanoTime() - start;
+        encodeTimer.record(nanos, TimeUnit.NANOSECONDS);
+        encodedBytes.record(bytes.length);
+        log.debug("Encoded {}x{} banded PNG: {} bytes, {} ms", image.getWidth(), image.getHeight(),
+                bytes.length, nanos / 1_000_000);
+    }
+
+    private static BitSet shiftedByOne(BitSet bands) {
+        BitSet shifted = new BitSet();
+        for (int band = bands.nextSetBit(0); band >= 0; band = bands.nextSetBit(band + 1)) {
+            shifted.set(band + 1);
+        }
+        return shifted;
+    }
+
+    private static int[] normalizeBands(int[] bandStarts, int height) {
+        TreeSet<Integer> starts = new TreeSet<>();
+        starts.add(0);
+        for (int bandStart : bandStarts) {
+            if (bandStart > 0 && bandStart < height) {
+                starts.add(bandStart);
+            }
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * A PNG kept as separately deflated bands of rows. The IDAT chunk is a zlib stream made of the
+     * bands (each ended by a sync flush, the last one by the final block) and the Adler-32 of all
+     * filtered rows, combined from the per-band checksums.
+     */
+    public static final class BandedPng {
+
+        private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9c};
+        private static final int ADLER_BASE = 65521;
+
+        private final int width;
+        private final int height;
+        private final Options options;
+        private final Palette palette;
+        private final int[] bandStarts;
+        private final byte[][] bands;
+        private final long[] adlers;
+        private final long[] rawLengths;
+        private byte[] bytes;
+
+        private BandedPng(int width, int height, Options options, Palette palette, int[] bandStarts) {
+            this.width = width;
+            this.height = height;
+            this.options = options;
+            this.palette = palette;
+            this.bandStarts = bandStarts;
+            this.bands = new byte[bandStarts.length][];
+            this.adlers = new long[bandStarts.length];
+            this.rawLengths = new long[bandStarts.length];
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public int getBandCount() {
+            return bandStarts.length;
+        }
+
+        private BandedPng copy() {
+            BandedPng copy = new BandedPng(width, height, options, palette, bandStarts);
+            System.arraycopy(bands, 0, copy.bands, 0, bands.length);
+            System.arraycopy(adlers, 0, copy.adlers, 0, adlers.length);
+            System.arraycopy(rawLengths, 0, copy.rawLengths, 0, rawLengths.length);
+            return copy;
+        }
+
+        private int bandStart(int band) {
+            return bandStarts[band];
+        }
+
+        private int bandEnd(int band) {
+            return band + 1 < bandStarts.length ? bandStarts[band + 1] : height;
+        }
+
+        private void deflateBand(int[] pixels, int band) {
+            int bytesPerPixel = palette != null ? 1 : 3;
+            int rowLength = width * bytesPerPixel;
+            int from = bandStart(band);
+            int to = bandEnd(band);
+            byte[] previous = from > 0 ? rowBytes(pixels, from - 1, new byte[rowLength]) : new byte[rowLength];
+            byte[] current = new byte[rowLength];
+            byte[][] filtered = new byte[Filter.ADAPTIVE.ordinal()][rowLength + 1];
+
+            byte[] raw = new byte[(to - from) * (rowLength + 1)];
+            for (int y = from, offset = 0; y < to; y++, offset += rowLength + 1) {
+                rowBytes(pixels, y, current);
+                System.arraycopy(filterRow(options.filter(), current, previous, bytesPerPixel, filtered), 0,
+                        raw, offset, rowLength + 1);
+                byte[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+
+            Adler32 adler = new Adler32();
+            adler.update(raw);
+            adlers[band] = adler.getValue();
+            rawLengths[band] = raw.length;
+            bands[band] = deflate(raw, options.deflateLevel(), band == bandStarts.length - 1);
+        }
+
+        private byte[] rowBytes(int[] pixels, int y, byte[] row) {
+            int offset = y * width;
+            if (palette != null) {
+                for (int x = 0; x < width; x++) {
+                    row[x] = (byte) palette.indexOf(pixels[offset + x]);
+                }
+            } else {
+                for (int x = 0, i = 0; x < width; x++) {
+                    int rgb = pixels[offset + x];
+                    row[i++] = (byte) (rgb >> 16);
+                    row[i++] = (byte) (rgb >> 8);
+                    row[i++] = (byte) rgb;
+                }
+            }
+            return row;
+        }
+
+        /**
+         * Raw deflate with a fresh dictionary, so the band does not refer back into other bands.
+         */
+        private static byte[] deflate(byte[] raw, int level, boolean last) {
+            Deflater deflater = new Deflater(level, true);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 8 + 64);
+            byte[] buffer = new byte[16 * 1024];
+            try {
+                deflater.setInput(raw);
+                if (last) {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        out.write(buffer, 0, deflater.deflate(buffer));
+                    }
+                } else {
+                    // Sync flush ends the band on a byte boundary without a final block
+                    int length;
+                    do {
+                        length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                        out.write(buffer, 0, length);
+                    } while (length == buffer.length);
+                }
+            } finally {
+                deflater.end();
+            }
+            return out.toByteArray();
+        }
+
+        private void assemble() {
+            ByteArrayOutputStream idat = new ByteArrayOutputStream();
+            idat.writeBytes(ZLIB_HEADER);
+            long adler = 1;
+            for (int band = 0; band < bands.length; band++) {
+                idat.writeBytes(bands[band]);
+                adler = combineAdler(adler, adlers[band], rawLengths[band]);
+            }
+            idat.write((int) (adler >>> 24));
+            idat.write((int) (adler >>> 16));
+            idat.write((int) (adler >>> 8));
+            idat.write((int) adler);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(idat.size() + 1024);
+            try {
+                out.write(SIGNATURE);
+                writeChunk(out, "IHDR", header(width, height, palette != null));
+                if (palette != null) {
+                    writeChunk(out, "PLTE", palette.toBytes());
+                }
+                writeChunk(out, "IDAT", idat.toByteArray());
+                writeChunk(out, "IEND", new byte[0]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bytes = out.toByteArray();
+        }
+
+        /**
+         * Adler-32 of two concatenated inputs from their checksums (as zlib's adler32_combine).
+         */
+        static long combineAdler(long adler1, long adler2, long length2) {
+            long remainder = length2 % ADLER_BASE;
+            long sum1 = adler1 & 0xffff;
+            long sum2 = remainder * sum1 % ADLER_BASE;
+            sum1 += (adler2 & 0xffff) + ADLER_BASE - 1;
+            sum2 += (adler1 >>> 16 & 0xffff) + (adler2 >>> 16 & 0xffff) + ADLER_BASE - remainder;
+            if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+            if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+            if (sum2 >= 2L * ADLER_BASE) sum2 -= 2L * ADLER_BASE;
+            if (sum2 >= ADLER_BASE) sum2 -= ADLER_BASE;
+            return sum1 | sum2 << 16;
+        }
+    }
+
+    private static int[] rgbPixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static byte[] header(int width, int height, boolean indexed) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(13);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(width);
+        data.writeInt(height);
+        data.writeByte(8);                  // bit depth
+        data.writeByte(indexed ? 3 : 2);    // colour type: palette / truecolour
+        data.writeByte(0);                  // compression: deflate
+        data.writeByte(0);                  // filter method: adaptive family
+        data.writeByte(0);                  // no interlace
+        return bytes.toByteArray();
+    }
+
+    private static byte[] imageData(int[] pixels, int width, int height, Palette palette,
+                                    int bytesPerPixel, Options options) throws IOException {
+        int rowLength = width * bytesPerPixel;
+        byte[] previous = new byte[rowLength];
+        byte[] current = new byte[rowLength];
+        byte[][] filtered = new byte[Filter.ADAPTIVE.ordinal()][rowLength + 1];
+
+        Deflater deflater = new Deflater(options.deflateLevel());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(pixels.length / 8);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(compressed, deflater, 64 * 1024)) {
+            for (int y = 0; y < height; y++) {
+                int offset = y * width;
+                if (palette != null) {
+                    for (int x = 0; x < width; x++) {
+                        current[x] = (byte) palette.indexOf(pixels[offset + x]);
+                    }
+                } else {
+                    for (int x = 0, i = 0; x < width; x++) {
+                        int rgb = pixels[offset + x];
+                        current[i++] = (byte) (rgb >> 16);
+                        current[i++] = (byte) (rgb >> 8);
+                        current[i++] = (byte) rgb;
+                    }
+                }
+                stream.write(filterRow(options.filter(), current, previous, bytesPerPixel, filtered));
+
+                byte[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] filterRow(Filter filter, byte[] row, byte[] previous, int bpp, byte[][] scratch) {
+        if (filter != Filter.ADAPTIVE) {
+            return applyFilter(filter.ordinal(), row, previous, bpp, scratch[filter.ordinal()]);
+        }
+        byte[] best = null;
+        long bestCost = Long.MAX_VALUE;
+        for (int type = 0; type < scratch.length; type++) {
+            byte[] candidate = applyFilter(type, row, previous, bpp, scratch[type]);
+            long cost = 0;
+            for (int i = 1; i < candidate.length && cost < bestCost; i++) {
+                cost += Math.abs(candidate[i]);
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static byte[] applyFilter(int type, byte[] row, byte[] previous, int bpp, byte[] out) {
+        out[0] = (byte) type;
+        for (int i = 0; i < row.length; i++) {
+            int x = row[i] & 0xff;
+            int a = i >= bpp ? row[i - bpp] & 0xff : 0;
+            int b = previous[i] & 0xff;
+            int c = i >= bpp ? previous[i - bpp] & 0xff : 0;
+            int predictor = switch (type) {
+                case 1 -> a;
+                case 2 -> b;
+                case 3 -> (a + b) >>> 1;
+                case 4 -> paeth(a, b, c);
+                default -> 0;
+            };
+            out[i + 1] = (byte) (x - predictor);
+        }
+        return out;
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) return a;
+        return pb <= pc ? b : c;
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, String type, byte[] data) throws IOException {
+        DataOutputStream stream = new DataOutputStream(out);
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        stream.writeInt(data.length);
+        stream.write(typeBytes);
+        stream.write(data);
+        stream.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Up to 256 colours: exact when the image has that few, otherwise a weighted median cut
+     * with every source colour mapped to its nearest palette entry.
+     */
+    static final class Palette {
+
+        private final int[] colors;
+        private final Map<Integer, Integer> indexByColor;
+        private int lastColor;
+        private int lastIndex = -1;
+
+        private Palette(int[] colors, Map<Integer, Integer> indexByColor) {
+            this.colors = colors;
+            this.indexByColor = indexByColor;
+        }
+
+        static Palette build(int[] pixels) {
+            Map<Integer, int[]> histogram = new HashMap<>();
+            int previous = 0;
+            int[] previousCount = null;
+            for (int pixel : pixels) {
+                int rgb = pixel & 0xffffff;
+                // Flat areas repeat the same colour, so skip the map lookup for runs
+                if (previousCount == null || rgb != previous) {
+                    previous = rgb;
+                    previousCount = histogram.computeIfAbsent(rgb, k -> new int[1]);
+                }
+                previousCount[0]++;
+            }
+
+            int distinct = histogram.size();
+            int[] sourceColors = new int[distinct];
+            int[] weights = new int[distinct];
+            int i = 0;
+            for (Map.Entry<Integer, int[]> entry : histogram.entrySet()) {
+                sourceColors[i] = entry.getKey();
+                weights[i++] = entry.getValue()[0];
+            }
+
+            int[] colors = distinct <= MAX_PALETTE_SIZE
+                    ? sourceColors.clone()
+                    : medianCut(sourceColors, weights, MAX_PALETTE_SIZE);
+            Map<Integer, Integer> indexByColor = new HashMap<>(distinct * 2);
+            for (int color : sourceColors) {
+                indexByColor.put(color, nearest(colors, color));
+            }
+            return new Palette(colors, indexByColor);
+        }
+
+        int size() {
+            return colors.length;
+        }
+
+        int indexOf(int pixel) {
+            int rgb = pixel & 0xffffff;
+            if (rgb != lastColor || lastIndex < 0) {
+                lastColor = rgb;
+                lastIndex = indexByColor.get(rgb);
+            }
+            return lastIndex;
+        }
+
+        /**
+         * Whether every pixel in {@code [from, to)} has an entry, i.e. can be indexed with this palette.
+         */
+        boolean containsAll(int[] pixels, int from, int to) {
+            int previous = -1;
+            for (int i = from; i < to; i++) {
+                int rgb = pixels[i] & 0xffffff;
+                if (rgb != previous) {
+                    if (!indexByColor.containsKey(rgb)) {
+                        return false;
+                    }
+                    previous = rgb;
+                }
+            }
+            return true;
+        }
+
+        int colorAt(int index) {
+            return colors[index];
+        }
+
+        byte[] toBytes() {
+            byte[] bytes = new byte[colors.length * 3];
+            for (int i = 0, j = 0; i < colors.length; i++) {
+                bytes[j++] = (byte) (colors[i] >> 16);
+                bytes[j++] = (byte) (colors[i] >> 8);
+                bytes[j++] = (byte) colors[i];
+            }
+            return bytes;
+        }
+
+        private static int nearest(int[] colors, int color) {
+            int best = 0;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < colors.length && bestDistance > 0; i++) {
+                int dr = (colors[i] >> 16 & 0xff) - (color >> 16 & 0xff);
+                int dg = (colors[i] >> 8 & 0xff) - (color >> 8 & 0xff);
+                int db = (colors[i] & 0xff) - (color & 0xff);
+                int distance = dr * dr + dg * dg + db * db;
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        private static int[] medianCut(int[] colors, int[] weights, int maxColors) {
+            List<int[]> done = new ArrayList<>();
+            // Split the box with the widest channel range until the palette is full
+            PriorityQueue<int[]> queue = new PriorityQueue<>(Comparator.comparingInt((int[] box) -> -box[3]));
+            queue.add(describe(colors, 0, colors.length));
+            while (!queue.isEmpty() && queue.size() + done.size() < maxColors) {
+                int[] box = queue.poll();
+                int from = box[0];
+                int to = box[1];
+                if (to - from < 2 || box[3] == 0) {
+                    done.add(box);
+                    continue;
+                }
+                int split = sortAndSplit(colors, weights, from, to, box[2]);
+                queue.add(describe(colors, from, split));
+                queue.add(describe(colors, split, to));
+            }
+            done.addAll(queue);
+
+            int[] palette = new int[done.size()];
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = average(colors, weights, done.get(i)[0], done.get(i)[1]);
+            }
+            return palette;
+        }
+
+        /**
+         * Box as {from, to, widest channel shift, widest channel range}.
+         */
+        private static int[] describe(int[] colors, int from, int to) {
+            int bestShift = 16;
+            int bestRange = -1;
+            for (int shift = 16; shift >= 0; shift -= 8) {
+                int min = 255;
+                int max = 0;
+                for (int i = from; i < to; i++) {
+                    int value = colors[i] >> shift & 0xff;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+                if (max - min > bestRange) {
+                    bestRange = max - min;
+                    bestShift = shift;
+                }
+            }
+            return new int[]{from, to, bestShift, bestRange};
+        }
+
+        private static int sortAndSplit(int[] colors, int[] weights, int from, int to, int shift) {
+            // Sort key: channel value, then colour, then position (distinct colours fit in 24 bits)
+            long[] keyed = new long[to - from];
+            int[] sourceWeights = Arrays.copyOfRange(weights, from, to);
+            long total = 0;
+            for (int i = from; i < to; i++) {
+                keyed[i - from] = (long) (colors[i] >> shift & 0xff) << 48 | (long) colors[i] << 24 | (i - from);
+                total += weights[i];
+            }
+            Arrays.sort(keyed);
+            for (int i = from; i < to; i++) {
+                long key = keyed[i - from];
+                colors[i] = (int) (key >>> 24) & 0xffffff;
+                weights[i] = sourceWeights[(int) (key & 0xffffff)];
+            }
+
+            long half = total / 2;
+            long seen = 0;
+            int split = from + 1;
+            for (int i = from; i < to - 1; i++) {
+                seen += weights[i];
+                split = i + 1;
+                if (seen >= half) {
+                    break;
+                }
+            }
+            return split;
+        }
+
+        private static int average(int[] colors, int[] weights, int from, int to) {
+            long r = 0, g = 0, b = 0, total = 0;
+            for (int i = from; i < to; i++) {
+                long weight = weights[i];
+                r += (colors[i] >> 16 & 0xff) * weight;
+                g += (colors[i] >> 8 & 0xff) * weight;
+                b += (colors[i] & 0xff) * weight;
+                total += weight;
+            }
+            return (int) (r / total) << 16 | (int) (g / total) << 8 | (int) (b / total);
+        }
+    }
+}
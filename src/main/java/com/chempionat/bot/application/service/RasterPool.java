@@ -0,0 +1,88 @@
+package com.chempionat.bot.application.service;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reusable opaque (TYPE_INT_RGB) canvases for the image renderers, bucketed by size.
+ * A full-width page is several MB, and the renderers produce only a handful of distinct
+ * heights, so returning finished canvases here saves most large allocations.
+ * Pooled canvases keep their old pixels: callers must paint every pixel before use.
+ */
+public final class RasterPool {
+
+    private static final long MAX_POOLED_BYTES = 48L * 1024 * 1024;
+    private static final int MAX_PER_SIZE = 4;
+
+    private static final Map<Long, Queue<BufferedImage>> BUCKETS = new ConcurrentHashMap<>();
+    private static final Map<Long, AtomicInteger> BUCKET_SIZES = new ConcurrentHashMap<>();
+    private static final AtomicLong POOLED_BYTES = new AtomicLong();
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private RasterPool() {
+    }
+
+    /**
+     * An opaque canvas of the given size, reused if one is free.
+     */
+    public static BufferedImage acquire(int width, int height) {
+        long key = key(width, height);
+        Queue<BufferedImage> bucket = BUCKETS.get(key);
+        BufferedImage image = bucket != null ? bucket.poll() : null;
+        if (image != null) {
+            BUCKET_SIZES.get(key).decrementAndGet();
+            POOLED_BYTES.addAndGet(-bytes(image));
+            HITS.incrementAndGet();
+            return image;
+        }
+        MISSES.incrementAndGet();
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Return a canvas that is no longer used. Images the pool cannot hold are left to the GC.
+     */
+    public static void release(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_INT_RGB || image.getRaster().getParent() != null) {
+            return;
+        }
+        long size = bytes(image);
+        if (POOLED_BYTES.addAndGet(size) > MAX_POOLED_BYTES) {
+            POOLED_BYTES.addAndGet(-size);
+            return;
+        }
+        long key = key(image.getWidth(), image.getHeight());
+        if (BUCKET_SIZES.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() > MAX_PER_SIZE) {
+            BUCKET_SIZES.get(key).decrementAndGet();
+            POOLED_BYTES.addAndGet(-size);
+            return;
+        }
+        BUCKETS.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).offer(image);
+    }
+
+    public static long getPooledBytes() {
+        return POOLED_BYTES.get();
+    }
+
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+        return MISSES.get();
+    }
+
+    private static long key(int width, int height) {
+        return ((long) width << 32) | height;
+    }
+
+    private static long bytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * Integer.BYTES;
+    }
+}
@@ -0,0 +1,150 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.Role;
+import com.chempionat.bot.domain.model.User;
+import com.chempionat.bot.domain.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of user roles, so role checks in commands and admin notifications do not
+ * query the database. Loaded at startup and kept current by {@link #update(User)} wherever a
+ * role is assigned; a periodic reload picks up roles changed directly in the database.
+ */
+@Slf4j
+@Component
+public class RoleIndex {
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentHashMap<Long, Role> roles = new ConcurrentHashMap<>();
+
+    /**
+     * Telegram ids by role other than USER, rebuilt from {@link #roles} when one of them changes.
+     */
+    private volatile Map<Role, List<Long>> byRole = Map.of();
+
+    private volatile boolean loaded;
+
+    public RoleIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${telegram.roles.refresh-ms:600000}",
+            initialDelayString = "${telegram.roles.refresh-ms:600000}")
+    void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh role index, keeping the loaded roles", e);
+        }
+    }
+
+    synchronized void reload() {
+        Map<Long, Role> current = new HashMap<>();
+        for (UserRepository.TelegramRole user : userRepository.findAllRoles()) {
+            current.put(user.getTelegramId(), user.getRole());
+        }
+        roles.keySet().retainAll(current.keySet());
+        roles.putAll(current);
+        rebuild();
+        loaded = true;
+        log.info("Role index loaded: {} users", roles.size());
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    public Optional<Role> getRole(Long telegramId) {
+        ensureLoaded();
+        return Optional.ofNullable(roles.get(telegramId));
+    }
+
+    /**
+     * Whether the user exists and has one of {@code allowed}.
+     */
+    public boolean hasRole(Long telegramId, Role... allowed) {
+        return getRole(telegramId).filter(role -> Arrays.asList(allowed).contains(role)).isPresent();
+    }
+
+    /**
+     * Telegram ids of all users with {@code role}, e.g. the admins to notify.
+     */
+    public List<Long> getTelegramIds(Role role) {
+        if (role == Role.USER) {
+            throw new IllegalArgumentException("Plain users are not listed by role");
+        }
+        ensureLoaded();
+        return byRole.getOrDefault(role, List.of());
+    }
+
+    /**
+     * Record the user's role once the current transaction commits (at once without one),
+     * so a rolled back role change never reaches the index.
+     */
+    public void update(User user) {
+        Long telegramId = user.getTelegramId();
+        Role role = user.getRole();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(telegramId, role);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(telegramId, role);
+            }
+        });
+    }
+
+    private synchronized void put(Long telegramId, Role role) {
+        Role previous = roles.put(telegramId, role);
+        if (role != previous && (role != Role.USER || previous != null)) {
+            rebuild();
+            log.debug("Role index: user {} is now {}", telegramId, role);
+        }
+    }
+
+    private void rebuild() {
+        Map<Role, List<Long>> grouped = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            if (role == Role.USER) {
+                continue;
+            }
+            List<Long> ids = roles.entrySet().stream()
+                    .filter(entry -> entry.getValue() == role)
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList();
+            if (!ids.isEmpty()) {
+                grouped.put(role, ids);
+            }
+        }
+        byRole = grouped;
+    }
+}
@@ -5,6 +5,8 @@ import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Team;
 import com.chempionat.bot.domain.model.Tournament;
 import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.domain.repository.TeamRepository;
+import com.chempionat.bot.domain.repository.TournamentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,6 +14,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing tournament rounds with bye logic
@@ -21,7 +25,19 @@ import java.util.*;
 @RequiredArgsConstructor
 public class RoundService {
 
+    /**
+     * Share of a round's real matches that must be finished before the next
+     * lazy round is written.
+     */
+    private static final double MATERIALIZE_THRESHOLD = 0.75;
+
+    private static final long BYE_SEED_ID = 0L;
+
     private final MatchRepository matchRepository;
+    private final TeamRepository teamRepository;
+    private final TournamentRepository tournamentRepository;
+    private final MatchSlotScheduler matchSlotScheduler;
+    private final TournamentLockService tournamentLockService;
 
     /**
      * Generate round-robin schedule with bye rounds for odd number of teams
@@ -62,6 +78,184 @@ public class RoundService {
         return allMatches;
     }
 
+    /**
+     * Prepare a league for round-on-demand scheduling.
+     * Stores the circle-method participant order as the tournament's schedule seed
+     * and returns only the first round; later rounds are built from the seed when needed.
+     */
+    public List<Match> initializeLazySchedule(Tournament tournament, List<Team> teams) {
+        if (teams.size() < 2) {
+            throw new IllegalArgumentException("At least 2 teams required");
+        }
+
+        List<Team> participants = new ArrayList<>(teams);
+        if (participants.size() % 2 != 0) {
+            participants.add(null); // Bye placeholder
+        }
+
+        String seed = participants.stream()
+                .map(team -> team == null ? String.valueOf(BYE_SEED_ID) : String.valueOf(team.getId()))
+                .collect(Collectors.joining(","));
+
+        tournament.setLazySchedule(true);
+        tournament.setScheduleSeed(seed);
+        tournament.setMaterializedRounds(1);
+
+        List<Match> firstRound = buildRound(tournament, participants, 1);
+        log.info("Initialized lazy schedule for tournament {} with {} teams ({} rounds in total)",
+                tournament.getId(), teams.size(), getTotalRounds(tournament));
+        return firstRound;
+    }
+
+    /**
+     * Check whether the tournament uses round-on-demand scheduling.
+     */
+    public boolean isLazySchedule(Tournament tournament) {
+        return Boolean.TRUE.equals(tournament.getLazySchedule()) && tournament.getScheduleSeed() != null;
+    }
+
+    /**
+     * Check whether a lazy league still has rounds that exist only in its seed.
+     */
+    public boolean hasUnmaterializedRounds(Tournament tournament) {
+        return isLazySchedule(tournament) && getMaterializedRounds(tournament) < getTotalRounds(tournament);
+    }
+
+    /**
+     * Write the given round (and any earlier missing rounds) to the matches table.
+     * Used when an organizer opens a round that has not been materialized yet.
+     * The tournament row is locked while checking and writing, so concurrent callers
+     * never write the same round twice.
+     */
+    @Transactional
+    public List<Match> materializeRound(Tournament tournament, int roundNumber) {
+        // The materialized count only grows, so a stale copy can only send us to the locked path
+        if (!isLazySchedule(tournament) || roundNumber <= getMaterializedRounds(tournament)) {
+            return matchRepository.findByTournamentAndRound(tournament, roundNumber);
+        }
+        Tournament locked = tournamentLockService.lock(tournament);
+        tournament.setMaterializedRounds(locked.getMaterializedRounds());
+        if (roundNumber <= getMaterializedRounds(locked)) {
+            return matchRepository.findByTournamentAndRound(locked, roundNumber);
+        }
+        int totalRounds = getTotalRounds(locked);
+        if (roundNumber > totalRounds) {
+            return new ArrayList<>();
+        }
+
+        List<Team> participants = loadSeedParticipants(locked);
+        List<Match> created = new ArrayList<>();
+        for (int round = getMaterializedRounds(locked) + 1; round <= roundNumber; round++) {
+            created.addAll(buildRound(locked, participants, round));
+        }
+        matchSlotScheduler.scheduleMatches(locked, created);
+        matchRepository.saveAll(created);
+
+        locked.setMaterializedRounds(roundNumber);
+        tournamentRepository.save(locked);
+        tournament.setMaterializedRounds(roundNumber);
+
+        log.info("Materialized rounds up to {} for tournament {} ({} matches)",
+                roundNumber, tournament.getId(), created.size());
+        return created.stream()
+                .filter(m -> m.getRound() == roundNumber)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Materialize the next round of a lazy league once the latest written round is nearly finished.
+     *
+     * @return true if a new round was written
+     */
+    @Transactional
+    public boolean materializeNextRoundIfDue(Tournament tournament) {
+        if (!hasUnmaterializedRounds(tournament)) {
+            return false;
+        }
+        // Decide on the committed round count: a concurrent approval may have just written the next round
+        Tournament locked = tournamentLockService.lock(tournament);
+        tournament.setMaterializedRounds(locked.getMaterializedRounds());
+        if (!hasUnmaterializedRounds(locked)) {
+            return false;
+        }
+
+        int currentRound = getMaterializedRounds(locked);
+        List<Match> realMatches = matchRepository.findByTournamentAndRound(locked, currentRound).stream()
+                .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
+                .toList();
+        long finished = realMatches.stream()
+                .filter(m -> m.getHomeScore() != null && m.getAwayScore() != null)
+                .count();
+
+        if (finished < Math.ceil(realMatches.size() * MATERIALIZE_THRESHOLD)) {
+            return false;
+        }
+
+        materializeRound(locked, currentRound + 1);
+        tournament.setMaterializedRounds(locked.getMaterializedRounds());
+        return true;
+    }
+
+    /**
+     * Total number of rounds in the tournament, including rounds not yet materialized.
+     */
+    public int getTotalRounds(Tournament tournament) {
+        if (!isLazySchedule(tournament)) {
+            return getMaxRoundNumber(tournament);
+        }
+        int slots = tournament.getScheduleSeed().split(",").length;
+        return (slots - 1) * getCycles(tournament);
+    }
+
+    /**
+     * Total number of real (non-bye) matches a full round-robin produces.
+     */
+    public long calculateTotalRealMatches(int teamCount, int numberOfRounds) {
+        return (long) teamCount * (teamCount - 1) / 2 * numberOfRounds;
+    }
+
+    private int getMaterializedRounds(Tournament tournament) {
+        return tournament.getMaterializedRounds() != null ? tournament.getMaterializedRounds() : 0;
+    }
+
+    private int getCycles(Tournament tournament) {
+        return tournament.getNumberOfRounds() != null ? tournament.getNumberOfRounds() : 1;
+    }
+
+    /**
+     * Build (without saving) the matches of one round from the seeded participant order.
+     */
+    private List<Match> buildRound(Tournament tournament, List<Team> participants, int roundNumber) {
+        int roundsPerCycle = participants.size() - 1;
+        int cycle = (roundNumber - 1) / roundsPerCycle;
+        int roundIndex = (roundNumber - 1) % roundsPerCycle;
+        boolean swapHomeAway = getCycles(tournament) > 1 && (cycle % 2 == 1);
+        return generateRoundMatches(tournament, participants, roundIndex, roundNumber, swapHomeAway);
+    }
+
+    /**
+     * Resolve the seed back into the participant list (null for the bye slot).
+     */
+    private List<Team> loadSeedParticipants(Tournament tournament) {
+        Map<Long, Team> teamsById = teamRepository.findByTournament(tournament).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+
+        List<Team> participants = new ArrayList<>();
+        for (String id : tournament.getScheduleSeed().split(",")) {
+            long teamId = Long.parseLong(id.trim());
+            if (teamId == BYE_SEED_ID) {
+                participants.add(null);
+                continue;
+            }
+            Team team = teamsById.get(teamId);
+            if (team == null) {
+                throw new IllegalStateException("Seeded team not found: " + teamId);
+            }
+            participants.add(team);
+        }
+        return participants;
+    }
+
     /**
      * Generate matches for a single round using circle method
      */
@@ -154,7 +348,8 @@ public class RoundService {
     }
 
     /**
-     * Get matches grouped by round
+     * Get matches grouped by round.
+     * For lazy leagues, rounds not yet materialized are included as unsaved virtual matches.
      */
     public Map<Integer, List<Match>> getMatchesByRound(Tournament tournament) {
         List<Match> matches = matchRepository.findByTournament(tournament);
@@ -163,18 +358,40 @@ public class RoundService {
         for (Match match : matches) {
             matchesByRound.computeIfAbsent(match.getRound(), k -> new ArrayList<>()).add(match);
         }
+
+        if (hasUnmaterializedRounds(tournament)) {
+            List<Team> participants = loadSeedParticipants(tournament);
+            int totalRounds = getTotalRounds(tournament);
+            for (int round = getMaterializedRounds(tournament) + 1; round <= totalRounds; round++) {
+                matchesByRound.put(round, buildRound(tournament, participants, round));
+            }
+        }
         
         return matchesByRound;
     }
 
     /**
-     * Get all matches for a specific round
+     * Get all matches for a specific round.
+     * For lazy leagues, a round not yet materialized is returned as unsaved virtual matches.
      */
     public List<Match> getMatchesForRound(Tournament tournament, int roundNumber) {
-        List<Match> matches = matchRepository.findByTournament(tournament);
-        return matches.stream()
-                .filter(m -> m.getRound().equals(roundNumber))
-                .toList();
+        if (isLazySchedule(tournament) && roundNumber > getMaterializedRounds(tournament)) {
+            if (roundNumber > getTotalRounds(tournament)) {
+                return new ArrayList<>();
+            }
+            return buildRound(tournament, loadSeedParticipants(tournament), roundNumber);
+        }
+        return new ArrayList<>(matchRepository.findByTournamentAndRound(tournament, roundNumber));
+    }
+
+    /**
+     * Matches of a round in kickoff order, as shown in the round image.
+     */
+    public List<Match> getMatchesForRoundByKickoff(Tournament tournament, int roundNumber) {
+        List<Match> matches = getMatchesForRound(tournament, roundNumber);
+        matches.sort(Comparator.comparing(
+                m -> m.getScheduledTime() != null ? m.getScheduledTime() : LocalDateTime.MAX));
+        return matches;
     }
 
     /**
@@ -200,7 +417,7 @@ public class RoundService {
     }
 
     /**
-     * Get the maximum round number for a tournament
+     * Get the maximum materialized round number for a tournament
      */
     public int getMaxRoundNumber(Tournament tournament) {
         return matchRepository.findByTournament(tournament)
@@ -0,0 +1,47 @@
+package com.chempionat.bot.application.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces Telegram sends evenly to stay under a rate, shared by all broadcast workers.
+ * A rate limit reply pushes every later send back by its retry_after.
+ */
+final class SendRateLimiter {
+
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+
+    SendRateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Send rate must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Wait for the next free send slot.
+     */
+    void acquire() throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = nextSlot - now > 0 ? nextSlot : now;
+            nextSlot = slot + intervalNanos;
+            wait = slot - now;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Hold every send for at least the given time from now.
+     */
+    synchronized void pause(Duration duration) {
+        long resumeAt = System.nanoTime() + duration.toNanos();
+        if (resumeAt - nextSlot > 0) {
+            nextSlot = resumeAt;
+        }
+    }
+}
@@ -10,17 +10,25 @@ import com.chempionat.bot.domain.model.Tournament;
 import com.chempionat.bot.domain.repository.MatchRepository;
 import com.chempionat.bot.domain.repository.TeamRepository;
 import com.chempionat.bot.domain.repository.TournamentRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 /**
  * Core service for single elimination (knockout/Olympic) tournament logic.
  * Handles bracket generation, stage detection, BYE handling, and winner propagation.
+ * Brackets are kept in memory as heap-ordered {@link BracketModel} snapshots keyed by tournament,
+ * so propagation and placements do not need to re-query the bracket. The cache only changes
+ * after a commit.
  */
 @Slf4j
 @Service
@@ -30,16 +38,24 @@ public class SingleEliminationService {
     private final TournamentRepository tournamentRepository;
     private final TeamRepository teamRepository;
     private final NotificationService notificationService;
+    private final MatchSlotScheduler matchSlotScheduler;
+
+    private final Cache<Long, BracketModel> bracketCache = Caffeine.newBuilder()
+            .maximumSize(256)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
 
     public SingleEliminationService(
             MatchRepository matchRepository,
             TournamentRepository tournamentRepository,
             TeamRepository teamRepository,
-            @Lazy NotificationService notificationService) {
+            @Lazy NotificationService notificationService,
+            MatchSlotScheduler matchSlotScheduler) {
         this.matchRepository = matchRepository;
         this.tournamentRepository = tournamentRepository;
         this.teamRepository = teamRepository;
         this.notificationService = notificationService;
+        this.matchSlotScheduler = matchSlotScheduler;
     }
 
     /**
@@ -52,7 +68,8 @@ public class SingleEliminationService {
             MatchStage.QUARTER_FINAL,   // 2 rounds remaining (4 matches)
             MatchStage.ROUND_OF_16,     // 3 rounds remaining (8 matches)
             MatchStage.ROUND_OF_32,     // 4 rounds remaining (16 matches)
-            MatchStage.ROUND_OF_64      // 5 rounds remaining (32 matches)
+            MatchStage.ROUND_OF_64,     // 5 rounds remaining (32 matches)
+            MatchStage.ROUND_OF_128     // 6 rounds remaining (64 matches)
     };
 
     /**
@@ -63,7 +80,7 @@ public class SingleEliminationService {
         int bracketSize = calculateBracketSize(teamCount);
         int numberOfRounds = (int) (Math.log(bracketSize) / Math.log(2));
         
-        // numberOfRounds gives us index: 1->FINAL, 2->SF, 3->QF, 4->R16, 5->R32, 6->R64
+        // numberOfRounds gives us index: 1->FINAL, 2->SF, 3->QF, 4->R16, 5->R32, 6->R64, 7->R128
         int stageIndex = Math.min(numberOfRounds - 1, STAGE_ORDER.length - 1);
         return STAGE_ORDER[stageIndex];
     }
@@ -73,6 +90,7 @@ public class SingleEliminationService {
      */
     public String getStageDisplayName(MatchStage stage) {
         return switch (stage) {
+            case ROUND_OF_128 -> "1/64";
             case ROUND_OF_64 -> "1/32";
             case ROUND_OF_32 -> "1/16";
             case ROUND_OF_16 -> "1/8";
@@ -80,6 +98,10 @@ public class SingleEliminationService {
             case SEMI_FINAL -> "Yarim final";
             case THIRD_PLACE -> "3-o'rin uchun";
             case FINAL -> "Final";
+            case UPPER_BRACKET -> "Yuqori to'r";
+            case LOWER_BRACKET -> "Quyi to'r";
+            case GRAND_FINAL -> "Grand final";
+            case GRAND_FINAL_RESET -> "Grand final (qayta)";
             default -> stage.name();
         };
     }
@@ -98,8 +120,8 @@ public class SingleEliminationService {
 
     /**
      * Generate bracket matches for a tournament.
-     * Creates only first-round matches initially. Subsequent round matches
-     * are created dynamically when winners advance.
+     * Creates the full bracket skeleton, every round down to the final, in one batch.
+     * Later-round matches start without teams and are filled in as winners advance.
      * Handles BYE assignments for odd team counts.
      */
     @Transactional
@@ -108,39 +130,119 @@ public class SingleEliminationService {
             throw new IllegalArgumentException("At least 2 teams required for playoff");
         }
 
-        int teamCount = teams.size();
-        int bracketSize = calculateBracketSize(teamCount);
-        int totalRounds = (int) (Math.log(bracketSize) / Math.log(2));
-        int byeCount = bracketSize - teamCount;
+        int bracketSize = calculateBracketSize(teams.size());
+        int byeCount = bracketSize - teams.size();
         int firstRoundMatchCount = bracketSize / 2;
 
-        log.info("Generating bracket: {} teams, bracket size {}, {} rounds, {} byes",
-                teamCount, bracketSize, totalRounds, byeCount);
-
-        // Shuffle teams for random seeding (can be replaced with seeding logic later)
+        // Shuffle teams for random seeding
         List<Team> shuffledTeams = new ArrayList<>(teams);
         Collections.shuffle(shuffledTeams);
 
-        // Get starting stage based on team count
-        MatchStage startingStage = detectStartingStage(teamCount);
-
-        List<Match> firstRoundMatches = new ArrayList<>();
-        int bracketPosition = 1;
+        // BYE slots first (one team, auto-advance), then regular pairs
+        List<Team[]> pairs = new ArrayList<>();
         int teamIndex = 0;
+        for (int i = 0; i < firstRoundMatchCount; i++) {
+            if (i < byeCount) {
+                pairs.add(new Team[]{shuffledTeams.get(teamIndex++), null});
+            } else {
+                pairs.add(new Team[]{shuffledTeams.get(teamIndex++), shuffledTeams.get(teamIndex++)});
+            }
+        }
+
+        return createFirstRound(tournament, pairs, teams.size(), 1);
+    }
+
+    /**
+     * Generate a bracket from teams ordered by seed (best first).
+     * Uses standard seeding (1 vs N, 2 vs N-1, ...) placed so the top two seeds can
+     * only meet in the final; missing seeds become BYEs for the strongest teams.
+     *
+     * @param firstRound round number of the first bracket round (after any group stage rounds)
+     */
+    @Transactional
+    public List<Match> generateSeededBracket(Tournament tournament, List<Team> seededTeams, int firstRound) {
+        if (seededTeams.size() < 2) {
+            throw new IllegalArgumentException("At least 2 teams required for playoff");
+        }
+
+        int bracketSize = calculateBracketSize(seededTeams.size());
+        int[] seedOrder = buildSeedOrder(bracketSize);
+
+        List<Team[]> pairs = new ArrayList<>();
+        for (int i = 0; i < bracketSize; i += 2) {
+            Team home = seedOrder[i] <= seededTeams.size() ? seededTeams.get(seedOrder[i] - 1) : null;
+            Team away = seedOrder[i + 1] <= seededTeams.size() ? seededTeams.get(seedOrder[i + 1] - 1) : null;
+            pairs.add(home != null ? new Team[]{home, away} : new Team[]{away, null});
+        }
+
+        return createFirstRound(tournament, pairs, seededTeams.size(), firstRound);
+    }
+
+    /**
+     * Seed numbers (1-based) in bracket slot order, e.g. [1, 8, 4, 5, 2, 7, 3, 6] for 8 slots.
+     */
+    int[] buildSeedOrder(int bracketSize) {
+        int[] order = {1, 2};
+        while (order.length < bracketSize) {
+            int size = order.length * 2;
+            int[] next = new int[size];
+            for (int i = 0; i < order.length; i++) {
+                next[i * 2] = order[i];
+                next[i * 2 + 1] = size + 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    /**
+     * Create the whole bracket tree for the given first-round pairs (second team null = BYE)
+     * and save it in one batch. Later-round matches start without teams and are linked
+     * to their next match up front, so propagation only has to fill in a team slot.
+     * BYE winners are placed into their next match right away. Matches whose teams are both
+     * known get a time slot; the rest are scheduled as winners fill them in.
+     *
+     * @return the first-round matches
+     */
+    private List<Match> createFirstRound(Tournament tournament, List<Team[]> pairs, int teamCount, int firstRound) {
+        int bracketSize = pairs.size() * 2;
+        int totalRounds = Integer.numberOfTrailingZeros(bracketSize);
+
+        log.info("Generating bracket: {} teams, bracket size {}, {} rounds, {} byes",
+                teamCount, bracketSize, totalRounds, bracketSize - teamCount);
+
+        // Heap layout: the final is slot 1, first round occupies slots [pairs, 2 * pairs)
+        Match[] heap = new Match[bracketSize];
+        int firstRoundDepth = totalRounds - 1;
+
+        // Empty matches of later rounds
+        for (int position = 1; position < pairs.size(); position++) {
+            int depth = BracketModel.depth(position);
+            heap[position] = Match.builder()
+                    .tournament(tournament)
+                    .state(MatchLifecycleState.CREATED)
+                    .round(firstRound + firstRoundDepth - depth)
+                    .stage(getStageForDepth(depth))
+                    .bracketPosition(position)
+                    .isBye(false)
+                    .build();
+        }
 
         // Create first round matches
-        for (int i = 0; i < firstRoundMatchCount; i++) {
+        MatchStage startingStage = getStageForDepth(firstRoundDepth);
+        List<Match> firstRoundMatches = new ArrayList<>();
+        int bracketPosition = pairs.size();
+        for (Team[] pair : pairs) {
             Match match;
             
-            if (i < byeCount) {
+            if (pair[1] == null) {
                 // This slot gets a BYE - only one team assigned, auto-advance
-                Team team = shuffledTeams.get(teamIndex++);
                 match = Match.builder()
                         .tournament(tournament)
-                        .homeTeam(team)
-                        .awayTeam(team) // Set both to same team for BYE
+                        .homeTeam(pair[0])
+                        .awayTeam(pair[0]) // Set both to same team for BYE
                         .state(MatchLifecycleState.APPROVED)
-                        .round(1)
+                        .round(firstRound)
                         .stage(startingStage)
                         .bracketPosition(bracketPosition++)
                         .isBye(true)
@@ -149,86 +251,58 @@ public class SingleEliminationService {
                         .build();
             } else {
                 // Normal match with two teams
-                Team homeTeam = shuffledTeams.get(teamIndex++);
-                Team awayTeam = shuffledTeams.get(teamIndex++);
                 match = Match.builder()
                         .tournament(tournament)
-                        .homeTeam(homeTeam)
-                        .awayTeam(awayTeam)
+                        .homeTeam(pair[0])
+                        .awayTeam(pair[1])
                         .state(MatchLifecycleState.CREATED)
-                        .round(1)
+                        .round(firstRound)
                         .stage(startingStage)
                         .bracketPosition(bracketPosition++)
                         .isBye(false)
                         .build();
             }
+            heap[match.getBracketPosition()] = match;
             firstRoundMatches.add(match);
         }
 
-        // Save first round matches
-        List<Match> savedMatches = matchRepository.saveAll(firstRoundMatches);
-        
-        log.info("Generated {} first-round matches for tournament {}", savedMatches.size(), tournament.getId());
-
-        // Handle BYE advancements - create next round matches for BYE winners
-        List<Match> byeMatches = savedMatches.stream()
-                .filter(m -> Boolean.TRUE.equals(m.getIsBye()))
-                .toList();
-        
-        if (!byeMatches.isEmpty()) {
-            processInitialByeAdvancements(tournament, byeMatches, savedMatches, totalRounds);
+        // Link every match to its next match; BYE winners advance immediately
+        for (int position = 2; position < heap.length; position++) {
+            Match match = heap[position];
+            Match nextMatch = heap[BracketModel.parent(position)];
+            boolean toHome = BracketModel.feedsHome(position);
+            match.setNextMatch(nextMatch);
+            match.setWinnerToHome(toHome);
+            if (Boolean.TRUE.equals(match.getIsBye())) {
+                if (toHome) {
+                    nextMatch.setHomeTeam(match.getHomeTeam());
+                } else {
+                    nextMatch.setAwayTeam(match.getHomeTeam());
+                }
+            }
         }
 
-        return savedMatches;
-    }
-    
-    /**
-     * Process BYE advancements - advance teams with BYEs to next round.
-     */
-    private void processInitialByeAdvancements(Tournament tournament, List<Match> byeMatches, 
-                                                List<Match> allFirstRoundMatches, int totalRounds) {
-        // Group matches into pairs and create next round match if both are ready
-        for (int i = 0; i < allFirstRoundMatches.size(); i += 2) {
-            Match match1 = allFirstRoundMatches.get(i);
-            Match match2 = i + 1 < allFirstRoundMatches.size() ? allFirstRoundMatches.get(i + 1) : null;
-            
-            if (match2 == null) {
-                // Odd number of matches, this winner advances directly
-                continue;
-            }
-            
-            boolean match1IsBye = Boolean.TRUE.equals(match1.getIsBye());
-            boolean match2IsBye = Boolean.TRUE.equals(match2.getIsBye());
-            
-            if (match1IsBye && match2IsBye) {
-                // Both are BYEs - create next round match immediately
-                Team winner1 = match1.getHomeTeam();
-                Team winner2 = match2.getHomeTeam();
-                
-                Match nextMatch = createNextRoundMatch(tournament, match1, winner1, winner2, totalRounds);
-                match1.setNextMatch(nextMatch);
-                match1.setWinnerToHome(true);
-                match2.setNextMatch(nextMatch);
-                match2.setWinnerToHome(false);
-                
-                matchRepository.saveAll(List.of(match1, match2));
-            } else if (match1IsBye) {
-                // Match1 is BYE, store winner to advance when match2 completes
-                match1.setWinnerToHome(true);
-                matchRepository.save(match1);
-            } else if (match2IsBye) {
-                // Match2 is BYE, store winner to advance when match1 completes
-                match2.setWinnerToHome(false);
-                matchRepository.save(match2);
-            }
+        // Parents come first so every next_match reference is already persisted
+        List<Match> allMatches = new ArrayList<>(Arrays.asList(heap).subList(1, heap.length));
+        matchSlotScheduler.scheduleMatches(tournament, allMatches);
+        matchRepository.saveAll(allMatches);
+
+        log.info("Generated {} bracket matches ({} in first round) for tournament {}",
+                allMatches.size(), firstRoundMatches.size(), tournament.getId());
+
+        if (tournament.getId() != null) {
+            BracketModel bracket = BracketModel.of(pairs.size(), allMatches);
+            Long tournamentId = tournament.getId();
+            afterCommit(() -> bracketCache.put(tournamentId, bracket));
         }
+        return firstRoundMatches;
     }
     
     /**
      * Create a match for the next round.
      */
-    private Match createNextRoundMatch(Tournament tournament, Match previousMatch, 
-                                        Team homeTeam, Team awayTeam, int totalRounds) {
+    private Match createNextRoundMatch(Tournament tournament, Match previousMatch,
+                                        Team homeTeam, Team awayTeam, int bracketPosition) {
         int currentRound = previousMatch.getRound();
         int nextRound = currentRound + 1;
         MatchStage nextStage = getNextStage(previousMatch.getStage());
@@ -240,22 +314,20 @@ public class SingleEliminationService {
                 .state(MatchLifecycleState.CREATED)
                 .round(nextRound)
                 .stage(nextStage)
-                .bracketPosition(previousMatch.getBracketPosition() / 2 + 1000 * nextRound)
+                .bracketPosition(bracketPosition)
                 .isBye(false)
                 .build();
         
-        return matchRepository.save(nextMatch);
+        matchSlotScheduler.scheduleMatches(tournament, List.of(nextMatch));
+        matchRepository.save(nextMatch);
+        return nextMatch;
     }
 
     /**
-     * Get the stage for a given round number.
+     * Get the stage for a bracket level (0 = final, 1 = semi-final, ...).
      */
-    private MatchStage getStageForRound(int round, int totalRounds) {
-        int roundsFromFinal = round - 1; // 0 = final, 1 = semi, etc.
-        if (roundsFromFinal < STAGE_ORDER.length) {
-            return STAGE_ORDER[roundsFromFinal];
-        }
-        return MatchStage.ROUND_OF_64; // Fallback for very large brackets
+    private MatchStage getStageForDepth(int depth) {
+        return STAGE_ORDER[Math.min(depth, STAGE_ORDER.length - 1)];
     }
     
     /**
@@ -263,6 +335,7 @@ public class SingleEliminationService {
      */
     private MatchStage getNextStage(MatchStage currentStage) {
         return switch (currentStage) {
+            case ROUND_OF_128 -> MatchStage.ROUND_OF_64;
             case ROUND_OF_64 -> MatchStage.ROUND_OF_32;
             case ROUND_OF_32 -> MatchStage.ROUND_OF_16;
             case ROUND_OF_16 -> MatchStage.QUARTER_FINAL;
@@ -298,7 +371,8 @@ public class SingleEliminationService {
 
     /**
      * Internal method to propagate winner.
-     * Creates next round match dynamically if needed.
+     * Fills the winner's slot of the pre-created next match. Brackets generated before
+     * the full tree was created up front get their next match once both feeders are decided.
      */
     private void propagateWinnerInternal(Match match, Team winner) {
         // Check if this is the final
@@ -306,74 +380,78 @@ public class SingleEliminationService {
             log.info("Match {} is the final - winner: {}", match.getId(), winner.getName());
             return;
         }
-        
-        Match nextMatch = match.getNextMatch();
-        
-        if (nextMatch != null) {
-            // Next match already exists, just assign winner
-            if (Boolean.TRUE.equals(match.getWinnerToHome())) {
-                nextMatch.setHomeTeam(winner);
+
+        Tournament tournament = match.getTournament();
+        Integer position = match.getBracketPosition();
+        BracketModel bracket = getBracketSnapshot(tournament);
+        if (bracket == null || position == null || !bracket.contains(position)) {
+            log.warn("Match {} is not part of the bracket of tournament {}", match.getId(), tournament.getId());
+            return;
+        }
+
+        int parent = BracketModel.parent(position);
+        boolean toHome = BracketModel.feedsHome(position);
+        Long nextMatchId = bracket.get(parent) != null ? bracket.get(parent).matchId() : null;
+        Match partnerMatch = null;
+
+        if (nextMatchId == null) {
+            // Bracket positions and ids never change, but the partner's result and a next match
+            // created for it may be newer than the snapshot: read the partner row itself
+            BracketModel.Slot partnerSlot = bracket.get(BracketModel.partner(position));
+            partnerMatch = partnerSlot != null ? matchRepository.findById(partnerSlot.matchId()).orElse(null) : null;
+            if (partnerMatch != null && partnerMatch.getNextMatch() != null) {
+                nextMatchId = partnerMatch.getNextMatch().getId();
+                match.setNextMatch(partnerMatch.getNextMatch());
+                match.setWinnerToHome(toHome);
+                matchRepository.save(match);
+            }
+        }
+
+        BracketModel.Slot result = BracketModel.Slot.of(match);
+        if (nextMatchId != null) {
+            // Next match already exists, fill in the winner's slot with a single update
+            if (toHome) {
+                matchRepository.assignHomeTeam(nextMatchId, winner);
             } else {
-                nextMatch.setAwayTeam(winner);
+                matchRepository.assignAwayTeam(nextMatchId, winner);
             }
-            matchRepository.save(nextMatch);
+            matchSlotScheduler.scheduleWhenTeamsKnown(nextMatchId);
+            Long winnerId = winner.getId();
+            updateBracketAfterCommit(tournament.getId(),
+                    b -> b.with(position, result).withTeam(parent, toHome, winnerId));
             log.info("Winner {} advanced from match {} to existing match {} ({})",
-                    winner.getName(), match.getId(), nextMatch.getId(),
-                    match.getWinnerToHome() ? "home" : "away");
+                    winner.getName(), match.getId(), nextMatchId, toHome ? "home" : "away");
         } else {
-            // Need to find or create next round match
-            // Find partner match (the other first-round match that feeds into same next match)
-            Tournament tournament = match.getTournament();
-            List<Match> roundMatches = matchRepository.findByTournamentAndRound(tournament, match.getRound());
-            
-            // Sort by bracket position to find pairs
-            roundMatches.sort(Comparator.comparing(m -> m.getBracketPosition() != null ? m.getBracketPosition() : 0));
-            
-            int myIndex = roundMatches.indexOf(match);
-            int partnerIndex = (myIndex % 2 == 0) ? myIndex + 1 : myIndex - 1;
-            
-            if (partnerIndex >= 0 && partnerIndex < roundMatches.size()) {
-                Match partnerMatch = roundMatches.get(partnerIndex);
-                
-                // Check if partner match is complete
-                if (partnerMatch.getHomeScore() != null && partnerMatch.getAwayScore() != null) {
-                    Team partnerWinner = determineWinner(partnerMatch);
-                    
-                    // Both matches complete, create next round match
-                    Team homeTeam, awayTeam;
-                    if (myIndex % 2 == 0) {
-                        homeTeam = winner;
-                        awayTeam = partnerWinner;
-                    } else {
-                        homeTeam = partnerWinner;
-                        awayTeam = winner;
-                    }
-                    
-                    int teamCount = (int) teamRepository.countByTournament(tournament);
-                    int totalRounds = (int) Math.ceil(Math.log(calculateBracketSize(teamCount)) / Math.log(2));
-                    
-                    nextMatch = createNextRoundMatch(tournament, match, homeTeam, awayTeam, totalRounds);
-                    
-                    // Link both matches to the new next match
-                    match.setNextMatch(nextMatch);
-                    match.setWinnerToHome(myIndex % 2 == 0);
-                    partnerMatch.setNextMatch(nextMatch);
-                    partnerMatch.setWinnerToHome(myIndex % 2 != 0);
-                    
-                    matchRepository.saveAll(List.of(match, partnerMatch));
-                    
-                    log.info("Created next round match {} for winners {} and {}",
-                            nextMatch.getId(), winner.getName(), partnerWinner.getName());
-                } else {
-                    // Partner not done yet, just save our result
-                    log.info("Match {} complete, waiting for partner match {} to complete",
-                            match.getId(), partnerMatch.getId());
-                }
+            Team partnerWinner = partnerMatch != null ? determineWinner(partnerMatch) : null;
+
+            if (partnerWinner != null) {
+                // Both matches complete, create next round match
+                Match nextMatch = createNextRoundMatch(tournament, match,
+                        toHome ? winner : partnerWinner,
+                        toHome ? partnerWinner : winner,
+                        parent);
+
+                // Link both matches to the new next match; the partner row is
+                // updated in place so a stale copy never overwrites newer data
+                match.setNextMatch(nextMatch);
+                match.setWinnerToHome(toHome);
+                matchRepository.save(match);
+                matchRepository.linkToNextMatch(partnerMatch.getId(), nextMatch, !toHome);
+                BracketModel.Slot next = BracketModel.Slot.of(nextMatch);
+                updateBracketAfterCommit(tournament.getId(), b -> b.with(position, result).with(parent, next));
+
+                log.info("Created next round match {} for winners {} and {}",
+                        nextMatch.getId(), winner.getName(), partnerWinner.getName());
+            } else {
+                // Partner not done yet, just save our result
+                updateBracketAfterCommit(tournament.getId(), b -> b.with(position, result));
+                log.info("Match {} complete, waiting for partner match in slot {}",
+                        match.getId(), BracketModel.partner(position));
             }
         }
 
         // Notify winner about advancement
-        notifyAdvancement(winner, match, nextMatch);
+        notifyAdvancement(winner, match);
     }
 
     /**
@@ -423,7 +501,7 @@ public class SingleEliminationService {
      */
     @Transactional
     public void checkTournamentCompletion(Tournament tournament) {
-        if (tournament.getType() != TournamentType.PLAYOFF) {
+        if (tournament.getType() != TournamentType.PLAYOFF && tournament.getType() != TournamentType.GROUP_KNOCKOUT) {
             return;
         }
 
@@ -440,6 +518,7 @@ public class SingleEliminationService {
             tournament.setStatus(TournamentStatus.FINISHED);
             tournament.setIsActive(false);
             tournamentRepository.save(tournament);
+            evictBracket(tournament.getId());
             
             Team winner = determineWinner(final_);
             log.info("Tournament {} completed! Winner: {}", tournament.getId(), 
@@ -501,18 +580,25 @@ public class SingleEliminationService {
     /**
      * Notify team about advancement to next round.
      */
-    private void notifyAdvancement(Team winner, Match completedMatch, Match nextMatch) {
-        if (winner.getUser() == null || winner.getUser().getTelegramId() == null) {
+    private void notifyAdvancement(Team winner, Match completedMatch) {
+        notifyAdvancement(winner, completedMatch.getTournament(), getNextStage(completedMatch.getStage()));
+    }
+
+    /**
+     * Notify team about advancement to the given stage.
+     */
+    public void notifyAdvancement(Team winner, Tournament tournament, MatchStage nextStage) {
+        if (winner == null || winner.getUser() == null || winner.getUser().getTelegramId() == null) {
             return;
         }
 
-        String stageName = getStageDisplayName(nextMatch.getStage());
+        String stageName = getStageDisplayName(nextStage);
         String message = String.format(
                 "🎉 Tabriklaymiz! Siz keyingi bosqichga o'tdingiz!\n\n" +
                 "🏆 %s\n" +
                 "📍 Keyingi bosqich: %s\n\n" +
                 "Raqibingiz haqida tez orada xabar beriladi.",
-                completedMatch.getTournament().getName(),
+                tournament.getName(),
                 stageName
         );
 
@@ -598,6 +684,7 @@ public class SingleEliminationService {
         tournament.setStatus(TournamentStatus.CANCELLED);
         tournament.setIsActive(false);
         tournamentRepository.save(tournament);
+        evictBracket(tournament.getId());
         
         log.info("Tournament {} cancelled", tournament.getId());
     }
@@ -616,94 +703,142 @@ public class SingleEliminationService {
      */
     public List<TeamStanding> calculateBracketPlacements(Tournament tournament) {
         List<Team> allTeams = teamRepository.findByTournament(tournament);
-        List<Match> allMatches = matchRepository.findByTournament(tournament);
-        
+        Map<Long, Team> teamsById = new HashMap<>();
+        allTeams.forEach(team -> teamsById.put(team.getId(), team));
+        BracketModel bracket = getBracketModel(tournament);
+
         List<TeamStanding> placements = new ArrayList<>();
-        
-        // Check if final exists and is complete
-        Optional<Match> finalMatchOpt = matchRepository.findFinalMatch(tournament);
-        
-        if (finalMatchOpt.isPresent()) {
-            Match finalMatch = finalMatchOpt.get();
-            
-            if (finalMatch.getHomeScore() != null && finalMatch.getAwayScore() != null) {
-                // 1st place - Final winner
-                Team winner = determineWinner(finalMatch);
-                if (winner != null) {
-                    TeamStanding first = new TeamStanding(winner.getId(), winner.getName());
-                    first.setPosition(1);
-                    placements.add(first);
-                }
-                
-                // 2nd place - Final loser
-                Team runnerUp = determineLoser(finalMatch);
-                if (runnerUp != null) {
-                    TeamStanding second = new TeamStanding(runnerUp.getId(), runnerUp.getName());
-                    second.setPosition(2);
-                    placements.add(second);
-                }
+        Set<Long> placedTeamIds = new HashSet<>();
+
+        if (bracket != null) {
+            // Final: winner 1st, loser 2nd
+            BracketModel.Slot finalSlot = bracket.finalSlot();
+            if (finalSlot != null && finalSlot.hasResult()) {
+                addPlacement(placements, placedTeamIds, teamsById.get(finalSlot.winnerId()));
+                addPlacement(placements, placedTeamIds, teamsById.get(finalSlot.loserId()));
             }
-        }
-        
-        // Find semifinal losers (3rd/4th place)
-        List<Match> semifinals = matchRepository.findByTournamentAndStage(tournament, MatchStage.SEMI_FINAL);
-        List<Team> semifinalLosers = new ArrayList<>();
-        
-        for (Match sf : semifinals) {
-            if (sf.getHomeScore() != null && sf.getAwayScore() != null 
-                    && !Boolean.TRUE.equals(sf.getIsBye())) {
-                Team loser = determineLoser(sf);
-                if (loser != null) {
-                    semifinalLosers.add(loser);
+
+            // Heap slots go level by level, so semifinal losers come next (3rd/4th),
+            // then quarterfinal losers (5th-8th), and so on
+            for (int position = 2; position < bracket.capacity(); position++) {
+                BracketModel.Slot slot = bracket.get(position);
+                if (slot != null && slot.loserId() != null) {
+                    addPlacement(placements, placedTeamIds, teamsById.get(slot.loserId()));
                 }
             }
         }
-        
-        // Add semifinal losers as 3rd/4th place
-        int position = 3;
-        for (Team loser : semifinalLosers) {
-            TeamStanding standing = new TeamStanding(loser.getId(), loser.getName());
-            standing.setPosition(position++);
-            placements.add(standing);
+
+        // Add remaining teams who are still in or did not reach the bracket
+        for (Team team : allTeams) {
+            addPlacement(placements, placedTeamIds, team);
         }
-        
-        // Find quarterfinal losers (5th-8th place)
-        List<Match> quarterFinals = matchRepository.findByTournamentAndStage(tournament, MatchStage.QUARTER_FINAL);
-        List<Team> qfLosers = new ArrayList<>();
-        
-        for (Match qf : quarterFinals) {
-            if (qf.getHomeScore() != null && qf.getAwayScore() != null 
-                    && !Boolean.TRUE.equals(qf.getIsBye())) {
-                Team loser = determineLoser(qf);
-                if (loser != null && !isTeamAlreadyPlaced(placements, loser)) {
-                    qfLosers.add(loser);
-                }
-            }
+
+        return placements;
+    }
+
+    /**
+     * Update the cached bracket after a bracket match was changed outside the
+     * approval flow (e.g. an admin score edit).
+     */
+    public void refreshBracketSlot(Match match) {
+        Integer position = match.getBracketPosition();
+        if (position == null || match.getTournament() == null) {
+            return;
         }
-        
-        for (Team loser : qfLosers) {
-            TeamStanding standing = new TeamStanding(loser.getId(), loser.getName());
-            standing.setPosition(position++);
-            placements.add(standing);
+        BracketModel.Slot slot = BracketModel.Slot.of(match);
+        updateBracketAfterCommit(match.getTournament().getId(),
+                bracket -> bracket.contains(position) ? bracket.with(position, slot) : bracket);
+    }
+
+    /**
+     * Drop the cached bracket of a tournament once the current transaction commits;
+     * it is reloaded on next use.
+     */
+    public void evictBracket(Long tournamentId) {
+        if (tournamentId != null) {
+            afterCommit(() -> bracketCache.invalidate(tournamentId));
         }
-        
-        // Add remaining teams who lost in earlier rounds
-        Set<Long> placedTeamIds = placements.stream()
-                .map(TeamStanding::getTeamId)
-                .collect(java.util.stream.Collectors.toSet());
-        
-        for (Team team : allTeams) {
-            if (!placedTeamIds.contains(team.getId())) {
-                TeamStanding standing = new TeamStanding(team.getId(), team.getName());
-                standing.setPosition(position++);
-                placements.add(standing);
+    }
+
+    /**
+     * Get the bracket of a tournament. Outside read-write transactions it is cached after
+     * a single query on first use; inside one it is read fresh, so the snapshot includes the
+     * transaction's own changes and nothing uncommitted reaches the cache.
+     *
+     * @return the bracket, or null if the tournament has no bracket matches yet
+     */
+    BracketModel getBracketModel(Tournament tournament) {
+        if (tournament.getId() == null || inWriteTransaction()) {
+            return loadBracketModel(tournament);
+        }
+        return bracketCache.get(tournament.getId(), id -> loadBracketModel(tournament));
+    }
+
+    /**
+     * The cached bracket if there is one, otherwise a fresh snapshot that is not cached.
+     * Good enough for propagation, which only needs the ids in each slot.
+     */
+    private BracketModel getBracketSnapshot(Tournament tournament) {
+        BracketModel cached = tournament.getId() != null ? bracketCache.getIfPresent(tournament.getId()) : null;
+        return cached != null ? cached : loadBracketModel(tournament);
+    }
+
+    /**
+     * Apply a change to the cached bracket once the current transaction commits (at once
+     * without one), so a rolled back result never reaches the cache. A bracket that is not
+     * cached is left alone and loaded from committed data on next use.
+     */
+    private void updateBracketAfterCommit(Long tournamentId, UnaryOperator<BracketModel> change) {
+        if (tournamentId != null) {
+            afterCommit(() -> bracketCache.asMap().computeIfPresent(tournamentId, (id, bracket) -> change.apply(bracket)));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
             }
+        });
+    }
+
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private BracketModel loadBracketModel(Tournament tournament) {
+        List<Match> matches = matchRepository.findByTournamentOrderedByBracketPosition(tournament);
+        if (matches.isEmpty()) {
+            return null;
         }
-        
-        return placements;
+
+        int firstRound = matches.stream().mapToInt(Match::getRound).min().getAsInt();
+        int firstRoundSize = (int) matches.stream().filter(m -> m.getRound() == firstRound).count();
+
+        // Positions are heap slots (older brackets were renumbered by V16)
+        List<Match> placed = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            if (match.getBracketPosition() >= firstRoundSize * 2) {
+                log.warn("Match {} has no heap slot in the bracket of tournament {}", match.getId(), tournament.getId());
+                continue;
+            }
+            placed.add(match);
+        }
+        return BracketModel.of(firstRoundSize, placed);
     }
-    
-    private boolean isTeamAlreadyPlaced(List<TeamStanding> placements, Team team) {
-        return placements.stream().anyMatch(p -> p.getTeamId().equals(team.getId()));
+
+    private void addPlacement(List<TeamStanding> placements, Set<Long> placedTeamIds, Team team) {
+        if (team == null || !placedTeamIds.add(team.getId())) {
+            return;
+        }
+        TeamStanding standing = new TeamStanding(team.getId(), team.getName());
+        standing.setPosition(placements.size() + 1);
+        placements.add(standing);
     }
 }
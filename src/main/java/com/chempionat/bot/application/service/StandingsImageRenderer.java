@@ -1,15 +1,20 @@
 package com.chempionat.bot.application.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import org.springframework.stereotype.Component;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 /**
  * Renders league standings table as a dark-themed PNG image.
@@ -29,6 +34,29 @@ public class StandingsImageRenderer extends ImageRenderer {
     
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
 
+    /**
+     * Upper bound for pixels of kept pages (4 bytes each, so about 32 MB).
+     */
+    private static final long MAX_RETAINED_PIXELS = 8L * 1024 * 1024;
+
+    /**
+     * Last render of each tournament page, for repainting only the rows that changed.
+     */
+    private final Cache<String, RenderedPage> lastPages = Caffeine.newBuilder()
+            .maximumWeight(MAX_RETAINED_PIXELS)
+            .weigher((String key, RenderedPage page) -> page.image().getWidth() * page.image().getHeight())
+            .evictionListener((String key, RenderedPage page, RemovalCause cause) -> {
+                if (page != null) {
+                    RasterPool.release(page.image());
+                }
+            })
+            .build();
+    private volatile boolean retainPages = true;
+
+    public StandingsImageRenderer(PngEncoder pngEncoder) {
+        super(pngEncoder);
+    }
+
     public void setItemsPerPage(int itemsPerPage) {
         this.itemsPerPage = itemsPerPage;
     }
@@ -42,6 +70,18 @@ public class StandingsImageRenderer extends ImageRenderer {
      * @return PNG image as byte array
      */
     public byte[] render(String tournamentName, List<TeamStanding> standings, int page) throws IOException {
+        return render(null, tournamentName, standings, page);
+    }
+
+    /**
+     * Render a page of a tournament's standings, repainting only what changed since the last render
+     * of the same page: rows whose contents differ and the footer. Only those rows are re-encoded.
+     * Anything that changes the layout (name, page count, row count) renders the page in full.
+     *
+     * @param tournamentId tournament the page belongs to, or null to render without keeping the page
+     */
+    public byte[] render(Long tournamentId, String tournamentName, List<TeamStanding> standings, int page)
+            throws IOException {
         int totalPages = getTotalPages(standings.size());
         page = Math.max(0, Math.min(page, totalPages - 1));
         
@@ -55,46 +95,170 @@ public class StandingsImageRenderer extends ImageRenderer {
         int footerHeight = 50;
         int totalHeight = headerCardHeight + tableHeight + footerHeight + PADDING * 2;
         
-        BufferedImage image = createImage(totalHeight);
-        Graphics2D g2d = image.createGraphics();
-        
-        // Enable anti-aliasing
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        // Background, header card, table header and row stripes come from the cached layer
+        int rows = pageStandings.size();
+        int topThreeRows = Math.max(0, Math.min(3 - startIdx, rows));
+        String layerKey = "standings:" + rows + ":" + topThreeRows;
+        Consumer<Graphics2D> layerPainter = layer -> drawStaticLayer(layer, rows, topThreeRows);
+
+        List<String> rowContents = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            rowContents.add(rowContent(pageStandings.get(i), startIdx + i + 1));
+        }
+        String header = tournamentName + "\n" + (page + 1) + "/" + totalPages;
+        String footer = footerText();
+        int rowsTop = PADDING + 80 + HEADER_HEIGHT;
+        int footerTop = rowsTop + rows * ROW_HEIGHT;
+
+        RenderedPage previous = null;
+        String pageKey = tournamentId != null && retainPages ? tournamentId + ":" + page : null;
+        if (pageKey != null) {
+            // Taken out while in use, so concurrent renders of the page never share the raster
+            previous = lastPages.asMap().remove(pageKey);
+            if (previous != null && previous.fits(layerKey, header, totalHeight)) {
+                return repaint(pageKey, previous, pageStandings, startIdx, rowContents, footer, layerKey,
+                        layerPainter, rowsTop, footerTop);
+            }
+        }
+
+        BufferedImage image = createImageFromLayer(layerKey, IMAGE_WIDTH, totalHeight, layerPainter);
+        Graphics2D g2d = createGraphics(image);
         
         int y = PADDING;
         
         // Draw header card
         y = drawHeaderCard(g2d, tournamentName, page + 1, totalPages, y);
-        
-        // Draw table header
-        drawTableHeader(g2d, y);
         y += HEADER_HEIGHT;
         
         // Draw rows
         for (int i = 0; i < pageStandings.size(); i++) {
             TeamStanding standing = pageStandings.get(i);
             int position = startIdx + i + 1;
-            boolean isEven = i % 2 == 0;
-            boolean isTopThree = position <= 3;
-            drawRow(g2d, standing, position, y, isEven, isTopThree);
+            drawRow(g2d, standing, position, y);
             y += ROW_HEIGHT;
         }
         
         // Draw footer with timestamp
         y += 10;
-        drawFooter(g2d, y);
+        drawFooter(g2d, footer, y);
         
         g2d.dispose();
-        
-        return toBytes(image);
+
+        if (pageKey == null) {
+            return toBytes(image);
+        }
+        if (previous != null) {
+            RasterPool.release(previous.image);
+        }
+        int[] bandStarts = new int[rows + 2];
+        for (int i = 0; i < rows; i++) {
+            bandStarts[i + 1] = rowsTop + i * ROW_HEIGHT;
+        }
+        bandStarts[rows + 1] = footerTop;
+        PngEncoder.BandedPng png = encodeBanded(image, bandStarts);
+        keep(pageKey, new RenderedPage(layerKey, header, image, rowContents, footer, png));
+        return png.getBytes();
     }
 
-    private int drawHeaderCard(Graphics2D g2d, String tournamentName, int currentPage, int totalPages, int y) {
-        // Header card background
+    /**
+     * Repaint the rows and footer that differ from the kept page and re-encode only their bands
+     * (band 0 is everything above the rows, band i + 1 is row i, the last band is the footer).
+     */
+    private byte[] repaint(String pageKey, RenderedPage previous, List<TeamStanding> pageStandings, int startIdx,
+                           List<String> rowContents, String footer, String layerKey,
+                           Consumer<Graphics2D> layerPainter, int rowsTop, int footerTop) {
+        BufferedImage image = previous.image;
+        BitSet changed = new BitSet();
+        Graphics2D g2d = createGraphics(image);
+        for (int i = 0; i < rowContents.size(); i++) {
+            if (!rowContents.get(i).equals(previous.rows.get(i))) {
+                int y = rowsTop + i * ROW_HEIGHT;
+                restoreFromLayer(image, layerKey, y, ROW_HEIGHT, layerPainter);
+                drawRow(g2d, pageStandings.get(i), startIdx + i + 1, y);
+                changed.set(i + 1);
+            }
+        }
+        if (!footer.equals(previous.footer)) {
+            restoreFromLayer(image, layerKey, footerTop, image.getHeight() - footerTop, layerPainter);
+            drawFooter(g2d, footer, footerTop + 10);
+            changed.set(rowContents.size() + 1);
+        }
+        g2d.dispose();
+
+        PngEncoder.BandedPng png = changed.isEmpty() ? previous.png : reencode(previous.png, image, changed);
+        keep(pageKey, new RenderedPage(layerKey, previous.header, image, rowContents, footer, png));
+        return png.getBytes();
+    }
+
+    private void keep(String pageKey, RenderedPage page) {
+        RenderedPage replaced = lastPages.asMap().put(pageKey, page);
+        if (replaced != null && replaced.image != page.image) {
+            RasterPool.release(replaced.image);
+        }
+    }
+
+    /**
+     * Turn keeping rendered pages for incremental re-renders on or off.
+     */
+    public void setRetainPages(boolean retainPages) {
+        this.retainPages = retainPages;
+        if (!retainPages) {
+            lastPages.invalidateAll();
+        }
+    }
+
+    /**
+     * Everything a row shows; equal contents draw identical pixels.
+     */
+    private String rowContent(TeamStanding standing, int position) {
+        return position + "|" + standing.getTeamName() + "|" + standing.getPlayed() + "|" + standing.getWon()
+                + "|" + standing.getDrawn() + "|" + standing.getLost() + "|" + standing.getGoalsFor()
+                + "|" + standing.getGoalsAgainst() + "|" + standing.getGoalDifference() + "|" + standing.getPoints();
+    }
+
+    /**
+     * Last render of a page: its raster (owned, not pooled), what each row showed, and the banded PNG.
+     */
+    private record RenderedPage(String layerKey, String header, BufferedImage image, List<String> rows,
+                                String footer, PngEncoder.BandedPng png) {
+
+        boolean fits(String layerKey, String header, int height) {
+            return this.layerKey.equals(layerKey) && this.header.equals(header) && image.getHeight() == height;
+        }
+    }
+
+    /**
+     * One render per page, in page order.
+     */
+    public List<Callable<byte[]>> pageRenders(Long tournamentId, String tournamentName, List<TeamStanding> standings) {
+        int totalPages = getTotalPages(standings.size());
+        List<Callable<byte[]>> renders = new ArrayList<>(totalPages);
+        for (int page = 0; page < totalPages; page++) {
+            int pageIndex = page;
+            renders.add(() -> render(tournamentId, tournamentName, standings, pageIndex));
+        }
+        return renders;
+    }
+
+    /**
+     * Everything that depends only on the number of rows: header card, column headers, row stripes.
+     */
+    private void drawStaticLayer(Graphics2D g2d, int rows, int topThreeRows) {
+        int y = PADDING;
         g2d.setColor(HEADER_BG_COLOR);
         g2d.fillRoundRect(PADDING, y, IMAGE_WIDTH - PADDING * 2, 70, 15, 15);
-        
+        y += 80;
+
+        drawTableHeader(g2d, y);
+        y += HEADER_HEIGHT;
+
+        for (int i = 0; i < rows; i++) {
+            drawRowBackground(g2d, y, i % 2 == 0, i < topThreeRows);
+            y += ROW_HEIGHT;
+        }
+    }
+
+    private int drawHeaderCard(Graphics2D g2d, String tournamentName, int currentPage, int totalPages, int y) {
         // Tournament name
         g2d.setFont(TITLE_FONT);
         g2d.setColor(TEXT_COLOR);
@@ -102,7 +266,7 @@ public class StandingsImageRenderer extends ImageRenderer {
         drawLeftText(g2d, title, PADDING + 20, y + 42);
         
         // Page indicator
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 16));
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 16));
         g2d.setColor(HEADER_TEXT_COLOR);
         String pageText = "Page " + currentPage + "/" + totalPages;
         drawRightText(g2d, pageText, PADDING, y + 42, IMAGE_WIDTH - PADDING * 2 - 20);
@@ -140,7 +304,7 @@ public class StandingsImageRenderer extends ImageRenderer {
         g2d.drawLine(PADDING, y + HEADER_HEIGHT - 1, IMAGE_WIDTH - PADDING, y + HEADER_HEIGHT - 1);
     }
 
-    private void drawRow(Graphics2D g2d, TeamStanding standing, int position, int y, boolean isEven, boolean isTopThree) {
+    private void drawRowBackground(Graphics2D g2d, int y, boolean isEven, boolean isTopThree) {
         // Row background - subtle accent for top 3
         if (isTopThree) {
             Color accentBg = new Color(0x1a, 0x3a, 0x1a); // subtle green tint
@@ -149,7 +313,13 @@ public class StandingsImageRenderer extends ImageRenderer {
             g2d.setColor(isEven ? ROW_EVEN_COLOR : ROW_ODD_COLOR);
         }
         g2d.fillRect(PADDING, y, IMAGE_WIDTH - PADDING * 2, ROW_HEIGHT);
-        
+
+        // Bottom border
+        g2d.setColor(BORDER_COLOR);
+        g2d.drawLine(PADDING, y + ROW_HEIGHT - 1, IMAGE_WIDTH - PADDING, y + ROW_HEIGHT - 1);
+    }
+
+    private void drawRow(Graphics2D g2d, TeamStanding standing, int position, int y) {
         g2d.setFont(DATA_FONT);
         
         int x = PADDING + 10;
@@ -157,7 +327,7 @@ public class StandingsImageRenderer extends ImageRenderer {
         
         // Position with color
         g2d.setColor(getPositionColor(position));
-        g2d.setFont(new Font("SansSerif", Font.BOLD, 16));
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 16));
         drawCenteredText(g2d, String.valueOf(position), x, textY, POS_WIDTH);
         x += POS_WIDTH;
         
@@ -186,7 +356,7 @@ public class StandingsImageRenderer extends ImageRenderer {
             // Highlight points column
             if (i == stats.length - 1) {
                 g2d.setColor(SCORE_COLOR);
-                g2d.setFont(new Font("SansSerif", Font.BOLD, 16));
+                g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 16));
             } else if (i == 6) { // GD column
                 g2d.setColor(standing.getGoalDifference() >= 0 ? SCORE_COLOR : new Color(0xff, 0x66, 0x66));
                 g2d.setFont(DATA_FONT);
@@ -197,16 +367,15 @@ public class StandingsImageRenderer extends ImageRenderer {
             drawCenteredText(g2d, stats[i], x, textY, width);
             x += width;
         }
-        
-        // Bottom border
-        g2d.setColor(BORDER_COLOR);
-        g2d.drawLine(PADDING, y + ROW_HEIGHT - 1, IMAGE_WIDTH - PADDING, y + ROW_HEIGHT - 1);
     }
 
-    private void drawFooter(Graphics2D g2d, int y) {
+    private String footerText() {
+        return "Updated: " + LocalDateTime.now().format(TIMESTAMP_FORMAT);
+    }
+
+    private void drawFooter(Graphics2D g2d, String timestamp, int y) {
         g2d.setFont(FOOTER_FONT);
         g2d.setColor(new Color(0x66, 0x66, 0x66));
-        String timestamp = "Updated: " + LocalDateTime.now().format(TIMESTAMP_FORMAT);
         drawCenteredText(g2d, timestamp, 0, y + 20, IMAGE_WIDTH);
     }
 
@@ -215,12 +384,6 @@ public class StandingsImageRenderer extends ImageRenderer {
         return String.valueOf(gd);
     }
 
-    private byte[] toBytes(BufferedImage image) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "PNG", baos);
-        return baos.toByteArray();
-    }
-
     public int getTotalPages(int totalItems) {
         return Math.max(1, (int) Math.ceil((double) totalItems / itemsPerPage));
     }
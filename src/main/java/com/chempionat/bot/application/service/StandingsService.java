@@ -0,0 +1,83 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.repository.MatchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Standings shown in the standings image, by tournament type.
+ */
+@Service
+@RequiredArgsConstructor
+public class StandingsService {
+
+    private final TournamentService tournamentService;
+    private final MatchRepository matchRepository;
+    private final SingleEliminationService singleEliminationService;
+    private final GroupStageService groupStageService;
+    private final DoubleEliminationService doubleEliminationService;
+
+    public List<TeamStanding> calculateStandings(Tournament tournament) {
+        if (tournament.getType() == TournamentType.PLAYOFF) {
+            // Use bracket-based placement for single elimination
+            return singleEliminationService.calculateBracketPlacements(tournament);
+        } else if (tournament.getType() == TournamentType.DOUBLE_ELIMINATION) {
+            return doubleEliminationService.calculatePlacements(tournament);
+        } else if (tournament.getType() == TournamentType.GROUP_KNOCKOUT) {
+            // Group tables until the knockout starts, bracket placements afterwards
+            return groupStageService.hasKnockoutStarted(tournament)
+                    ? singleEliminationService.calculateBracketPlacements(tournament)
+                    : groupStageService.getGroupStageTable(tournament);
+        }
+        // Use league-style points-based standings
+        List<Team> teams = tournamentService.getTournamentTeams(tournament.getId());
+        List<Match> matches = matchRepository.findByTournamentAndHomeScoreIsNotNull(tournament);
+        return calculateLeagueStandings(teams, matches);
+    }
+
+    /**
+     * League table (points, goal difference, goals scored) from the finished matches, best first.
+     * Swiss pairing starts from this table and only adds bye wins on top.
+     */
+    public static List<TeamStanding> calculateLeagueStandings(List<Team> teams, List<Match> matches) {
+        Map<Long, TeamStanding> standingsMap = new LinkedHashMap<>();
+
+        // Initialize standings for all teams
+        for (Team team : teams) {
+            TeamStanding standing = new TeamStanding(team.getId(), team.getName());
+            standing.setTeam(team);
+            standingsMap.put(team.getId(), standing);
+        }
+
+        // Calculate stats from matches
+        for (Match match : matches) {
+            if (Boolean.TRUE.equals(match.getIsBye()) || match.getHomeScore() == null || match.getAwayScore() == null) {
+                continue;
+            }
+
+            TeamStanding homeStanding = standingsMap.get(match.getHomeTeam().getId());
+            TeamStanding awayStanding = standingsMap.get(match.getAwayTeam().getId());
+
+            if (homeStanding == null || awayStanding == null) {
+                continue;
+            }
+
+            homeStanding.addMatch(match.getHomeScore(), match.getAwayScore());
+            awayStanding.addMatch(match.getAwayScore(), match.getHomeScore());
+        }
+
+        // Sort standings
+        return standingsMap.values().stream()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
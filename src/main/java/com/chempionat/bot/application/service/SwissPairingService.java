@@ -0,0 +1,338 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.MatchLifecycleState;
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.domain.repository.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Swiss-system pairing.
+ * Teams are ranked with the regular league standings (a bye counting as a win), split into score groups and
+ * paired top half against bottom half inside each group. Teams that cannot be paired
+ * without a rematch float down into the next group. Already played pairs are kept
+ * in a bitset so each rematch check is O(1).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SwissPairingService {
+
+    private final MatchRepository matchRepository;
+    private final TeamRepository teamRepository;
+    private final MatchSlotScheduler matchSlotScheduler;
+    private final TournamentLockService tournamentLockService;
+
+    /**
+     * Number of Swiss rounds for the given field size: ceil(log2(n)), at least 1.
+     */
+    public int calculateTotalRounds(int teamCount) {
+        if (teamCount < 2) {
+            return 0;
+        }
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(teamCount - 1));
+    }
+
+    /**
+     * Pair the first round. All teams share a single score group.
+     */
+    public List<Match> generateFirstRound(Tournament tournament, List<Team> teams) {
+        if (teams.size() < 2) {
+            throw new IllegalArgumentException("At least 2 teams required");
+        }
+        List<TeamStanding> ranking = new ArrayList<>();
+        for (Team team : teams) {
+            TeamStanding standing = new TeamStanding(team.getId(), team.getName());
+            standing.setTeam(team);
+            ranking.add(standing);
+        }
+        return pairRound(tournament, ranking, List.of(), 1);
+    }
+
+    /**
+     * Check whether the Swiss tournament still has rounds left to pair.
+     */
+    @Transactional(readOnly = true)
+    public boolean hasPendingRounds(Tournament tournament) {
+        if (tournament.getType() != TournamentType.SWISS) {
+            return false;
+        }
+        int teamCount = (int) teamRepository.countByTournament(tournament);
+        int playedRounds = matchRepository.findByTournament(tournament).stream()
+                .mapToInt(Match::getRound)
+                .max()
+                .orElse(0);
+        return playedRounds < calculateTotalRounds(teamCount);
+    }
+
+    /**
+     * Pair the next round once every match of the current round has a result.
+     * The tournament row is locked while checking and pairing, so concurrent result
+     * approvals never pair the same round twice.
+     *
+     * @return the newly created matches, or an empty list if the round is not finished
+     *         or the tournament has played all its rounds
+     */
+    @Transactional
+    public List<Match> pairNextRoundIfDue(Tournament tournament) {
+        if (tournament.getType() != TournamentType.SWISS) {
+            return List.of();
+        }
+        tournament = tournamentLockService.lock(tournament);
+
+        List<Match> matches = matchRepository.findByTournament(tournament);
+        int currentRound = matches.stream().mapToInt(Match::getRound).max().orElse(0);
+        boolean roundFinished = matches.stream()
+                .filter(m -> m.getRound() == currentRound)
+                .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
+                .allMatch(m -> m.getHomeScore() != null && m.getAwayScore() != null);
+
+        List<Team> teams = teamRepository.findByTournament(tournament);
+        if (!roundFinished || currentRound >= calculateTotalRounds(teams.size())) {
+            return List.of();
+        }
+
+        List<Match> nextRound = pairRound(tournament, rankForPairing(teams, matches), matches, currentRound + 1);
+        matchSlotScheduler.scheduleMatches(tournament, nextRound, matches);
+        matchRepository.saveAll(nextRound);
+        log.info("Paired Swiss round {} for tournament {} ({} matches)",
+                currentRound + 1, tournament.getId(), nextRound.size());
+        return nextRound;
+    }
+
+    /**
+     * League standings with every bye credited as a win (3 points, no goals), best first.
+     * The table shown to players is left as it is; only the pairing uses this ranking.
+     */
+    static List<TeamStanding> rankForPairing(List<Team> teams, List<Match> matches) {
+        List<TeamStanding> ranking = StandingsService.calculateLeagueStandings(teams, matches);
+        Map<Long, TeamStanding> byTeamId = new HashMap<>(ranking.size() * 2);
+        for (TeamStanding standing : ranking) {
+            byTeamId.put(standing.getTeamId(), standing);
+        }
+        boolean credited = false;
+        for (Match match : matches) {
+            if (!Boolean.TRUE.equals(match.getIsBye())) {
+                continue;
+            }
+            TeamStanding standing = byTeamId.get(match.getHomeTeam().getId());
+            if (standing != null) {
+                standing.setWon(standing.getWon() + 1);
+                standing.calculatePoints();
+                credited = true;
+            }
+        }
+        if (credited) {
+            // Stable sort keeps the league order among teams still level
+            ranking.sort(null);
+        }
+        return ranking;
+    }
+
+    /**
+     * Pair one round from a ranking (best first) and the match history.
+     */
+    List<Match> pairRound(Tournament tournament, List<TeamStanding> ranking, List<Match> history, int roundNumber) {
+        int n = ranking.size();
+        Map<Long, Integer> indexByTeamId = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexByTeamId.put(ranking.get(i).getTeamId(), i);
+        }
+
+        // played[i * n + j] is set when ranking[i] and ranking[j] already met
+        BitSet played = new BitSet(n * n);
+        boolean[] hadBye = new boolean[n];
+        int[] homeCount = new int[n];
+        for (Match match : history) {
+            Integer home = indexByTeamId.get(match.getHomeTeam().getId());
+            if (home == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(match.getIsBye())) {
+                hadBye[home] = true;
+                continue;
+            }
+            Integer away = indexByTeamId.get(match.getAwayTeam().getId());
+            if (away == null) {
+                continue;
+            }
+            played.set(home * n + away);
+            played.set(away * n + home);
+            homeCount[home]++;
+        }
+
+        List<Match> roundMatches = new ArrayList<>();
+        boolean[] paired = new boolean[n];
+
+        // Odd field: the lowest ranked team without a previous bye sits out
+        if (n % 2 != 0) {
+            int byeIndex = n - 1;
+            for (int i = n - 1; i >= 0; i--) {
+                if (!hadBye[i]) {
+                    byeIndex = i;
+                    break;
+                }
+            }
+            paired[byeIndex] = true;
+            roundMatches.add(createByeMatch(tournament, ranking.get(byeIndex).getTeam(), roundNumber));
+        }
+
+        // Walk the score groups from the top; unpaired teams float into the next group
+        List<Integer> floaters = new ArrayList<>();
+        int start = 0;
+        while (start < n) {
+            int end = start;
+            int points = ranking.get(start).getPoints();
+            while (end < n && ranking.get(end).getPoints() == points) {
+                end++;
+            }
+
+            List<Integer> group = new ArrayList<>(floaters);
+            for (int i = start; i < end; i++) {
+                if (!paired[i]) {
+                    group.add(i);
+                }
+            }
+            floaters = pairGroup(group, played, paired, n, homeCount, ranking, tournament, roundNumber, roundMatches);
+            start = end;
+        }
+
+        // Teams left over at the bottom have all met each other; swap them into an
+        // existing pair where possible and only allow a rematch as a last resort
+        for (int i = 0; i + 1 < floaters.size(); i += 2) {
+            int a = floaters.get(i);
+            int b = floaters.get(i + 1);
+            if (!swapIntoExistingPair(a, b, played, n, indexByTeamId, ranking, homeCount, tournament, roundNumber, roundMatches)) {
+                log.warn("Swiss round {} of tournament {}: rematch {} vs {} unavoidable",
+                        roundNumber, tournament.getId(), ranking.get(a).getTeamName(), ranking.get(b).getTeamName());
+                roundMatches.add(createMatch(tournament, ranking, a, b, homeCount, roundNumber));
+            }
+            paired[a] = true;
+            paired[b] = true;
+        }
+
+        return roundMatches;
+    }
+
+    /**
+     * Pair a score group (already including floaters from above) top half against bottom half,
+     * skipping opponents that were already played. Returns the teams that float down.
+     */
+    private List<Integer> pairGroup(List<Integer> group, BitSet played, boolean[] paired, int n,
+                                    int[] homeCount, List<TeamStanding> ranking, Tournament tournament,
+                                    int roundNumber, List<Match> roundMatches) {
+        int size = group.size();
+        int half = size / 2;
+        boolean[] used = new boolean[size];
+        List<Integer> floaters = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            if (used[i]) {
+                continue;
+            }
+            int team = group.get(i);
+            int opponent = -1;
+
+            // Preferred opponent is the counterpart in the bottom half, then anyone below
+            for (int offset = 0; offset < size && opponent < 0; offset++) {
+                int j = Math.max(i + 1, half) + offset;
+                if (j >= size) {
+                    break;
+                }
+                if (!used[j] && !played.get(team * n + group.get(j))) {
+                    opponent = j;
+                }
+            }
+            for (int j = i + 1; j < size && opponent < 0; j++) {
+                if (!used[j] && !played.get(team * n + group.get(j))) {
+                    opponent = j;
+                }
+            }
+
+            used[i] = true;
+            if (opponent < 0) {
+                floaters.add(team);
+                continue;
+            }
+            used[opponent] = true;
+            int other = group.get(opponent);
+            paired[team] = true;
+            paired[other] = true;
+            roundMatches.add(createMatch(tournament, ranking, team, other, homeCount, roundNumber));
+        }
+        return floaters;
+    }
+
+    /**
+     * Try to break an existing pair (x, y) into (a, x) and (b, y) (or (a, y) and (b, x))
+     * so that no rematch is needed. Lower pairs are tried first to keep the top groups intact.
+     */
+    private boolean swapIntoExistingPair(int a, int b, BitSet played, int n, Map<Long, Integer> indexByTeamId,
+                                         List<TeamStanding> ranking, int[] homeCount, Tournament tournament,
+                                         int roundNumber, List<Match> roundMatches) {
+        for (int m = roundMatches.size() - 1; m >= 0; m--) {
+            Match existing = roundMatches.get(m);
+            if (Boolean.TRUE.equals(existing.getIsBye())) {
+                continue;
+            }
+            int x = indexByTeamId.get(existing.getHomeTeam().getId());
+            int y = indexByTeamId.get(existing.getAwayTeam().getId());
+            int first;
+            int second;
+            if (!played.get(a * n + x) && !played.get(b * n + y)) {
+                first = x;
+                second = y;
+            } else if (!played.get(a * n + y) && !played.get(b * n + x)) {
+                first = y;
+                second = x;
+            } else {
+                continue;
+            }
+            homeCount[x]--;
+            roundMatches.set(m, createMatch(tournament, ranking, a, first, homeCount, roundNumber));
+            roundMatches.add(createMatch(tournament, ranking, b, second, homeCount, roundNumber));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Create a match, giving home advantage to whichever team has hosted fewer games.
+     */
+    private Match createMatch(Tournament tournament, List<TeamStanding> ranking, int a, int b,
+                              int[] homeCount, int roundNumber) {
+        int home = homeCount[a] <= homeCount[b] ? a : b;
+        int away = home == a ? b : a;
+        homeCount[home]++;
+        return Match.builder()
+                .tournament(tournament)
+                .homeTeam(ranking.get(home).getTeam())
+                .awayTeam(ranking.get(away).getTeam())
+                .round(roundNumber)
+                .state(MatchLifecycleState.CREATED)
+                .scheduledTime(LocalDateTime.now().plusDays(1))
+                .isBye(false)
+                .build();
+    }
+
+    private Match createByeMatch(Tournament tournament, Team team, int roundNumber) {
+        return Match.builder()
+                .tournament(tournament)
+                .homeTeam(team)
+                .awayTeam(team)
+                .round(roundNumber)
+                .state(MatchLifecycleState.CREATED)
+                .scheduledTime(LocalDateTime.now().plusDays(1))
+                .isBye(true)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.chempionat.bot.application.service;
 
+import com.chempionat.bot.domain.enums.TournamentStatus;
 import com.chempionat.bot.domain.enums.TournamentType;
 import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Team;
@@ -11,12 +12,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +36,10 @@ public class TournamentCompletionService {
     private final StandingsImageRenderer standingsImageRenderer;
     private final NotificationService notificationService;
     private final SingleEliminationService singleEliminationService;
+    private final RoundService roundService;
+    private final SwissPairingService swissPairingService;
+    private final GroupStageService groupStageService;
+    private final DoubleEliminationService doubleEliminationService;
 
     /**
      * Check if all real matches (excluding byes) in a tournament are completed.
@@ -63,8 +69,34 @@ public class TournamentCompletionService {
         }
     }
     
-    @Transactional(readOnly = true)
-    protected void doCheckAndNotify(Tournament tournament) {
+    /**
+     * Runs outside a transaction: the services called here open their own, and
+     * {@link GroupStageService#advanceToKnockout} needs a writable one.
+     */
+    private void doCheckAndNotify(Tournament tournament) {
+        if (roundService.hasUnmaterializedRounds(tournament)) {
+            log.debug("Tournament {} not complete: rounds still pending materialization", tournament.getId());
+            return;
+        }
+        if (swissPairingService.hasPendingRounds(tournament)) {
+            log.debug("Tournament {} not complete: Swiss rounds still to be paired", tournament.getId());
+            return;
+        }
+        if (tournament.getType() == TournamentType.GROUP_KNOCKOUT && !groupStageService.hasKnockoutStarted(tournament)) {
+            // Group stage finished: seed the knockout bracket instead of finishing the tournament
+            List<Match> bracket = groupStageService.advanceToKnockout(tournament);
+            if (!bracket.isEmpty()) {
+                notifyKnockoutStart(tournament, bracket);
+            }
+            return;
+        }
+
+        if (tournament.getType() == TournamentType.DOUBLE_ELIMINATION && tournament.getStatus() != TournamentStatus.FINISHED) {
+            // Bracket slots without teams yet are skipped below, so rely on the grand final having been decided
+            log.debug("Tournament {} not complete: grand final not decided", tournament.getId());
+            return;
+        }
+
         List<Match> allMatches = matchRepository.findByTournament(tournament);
         
         // Filter to real matches only (exclude byes and self-matches)
@@ -109,9 +141,11 @@ public class TournamentCompletionService {
             
             // Calculate final standings based on tournament type
             List<TeamStanding> standings;
-            if (tournament.getType() == TournamentType.PLAYOFF) {
+            if (tournament.getType() == TournamentType.PLAYOFF || tournament.getType() == TournamentType.GROUP_KNOCKOUT) {
                 // Use bracket-based placement for single elimination
                 standings = singleEliminationService.calculateBracketPlacements(tournament);
+            } else if (tournament.getType() == TournamentType.DOUBLE_ELIMINATION) {
+                standings = doubleEliminationService.calculatePlacements(tournament);
             } else {
                 // Use league-style points-based standings
                 standings = calculateLeagueStandings(teams, matches);
@@ -120,30 +154,26 @@ public class TournamentCompletionService {
             // Generate standings image
             byte[] imageData = standingsImageRenderer.render(tournament.getName(), standings, 0);
             
-            // Build congratulations message
+            // Build congratulations message; each participant's placement is filled in per recipient
             String congratsMessage = buildCongratsMessage(tournament, standings);
-            
-            // Send to all participants
+
+            BroadcastRequest.BroadcastRequestBuilder request = BroadcastRequest.builder()
+                    .kind("tournament_completed")
+                    .tournamentId(tournament.getId())
+                    .template(congratsMessage + "\n{placement}")
+                    .image(imageData)
+                    .imageName("standings_final_" + tournament.getId() + ".png");
             for (Team team : teams) {
                 if (team.getUser() != null && team.getUser().getTelegramId() != null) {
-                    try {
-                        String personalMessage = buildPersonalMessage(team, standings, congratsMessage);
-                        notificationService.notifyUserWithImage(
-                                team.getUser().getTelegramId(),
-                                imageData,
-                                "standings_final_" + tournament.getId() + ".png",
-                                personalMessage
-                        );
-                        log.debug("Sent completion notification to user {}", team.getUser().getTelegramId());
-                    } catch (Exception e) {
-                        log.error("Failed to send notification to user {}", team.getUser().getTelegramId(), e);
-                    }
+                    request.recipient(team.getUser().getTelegramId(),
+                            Map.of("placement", buildPlacementLine(team, standings)));
                 }
             }
-            
-            log.info("Completion notifications sent to {} participants for tournament {}", 
+            notificationService.broadcast(request.build());
+
+            log.info("Completion notifications queued for {} participants of tournament {}",
                     teams.size(), tournament.getId());
-            
+
         } catch (Exception e) {
             log.error("Error sending completion notifications for tournament {}", tournament.getId(), e);
         }
@@ -183,6 +213,37 @@ public class TournamentCompletionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Tell every participant whether they made it out of the group stage.
+     */
+    private void notifyKnockoutStart(Tournament tournament, List<Match> bracket) {
+        Set<Long> qualifiedTeamIds = new HashSet<>();
+        for (Match match : bracket) {
+            qualifiedTeamIds.add(match.getHomeTeam().getId());
+            qualifiedTeamIds.add(match.getAwayTeam().getId());
+        }
+
+        BroadcastRequest.BroadcastRequestBuilder qualified = BroadcastRequest.builder()
+                .kind("knockout_qualified")
+                .tournamentId(tournament.getId())
+                .template("🎉 Tabriklaymiz! {team} guruh bosqichidan o'tdi!\n\n" +
+                        "🏆 " + tournament.getName() + "\n📍 Pley-off bosqichi boshlandi.");
+        BroadcastRequest.BroadcastRequestBuilder eliminated = BroadcastRequest.builder()
+                .kind("knockout_eliminated")
+                .tournamentId(tournament.getId())
+                .template("😔 {team} guruh bosqichidan o'ta olmadi.\n\n" +
+                        "🏆 " + tournament.getName() + "\nKelasi turnirda omad! 🍀");
+        for (Team team : teamRepository.findByTournament(tournament)) {
+            if (team.getUser() == null || team.getUser().getTelegramId() == null) {
+                continue;
+            }
+            (qualifiedTeamIds.contains(team.getId()) ? qualified : eliminated)
+                    .recipient(team.getUser().getTelegramId(), Map.of("team", team.getName()));
+        }
+        notificationService.broadcast(qualified.build());
+        notificationService.broadcast(eliminated.build());
+    }
+
     private String buildCongratsMessage(Tournament tournament, List<TeamStanding> standings) {
         StringBuilder sb = new StringBuilder();
         sb.append("🏆 ").append(tournament.getName()).append(" tugadi!\n\n");
@@ -201,7 +262,7 @@ public class TournamentCompletionService {
         return sb.toString();
     }
 
-    private String buildPersonalMessage(Team team, List<TeamStanding> standings, String baseMessage) {
+    private String buildPlacementLine(Team team, List<TeamStanding> standings) {
         // Find team's position
         int position = -1;
         for (int i = 0; i < standings.size(); i++) {
@@ -210,20 +271,16 @@ public class TournamentCompletionService {
                 break;
             }
         }
-        
-        StringBuilder sb = new StringBuilder(baseMessage);
-        sb.append("\n");
-        
+
         if (position == 1) {
-            sb.append("🎊 Tabriklaymiz! Siz g'olib bo'ldingiz! 🏆");
+            return "🎊 Tabriklaymiz! Siz g'olib bo'ldingiz! 🏆";
         } else if (position == 2) {
-            sb.append("🎊 Tabriklaymiz! Siz 2-o'rinni egallading! 🥈");
+            return "🎊 Tabriklaymiz! Siz 2-o'rinni egallading! 🥈";
         } else if (position == 3) {
-            sb.append("🎊 Tabriklaymiz! Siz 3-o'rinni egallading! 🥉");
+            return "🎊 Tabriklaymiz! Siz 3-o'rinni egallading! 🥉";
         } else if (position > 0) {
-            sb.append("📊 Sizning o'rningiz: ").append(position);
+            return "📊 Sizning o'rningiz: " + position;
         }
-        
-        return sb.toString();
+        return "";
     }
 }
@@ -0,0 +1,37 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.model.Tournament;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Serializes check-then-create steps on a tournament (writing the next round, pairing a Swiss
+ * round, drawing the knockout bracket) by locking the tournament row for the rest of the
+ * caller's transaction. A second caller blocks until the first commits and then sees what
+ * it created.
+ */
+@Service
+public class TournamentLockService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Lock the tournament row and return the managed tournament with its committed state.
+     * Pending changes of the current transaction are flushed first, so they are not lost.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Tournament lock(Tournament tournament) {
+        entityManager.flush();
+        Tournament managed = entityManager.find(Tournament.class, tournament.getId());
+        if (managed == null) {
+            throw new IllegalArgumentException("Tournament not found: " + tournament.getId());
+        }
+        entityManager.refresh(managed, LockModeType.PESSIMISTIC_WRITE);
+        return managed;
+    }
+}
@@ -31,6 +31,9 @@ public class TournamentService {
     private final TournamentFactory tournamentFactory;
     private final Map<String, TournamentScheduleStrategy> scheduleStrategies;
     private final NotificationService notificationService;
+    private final RoundService roundService;
+    private final SwissPairingService swissPairingService;
+    private final MatchSlotScheduler matchSlotScheduler;
 
     public TournamentService(
             TournamentRepository tournamentRepository,
@@ -38,13 +41,19 @@ public class TournamentService {
             MatchRepository matchRepository,
             TournamentFactory tournamentFactory,
             Map<String, TournamentScheduleStrategy> scheduleStrategies,
-            @Lazy NotificationService notificationService) {
+            @Lazy NotificationService notificationService,
+            RoundService roundService,
+            SwissPairingService swissPairingService,
+            MatchSlotScheduler matchSlotScheduler) {
         this.tournamentRepository = tournamentRepository;
         this.teamRepository = teamRepository;
         this.matchRepository = matchRepository;
         this.tournamentFactory = tournamentFactory;
         this.scheduleStrategies = scheduleStrategies;
         this.notificationService = notificationService;
+        this.roundService = roundService;
+        this.swissPairingService = swissPairingService;
+        this.matchSlotScheduler = matchSlotScheduler;
     }
 
     @Transactional
@@ -154,6 +163,7 @@ public class TournamentService {
         
         // Generate matches
         List<Match> matches = strategy.generateMatches(tournament, teams);
+        matchSlotScheduler.scheduleMatches(tournament, matches);
         matchRepository.saveAll(matches);
 
         tournament.setStartDate(LocalDateTime.now());
@@ -170,12 +180,26 @@ public class TournamentService {
      * Send notification to all tournament participants that the tournament has started.
      */
     private void notifyParticipantsOnStart(Tournament tournament, List<Team> teams, List<Match> matches) {
-        // Count real matches (exclude byes)
-        long realMatchCount = matches.stream()
-                .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
-                .filter(m -> m.getHomeTeam() != null && m.getAwayTeam() != null)
-                .filter(m -> !m.getHomeTeam().getId().equals(m.getAwayTeam().getId()))
-                .count();
+        // Count real matches (exclude byes); lazy leagues and Swiss events only hold their first round so far,
+        // and later knockout rounds have no teams yet
+        long realMatchCount;
+        if (roundService.isLazySchedule(tournament)) {
+            realMatchCount = roundService.calculateTotalRealMatches(teams.size(), tournament.getNumberOfRounds());
+        } else if (tournament.getType() == TournamentType.PLAYOFF) {
+            // Every knockout match eliminates exactly one team
+            realMatchCount = teams.size() - 1L;
+        } else if (tournament.getType() == TournamentType.DOUBLE_ELIMINATION) {
+            // Every team but the champion loses twice, the champion at most once (grand final reset not counted)
+            realMatchCount = 2L * (teams.size() - 1);
+        } else if (tournament.getType() == TournamentType.SWISS) {
+            realMatchCount = (long) swissPairingService.calculateTotalRounds(teams.size()) * (teams.size() / 2);
+        } else {
+            realMatchCount = matches.stream()
+                    .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
+                    .filter(m -> m.getHomeTeam() != null && m.getAwayTeam() != null)
+                    .filter(m -> !m.getHomeTeam().getId().equals(m.getAwayTeam().getId()))
+                    .count();
+        }
         
         String baseMessage = String.format(
                 "🏆 Turnir boshlandi!\n\n" +
@@ -189,19 +213,17 @@ public class TournamentService {
                 realMatchCount
         );
         
-        for (Team team : teams) {
-            if (team.getUser() != null && team.getUser().getTelegramId() != null) {
-                try {
-                    notificationService.notifyUser(team.getUser().getTelegramId(), baseMessage);
-                    log.debug("Sent start notification to user {}", team.getUser().getTelegramId());
-                } catch (Exception e) {
-                    log.error("Failed to send start notification to user {}", 
-                            team.getUser().getTelegramId(), e);
-                }
-            }
-        }
-        
-        log.info("Sent tournament start notifications to {} participants", teams.size());
+        List<Long> participantIds = teams.stream()
+                .filter(team -> team.getUser() != null && team.getUser().getTelegramId() != null)
+                .map(team -> team.getUser().getTelegramId())
+                .toList();
+        // Sent in the background once the tournament start commits
+        notificationService.broadcast(BroadcastRequest.builder()
+                .kind("tournament_start")
+                .tournamentId(tournament.getId())
+                .template(baseMessage)
+                .recipientIds(participantIds)
+                .build());
     }
 
     @Transactional(readOnly = true)
@@ -265,7 +287,13 @@ public class TournamentService {
     }
 
     private TournamentScheduleStrategy getStrategy(TournamentType type) {
-        String strategyName = type == TournamentType.LEAGUE ? "leagueScheduleStrategy" : "playoffScheduleStrategy";
+        String strategyName = switch (type) {
+            case LEAGUE -> "leagueScheduleStrategy";
+            case PLAYOFF -> "playoffScheduleStrategy";
+            case SWISS -> "swissScheduleStrategy";
+            case GROUP_KNOCKOUT -> "groupKnockoutScheduleStrategy";
+            case DOUBLE_ELIMINATION -> "doubleEliminationScheduleStrategy";
+        };
         TournamentScheduleStrategy strategy = scheduleStrategies.get(strategyName);
         
         if (strategy == null) {
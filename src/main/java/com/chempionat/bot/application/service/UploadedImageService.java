@@ -0,0 +1,136 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.model.UploadedImage;
+import com.chempionat.bot.domain.repository.UploadedImageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Remembers the Telegram file_id of every uploaded image by the SHA-256 of its bytes,
+ * so identical images are sent by file_id instead of being uploaded again.
+ * Entries live in memory and in the uploaded_images table (survives restarts).
+ * Hits, misses and saved bytes are published as {@code telegram.photo.reuse} and
+ * {@code telegram.photo.bytes.saved}.
+ */
+@Slf4j
+@Service
+public class UploadedImageService {
+
+    private static final int MAX_IN_MEMORY = 10_000;
+
+    private final UploadedImageRepository uploadedImageRepository;
+    private final TransactionTemplate storeTransaction;
+    private final Cache<String, String> fileIds = Caffeine.newBuilder()
+            .maximumSize(MAX_IN_MEMORY)
+            .build();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public UploadedImageService(UploadedImageRepository uploadedImageRepository, MeterRegistry meterRegistry,
+                                PlatformTransactionManager transactionManager) {
+        this.uploadedImageRepository = uploadedImageRepository;
+        this.storeTransaction = new TransactionTemplate(transactionManager);
+        this.storeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.hits = Counter.builder("telegram.photo.reuse").tag("result", "hit")
+                .description("Image sends served by an existing file_id").register(meterRegistry);
+        this.misses = Counter.builder("telegram.photo.reuse").tag("result", "miss")
+                .description("Image sends that needed an upload").register(meterRegistry);
+        this.bytesSaved = Counter.builder("telegram.photo.bytes.saved").baseUnit("bytes")
+                .description("Upload bytes avoided by file_id reuse").register(meterRegistry);
+    }
+
+    /**
+     * Hex SHA-256 of the image bytes.
+     */
+    public String hash(byte[] imageData) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(imageData));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look up the file_id for already uploaded content and count the hit or miss.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findFileId(String contentHash, int sizeBytes) {
+        String fileId = fileIds.getIfPresent(contentHash);
+        if (fileId == null) {
+            fileId = uploadedImageRepository.findByContentHash(contentHash)
+                    .map(UploadedImage::getTelegramFileId)
+                    .orElse(null);
+            if (fileId != null) {
+                fileIds.put(contentHash, fileId);
+            }
+        }
+
+        if (fileId == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        bytesSaved.increment(sizeBytes);
+        log.debug("Reusing file_id for image {} ({} bytes not uploaded)", contentHash, sizeBytes);
+        return Optional.of(fileId);
+    }
+
+    /**
+     * Store the file_id Telegram returned for a fresh upload. The row is written in its own
+     * transaction, so losing an insert race to another sender only rolls back that write and
+     * never the caller's transaction.
+     */
+    public void remember(String contentHash, String telegramFileId, int sizeBytes) {
+        fileIds.put(contentHash, telegramFileId);
+        try {
+            storeTransaction.executeWithoutResult(status -> store(contentHash, telegramFileId, sizeBytes));
+        } catch (DataIntegrityViolationException e) {
+            // Another sender stored the same content first; its file_id is just as good
+            log.debug("file_id for image {} already stored", contentHash);
+        }
+    }
+
+    private void store(String contentHash, String telegramFileId, int sizeBytes) {
+        UploadedImage existing = uploadedImageRepository.findByContentHash(contentHash).orElse(null);
+        if (existing == null) {
+            // Flush here so a duplicate key fails inside this transaction
+            uploadedImageRepository.saveAndFlush(UploadedImage.builder()
+                    .contentHash(contentHash)
+                    .telegramFileId(telegramFileId)
+                    .sizeBytes(sizeBytes)
+                    .build());
+        } else if (!existing.getTelegramFileId().equals(telegramFileId)) {
+            existing.setTelegramFileId(telegramFileId);
+            uploadedImageRepository.save(existing);
+        }
+    }
+
+    /**
+     * Drop a file_id Telegram no longer accepts, so the next send uploads again.
+     */
+    @Transactional
+    public void forget(String contentHash) {
+        fileIds.invalidate(contentHash);
+        uploadedImageRepository.deleteByContentHash(contentHash);
+    }
+
+    public double getHitRate() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
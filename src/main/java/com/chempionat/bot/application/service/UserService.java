@@ -16,6 +16,7 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final RoleIndex roleIndex;
 
     @Transactional
     public User getOrCreateUser(Long telegramId, String username, String firstName, String lastName) {
@@ -33,6 +34,7 @@ public class UserService {
                 .build();
         
         User savedUser = userRepository.save(user);
+        roleIndex.update(savedUser);
         log.info("Created new user: telegramId={}, id={}", telegramId, savedUser.getId());
         return savedUser;
     }
@@ -42,6 +44,13 @@ public class UserService {
         return userRepository.findByTelegramId(telegramId);
     }
 
+    /**
+     * Role check from the in-memory {@link RoleIndex}; false for unknown users.
+     */
+    public boolean hasRole(Long telegramId, Role... roles) {
+        return roleIndex.hasRole(telegramId, roles);
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
@@ -0,0 +1,45 @@
+package com.chempionat.bot.application.strategy;
+
+import com.chempionat.bot.application.service.DoubleEliminationService;
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Double elimination strategy - generates the upper bracket, lower bracket and grand final.
+ * Uses DoubleEliminationService, which also moves winners and losers along the bracket.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DoubleEliminationScheduleStrategy implements TournamentScheduleStrategy {
+
+    private final DoubleEliminationService doubleEliminationService;
+
+    @Override
+    public List<Match> generateMatches(Tournament tournament, List<Team> teams) {
+        log.info("Generating double elimination bracket for tournament: {} with {} teams",
+                tournament.getName(), teams.size());
+
+        if (teams.size() < 2) {
+            throw new IllegalStateException("At least 2 teams required for double elimination tournament");
+        }
+
+        List<Match> matches = doubleEliminationService.generateBracket(tournament, teams);
+
+        log.info("Generated {} opening double elimination matches for tournament {}",
+                matches.size(), tournament.getId());
+        return matches;
+    }
+
+    @Override
+    public boolean supports(Tournament tournament) {
+        return tournament.getType() == TournamentType.DOUBLE_ELIMINATION;
+    }
+}
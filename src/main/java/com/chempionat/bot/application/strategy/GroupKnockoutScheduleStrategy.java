@@ -0,0 +1,40 @@
+package com.chempionat.bot.application.strategy;
+
+import com.chempionat.bot.application.service.GroupStageService;
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Group stage + knockout strategy - generates round-robin matches inside each group.
+ * The knockout bracket is created by GroupStageService once the group stage is finished.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GroupKnockoutScheduleStrategy implements TournamentScheduleStrategy {
+
+    private final GroupStageService groupStageService;
+
+    @Override
+    public List<Match> generateMatches(Tournament tournament, List<Team> teams) {
+        log.info("Generating group stage for tournament: {} with {} teams",
+                tournament.getName(), teams.size());
+
+        List<Match> matches = groupStageService.generateGroupStage(tournament, teams);
+
+        log.info("Generated {} group stage matches for tournament {}", matches.size(), tournament.getId());
+        return matches;
+    }
+
+    @Override
+    public boolean supports(Tournament tournament) {
+        return tournament.getType() == TournamentType.GROUP_KNOCKOUT;
+    }
+}
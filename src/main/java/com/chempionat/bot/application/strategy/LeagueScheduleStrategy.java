@@ -5,8 +5,8 @@ import com.chempionat.bot.domain.enums.TournamentType;
 import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Team;
 import com.chempionat.bot.domain.model.Tournament;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -14,18 +14,35 @@ import java.util.List;
 /**
  * League tournament strategy - generates round-robin matches with bye round support.
  * Uses RoundService to handle proper round-robin scheduling.
+ * Leagues the organizer created in lazy mode (or, when configured, leagues of at least
+ * lazy-schedule-min-teams) only store a pairing seed and their first round; later rounds
+ * are materialized on demand.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class LeagueScheduleStrategy implements TournamentScheduleStrategy {
 
     private final RoundService roundService;
+    private final int lazyScheduleMinTeams;
+
+    public LeagueScheduleStrategy(
+            RoundService roundService,
+            @Value("${tournament.league.lazy-schedule-min-teams:0}") int lazyScheduleMinTeams) {
+        this.roundService = roundService;
+        this.lazyScheduleMinTeams = lazyScheduleMinTeams;
+    }
 
     @Override
     public List<Match> generateMatches(Tournament tournament, List<Team> teams) {
         log.info("Generating league matches for tournament: {} with {} teams", 
                  tournament.getName(), teams.size());
+
+        if (Boolean.TRUE.equals(tournament.getLazySchedule())
+                || (lazyScheduleMinTeams > 0 && teams.size() >= lazyScheduleMinTeams)) {
+            List<Match> firstRound = roundService.initializeLazySchedule(tournament, teams);
+            log.info("Generated first round ({} matches) of lazy league", firstRound.size());
+            return firstRound;
+        }
         
         // Get numberOfRounds from tournament, default to 1 if not set
         int numberOfRounds = tournament.getNumberOfRounds() != null ? tournament.getNumberOfRounds() : 1;
@@ -0,0 +1,45 @@
+package com.chempionat.bot.application.strategy;
+
+import com.chempionat.bot.application.service.SwissPairingService;
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Swiss-system strategy - pairs only the first round up front.
+ * Each following round is paired by SwissPairingService once the previous one is finished,
+ * which keeps large fields (1000+ teams) cheap compared to a full round-robin.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SwissScheduleStrategy implements TournamentScheduleStrategy {
+
+    private final SwissPairingService swissPairingService;
+
+    @Override
+    public List<Match> generateMatches(Tournament tournament, List<Team> teams) {
+        log.info("Generating Swiss round 1 for tournament: {} with {} teams ({} rounds planned)",
+                tournament.getName(), teams.size(), swissPairingService.calculateTotalRounds(teams.size()));
+
+        if (teams.size() < 2) {
+            throw new IllegalStateException("At least 2 teams required for Swiss tournament");
+        }
+
+        List<Match> matches = swissPairingService.generateFirstRound(tournament, teams);
+
+        log.info("Generated {} Swiss matches for round 1", matches.size());
+        return matches;
+    }
+
+    @Override
+    public boolean supports(Tournament tournament) {
+        return tournament.getType() == TournamentType.SWISS;
+    }
+}
@@ -0,0 +1,6 @@
+package com.chempionat.bot.domain.enums;
+
+public enum BroadcastStatus {
+    RUNNING,
+    COMPLETED
+}
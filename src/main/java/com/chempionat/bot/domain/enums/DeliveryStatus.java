@@ -0,0 +1,7 @@
+package com.chempionat.bot.domain.enums;
+
+public enum DeliveryStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
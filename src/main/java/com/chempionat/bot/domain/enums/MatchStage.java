@@ -10,11 +10,18 @@ public enum MatchStage {
     LEAGUE_ROUND,
     
     // Playoff stages
+    ROUND_OF_128,
     ROUND_OF_64,
     ROUND_OF_32,
     ROUND_OF_16,
     QUARTER_FINAL,
     SEMI_FINAL,
     THIRD_PLACE,
-    FINAL
+    FINAL,
+
+    // Double elimination stages
+    UPPER_BRACKET,
+    LOWER_BRACKET,
+    GRAND_FINAL,
+    GRAND_FINAL_RESET
 }
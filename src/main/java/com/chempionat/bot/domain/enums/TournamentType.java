@@ -2,5 +2,8 @@ package com.chempionat.bot.domain.enums;
 
 public enum TournamentType {
     LEAGUE,
-    PLAYOFF
+    PLAYOFF,
+    SWISS,
+    GROUP_KNOCKOUT,
+    DOUBLE_ELIMINATION
 }
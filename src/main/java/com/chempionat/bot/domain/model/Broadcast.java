@@ -0,0 +1,74 @@
+package com.chempionat.bot.domain.model;
+
+import com.chempionat.bot.domain.enums.BroadcastStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * One message sent to many users, delivered in the background by
+ * {@link com.chempionat.bot.application.service.BroadcastService}.
+ */
+@Entity
+@Table(name = "broadcasts")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Broadcast {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "kind", nullable = false, length = 50)
+    private String kind;
+
+    @Column(name = "tournament_id")
+    private Long tournamentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BroadcastStatus status;
+
+    /**
+     * Photo sent with every message, or null for text messages.
+     */
+    @ToString.Exclude
+    @Column(name = "image", columnDefinition = "BYTEA")
+    private byte[] image;
+
+    @Column(name = "image_name")
+    private String imageName;
+
+    @Column(name = "total_recipients", nullable = false)
+    private Integer totalRecipients;
+
+    @Column(name = "sent_count", nullable = false)
+    private Integer sentCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private Integer failedCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (sentCount == null) {
+            sentCount = 0;
+        }
+        if (failedCount == null) {
+            failedCount = 0;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(TournamentDataListener.class)
 @Table(name = "matches", indexes = {
     @Index(name = "idx_tournament_id", columnList = "tournament_id"),
     @Index(name = "idx_state", columnList = "state")
@@ -29,12 +30,18 @@ public class Match {
     @JoinColumn(name = "tournament_id", nullable = false)
     private Tournament tournament;
 
+    /**
+     * Null for knockout matches whose feeding match is not decided yet.
+     */
     @ManyToOne
-    @JoinColumn(name = "home_team_id", nullable = false)
+    @JoinColumn(name = "home_team_id")
     private Team homeTeam;
 
+    /**
+     * Null for knockout matches whose feeding match is not decided yet.
+     */
     @ManyToOne
-    @JoinColumn(name = "away_team_id", nullable = false)
+    @JoinColumn(name = "away_team_id")
     private Team awayTeam;
 
     @Column(name = "scheduled_time")
@@ -64,8 +71,9 @@ public class Match {
     private String rejectReason;
     
     /**
-     * Position in bracket tree for knockout tournaments (1-based).
-     * Used for ordering and rendering bracket visualization.
+     * Position in bracket tree for knockout tournaments, in heap order:
+     * 1 is the final and slot p is fed by slots 2p (home) and 2p + 1 (away).
+     * Used for winner propagation and rendering bracket visualization.
      */
     @Column(name = "bracket_position")
     private Integer bracketPosition;
@@ -85,6 +93,21 @@ public class Match {
     @Column(name = "winner_to_home")
     private Boolean winnerToHome;
 
+    /**
+     * Double elimination: the losers bracket match the loser drops into.
+     * Null when losing eliminates the team.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "loser_next_match_id")
+    private Match loserNextMatch;
+
+    /**
+     * True if the loser goes to home_team slot of loserNextMatch,
+     * False if the loser goes to away_team slot.
+     */
+    @Column(name = "loser_to_home")
+    private Boolean loserToHome;
+
     @OneToOne(mappedBy = "match", cascade = CascadeType.ALL)
     private MatchResult result;
 
@@ -110,4 +133,12 @@ public class Match {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
+
+    /**
+     * Whether both opponents are known. Later knockout rounds are created up front
+     * and stay empty until the feeding matches are decided.
+     */
+    public boolean hasBothTeams() {
+        return homeTeam != null && awayTeam != null;
+    }
 }
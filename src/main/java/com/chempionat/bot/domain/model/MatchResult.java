@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
  * Represents a submitted match result waiting for admin approval.
  */
 @Entity
+@EntityListeners(TournamentDataListener.class)
 @Table(name = "match_results")
 @Data
 @Builder
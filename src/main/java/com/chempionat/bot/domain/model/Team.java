@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(TournamentDataListener.class)
 @Table(name = "teams", indexes = {
     @Index(name = "idx_tournament_id", columnList = "tournament_id")
 })
@@ -33,6 +34,12 @@ public class Team {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    /**
+     * Group number (1-based) for group stage + knockout tournaments.
+     */
+    @Column(name = "group_number")
+    private Integer groupNumber;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
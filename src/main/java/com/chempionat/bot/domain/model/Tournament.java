@@ -9,8 +9,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 @Entity
+@EntityListeners(TournamentDataListener.class)
 @Table(name = "tournaments")
 @Data
 @Builder
@@ -61,6 +63,69 @@ public class Tournament {
     @Column(name = "status")
     private TournamentStatus status;
 
+    /**
+     * League rounds are materialized on demand from {@link #scheduleSeed}
+     * instead of being written up front.
+     */
+    @Column(name = "lazy_schedule")
+    private Boolean lazySchedule;
+
+    /**
+     * Circle-method participant order (team IDs, 0 for the bye slot) used to
+     * rebuild any round of a lazily scheduled league.
+     */
+    @Column(name = "schedule_seed", columnDefinition = "TEXT")
+    private String scheduleSeed;
+
+    /**
+     * Highest round already written to the matches table for a lazy league.
+     */
+    @Column(name = "materialized_rounds")
+    private Integer materializedRounds;
+
+    /**
+     * Number of groups for group stage + knockout tournaments (derived from team count if not set).
+     */
+    @Column(name = "group_count")
+    private Integer groupCount;
+
+    /**
+     * Number of top finishers per group that advance to the knockout bracket.
+     */
+    @Column(name = "advance_per_group")
+    private Integer advancePerGroup;
+
+    /**
+     * Length of one match slot in minutes; the day is split into slots of this size.
+     */
+    @Column(name = "slot_minutes")
+    private Integer slotMinutes;
+
+    /**
+     * Matches that can be played in the same slot (unlimited if not set).
+     */
+    @Column(name = "slot_capacity")
+    private Integer slotCapacity;
+
+    /**
+     * Matches a single player may play on one day.
+     */
+    @Column(name = "max_matches_per_day")
+    private Integer maxMatchesPerDay;
+
+    @Column(name = "day_start_time")
+    private LocalTime dayStartTime;
+
+    @Column(name = "day_end_time")
+    private LocalTime dayEndTime;
+
+    /**
+     * Increases after every committed change to the tournament, its teams, matches or results
+     * (see TournamentDataListener); only written by that bump, never by entity saves.
+     */
+    @Column(name = "data_version", nullable = false, updatable = false)
+    private Long dataVersion;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -83,6 +148,12 @@ public class Tournament {
         if (status == null) {
             status = TournamentStatus.CREATED;
         }
+        if (lazySchedule == null) {
+            lazySchedule = false;
+        }
+        if (dataVersion == null) {
+            dataVersion = 0L;
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,104 @@
+package com.chempionat.bot.domain.model;
+
+import com.chempionat.bot.domain.repository.TournamentRepository;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bumps {@link Tournament#getDataVersion()} once per transaction that changed the tournament,
+ * its teams, matches or results. The bump runs after commit, so a version number never
+ * refers to data older than the commit that produced it.
+ */
+@Slf4j
+@Component
+public class TournamentDataListener {
+
+    private final TournamentRepository tournamentRepository;
+    private final TransactionTemplate bumpTransaction;
+
+    public TournamentDataListener(@Lazy TournamentRepository tournamentRepository,
+                                  @Lazy PlatformTransactionManager transactionManager) {
+        this.tournamentRepository = tournamentRepository;
+        this.bumpTransaction = new TransactionTemplate(transactionManager);
+        this.bumpTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long tournamentId = tournamentIdOf(entity);
+        if (tournamentId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(Set.of(tournamentId));
+            return;
+        }
+        changedTournaments().add(tournamentId);
+    }
+
+    private Set<Long> changedTournaments() {
+        @SuppressWarnings("unchecked")
+        Set<Long> changed = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Set<Long> ids = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    // Before after-commit event listeners, so they see the new version
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCommit() {
+                    bump(ids);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TournamentDataListener.this);
+                }
+            });
+            changed = ids;
+        }
+        return changed;
+    }
+
+    private void bump(Set<Long> tournamentIds) {
+        try {
+            bumpTransaction.executeWithoutResult(status -> tournamentRepository.incrementDataVersion(tournamentIds));
+            log.debug("Data version bumped for tournaments {}", tournamentIds);
+        } catch (RuntimeException e) {
+            log.error("Failed to bump data version for tournaments {}", tournamentIds, e);
+        }
+    }
+
+    private static Long tournamentIdOf(Object entity) {
+        Tournament tournament = null;
+        if (entity instanceof Tournament t) {
+            tournament = t;
+        } else if (entity instanceof Match match) {
+            tournament = match.getTournament();
+        } else if (entity instanceof Team team) {
+            tournament = team.getTournament();
+        } else if (entity instanceof MatchResult result && result.getMatch() != null) {
+            tournament = result.getMatch().getTournament();
+        }
+        return tournament != null ? tournament.getId() : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.chempionat.bot.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Telegram file_id of an image the bot has already uploaded, keyed by a hash of its bytes.
+ */
+@Entity
+@Table(name = "uploaded_images")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadedImage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_hash", nullable = false, unique = true, length = 64)
+    private String contentHash;
+
+    @Column(name = "telegram_file_id", nullable = false)
+    private String telegramFileId;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Integer sizeBytes;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
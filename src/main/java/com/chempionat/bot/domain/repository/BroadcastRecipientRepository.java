@@ -0,0 +1,16 @@
+package com.chempionat.bot.domain.repository;
+
+import com.chempionat.bot.domain.enums.DeliveryStatus;
+import com.chempionat.bot.domain.model.BroadcastRecipient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BroadcastRecipientRepository extends JpaRepository<BroadcastRecipient, Long> {
+
+    List<BroadcastRecipient> findTop100ByBroadcastIdAndStatusOrderByIdAsc(Long broadcastId, DeliveryStatus status);
+
+    long countByBroadcastIdAndStatus(Long broadcastId, DeliveryStatus status);
+}
@@ -0,0 +1,14 @@
+package com.chempionat.bot.domain.repository;
+
+import com.chempionat.bot.domain.enums.BroadcastStatus;
+import com.chempionat.bot.domain.model.Broadcast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BroadcastRepository extends JpaRepository<Broadcast, Long> {
+
+    List<Broadcast> findByStatus(BroadcastStatus status);
+}
@@ -6,6 +6,7 @@ import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Team;
 import com.chempionat.bot.domain.model.Tournament;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,7 +26,7 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     List<Match> findByHomeTeamOrAwayTeam(Team homeTeam, Team awayTeam);
     
     @Query("SELECT m FROM Match m WHERE (m.homeTeam = :team OR m.awayTeam = :team) " +
-           "AND DATE(m.scheduledTime) = :date")
+           "AND DATE(m.scheduledTime) = :date ORDER BY m.scheduledTime")
     List<Match> findTodaysMatchesForTeam(@Param("team") Team team, @Param("date") LocalDate date);
     
     @Query("SELECT m FROM Match m WHERE (m.homeTeam = :team OR m.awayTeam = :team) " +
@@ -53,6 +54,28 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
      * Find matches that feed into a specific match (to find previous round matches).
      */
     List<Match> findByNextMatch(Match nextMatch);
+
+    /**
+     * Link a bracket match to the match its winner advances to, touching only the link columns.
+     */
+    @Modifying
+    @Query("UPDATE Match m SET m.nextMatch = :nextMatch, m.winnerToHome = :winnerToHome WHERE m.id = :id")
+    int linkToNextMatch(@Param("id") Long id, @Param("nextMatch") Match nextMatch,
+                        @Param("winnerToHome") Boolean winnerToHome);
+
+    /**
+     * Fill the home slot of a pre-created bracket match.
+     */
+    @Modifying
+    @Query("UPDATE Match m SET m.homeTeam = :team WHERE m.id = :id")
+    int assignHomeTeam(@Param("id") Long id, @Param("team") Team team);
+
+    /**
+     * Fill the away slot of a pre-created bracket match.
+     */
+    @Modifying
+    @Query("UPDATE Match m SET m.awayTeam = :team WHERE m.id = :id")
+    int assignAwayTeam(@Param("id") Long id, @Param("team") Team team);
     
     /**
      * Find the final match of a tournament (highest bracket position or FINAL stage).
@@ -0,0 +1,16 @@
+package com.chempionat.bot.domain.repository;
+
+import com.chempionat.bot.domain.model.PlayerAvailability;
+import com.chempionat.bot.domain.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlayerAvailabilityRepository extends JpaRepository<PlayerAvailability, Long> {
+    List<PlayerAvailability> findByUser(User user);
+    List<PlayerAvailability> findByUserIn(Collection<User> users);
+    void deleteByUser(User user);
+}
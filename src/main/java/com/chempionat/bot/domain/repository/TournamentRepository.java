@@ -3,10 +3,12 @@ package com.chempionat.bot.domain.repository;
 import com.chempionat.bot.domain.model.Tournament;
 import com.chempionat.bot.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +19,8 @@ public interface TournamentRepository extends JpaRepository<Tournament, Long> {
     
     @Query("SELECT DISTINCT t FROM Tournament t JOIN Team team ON team.tournament = t WHERE team.user.id = :userId")
     List<Tournament> findTournamentsByPlayerId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Tournament t SET t.dataVersion = t.dataVersion + 1 WHERE t.id IN :ids")
+    int incrementDataVersion(@Param("ids") Collection<Long> ids);
 }
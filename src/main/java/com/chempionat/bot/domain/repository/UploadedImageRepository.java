@@ -0,0 +1,15 @@
+package com.chempionat.bot.domain.repository;
+
+import com.chempionat.bot.domain.model.UploadedImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UploadedImageRepository extends JpaRepository<UploadedImage, Long> {
+
+    Optional<UploadedImage> findByContentHash(String contentHash);
+
+    void deleteByContentHash(String contentHash);
+}
@@ -3,6 +3,7 @@ package com.chempionat.bot.domain.repository;
 import com.chempionat.bot.domain.enums.Role;
 import com.chempionat.bot.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByTelegramId(Long telegramId);
     boolean existsByTelegramId(Long telegramId);
     List<User> findByRole(Role role);
+
+    /**
+     * Telegram id and role of one user, without loading the entity.
+     */
+    interface TelegramRole {
+        Long getTelegramId();
+        Role getRole();
+    }
+
+    @Query("SELECT u.telegramId AS telegramId, u.role AS role FROM User u")
+    List<TelegramRole> findAllRoles();
 }
@@ -0,0 +1,255 @@
+package com.chempionat.bot.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Second-tier store for rendered images: one file per cache key in a local directory,
+ * bounded by total size with least-recently-used eviction.
+ * The directory is re-indexed on startup (oldest access first), so a restart keeps every
+ * image rendered before it. The directory is tagged with the renderer version it was filled
+ * by and wiped when started with another one, so a deploy that changes rendering never
+ * serves images drawn by the old code.
+ */
+@Slf4j
+public class DiskImageStore {
+
+    private static final String SUFFIX = ".img";
+    private static final String VERSION_FILE = "VERSION";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * File name to size, in access order (eldest first).
+     */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * @param version renderer version of the images stored; files of any other version are deleted
+     */
+    public DiskImageStore(Path directory, long maxBytes, String version) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Disk cache size must be positive: " + maxBytes);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create image cache directory " + directory, e);
+        }
+        checkVersion(version);
+        warmStart();
+    }
+
+    /**
+     * Stored bytes for the key, or null.
+     */
+    public byte[] get(String key) {
+        String fileName = fileName(key);
+        synchronized (this) {
+            if (index.get(fileName) == null) {
+                return null;
+            }
+        }
+        Path file = directory.resolve(fileName);
+        try {
+            // Images are small and copied into the memory tier anyway, so a plain read beats mapping
+            byte[] bytes = Files.readAllBytes(file);
+            touch(file);
+            return bytes;
+        } catch (NoSuchFileException e) {
+            forget(fileName);
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read cached image {}", file, e);
+            forget(fileName);
+            return null;
+        }
+    }
+
+    /**
+     * Store bytes for the key, evicting least recently used files beyond the size limit.
+     */
+    public void put(String key, byte[] bytes) {
+        if (bytes.length == 0 || bytes.length > maxBytes) {
+            return;
+        }
+        String fileName = fileName(key);
+        Path file = directory.resolve(fileName);
+        Path temp = directory.resolve(fileName + ".tmp" + Thread.currentThread().getId());
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            // Readers only ever see complete files
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write cached image {}", file, e);
+            deleteQuietly(temp);
+            return;
+        }
+
+        List<String> evicted;
+        synchronized (this) {
+            Long previous = index.put(fileName, (long) bytes.length);
+            totalBytes += bytes.length - (previous != null ? previous : 0);
+            evicted = trim(fileName);
+        }
+        evicted.forEach(name -> deleteQuietly(directory.resolve(name)));
+    }
+
+    public void evict(String key) {
+        String fileName = fileName(key);
+        forget(fileName);
+        deleteQuietly(directory.resolve(fileName));
+    }
+
+    public void clear() {
+        List<String> names;
+        synchronized (this) {
+            names = new ArrayList<>(index.keySet());
+            index.clear();
+            totalBytes = 0;
+        }
+        names.forEach(name -> deleteQuietly(directory.resolve(name)));
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    private void checkVersion(String version) {
+        Path versionFile = directory.resolve(VERSION_FILE);
+        try {
+            String stored = Files.exists(versionFile) ? Files.readString(versionFile, StandardCharsets.UTF_8) : null;
+            if (version.equals(stored)) {
+                return;
+            }
+            int deleted = 0;
+            try (Stream<Path> paths = Files.list(directory)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    if (path.getFileName().toString().endsWith(SUFFIX)) {
+                        deleteQuietly(path);
+                        deleted++;
+                    }
+                }
+            }
+            Files.writeString(versionFile, version, StandardCharsets.UTF_8);
+            log.info("Image disk cache {}: renderer version changed ({} -> {}), deleted {} files",
+                    directory, stored, version, deleted);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot check image cache version in " + directory, e);
+        }
+    }
+
+    private void warmStart() {
+        List<Map.Entry<Path, BasicFileAttributes>> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String name = path.getFileName().toString();
+                if (name.contains(".tmp")) {
+                    deleteQuietly(path);
+                } else if (name.endsWith(SUFFIX)) {
+                    files.add(Map.entry(path, Files.readAttributes(path, BasicFileAttributes.class)));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to scan image cache directory {}", directory, e);
+        }
+
+        files.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+        synchronized (this) {
+            for (Map.Entry<Path, BasicFileAttributes> file : files) {
+                index.put(file.getKey().getFileName().toString(), file.getValue().size());
+                totalBytes += file.getValue().size();
+            }
+        }
+        log.info("Image disk cache {}: {} files, {} KB", directory, files.size(), totalBytes / 1024);
+
+        // The limit may have been lowered since the last run
+        List<String> evicted;
+        synchronized (this) {
+            evicted = trim(null);
+        }
+        evicted.forEach(name -> deleteQuietly(directory.resolve(name)));
+    }
+
+    /**
+     * Drop least recently used entries (except {@code keep}) until the size limit holds.
+     * Caller holds the lock and deletes the returned files outside it.
+     */
+    private List<String> trim(String keep) {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> eldest = index.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            totalBytes -= entry.getValue();
+            evicted.add(entry.getKey());
+            eldest.remove();
+        }
+        return evicted;
+    }
+
+    private synchronized void forget(String fileName) {
+        Long size = index.remove(fileName);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    /**
+     * Keep the access order for the next warm start.
+     */
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to touch cached image {}", file);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached image {}", file, e);
+        }
+    }
+
+    /**
+     * Keys contain ':' and other characters that are not portable in file names.
+     */
+    static String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
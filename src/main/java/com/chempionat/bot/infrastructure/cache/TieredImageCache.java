@@ -0,0 +1,139 @@
+package com.chempionat.bot.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spring cache with an in-memory first tier and an optional disk second tier for rendered images.
+ * Reads check memory, then disk (promoting hits back to memory); writes go to both tiers.
+ * Only byte[] values are written to disk. Memory hits hand out the stored array itself,
+ * without copying, so callers must not modify the images they get.
+ * <p>
+ * Loads are single-flight: callers that miss while the same key is already being rendered
+ * wait for that render instead of starting their own ({@code @Cacheable(sync = true)}).
+ * The waits are counted as {@code image.render.coalesced}.
+ */
+public class TieredImageCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> memory;
+    private final DiskImageStore disk;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    /**
+     * @param disk second tier, or null for memory only
+     */
+    public TieredImageCache(String name, Cache<Object, Object> memory, DiskImageStore disk,
+                            MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.memory = memory;
+        this.disk = disk;
+        this.coalesced = Counter.builder("image.render.coalesced").tag("cache", name)
+                .description("Renders saved by waiting for the same render in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Weight of a memory tier value in bytes, for the Caffeine weigher.
+     */
+    public static int weigh(Object value) {
+        return value instanceof byte[] bytes ? bytes.length : 1;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return memory;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = memory.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        byte[] stored = readDisk(key);
+        if (stored != null) {
+            memory.put(key, stored);
+        }
+        return stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+
+        CompletableFuture<Object> render = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, render);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return (T) fromStoreValue(running.join());
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            // A render may have finished between the lookup and registering this one
+            Object loaded = memory.getIfPresent(key);
+            if (loaded == null) {
+                loaded = toStoreValue(valueLoader.call());
+                put(key, loaded);
+            }
+            render.complete(loaded);
+            return (T) fromStoreValue(loaded);
+        } catch (Exception e) {
+            render.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, render);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        memory.put(key, storeValue);
+        if (disk != null && storeValue instanceof byte[] bytes) {
+            disk.put(key.toString(), bytes);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        memory.invalidate(key);
+        if (disk != null) {
+            disk.evict(key.toString());
+        }
+    }
+
+    @Override
+    public void clear() {
+        memory.invalidateAll();
+        if (disk != null) {
+            disk.clear();
+        }
+    }
+
+    private byte[] readDisk(Object key) {
+        return disk != null ? disk.get(key.toString()) : null;
+    }
+}
@@ -1,14 +1,22 @@
 package com.chempionat.bot.infrastructure.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
 
+/**
+ * Background thread pools. Every pool the application uses is declared here, so sizing
+ * comes from configuration and Spring shuts them down with the context.
+ */
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
@@ -21,4 +29,59 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Runs @Scheduled jobs and short delayed tasks (role index refresh, deferred image pushes,
+     * notification digests).
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.threads:2}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("scheduled-");
+        scheduler.setDaemon(true);
+        return scheduler;
+    }
+
+    /**
+     * Runs one broadcast at a time, handing its messages to {@link #broadcastSendExecutor}.
+     */
+    @Bean(name = "broadcastDispatchExecutor")
+    public ThreadPoolTaskExecutor broadcastDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("broadcast-dispatch-");
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    @Bean(name = "broadcastSendExecutor")
+    public ThreadPoolTaskExecutor broadcastSendExecutor(@Value("${telegram.broadcast.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("broadcast-");
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    /**
+     * Background pre-rendering. Interactive requests render on their own threads and come
+     * first, so these threads run at minimum priority; a full queue rejects new work.
+     */
+    @Bean(name = "prerenderExecutor")
+    public ThreadPoolTaskExecutor prerenderExecutor(@Value("${image.prerender.threads:1}") int threads,
+                                                    @Value("${image.prerender.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("prerender-");
+        executor.setDaemon(true);
+        return executor;
+    }
 }
@@ -1,13 +1,23 @@
 package com.chempionat.bot.infrastructure.config;
 
+import com.chempionat.bot.infrastructure.cache.DiskImageStore;
+import com.chempionat.bot.infrastructure.cache.TieredImageCache;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.info.BuildProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.nio.file.Path;
+import java.util.List;
 
 @Configuration
 @EnableCaching
@@ -15,12 +25,54 @@ public class CacheConfig {
 
     public static final String IMAGE_CACHE = "imageCache";
 
+    private static final long MB = 1024 * 1024;
+
+    /**
+     * Image keys carry the tournament data version, so entries never go stale and are only
+     * evicted for size. The memory tier is weighed in bytes; eviction counts and evicted
+     * weight are published as {@code cache.evictions} and {@code cache.eviction.weight}.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(IMAGE_CACHE);
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(5, TimeUnit.MINUTES)
-                .maximumSize(100));
+    public CacheManager cacheManager(MeterRegistry meterRegistry,
+                                     ObjectProvider<BuildProperties> buildProperties,
+                                     @Value("${image.cache.memory.max-size-mb:64}") long memoryMaxSizeMb,
+                                     @Value("${image.cache.disk.enabled:true}") boolean diskEnabled,
+                                     @Value("${image.cache.disk.directory:cache/images}") String diskDirectory,
+                                     @Value("${image.cache.disk.max-size-mb:512}") long diskMaxSizeMb,
+                                     @Value("${image.png.color-mode:INDEXED}") String pngColorMode,
+                                     @Value("${image.png.deflate-level:6}") int pngDeflateLevel,
+                                     @Value("${image.png.filter:NONE}") String pngFilter) {
+        if (memoryMaxSizeMb <= 0) {
+            throw new IllegalArgumentException("Image cache memory budget must be positive: " + memoryMaxSizeMb);
+        }
+        Cache<Object, Object> memory = Caffeine.newBuilder()
+                .maximumWeight(memoryMaxSizeMb * MB)
+                .weigher((Object key, Object value) -> TieredImageCache.weigh(value))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, IMAGE_CACHE);
+        Gauge.builder("image.cache.memory.bytes", memory,
+                        cache -> cache.policy().eviction().orElseThrow().weightedSize().orElse(0))
+                .baseUnit("bytes")
+                .description("Image bytes held by the in-memory cache tier")
+                .register(meterRegistry);
+
+        // The disk tier keeps rendered images across restarts, but not across builds or encoder settings
+        DiskImageStore disk = diskEnabled
+                ? new DiskImageStore(Path.of(diskDirectory), diskMaxSizeMb * MB,
+                        rendererVersion(buildProperties.getIfAvailable(), pngColorMode, pngDeflateLevel, pngFilter))
+                : null;
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new TieredImageCache(IMAGE_CACHE, memory, disk, meterRegistry)));
         return cacheManager;
     }
+
+    /**
+     * Identifies the code and settings that drew the images. Without build info (running from
+     * an IDE) only the settings are covered.
+     */
+    static String rendererVersion(BuildProperties build, String colorMode, int deflateLevel, String filter) {
+        String code = build != null ? build.getVersion() + "@" + build.getTime() : "dev";
+        return code + ";png=" + colorMode + "," + deflateLevel + "," + filter;
+    }
 }
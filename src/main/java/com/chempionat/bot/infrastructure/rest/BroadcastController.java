@@ -0,0 +1,25 @@
+package com.chempionat.bot.infrastructure.rest;
+
+import com.chempionat.bot.application.service.BroadcastService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/broadcasts")
+@RequiredArgsConstructor
+public class BroadcastController {
+
+    private final BroadcastService broadcastService;
+
+    /**
+     * Delivery progress of a broadcast, with the final statistics once it has completed.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<BroadcastService.Progress> getProgress(@PathVariable Long id) {
+        return ResponseEntity.of(broadcastService.getProgress(id));
+    }
+}
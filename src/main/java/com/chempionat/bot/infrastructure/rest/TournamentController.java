@@ -1,19 +1,25 @@
 package com.chempionat.bot.infrastructure.rest;
 
 import com.chempionat.bot.application.factory.TournamentFactory;
+import com.chempionat.bot.application.service.BracketSvgRenderer;
+import com.chempionat.bot.application.service.SingleEliminationService;
 import com.chempionat.bot.application.service.UserService;
 import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Tournament;
 import com.chempionat.bot.domain.model.User;
 import com.chempionat.bot.domain.repository.TournamentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Slf4j
@@ -25,6 +31,8 @@ public class TournamentController {
     private final TournamentFactory tournamentFactory;
     private final TournamentRepository tournamentRepository;
     private final UserService userService;
+    private final SingleEliminationService singleEliminationService;
+    private final BracketSvgRenderer bracketSvgRenderer;
 
     @PostMapping
     public ResponseEntity<TournamentResponse> createTournament(
@@ -65,6 +73,23 @@ public class TournamentController {
         return ResponseEntity.ok(TournamentResponse.from(tournament));
     }
 
+    /**
+     * Single elimination bracket as SVG, streamed to the response.
+     */
+    @GetMapping("/{id}/bracket.svg")
+    public void getBracketSvg(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        Tournament tournament = tournamentRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
+        List<Match> bracketMatches = singleEliminationService.getBracketTree(tournament);
+        if (!bracketSvgRenderer.supports(bracketMatches)) {
+            throw new IllegalArgumentException("Tournament has no single elimination bracket");
+        }
+
+        response.setContentType("image/svg+xml");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        bracketSvgRenderer.write(tournament.getName(), bracketMatches, response.getWriter());
+    }
+
     @GetMapping("/active")
     public ResponseEntity<List<TournamentResponse>> getActiveTournaments() {
         List<Tournament> tournaments = tournamentRepository.findByIsActiveTrue();
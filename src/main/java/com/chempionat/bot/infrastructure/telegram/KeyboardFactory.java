@@ -293,6 +293,30 @@ public class KeyboardFactory {
         row2.add(playoffButton);
         rows.add(row2);
 
+        List<InlineKeyboardButton> row3 = new ArrayList<>();
+        InlineKeyboardButton swissButton = InlineKeyboardButton.builder()
+                .text("♟ Shveytsariya tizimi")
+                .callbackData("tournamenttype:SWISS")
+                .build();
+        row3.add(swissButton);
+        rows.add(row3);
+
+        List<InlineKeyboardButton> row4 = new ArrayList<>();
+        InlineKeyboardButton groupButton = InlineKeyboardButton.builder()
+                .text("🌐 Guruh + pley-off")
+                .callbackData("tournamenttype:GROUP_KNOCKOUT")
+                .build();
+        row4.add(groupButton);
+        rows.add(row4);
+
+        List<InlineKeyboardButton> row5 = new ArrayList<>();
+        InlineKeyboardButton doubleEliminationButton = InlineKeyboardButton.builder()
+                .text("🔁 Ikki marta yutqazish")
+                .callbackData("tournamenttype:DOUBLE_ELIMINATION")
+                .build();
+        row5.add(doubleEliminationButton);
+        rows.add(row5);
+
         keyboard.setKeyboard(rows);
         return keyboard;
     }
@@ -405,6 +429,26 @@ public class KeyboardFactory {
         return keyboard;
     }
 
+    /**
+     * Creates inline keyboard for league schedule mode selection
+     */
+    public static InlineKeyboardMarkup createScheduleModeKeyboard() {
+        InlineKeyboardMarkup keyboard = new InlineKeyboardMarkup();
+        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
+
+        rows.add(List.of(InlineKeyboardButton.builder()
+                .text("📅 Barcha turlar darhol")
+                .callbackData("schedulemode:full")
+                .build()));
+        rows.add(List.of(InlineKeyboardButton.builder()
+                .text("⏳ Turlar bosqichma-bosqich")
+                .callbackData("schedulemode:lazy")
+                .build()));
+
+        keyboard.setKeyboard(rows);
+        return keyboard;
+    }
+
     /**
      * Creates inline keyboard for auto-start selection
      */
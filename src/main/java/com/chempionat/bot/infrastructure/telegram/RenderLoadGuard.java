@@ -0,0 +1,180 @@
+package com.chempionat.bot.infrastructure.telegram;
+
+import com.chempionat.bot.application.service.ImageRenderExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides when image commands should answer with their text versions instead, because the
+ * render pool or the backlog of received updates is past its threshold (for example right
+ * after a tournament start broadcast).
+ * <p>
+ * A degraded command can defer its image: the latest deferred push per chat and view is kept
+ * and sent once load drops below the thresholds again. Deferred pushes are bounded; the
+ * oldest is dropped when the limit is reached.
+ */
+@Slf4j
+@Component
+public class RenderLoadGuard implements HealthIndicator {
+
+    public static final String DEFERRED_NOTICE = "⏳ Server band, hozircha matn ko'rinishi. Rasm tayyor bo'lgach yuboriladi.";
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Image commands answer with text");
+
+    private final ImageRenderExecutor renderExecutor;
+    private final boolean enabled;
+    private final double renderLoadThreshold;
+    private final int updateBacklogThreshold;
+    private final int maxDeferred;
+
+    private final AtomicInteger pendingUpdates = new AtomicInteger();
+
+    /**
+     * Deferred pushes by chat id and view, oldest first. Guarded by itself.
+     */
+    private final LinkedHashMap<String, Runnable> deferred = new LinkedHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter pushed;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public RenderLoadGuard(ImageRenderExecutor renderExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${image.degrade.enabled:true}") boolean enabled,
+                           @Value("${image.degrade.render-load:0.75}") double renderLoadThreshold,
+                           @Value("${image.degrade.update-backlog:20}") int updateBacklogThreshold,
+                           @Value("${image.degrade.max-deferred:200}") int maxDeferred) {
+        if (maxDeferred < 1) {
+            throw new IllegalArgumentException("Deferred image limit must be positive: " + maxDeferred);
+        }
+        this.renderExecutor = renderExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.renderLoadThreshold = renderLoadThreshold;
+        this.updateBacklogThreshold = updateBacklogThreshold;
+        this.maxDeferred = maxDeferred;
+
+        this.pushed = pushCounter("sent");
+        this.dropped = pushCounter("dropped");
+        this.failed = pushCounter("failed");
+        Gauge.builder("image.degraded.deferred", this, RenderLoadGuard::getDeferredCount)
+                .description("Image pushes waiting for render capacity")
+                .register(meterRegistry);
+        Gauge.builder("telegram.updates.pending", pendingUpdates, AtomicInteger::get)
+                .description("Received updates not handled yet")
+                .register(meterRegistry);
+    }
+
+    private Counter pushCounter(String result) {
+        return Counter.builder("image.degraded.push").tag("result", result)
+                .description("Deferred images by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A batch of updates was received and is about to be handled.
+     */
+    public void onUpdatesReceived(int count) {
+        pendingUpdates.addAndGet(count);
+    }
+
+    public void onUpdateHandled() {
+        pendingUpdates.decrementAndGet();
+    }
+
+    public boolean isDegraded() {
+        return enabled && (renderExecutor.getLoad() >= renderLoadThreshold
+                || pendingUpdates.get() >= updateBacklogThreshold);
+    }
+
+    /**
+     * Count a text answer given instead of the {@code view} image, and push the image later
+     * with {@code push}. A push already deferred for the same chat and view is replaced.
+     */
+    public void degrade(String view, Long chatId, Runnable push) {
+        Counter.builder("image.degraded").tag("view", view)
+                .description("Image commands answered with text under load")
+                .register(meterRegistry)
+                .increment();
+
+        synchronized (deferred) {
+            deferred.remove(chatId + ":" + view);
+            deferred.put(chatId + ":" + view, push);
+            if (deferred.size() > maxDeferred) {
+                Iterator<String> eldest = deferred.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                dropped.increment();
+            }
+        }
+    }
+
+    public int getDeferredCount() {
+        synchronized (deferred) {
+            return deferred.size();
+        }
+    }
+
+    /**
+     * Send deferred images while load stays below the thresholds.
+     */
+    @Scheduled(fixedDelayString = "${image.degrade.retry-interval-ms:2000}",
+            initialDelayString = "${image.degrade.retry-interval-ms:2000}")
+    void pushDeferred() {
+        while (!isDegraded()) {
+            Runnable push;
+            synchronized (deferred) {
+                Iterator<Map.Entry<String, Runnable>> eldest = deferred.entrySet().iterator();
+                if (!eldest.hasNext()) {
+                    return;
+                }
+                push = eldest.next().getValue();
+                eldest.remove();
+            }
+            try {
+                push.run();
+                pushed.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Failed to push deferred image", e);
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        List<String> reasons = new ArrayList<>();
+        double renderLoad = renderExecutor.getLoad();
+        if (renderLoad >= renderLoadThreshold) {
+            reasons.add("render pool");
+        }
+        if (pendingUpdates.get() >= updateBacklogThreshold) {
+            reasons.add("update backlog");
+        }
+        Health.Builder health = Health.up();
+        if (enabled && !reasons.isEmpty()) {
+            health = Health.status(DEGRADED).withDetail("reasons", reasons);
+        }
+        return health
+                .withDetail("renderLoad", renderLoad)
+                .withDetail("pendingUpdates", pendingUpdates.get())
+                .withDetail("deferredImages", getDeferredCount())
+                .build();
+    }
+}
@@ -1,32 +1,97 @@
 package com.chempionat.bot.infrastructure.telegram;
 
+import com.chempionat.bot.application.service.UploadedImageService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.send.SendMediaGroup;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageMedia;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.PhotoSize;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
+import org.telegram.telegrambots.meta.api.objects.media.InputMediaPhoto;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Component
 public class TelegramBot extends TelegramLongPollingBot {
 
+    private static final int MAX_ALBUM_SIZE = 10;
+    private static final String NO_CHANGES = "ℹ️ O'zgarishlar yo'q";
+
+    /**
+     * Content hash of the image each recent photo message shows, by chat and message id.
+     */
+    private final Cache<String, String> shownImages = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofDays(2))
+            .build();
+
     private final String botUsername;
     private final TelegramCommandRouter commandRouter;
+    private final UploadedImageService uploadedImageService;
+    private final RenderLoadGuard renderLoadGuard;
+    private final UpdateDispatcher updateDispatcher;
 
     public TelegramBot(
             @Value("${telegram.bot.token}") String botToken,
             @Value("${telegram.bot.username}") String botUsername,
-            TelegramCommandRouter commandRouter) {
+            TelegramCommandRouter commandRouter,
+            UploadedImageService uploadedImageService,
+            RenderLoadGuard renderLoadGuard,
+            MeterRegistry meterRegistry,
+            @Value("${telegram.updates.threads:8}") int updateThreads,
+            @Value("${telegram.updates.max-pending:100}") int maxPendingUpdates) {
         super(botToken);
         this.botUsername = botUsername;
         this.commandRouter = commandRouter;
+        this.uploadedImageService = uploadedImageService;
+        this.renderLoadGuard = renderLoadGuard;
+        this.updateDispatcher = new UpdateDispatcher(this::handleUpdate, updateThreads, maxPendingUpdates, meterRegistry);
+    }
+
+    /**
+     * Hands the batch to the update handler pool; the polling thread only waits when it is full.
+     */
+    @Override
+    public void onUpdatesReceived(List<Update> updates) {
+        // Queued and running updates are the backlog image commands degrade on
+        renderLoadGuard.onUpdatesReceived(updates.size());
+        updates.forEach(updateDispatcher::dispatch);
+    }
+
+    private void handleUpdate(Update update) {
+        try {
+            onUpdateReceived(update);
+        } finally {
+            renderLoadGuard.onUpdateHandled();
+        }
+    }
+
+    @PreDestroy
+    public void shutdownUpdateHandlers() {
+        updateDispatcher.shutdown();
     }
 
     @Override
@@ -154,36 +219,271 @@ public class TelegramBot extends TelegramLongPollingBot {
     }
 
     public void sendPhoto(Long chatId, byte[] imageData, String filename, String caption, InlineKeyboardMarkup keyboard) {
-        java.io.ByteArrayInputStream inputStream = new java.io.ByteArrayInputStream(imageData);
-        SendPhoto photo = SendPhoto.builder()
-                .chatId(chatId.toString())
-                .photo(new InputFile(inputStream, filename))
-                .caption(caption)
-                .replyMarkup(keyboard)
-                .build();
+        sendPhotoContent(chatId, imageData, filename, caption, keyboard);
+    }
+
+    public void sendPhoto(Long chatId, byte[] imageData, String filename, String caption) {
+        sendPhotoContent(chatId, imageData, filename, caption, null);
+    }
+
+    /**
+     * Send a text message, or a photo with the text as caption, passing failures on
+     * so the caller can retry or record them.
+     */
+    public void deliver(Long chatId, String text, byte[] imageData, String filename) throws TelegramApiException {
+        if (imageData == null) {
+            execute(SendMessage.builder().chatId(chatId.toString()).text(text).build());
+            log.debug("Message delivered to chat {}", chatId);
+        } else {
+            sendPhotoOrThrow(chatId, imageData, filename, text, null);
+        }
+    }
+
+    private void sendPhotoContent(Long chatId, byte[] imageData, String filename, String caption,
+                                  InlineKeyboardMarkup keyboard) {
         try {
-            execute(photo);
-            log.debug("Photo with keyboard sent to chat {}", chatId);
+            sendPhotoOrThrow(chatId, imageData, filename, caption, keyboard);
         } catch (TelegramApiException e) {
             log.error("Failed to send photo to chat {}", chatId, e);
         }
     }
 
-    public void sendPhoto(Long chatId, byte[] imageData, String filename, String caption) {
-        java.io.ByteArrayInputStream inputStream = new java.io.ByteArrayInputStream(imageData);
-        SendPhoto photo = SendPhoto.builder()
+    /**
+     * Send image bytes, by file_id when identical content was uploaded before.
+     * A fresh upload stores the returned file_id for the next send.
+     */
+    private void sendPhotoOrThrow(Long chatId, byte[] imageData, String filename, String caption,
+                                  InlineKeyboardMarkup keyboard) throws TelegramApiException {
+        String contentHash = uploadedImageService.hash(imageData);
+        Optional<String> fileId = uploadedImageService.findFileId(contentHash, imageData.length);
+        if (fileId.isPresent()) {
+            try {
+                Message sent = execute(buildPhoto(chatId, new InputFile(fileId.get()), caption, keyboard));
+                log.debug("Photo sent to chat {} by file_id", chatId);
+                rememberShown(chatId, sent, contentHash);
+                return;
+            } catch (TelegramApiException e) {
+                if (!mayBeStaleFileId(e)) {
+                    throw e;
+                }
+                log.warn("Stored file_id rejected for chat {}, uploading again", chatId, e);
+                uploadedImageService.forget(contentHash);
+            }
+        }
+
+        InputFile upload = new InputFile(new java.io.ByteArrayInputStream(imageData), filename);
+        Message sent = execute(buildPhoto(chatId, upload, caption, keyboard));
+        log.debug("Photo uploaded to chat {} ({} bytes)", chatId, imageData.length);
+        rememberShown(chatId, sent, contentHash);
+        if (sent != null && sent.hasPhoto()) {
+            // Sizes are ordered smallest first; reuse the full-size one
+            List<PhotoSize> sizes = sent.getPhoto();
+            uploadedImageService.remember(contentHash, sizes.get(sizes.size() - 1).getFileId(), imageData.length);
+        }
+    }
+
+    /**
+     * A blocked bot (403) or rate limit (429) says nothing about the file_id, and uploading
+     * instead would fail the same way.
+     */
+    private static boolean mayBeStaleFileId(TelegramApiException e) {
+        Integer errorCode = e instanceof TelegramApiRequestException request ? request.getErrorCode() : null;
+        return errorCode == null || (errorCode != 403 && errorCode != 429);
+    }
+
+    /**
+     * Show an image in answer to a button press on a photo message by replacing that photo in place
+     * (editMessageMedia), instead of sending a new message. If the message already shows this exact
+     * image, nothing is sent and the user is told there are no changes. A message that is not a photo
+     * or can no longer be edited is replaced by a new photo message.
+     */
+    public void replacePhoto(CallbackQuery query, byte[] imageData, String filename, String caption,
+                             InlineKeyboardMarkup keyboard) {
+        Long chatId = query.getMessage().getChatId();
+        Integer messageId = query.getMessage().getMessageId();
+        if (!(query.getMessage() instanceof Message message) || !message.hasPhoto()) {
+            deleteMessage(chatId, messageId);
+            sendPhotoContent(chatId, imageData, filename, caption, keyboard);
+            return;
+        }
+
+        String contentHash = uploadedImageService.hash(imageData);
+        if (contentHash.equals(shownImages.getIfPresent(shownKey(chatId, messageId)))) {
+            answerCallback(query.getId(), NO_CHANGES);
+            return;
+        }
+
+        Optional<String> fileId = uploadedImageService.findFileId(contentHash, imageData.length);
+        try {
+            if (fileId.isPresent()) {
+                try {
+                    editPhoto(chatId, messageId, fileId.get(), null, caption, keyboard);
+                    log.debug("Photo edited in chat {} by file_id", chatId);
+                    shownImages.put(shownKey(chatId, messageId), contentHash);
+                    return;
+                } catch (TelegramApiRequestException e) {
+                    if (isNotModified(e) || !mayBeStaleFileId(e)) {
+                        throw e;
+                    }
+                    log.warn("Stored file_id rejected for chat {}, uploading again", chatId, e);
+                    uploadedImageService.forget(contentHash);
+                }
+            }
+            Serializable edited = editPhoto(chatId, messageId, null, imageData, caption, keyboard);
+            log.debug("Photo edited in chat {} ({} bytes uploaded)", chatId, imageData.length);
+            shownImages.put(shownKey(chatId, messageId), contentHash);
+            if (edited instanceof Message sent && sent.hasPhoto()) {
+                List<PhotoSize> sizes = sent.getPhoto();
+                uploadedImageService.remember(contentHash, sizes.get(sizes.size() - 1).getFileId(), imageData.length);
+            }
+        } catch (TelegramApiRequestException e) {
+            if (isNotModified(e)) {
+                // Shown before this process started
+                shownImages.put(shownKey(chatId, messageId), contentHash);
+                answerCallback(query.getId(), NO_CHANGES);
+                return;
+            }
+            if (!mayBeStaleFileId(e)) {
+                // Blocked or rate limited: a new photo would fail the same way
+                log.warn("Cannot edit photo {} in chat {}: {}", messageId, chatId, e.getMessage());
+                return;
+            }
+            log.warn("Cannot edit photo {} in chat {}, sending a new one", messageId, chatId, e);
+            deleteMessage(chatId, messageId);
+            sendPhotoContent(chatId, imageData, filename, caption, keyboard);
+        } catch (TelegramApiException e) {
+            log.error("Failed to edit photo {} in chat {}", messageId, chatId, e);
+        }
+    }
+
+    /**
+     * Replace the photo by file_id, or upload the bytes when no file_id is given.
+     */
+    private Serializable editPhoto(Long chatId, Integer messageId, String fileId, byte[] imageData, String caption,
+                                   InlineKeyboardMarkup keyboard) throws TelegramApiException {
+        InputMediaPhoto photo = new InputMediaPhoto();
+        if (fileId != null) {
+            photo.setMedia(fileId);
+        } else {
+            photo.setMedia(new java.io.ByteArrayInputStream(imageData), "image_" + messageId + ".png");
+        }
+        photo.setCaption(caption);
+        return execute(EditMessageMedia.builder()
                 .chatId(chatId.toString())
-                .photo(new InputFile(inputStream, filename))
-                .caption(caption)
-                .build();
+                .messageId(messageId)
+                .media(photo)
+                .replyMarkup(keyboard)
+                .build());
+    }
+
+    private static boolean isNotModified(TelegramApiRequestException e) {
+        return e.getApiResponse() != null && e.getApiResponse().contains("message is not modified");
+    }
+
+    private void rememberShown(Long chatId, Message sent, String contentHash) {
+        if (sent != null) {
+            shownImages.put(shownKey(chatId, sent.getMessageId()), contentHash);
+        }
+    }
+
+    private static String shownKey(Long chatId, Integer messageId) {
+        return chatId + ":" + messageId;
+    }
+
+    /**
+     * Show a short notice for a button press.
+     */
+    public void answerCallback(String callbackQueryId, String text) {
         try {
-            execute(photo);
-            log.debug("Photo sent to chat {}", chatId);
+            execute(AnswerCallbackQuery.builder()
+                    .callbackQueryId(callbackQueryId)
+                    .text(text)
+                    .build());
         } catch (TelegramApiException e) {
-            log.error("Failed to send photo to chat {}", chatId, e);
+            log.error("Failed to answer callback query {}", callbackQueryId, e);
         }
     }
 
+    /**
+     * Send images as albums of up to {@value #MAX_ALBUM_SIZE}, one request per album instead of one per image.
+     * Images uploaded before go by file_id, fresh uploads store theirs. The caption goes on the first image.
+     * Albums cannot carry an inline keyboard; send it in a separate message.
+     */
+    public void sendAlbum(Long chatId, List<byte[]> images, String filenamePrefix, String caption) {
+        for (int from = 0; from < images.size(); from += MAX_ALBUM_SIZE) {
+            List<byte[]> album = images.subList(from, Math.min(from + MAX_ALBUM_SIZE, images.size()));
+            String albumCaption = from == 0 ? caption : null;
+            if (album.size() == 1) {
+                // Telegram requires at least two items in a media group
+                sendPhotoContent(chatId, album.get(0), filenamePrefix + "_" + from + ".png", albumCaption, null);
+            } else {
+                sendAlbumContent(chatId, album, filenamePrefix, from, albumCaption, true);
+            }
+        }
+    }
+
+    private void sendAlbumContent(Long chatId, List<byte[]> album, String filenamePrefix, int offset, String caption,
+                                  boolean useFileIds) {
+        List<String> hashes = new ArrayList<>(album.size());
+        List<Boolean> uploaded = new ArrayList<>(album.size());
+        List<InputMedia> medias = new ArrayList<>(album.size());
+        for (int i = 0; i < album.size(); i++) {
+            byte[] imageData = album.get(i);
+            String contentHash = uploadedImageService.hash(imageData);
+            Optional<String> fileId = useFileIds
+                    ? uploadedImageService.findFileId(contentHash, imageData.length)
+                    : Optional.empty();
+            InputMediaPhoto photo = new InputMediaPhoto();
+            if (fileId.isPresent()) {
+                photo.setMedia(fileId.get());
+            } else {
+                photo.setMedia(new java.io.ByteArrayInputStream(imageData), filenamePrefix + "_" + (offset + i) + ".png");
+            }
+            if (i == 0) {
+                photo.setCaption(caption);
+            }
+            hashes.add(contentHash);
+            uploaded.add(fileId.isEmpty());
+            medias.add(photo);
+        }
+
+        try {
+            List<Message> sent = execute(SendMediaGroup.builder()
+                    .chatId(chatId.toString())
+                    .medias(medias)
+                    .build());
+            log.debug("Album of {} photos sent to chat {}", medias.size(), chatId);
+            for (int i = 0; i < sent.size() && i < album.size(); i++) {
+                if (uploaded.get(i) && sent.get(i).hasPhoto()) {
+                    List<PhotoSize> sizes = sent.get(i).getPhoto();
+                    uploadedImageService.remember(hashes.get(i), sizes.get(sizes.size() - 1).getFileId(),
+                            album.get(i).length);
+                }
+            }
+        } catch (TelegramApiException e) {
+            if (useFileIds && uploaded.contains(false) && mayBeStaleFileId(e)) {
+                log.warn("Album with stored file_ids rejected for chat {}, uploading again", chatId, e);
+                for (int i = 0; i < hashes.size(); i++) {
+                    if (!uploaded.get(i)) {
+                        uploadedImageService.forget(hashes.get(i));
+                    }
+                }
+                sendAlbumContent(chatId, album, filenamePrefix, offset, caption, false);
+            } else {
+                log.error("Failed to send album to chat {}", chatId, e);
+            }
+        }
+    }
+
+    private SendPhoto buildPhoto(Long chatId, InputFile photo, String caption, InlineKeyboardMarkup keyboard) {
+        return SendPhoto.builder()
+                .chatId(chatId.toString())
+                .photo(photo)
+                .caption(caption)
+                .replyMarkup(keyboard)
+                .build();
+    }
+
     public void deleteMessage(Long chatId, Integer messageId) {
         org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessage deleteMessage = 
                 org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessage.builder()
@@ -100,6 +100,7 @@ public class TelegramCommandRouter {
                 callbackData.startsWith("view_tournament:") ||
                 callbackData.startsWith("rounds:") ||
                 callbackData.startsWith("autostart:") ||
+                callbackData.startsWith("schedulemode:") ||
                 callbackData.startsWith("manage_tournament:") ||
                 callbackData.startsWith("start_tournament:") ||
                 callbackData.startsWith("share_tournament:") ||
@@ -245,7 +246,7 @@ public class TelegramCommandRouter {
             return "/rejectorganizer";
         } else if (callbackData.startsWith("view_tournament:")) {
             return "/view_tournament";
-        } else if (callbackData.startsWith("autostart:")) {
+        } else if (callbackData.startsWith("autostart:") || callbackData.startsWith("schedulemode:")) {
             return "/createtournament";
         } else if (callbackData.startsWith("my_matches:")) {
             return "/mymatches";
@@ -320,6 +321,7 @@ public class TelegramCommandRouter {
         if (activeCommand.equals("/createtournament")) {
             return callbackData.startsWith("tournamenttype:") ||
                    callbackData.startsWith("rounds:") ||
+                   callbackData.startsWith("schedulemode:") ||
                    callbackData.startsWith("autostart:");
         } else if (activeCommand.equals("/submitresult")) {
             return callbackData.startsWith("submitresult:");
@@ -0,0 +1,122 @@
+package com.chempionat.bot.infrastructure.telegram;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hands received updates to a pool of handler threads, so a slow update (an image render,
+ * a big broadcast) no longer holds up the polling thread and every other chat behind it.
+ * Updates from the same user are handled one at a time in the order received, which keeps
+ * multi-step conversations in {@link UserContext} consistent.
+ * <p>
+ * At most {@code maxPending} updates are queued or in progress; beyond that the polling
+ * thread waits, leaving further updates with Telegram until handlers catch up.
+ */
+@Slf4j
+final class UpdateDispatcher {
+
+    private final Consumer<Update> handler;
+    private final ExecutorService pool;
+    private final Semaphore pending;
+
+    /**
+     * Updates waiting per user. A user is present while one handler is draining their updates.
+     */
+    private final ConcurrentHashMap<Long, ArrayDeque<Update>> lanes = new ConcurrentHashMap<>();
+
+    UpdateDispatcher(Consumer<Update> handler, int threads, int maxPending, MeterRegistry meterRegistry) {
+        if (threads < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("Update handler threads and queue must be positive: "
+                    + threads + ", " + maxPending);
+        }
+        this.handler = handler;
+        this.pending = new Semaphore(maxPending);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "update-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("telegram.updates.users", lanes, ConcurrentHashMap::size)
+                .description("Users with updates being handled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue the update behind earlier updates from the same user. Blocks while the queue is full.
+     */
+    void dispatch(Update update) {
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an update handler", e);
+        }
+        Long userId = userIdOf(update);
+        boolean[] start = new boolean[1];
+        lanes.compute(userId, (id, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                start[0] = true;
+            }
+            queue.add(update);
+            return queue;
+        });
+        if (start[0]) {
+            pool.execute(() -> drain(userId));
+        }
+    }
+
+    private void drain(Long userId) {
+        Update update;
+        while ((update = next(userId)) != null) {
+            try {
+                handler.accept(update);
+            } catch (RuntimeException e) {
+                log.error("Error handling update {}", update.getUpdateId(), e);
+            } finally {
+                pending.release();
+            }
+        }
+    }
+
+    /**
+     * The user's next update, or null after removing the user once nothing is left.
+     */
+    private Update next(Long userId) {
+        Update[] next = new Update[1];
+        lanes.computeIfPresent(userId, (id, queue) -> {
+            next[0] = queue.poll();
+            return next[0] != null ? queue : null;
+        });
+        return next[0];
+    }
+
+    private static Long userIdOf(Update update) {
+        if (update.hasMessage() && update.getMessage().getFrom() != null) {
+            return update.getMessage().getFrom().getId();
+        }
+        if (update.hasCallbackQuery()) {
+            return update.getCallbackQuery().getFrom().getId();
+        }
+        if (update.hasMessage()) {
+            return update.getMessage().getChatId();
+        }
+        // Updates the bot ignores share one lane
+        return 0L;
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,106 @@
+package com.chempionat.bot.infrastructure.telegram.commands;
+
+import com.chempionat.bot.application.service.PlayerAvailabilityService;
+import com.chempionat.bot.application.service.UserService;
+import com.chempionat.bot.domain.model.PlayerAvailability;
+import com.chempionat.bot.domain.model.User;
+import com.chempionat.bot.infrastructure.telegram.TelegramBot;
+import com.chempionat.bot.infrastructure.telegram.TelegramCommand;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * /availability - show or set the times a player can play.
+ * "/availability 18:00-22:00" adds a daily window, "/availability 6 10:00-14:00" a window
+ * for Saturday (1 = Monday), "/availability clear" removes all windows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailabilityCommand implements TelegramCommand {
+
+    private static final String[] DAY_NAMES = {
+            "Dushanba", "Seshanba", "Chorshanba", "Payshanba", "Juma", "Shanba", "Yakshanba"
+    };
+
+    private final PlayerAvailabilityService playerAvailabilityService;
+    private final UserService userService;
+
+    @Override
+    public String getCommandName() {
+        return "/availability";
+    }
+
+    @Override
+    public void execute(Update update, TelegramBot bot) {
+        Long chatId = update.getMessage().getChatId();
+        Long telegramId = update.getMessage().getFrom().getId();
+
+        Optional<User> userOpt = userService.getUserByTelegramId(telegramId);
+        if (userOpt.isEmpty()) {
+            bot.sendMessage(chatId, "❌ Foydalanuvchi topilmadi. /start buyrug'ini yuboring.");
+            return;
+        }
+        User user = userOpt.get();
+
+        String[] args = update.getMessage().getText().trim().split("\\s+");
+        try {
+            if (args.length == 2 && "clear".equalsIgnoreCase(args[1])) {
+                playerAvailabilityService.clearWindows(user);
+                bot.sendMessage(chatId, "✅ Vaqtlar o'chirildi. Endi istalgan vaqtda o'yin belgilanishi mumkin.");
+                return;
+            }
+            if (args.length == 2) {
+                playerAvailabilityService.addWindow(user, null, args[1]);
+            } else if (args.length == 3) {
+                playerAvailabilityService.addWindow(user, parseDay(args[1]), args[2]);
+            } else if (args.length > 3) {
+                sendUsage(bot, chatId);
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            bot.sendMessage(chatId, "❌ Noto'g'ri format: " + e.getMessage());
+            sendUsage(bot, chatId);
+            return;
+        }
+
+        bot.sendMessage(chatId, buildWindowsMessage(playerAvailabilityService.getWindows(user)));
+    }
+
+    private DayOfWeek parseDay(String value) {
+        try {
+            return DayOfWeek.of(Integer.parseInt(value));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Kun 1 (Dushanba) dan 7 (Yakshanba) gacha bo'lishi kerak");
+        }
+    }
+
+    private String buildWindowsMessage(List<PlayerAvailability> windows) {
+        if (windows.isEmpty()) {
+            return "🕒 Siz uchun vaqt cheklovi yo'q: o'yinlar kunning istalgan slotiga qo'yiladi.\n\n" +
+                    "Vaqt qo'shish: /availability 18:00-22:00";
+        }
+        StringBuilder message = new StringBuilder("🕒 O'ynash mumkin bo'lgan vaqtlaringiz:\n\n");
+        for (PlayerAvailability window : windows) {
+            String day = window.getDayOfWeek() != null ? DAY_NAMES[window.getDayOfWeek().getValue() - 1] : "Har kuni";
+            message.append("• ").append(day).append(": ")
+                    .append(window.getStartTime()).append(" - ").append(window.getEndTime()).append("\n");
+        }
+        message.append("\nO'chirish: /availability clear");
+        return message.toString();
+    }
+
+    private void sendUsage(TelegramBot bot, Long chatId) {
+        bot.sendMessage(chatId, "Foydalanish:\n" +
+                "/availability - vaqtlarni ko'rish\n" +
+                "/availability 18:00-22:00 - har kuni\n" +
+                "/availability 6 10:00-14:00 - faqat shanba (1 = Dushanba)\n" +
+                "/availability clear - hammasini o'chirish");
+    }
+}
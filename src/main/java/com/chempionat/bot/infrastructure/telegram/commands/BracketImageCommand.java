@@ -1,6 +1,7 @@
 package com.chempionat.bot.infrastructure.telegram.commands;
 
 import com.chempionat.bot.application.service.BracketImageRenderer;
+import com.chempionat.bot.application.service.ImageCacheService;
 import com.chempionat.bot.application.service.SingleEliminationService;
 import com.chempionat.bot.application.service.TournamentService;
 import com.chempionat.bot.domain.enums.TournamentType;
@@ -18,6 +19,7 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKe
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Command to display tournament bracket as an image.
@@ -31,6 +33,7 @@ public class BracketImageCommand implements TelegramCommand {
     private final TournamentService tournamentService;
     private final SingleEliminationService singleEliminationService;
     private final BracketImageRenderer bracketImageRenderer;
+    private final ImageCacheService imageCacheService;
 
     @Override
     public void execute(Update update, TelegramBot bot) {
@@ -92,8 +95,9 @@ public class BracketImageCommand implements TelegramCommand {
 
             Tournament tournament = tournamentOpt.get();
 
-            // Check if tournament is PLAYOFF type
-            if (tournament.getType() != TournamentType.PLAYOFF) {
+            // Check if tournament has a knockout bracket
+            if (tournament.getType() != TournamentType.PLAYOFF && tournament.getType() != TournamentType.GROUP_KNOCKOUT
+                    && tournament.getType() != TournamentType.DOUBLE_ELIMINATION) {
                 bot.sendMessage(chatId, "ℹ️ Bracket faqat playoff turnirlar uchun mavjud.\n" +
                         "Bu turnir turi: " + tournament.getType());
                 return;
@@ -107,19 +111,33 @@ public class BracketImageCommand implements TelegramCommand {
                 return;
             }
 
-            // Render bracket image
-            byte[] imageData = bracketImageRenderer.render(tournament.getName(), bracketMatches);
             String caption = bracketImageRenderer.generateCaption(tournament.getName(), bracketMatches);
 
             // Create keyboard with back button
             InlineKeyboardMarkup keyboard = createBackKeyboard(tournamentId);
 
-            // Send image
-            bot.sendPhoto(chatId, imageData, "bracket_" + tournamentId + ".png", caption);
-            bot.sendMessage(chatId, "⬇️", keyboard);
+            if (imageCacheService.isBracketTiled(bracketMatches)) {
+                // Large brackets are unreadable as one image: send the quarters and the finals as one album.
+                // Albums cannot carry buttons, so the keyboard follows in its own message.
+                List<byte[]> tiles = imageCacheService.getBracketTiles(tournament, bracketMatches);
+                bot.sendAlbum(chatId, tiles, "bracket_" + tournamentId, caption);
+                bot.sendMessage(chatId, "⬇️", keyboard);
+            } else {
+                // Render bracket image
+                byte[] imageData = imageCacheService.getBracketImage(tournament, bracketMatches);
+                String filename = "bracket_" + tournamentId + ".png";
+                if (update.hasCallbackQuery() && update.getCallbackQuery().getData().startsWith("bracketimg:")) {
+                    // Refresh edits the photo in place
+                    bot.replacePhoto(update.getCallbackQuery(), imageData, filename, caption, keyboard);
+                } else {
+                    bot.sendPhoto(chatId, imageData, filename, caption, keyboard);
+                }
+            }
 
             log.info("Bracket image sent for tournament {}", tournamentId);
 
+        } catch (RejectedExecutionException e) {
+            bot.sendMessage(chatId, "⏳ Server band. Iltimos, birozdan keyin qayta urinib ko'ring.");
         } catch (Exception e) {
             log.error("Error rendering bracket for tournament {}", tournamentId, e);
             bot.sendMessage(chatId, "❌ Bracket yaratishda xatolik yuz berdi.");
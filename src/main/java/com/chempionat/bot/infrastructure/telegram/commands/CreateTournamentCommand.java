@@ -54,6 +54,9 @@ public class CreateTournamentCommand implements TelegramCommand {
             } else if (callbackData.startsWith("rounds:")) {
                 handleRoundsSelection(bot, chatId, userId, callbackData,
                                      update.getCallbackQuery().getMessage().getMessageId());
+            } else if (callbackData.startsWith("schedulemode:")) {
+                handleScheduleModeSelection(bot, chatId, userId, callbackData,
+                                           update.getCallbackQuery().getMessage().getMessageId());
             } else if (callbackData.startsWith("autostart:")) {
                 handleAutoStartSelection(bot, chatId, userId, callbackData,
                                         update.getCallbackQuery().getMessage().getMessageId());
@@ -63,10 +66,7 @@ public class CreateTournamentCommand implements TelegramCommand {
 
     private void startTournamentCreation(TelegramBot bot, Long chatId, Long userId, UserContext context) {
         // Check if user is admin or organizer
-        Optional<User> userOpt = userService.getUserByTelegramId(userId);
-        if (userOpt.isEmpty() || (userOpt.get().getRole() != Role.ADMIN && 
-                                   userOpt.get().getRole() != Role.MODERATOR && 
-                                   userOpt.get().getRole() != Role.ORGANIZER)) {
+        if (!userService.hasRole(userId, Role.ADMIN, Role.MODERATOR, Role.ORGANIZER)) {
             bot.sendMessage(chatId, "❌ Faqat adminlar va tashkilotchilar turnir yaratishi mumkin.\n\n" +
                     "Tashkilotchi bo'lish uchun: /requestorganizer");
             return;
@@ -152,12 +152,36 @@ public class CreateTournamentCommand implements TelegramCommand {
         int rounds = Integer.parseInt(roundsStr);
         
         context.setData("number_of_rounds", rounds);
+
+        if (TournamentType.LEAGUE.name().equals(context.getDataAsString("type"))) {
+            context.setData("step", "schedule_mode");
+            bot.editMessage(chatId, messageId,
+                           "O'yinlar jadvali qanday tuzilsin?\n\n" +
+                           "⏳ Bosqichma-bosqich: keyingi tur joriy turning 75% o'yinlari " +
+                           "tugagandan keyin ochiladi.",
+                           KeyboardFactory.createScheduleModeKeyboard());
+            return;
+        }
+
         context.setData("step", "auto_start");
         
         bot.editMessage(chatId, messageId,
                        "Ishtirokchilar to'lganda avtomatik boshlansinmi?",
                        KeyboardFactory.createAutoStartKeyboard());
     }
+
+    private void handleScheduleModeSelection(TelegramBot bot, Long chatId, Long userId,
+                                             String callbackData, Integer messageId) {
+        UserContext context = UserContext.get(userId);
+        boolean lazySchedule = "lazy".equals(callbackData.split(":")[1]);
+
+        context.setData("lazy_schedule", lazySchedule);
+        context.setData("step", "auto_start");
+
+        bot.editMessage(chatId, messageId,
+                       "Ishtirokchilar to'lganda avtomatik boshlansinmi?",
+                       KeyboardFactory.createAutoStartKeyboard());
+    }
     
     private void handleAutoStartSelection(TelegramBot bot, Long chatId, Long userId,
                                          String callbackData, Integer messageId) {
@@ -188,6 +212,7 @@ public class CreateTournamentCommand implements TelegramCommand {
             Integer maxParticipants = context.getDataAsInteger("max_participants");
             Integer numberOfRounds = context.getDataAsInteger("number_of_rounds");
             Boolean autoStart = context.getDataAsBoolean("auto_start");
+            Boolean lazySchedule = context.getDataAsBoolean("lazy_schedule");
 
             // Create tournament
             Tournament tournament = tournamentService.createTournament(name, description, type, user);
@@ -202,6 +227,9 @@ public class CreateTournamentCommand implements TelegramCommand {
             if (autoStart != null) {
                 tournament.setAutoStart(autoStart);
             }
+            if (lazySchedule != null) {
+                tournament.setLazySchedule(lazySchedule);
+            }
             
             tournament = tournamentService.updateTournament(tournament);
 
@@ -237,6 +265,10 @@ public class CreateTournamentCommand implements TelegramCommand {
             sb.append("🔄 Turlar soni: ").append(tournament.getNumberOfRounds()).append("\n");
         }
         
+        if (Boolean.TRUE.equals(tournament.getLazySchedule())) {
+            sb.append("⏳ Jadval: Bosqichma-bosqich\n");
+        }
+
         if (tournament.getAutoStart() != null && tournament.getAutoStart()) {
             sb.append("⚡ Avtomatik boshlanish: Yoqilgan\n");
         }
@@ -257,6 +289,9 @@ public class CreateTournamentCommand implements TelegramCommand {
         return switch (type) {
             case "LEAGUE" -> "🏆 Liga (Round-robin)";
             case "PLAYOFF" -> "🥇 Olimpiya tizimi (Play-off)";
+            case "SWISS" -> "♟ Shveytsariya tizimi (Swiss)";
+            case "GROUP_KNOCKOUT" -> "🌐 Guruh bosqichi + Play-off";
+            case "DOUBLE_ELIMINATION" -> "🔁 Ikki marta yutqazish (Double elimination)";
             default -> type;
         };
     }
@@ -1,5 +1,9 @@
 package com.chempionat.bot.infrastructure.telegram.commands;
 
+import com.chempionat.bot.application.event.MatchResultChangedEvent;
+import com.chempionat.bot.application.service.RoundService;
+import com.chempionat.bot.application.service.SingleEliminationService;
+import com.chempionat.bot.application.service.SwissPairingService;
 import com.chempionat.bot.application.service.TournamentCompletionService;
 import com.chempionat.bot.application.service.TournamentService;
 import com.chempionat.bot.domain.model.Match;
@@ -12,6 +16,7 @@ import com.chempionat.bot.infrastructure.telegram.UserContext;
 import com.chempionat.bot.infrastructure.telegram.util.PaginationHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
@@ -22,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Component
@@ -32,6 +38,10 @@ public class EditMatchesCommand implements TelegramCommand {
     private final MatchRepository matchRepository;
     private final TournamentRepository tournamentRepository;
     private final TournamentCompletionService tournamentCompletionService;
+    private final RoundService roundService;
+    private final SwissPairingService swissPairingService;
+    private final SingleEliminationService singleEliminationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void execute(Update update, TelegramBot bot) {
@@ -74,20 +84,26 @@ public class EditMatchesCommand implements TelegramCommand {
             Tournament tournament = tournamentService.getTournamentById(tournamentId)
                     .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
 
-            List<Match> matches = matchRepository.findByTournament(tournament);
-            
-            if (matches.isEmpty()) {
+            List<Integer> rounds;
+            if (roundService.isLazySchedule(tournament)) {
+                // Lazy leagues list every round; unopened ones are materialized when selected
+                rounds = IntStream.rangeClosed(1, roundService.getTotalRounds(tournament))
+                        .boxed()
+                        .collect(Collectors.toList());
+            } else {
+                // Get unique rounds
+                rounds = matchRepository.findByTournament(tournament).stream()
+                        .map(Match::getRound)
+                        .distinct()
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+
+            if (rounds.isEmpty()) {
                 bot.editMessage(chatId, messageId, "❌ Bu turnirda hali o'yinlar yo'q");
                 return;
             }
 
-            // Get unique rounds
-            List<Integer> rounds = matches.stream()
-                    .map(Match::getRound)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList());
-
             String message = "✏️ O'yinlarni tahrirlash\n\n" +
                     "🏆 " + tournament.getName() + "\n\n" +
                     "Turni tanlang:";
@@ -139,7 +155,10 @@ public class EditMatchesCommand implements TelegramCommand {
             Tournament tournament = tournamentService.getTournamentById(tournamentId)
                     .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
 
-            List<Match> matches = matchRepository.findByTournamentAndRound(tournament, round);
+            // Opening a round of a lazy league writes it to the matches table
+            List<Match> matches = roundService.materializeRound(tournament, round).stream()
+                    .filter(Match::hasBothTeams)
+                    .collect(Collectors.toList());
             
             if (matches.isEmpty()) {
                 bot.editMessage(chatId, messageId, "❌ Bu turda o'yinlar yo'q");
@@ -348,11 +367,13 @@ public class EditMatchesCommand implements TelegramCommand {
             }
 
             matchRepository.save(match);
+            singleEliminationService.refreshBracketSlot(match);
             
             // Update tournament.updatedAt to invalidate standings image cache
             Tournament tournament = match.getTournament();
             tournament.setUpdatedAt(LocalDateTime.now());
             tournamentRepository.save(tournament);
+            eventPublisher.publishEvent(new MatchResultChangedEvent(this, tournament.getId(), match.getId(), match.getRound()));
             
             log.info("Match {} score updated: {}:{} by user {}", 
                      matchId, match.getHomeScore(), match.getAwayScore(), update.getMessage().getFrom().getId());
@@ -378,6 +399,10 @@ public class EditMatchesCommand implements TelegramCommand {
 
             context.clearData();
             
+            // Lazy leagues write the next round once the current one is nearly done
+            roundService.materializeNextRoundIfDue(tournament);
+            swissPairingService.pairNextRoundIfDue(tournament);
+
             // Check if tournament is complete and send notifications
             tournamentCompletionService.checkAndNotifyIfComplete(tournament);
 
@@ -423,7 +448,9 @@ public class EditMatchesCommand implements TelegramCommand {
             }
 
             Tournament tournament = allMatches.get(0).getTournament();
-            List<Match> matches = matchRepository.findByTournamentAndRound(tournament, round);
+            List<Match> matches = matchRepository.findByTournamentAndRound(tournament, round).stream()
+                    .filter(Match::hasBothTeams)
+                    .collect(Collectors.toList());
 
             String message = buildMatchesListMessage(tournament, round, matches.size());
             InlineKeyboardMarkup keyboard = PaginationHelper.createPaginatedKeyboardWithBack(
@@ -475,7 +502,9 @@ public class EditMatchesCommand implements TelegramCommand {
             Tournament tournament = tournamentService.getTournamentById(tournamentId)
                     .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
 
-            List<Match> matches = matchRepository.findByTournamentAndRound(tournament, round);
+            List<Match> matches = matchRepository.findByTournamentAndRound(tournament, round).stream()
+                    .filter(Match::hasBothTeams)
+                    .collect(Collectors.toList());
 
             String message = buildMatchesListMessage(tournament, round, matches.size());
             InlineKeyboardMarkup keyboard = PaginationHelper.createPaginatedKeyboardWithBack(
@@ -2,7 +2,6 @@ package com.chempionat.bot.infrastructure.telegram.commands;
 
 import com.chempionat.bot.application.service.UserService;
 import com.chempionat.bot.domain.enums.Role;
-import com.chempionat.bot.domain.model.User;
 import com.chempionat.bot.infrastructure.telegram.KeyboardFactory;
 import com.chempionat.bot.infrastructure.telegram.TelegramBot;
 import com.chempionat.bot.infrastructure.telegram.TelegramCommand;
@@ -12,7 +11,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
-import java.util.Optional;
 
 @Slf4j
 @Component
@@ -27,8 +25,7 @@ public class ExitImpersonationCommand implements TelegramCommand {
         Long userId = extractUserId(update);
 
         // Verify user is admin
-        Optional<User> userOpt = userService.getUserByTelegramId(userId);
-        if (userOpt.isEmpty() || userOpt.get().getRole() != Role.ADMIN) {
+        if (!userService.hasRole(userId, Role.ADMIN)) {
             bot.sendMessage(chatId, "❌ Bu buyruq faqat adminlar uchun");
             return;
         }
@@ -5,6 +5,7 @@ import com.chempionat.bot.application.service.TournamentService;
 import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Tournament;
 import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.infrastructure.telegram.RenderLoadGuard;
 import com.chempionat.bot.infrastructure.telegram.TelegramBot;
 import com.chempionat.bot.infrastructure.telegram.TelegramCommand;
 import lombok.RequiredArgsConstructor;
@@ -14,27 +15,35 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Command to display tournament fixtures/rounds as a PNG image with pagination.
- * Callback format: fixturesimg:{tournamentId}:{page}
+ * Callback format: fixturesimg:{tournamentId}:{page}, or fixturesimg:{tournamentId}:{@value #ALL_PAGES}
+ * to send every page at once as an album.
+ * Under load ({@link RenderLoadGuard}) it sends only images already cached; on a cache miss it
+ * answers with {@link ScheduleCommand} text and pushes the image later.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class FixturesImageCommand implements TelegramCommand {
 
+    private static final String ALL_PAGES = "all";
+
     private final TournamentService tournamentService;
     private final MatchRepository matchRepository;
     private final ImageCacheService imageCacheService;
+    private final ScheduleCommand scheduleCommand;
+    private final RenderLoadGuard renderLoadGuard;
 
     @Override
     public void execute(Update update, TelegramBot bot) {
         Long chatId;
         Long tournamentId = null;
         int page = 0;
+        boolean allPages = false;
         Integer messageIdToDelete = null;
 
         if (update.hasMessage() && update.getMessage().hasText()) {
@@ -51,7 +60,8 @@ public class FixturesImageCommand implements TelegramCommand {
             try {
                 tournamentId = Long.parseLong(parts[1]);
                 if (parts.length > 2) {
-                    page = Integer.parseInt(parts[2]);
+                    allPages = ALL_PAGES.equals(parts[2]);
+                    page = allPages ? 0 : Integer.parseInt(parts[2]);
                 }
             } catch (NumberFormatException e) {
                 bot.sendMessage(chatId, "❌ Noto'g'ri turnir ID formati.");
@@ -69,7 +79,8 @@ public class FixturesImageCommand implements TelegramCommand {
                 if (parts.length >= 2) {
                     tournamentId = Long.parseLong(parts[1]);
                     if (parts.length >= 3) {
-                        page = Integer.parseInt(parts[2]);
+                        allPages = ALL_PAGES.equals(parts[2]);
+                        page = allPages ? 0 : Integer.parseInt(parts[2]);
                     }
                 }
             } else if (callbackData.startsWith("schedule:") || callbackData.startsWith("rounds:")) {
@@ -116,11 +127,33 @@ public class FixturesImageCommand implements TelegramCommand {
             int totalPages = imageCacheService.getFixturesTotalPages(matches);
             page = Math.max(0, Math.min(page, totalPages - 1));
 
-            // Get latest update time for cache key
-            LocalDateTime latestUpdate = imageCacheService.getLatestMatchUpdate(matches);
+            // Under load only images already in the cache are sent; anything else falls back to text
+            boolean degraded = renderLoadGuard.isDegraded();
+
+            if (allPages) {
+                List<byte[]> pages = degraded
+                        ? imageCacheService.getCachedFixturesImages(tournament, totalPages)
+                        : imageCacheService.getAllFixturesImages(tournament, matches);
+                if (pages == null) {
+                    sendDeferred(chatId, tournamentId, 0, bot);
+                    return;
+                }
+                if (messageIdToDelete != null) {
+                    bot.deleteMessage(chatId, messageIdToDelete);
+                }
+                bot.sendAlbum(chatId, pages, "fixtures_" + tournamentId, imageCacheService.getFixturesCaption(matches, null));
+                bot.sendMessage(chatId, "⬇️", createPaginationKeyboard(tournamentId, 0, totalPages));
+                return;
+            }
 
             // Generate image
-            byte[] imageData = imageCacheService.getFixturesImage(tournament, matches, page, latestUpdate);
+            byte[] imageData = degraded
+                    ? imageCacheService.getCachedFixturesImage(tournament, page)
+                    : imageCacheService.getFixturesImage(tournament, matches, page);
+            if (imageData == null) {
+                sendDeferred(chatId, tournamentId, page, bot);
+                return;
+            }
 
             // Generate caption with match count
             String caption = imageCacheService.getFixturesCaption(matches, null);
@@ -128,21 +161,53 @@ public class FixturesImageCommand implements TelegramCommand {
             // Create pagination keyboard
             InlineKeyboardMarkup keyboard = createPaginationKeyboard(tournamentId, page, totalPages);
 
-            // Delete old message if this is a callback (pagination)
-            if (messageIdToDelete != null) {
-                bot.deleteMessage(chatId, messageIdToDelete);
-            }
-
-            // Send image with caption
             String filename = "fixtures_" + tournamentId + "_" + page + ".png";
-            bot.sendPhoto(chatId, imageData, filename, caption, keyboard);
+            if (update.hasCallbackQuery()) {
+                // Pagination and refresh edit the photo in place
+                bot.replacePhoto(update.getCallbackQuery(), imageData, filename, caption, keyboard);
+            } else {
+                bot.sendPhoto(chatId, imageData, filename, caption, keyboard);
+            }
 
+        } catch (RejectedExecutionException e) {
+            bot.sendMessage(chatId, "⏳ Server band. Iltimos, birozdan keyin qayta urinib ko'ring.");
         } catch (Exception e) {
             log.error("Error showing fixtures image for tournament {}", tournamentId, e);
             bot.sendMessage(chatId, "❌ Xatolik yuz berdi. Iltimos qayta urinib ko'ring.");
         }
     }
 
+    /**
+     * Answer with text now and push the image once the bot is no longer under load.
+     */
+    private void sendDeferred(Long chatId, Long tournamentId, int page, TelegramBot bot) {
+        scheduleCommand.sendSchedule(chatId, tournamentId, bot);
+        bot.sendMessage(chatId, RenderLoadGuard.DEFERRED_NOTICE);
+        renderLoadGuard.degrade("fixtures", chatId, () -> pushImage(chatId, tournamentId, page, bot));
+    }
+
+    /**
+     * Send a fixtures page deferred while the bot was under load.
+     */
+    private void pushImage(Long chatId, Long tournamentId, int page, TelegramBot bot) {
+        Optional<Tournament> tournamentOpt = tournamentService.getTournamentById(tournamentId);
+        if (tournamentOpt.isEmpty()) {
+            return;
+        }
+        List<Match> matches = matchRepository.findByTournament(tournamentOpt.get());
+        if (matches.isEmpty()) {
+            return;
+        }
+        matches.sort(Comparator.comparing(Match::getRound, Comparator.nullsLast(Integer::compareTo))
+                .thenComparing(Match::getId));
+        int totalPages = imageCacheService.getFixturesTotalPages(matches);
+        page = Math.max(0, Math.min(page, totalPages - 1));
+        byte[] imageData = imageCacheService.getFixturesImage(tournamentOpt.get(), matches, page);
+        bot.sendPhoto(chatId, imageData, "fixtures_" + tournamentId + "_" + page + ".png",
+                imageCacheService.getFixturesCaption(matches, null),
+                createPaginationKeyboard(tournamentId, page, totalPages));
+    }
+
     private InlineKeyboardMarkup createPaginationKeyboard(Long tournamentId, int currentPage, int totalPages) {
         InlineKeyboardMarkup keyboard = new InlineKeyboardMarkup();
         List<List<InlineKeyboardButton>> rows = new ArrayList<>();
@@ -177,10 +242,20 @@ public class FixturesImageCommand implements TelegramCommand {
             }
 
             rows.add(paginationRow);
+
+            // All pages in one album
+            rows.add(List.of(InlineKeyboardButton.builder()
+                    .text("🗂 Barcha sahifalar")
+                    .callbackData("fixturesimg:" + tournamentId + ":" + ALL_PAGES)
+                    .build()));
         }
 
-        // Back button
+        // Refresh and back buttons
         List<InlineKeyboardButton> backRow = new ArrayList<>();
+        backRow.add(InlineKeyboardButton.builder()
+                .text("🔄 Yangilash")
+                .callbackData("fixturesimg:" + tournamentId + ":" + currentPage)
+                .build());
         InlineKeyboardButton backButton = InlineKeyboardButton.builder()
                 .text("⬅️ Ortga")
                 .callbackData("view_tournament:" + tournamentId)
@@ -18,7 +18,6 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKe
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Slf4j
 @Component
@@ -40,8 +39,7 @@ public class ManageOrganizerCommand implements TelegramCommand {
         String callbackData = update.getCallbackQuery().getData();
 
         // Check if user is admin
-        Optional<User> adminOpt = userService.getUserByTelegramId(userId);
-        if (adminOpt.isEmpty() || adminOpt.get().getRole() != Role.ADMIN) {
+        if (!userService.hasRole(userId, Role.ADMIN)) {
             bot.editMessage(chatId, messageId, "❌ Faqat adminlar ushbu bo'limga kirishi mumkin");
             return;
         }
@@ -241,7 +239,13 @@ public class ManageOrganizerCommand implements TelegramCommand {
                 Tournament t = tournaments.get(i);
                 message.append(i + 1).append(". ");
                 message.append(t.getName()).append(" (");
-                message.append(t.getType() == com.chempionat.bot.domain.enums.TournamentType.LEAGUE ? "Liga" : "Pley-off");
+                message.append(switch (t.getType()) {
+                    case LEAGUE -> "Liga";
+                    case PLAYOFF -> "Pley-off";
+                    case SWISS -> "Shveytsariya";
+                    case GROUP_KNOCKOUT -> "Guruh + pley-off";
+                    case DOUBLE_ELIMINATION -> "Double elimination";
+                });
                 message.append(")\n");
                 message.append("   Status: ").append(t.getIsActive() ? "✅ Aktiv" : "⏸️ Faol emas").append("\n");
             }
@@ -72,6 +72,7 @@ public class MyMatchesCommand implements TelegramCommand {
             List<Match> matches = matchRepository.findByTournamentAndTeam(tournament, userTeam)
                     .stream()
                     .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
+                    .filter(Match::hasBothTeams)
                     .filter(m -> !m.getHomeTeam().getId().equals(m.getAwayTeam().getId()))
                     .collect(Collectors.toList());
             
@@ -98,7 +98,13 @@ public class MyTournamentsCommand implements TelegramCommand {
     }
 
     private String getTypeEmoji(TournamentType type) {
-        return type == TournamentType.LEAGUE ? "🏆" : "🥇";
+        return switch (type) {
+            case LEAGUE -> "🏆";
+            case PLAYOFF -> "🥇";
+            case SWISS -> "♟";
+            case GROUP_KNOCKOUT -> "🌐";
+            case DOUBLE_ELIMINATION -> "🔁";
+        };
     }
 
     @Override
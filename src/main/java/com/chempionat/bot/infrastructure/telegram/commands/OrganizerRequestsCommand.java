@@ -17,7 +17,6 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKe
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Slf4j
 @Component
@@ -39,8 +38,7 @@ public class OrganizerRequestsCommand implements TelegramCommand {
         Long userId = update.getMessage().getFrom().getId();
 
         // Check if user is admin
-        Optional<User> userOpt = userService.getUserByTelegramId(userId);
-        if (userOpt.isEmpty() || userOpt.get().getRole() != Role.ADMIN) {
+        if (!userService.hasRole(userId, Role.ADMIN)) {
             bot.sendMessage(chatId, "❌ Faqat adminlar tashkilotchi so'rovlarini ko'rishi mumkin.");
             return;
         }
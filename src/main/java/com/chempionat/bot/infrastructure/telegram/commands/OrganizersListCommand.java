@@ -14,7 +14,6 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 
 import java.util.List;
-import java.util.Optional;
 
 @Slf4j
 @Component
@@ -30,8 +29,7 @@ public class OrganizersListCommand implements TelegramCommand {
         Long userId = extractUserId(update);
 
         // Check if user is admin
-        Optional<User> userOpt = userService.getUserByTelegramId(userId);
-        if (userOpt.isEmpty() || userOpt.get().getRole() != Role.ADMIN) {
+        if (!userService.hasRole(userId, Role.ADMIN)) {
             bot.sendMessage(chatId, "❌ Faqat adminlar ushbu bo'limga kirishi mumkin");
             return;
         }
@@ -4,7 +4,6 @@ import com.chempionat.bot.application.service.MatchResultService;
 import com.chempionat.bot.application.service.UserService;
 import com.chempionat.bot.domain.enums.Role;
 import com.chempionat.bot.domain.model.MatchResult;
-import com.chempionat.bot.domain.model.User;
 import com.chempionat.bot.infrastructure.telegram.KeyboardFactory;
 import com.chempionat.bot.infrastructure.telegram.TelegramBot;
 import com.chempionat.bot.infrastructure.telegram.TelegramCommand;
@@ -14,7 +13,6 @@ import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
 import java.util.List;
-import java.util.Optional;
 
 @Slf4j
 @Component
@@ -34,8 +32,7 @@ public class PendingResultsCommand implements TelegramCommand {
         Long userId = update.getMessage().getFrom().getId();
 
         // Check if user is admin
-        Optional<User> userOpt = userService.getUserByTelegramId(userId);
-        if (userOpt.isEmpty() || (userOpt.get().getRole() != Role.ADMIN && userOpt.get().getRole() != Role.MODERATOR)) {
+        if (!userService.hasRole(userId, Role.ADMIN, Role.MODERATOR)) {
             bot.sendMessage(chatId, "❌ Faqat adminlar tasdiqlash uchun natijalarni ko'rishi mumkin.");
             return;
         }
@@ -33,8 +33,7 @@ public class RejectOrganizerCommand implements TelegramCommand {
             String callbackData = update.getCallbackQuery().getData();
 
             // Check if user is admin
-            Optional<User> userOpt = userService.getUserByTelegramId(userId);
-            if (userOpt.isEmpty() || userOpt.get().getRole() != Role.ADMIN) {
+            if (!userService.hasRole(userId, Role.ADMIN)) {
                 bot.editMessage(chatId, update.getCallbackQuery().getMessage().getMessageId(),
                         "❌ Faqat adminlar tashkilotchi so'rovini rad etishi mumkin.");
                 return;
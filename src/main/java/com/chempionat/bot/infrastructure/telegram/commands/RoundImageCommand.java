@@ -1,10 +1,10 @@
 package com.chempionat.bot.infrastructure.telegram.commands;
 
 import com.chempionat.bot.application.service.ImageCacheService;
+import com.chempionat.bot.application.service.RoundService;
 import com.chempionat.bot.application.service.TournamentService;
 import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Tournament;
-import com.chempionat.bot.domain.repository.MatchRepository;
 import com.chempionat.bot.infrastructure.telegram.TelegramBot;
 import com.chempionat.bot.infrastructure.telegram.TelegramCommand;
 import lombok.RequiredArgsConstructor;
@@ -14,8 +14,8 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -28,7 +28,7 @@ import java.util.stream.Collectors;
 public class RoundImageCommand implements TelegramCommand {
 
     private final TournamentService tournamentService;
-    private final MatchRepository matchRepository;
+    private final RoundService roundService;
     private final ImageCacheService imageCacheService;
 
     @Override
@@ -37,7 +37,6 @@ public class RoundImageCommand implements TelegramCommand {
         Long tournamentId = null;
         Integer roundNumber = null;
         int page = 0;
-        Integer messageIdToDelete = null;
 
         if (update.hasMessage() && update.getMessage().hasText()) {
             chatId = update.getMessage().getChatId();
@@ -63,7 +62,6 @@ public class RoundImageCommand implements TelegramCommand {
 
         } else if (update.hasCallbackQuery()) {
             chatId = update.getCallbackQuery().getMessage().getChatId();
-            messageIdToDelete = update.getCallbackQuery().getMessage().getMessageId();
             String callbackData = update.getCallbackQuery().getData();
 
             // Format: roundimg:{tournamentId}:{roundNumber}:{page}
@@ -94,29 +92,21 @@ public class RoundImageCommand implements TelegramCommand {
             }
 
             Tournament tournament = tournamentOpt.get();
-            List<Match> roundMatches = matchRepository.findByTournamentAndRound(tournament, roundNumber);
+            List<Match> roundMatches = roundService.getMatchesForRoundByKickoff(tournament, roundNumber);
 
             if (roundMatches.isEmpty()) {
                 bot.sendMessage(chatId, "📅 Bu turda o'yinlar yo'q.");
                 return;
             }
 
-            // Sort by scheduled time
-            roundMatches.sort(Comparator.comparing(
-                    m -> m.getScheduledTime() != null ? m.getScheduledTime() : LocalDateTime.MAX));
-
             // Get max rounds for navigation
-            int maxRound = getMaxRound(tournament);
+            int maxRound = Math.max(1, roundService.getTotalRounds(tournament));
 
             int totalPages = Math.max(1, (int) Math.ceil((double) roundMatches.size() / 12));
             page = Math.max(0, Math.min(page, totalPages - 1));
 
-            // Get latest update time for cache key
-            LocalDateTime latestUpdate = imageCacheService.getLatestMatchUpdate(roundMatches);
-
             // Generate image for this round
-            byte[] imageData = imageCacheService.getFixturesRoundImage(
-                    tournament, roundNumber, roundMatches, page, latestUpdate);
+            byte[] imageData = imageCacheService.getFixturesRoundImage(tournament, roundNumber, roundMatches, page);
 
             // Generate caption
             String caption = imageCacheService.getFixturesCaption(roundMatches, roundNumber);
@@ -125,30 +115,22 @@ public class RoundImageCommand implements TelegramCommand {
             InlineKeyboardMarkup keyboard = createNavigationKeyboard(
                     tournamentId, roundNumber, page, totalPages, maxRound);
 
-            // Delete old message if this is a callback
-            if (messageIdToDelete != null) {
-                bot.deleteMessage(chatId, messageIdToDelete);
-            }
-
-            // Send image
             String filename = "round_" + tournamentId + "_" + roundNumber + "_" + page + ".png";
-            bot.sendPhoto(chatId, imageData, filename, caption, keyboard);
+            if (update.hasCallbackQuery()) {
+                // Pagination and refresh edit the photo in place
+                bot.replacePhoto(update.getCallbackQuery(), imageData, filename, caption, keyboard);
+            } else {
+                bot.sendPhoto(chatId, imageData, filename, caption, keyboard);
+            }
 
+        } catch (RejectedExecutionException e) {
+            bot.sendMessage(chatId, "⏳ Server band. Iltimos, birozdan keyin qayta urinib ko'ring.");
         } catch (Exception e) {
             log.error("Error showing round image for tournament {} round {}", tournamentId, roundNumber, e);
             bot.sendMessage(chatId, "❌ Xatolik yuz berdi.");
         }
     }
 
-    private int getMaxRound(Tournament tournament) {
-        List<Match> allMatches = matchRepository.findByTournament(tournament);
-        return allMatches.stream()
-                .filter(m -> m.getRound() != null)
-                .mapToInt(Match::getRound)
-                .max()
-                .orElse(1);
-    }
-
     private InlineKeyboardMarkup createNavigationKeyboard(
             Long tournamentId, int currentRound, int currentPage, int totalPages, int maxRound) {
         
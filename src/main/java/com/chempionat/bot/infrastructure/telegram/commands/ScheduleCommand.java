@@ -14,6 +14,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -63,12 +64,26 @@ public class ScheduleCommand implements TelegramCommand {
             return;
         }
 
+        Integer editMessageId = update.hasCallbackQuery()
+                ? update.getCallbackQuery().getMessage().getMessageId()
+                : null;
+        show(chatId, tournamentId, editMessageId, bot);
+    }
+
+    /**
+     * Send the text schedule as a new message, e.g. when the image version is unavailable.
+     */
+    public void sendSchedule(Long chatId, Long tournamentId, TelegramBot bot) {
+        show(chatId, tournamentId, null, bot);
+    }
+
+    private void show(Long chatId, Long tournamentId, Integer editMessageId, TelegramBot bot) {
         try {
             Optional<Tournament> tournamentOpt = tournamentService.getTournamentById(tournamentId);
             if (tournamentOpt.isEmpty()) {
                 String message = "❌ Turnir topilmadi.";
-                if (update.hasCallbackQuery()) {
-                    bot.editMessage(chatId, update.getCallbackQuery().getMessage().getMessageId(), message);
+                if (editMessageId != null) {
+                    bot.editMessage(chatId, editMessageId, message);
                 } else {
                     bot.sendMessage(chatId, message);
                 }
@@ -81,16 +96,19 @@ public class ScheduleCommand implements TelegramCommand {
             if (matches.isEmpty()) {
                 String message = "📅 Bu turnirda hali o'yinlar yaratilmagan.\n\n" +
                         "Admin turnirni /starttournament " + tournamentId + " buyrug'i bilan boshlashi kerak.";
-                if (update.hasCallbackQuery()) {
-                    bot.editMessage(chatId, update.getCallbackQuery().getMessage().getMessageId(), message);
+                if (editMessageId != null) {
+                    bot.editMessage(chatId, editMessageId, message);
                 } else {
                     bot.sendMessage(chatId, message);
                 }
                 return;
             }
 
+            // Knockout matches waiting for both opponents are not on the calendar yet
+            matches = matches.stream().filter(Match::hasBothTeams).collect(Collectors.toList());
+
             // Sort matches by scheduled time
-            matches.sort(Comparator.comparing(Match::getScheduledTime));
+            matches.sort(Comparator.comparing(Match::getScheduledTime, Comparator.nullsLast(Comparator.naturalOrder())));
 
             StringBuilder message = new StringBuilder();
             message.append("📅 ").append(tournament.getName()).append(" - Kalendar\n\n");
@@ -133,15 +151,15 @@ public class ScheduleCommand implements TelegramCommand {
                 for (int i = 0; i < fullMessage.length(); i += chunkSize) {
                     int end = Math.min(i + chunkSize, fullMessage.length());
                     String chunk = fullMessage.substring(i, end);
-                    if (update.hasCallbackQuery() && i == 0) {
-                        bot.editMessage(chatId, update.getCallbackQuery().getMessage().getMessageId(), chunk);
+                    if (editMessageId != null && i == 0) {
+                        bot.editMessage(chatId, editMessageId, chunk);
                     } else {
                         bot.sendMessage(chatId, chunk);
                     }
                 }
             } else {
-                if (update.hasCallbackQuery()) {
-                    bot.editMessage(chatId, update.getCallbackQuery().getMessage().getMessageId(), fullMessage);
+                if (editMessageId != null) {
+                    bot.editMessage(chatId, editMessageId, fullMessage);
                 } else {
                     bot.sendMessage(chatId, fullMessage);
                 }
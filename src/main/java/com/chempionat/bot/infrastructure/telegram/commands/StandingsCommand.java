@@ -1,5 +1,7 @@
 package com.chempionat.bot.infrastructure.telegram.commands;
 
+import com.chempionat.bot.application.service.DoubleEliminationService;
+import com.chempionat.bot.application.service.GroupStageService;
 import com.chempionat.bot.application.service.SingleEliminationService;
 import com.chempionat.bot.application.service.TeamStanding;
 import com.chempionat.bot.application.service.TournamentService;
@@ -28,6 +30,8 @@ public class StandingsCommand implements TelegramCommand {
     private final TournamentService tournamentService;
     private final MatchRepository matchRepository;
     private final SingleEliminationService singleEliminationService;
+    private final GroupStageService groupStageService;
+    private final DoubleEliminationService doubleEliminationService;
 
     @Override
     public void execute(Update update, TelegramBot bot) {
@@ -68,12 +72,26 @@ public class StandingsCommand implements TelegramCommand {
             return;
         }
 
+        Integer editMessageId = update.hasCallbackQuery()
+                ? update.getCallbackQuery().getMessage().getMessageId()
+                : null;
+        show(chatId, tournamentId, editMessageId, bot);
+    }
+
+    /**
+     * Send the text standings as a new message, e.g. when the image version is unavailable.
+     */
+    public void sendStandings(Long chatId, Long tournamentId, TelegramBot bot) {
+        show(chatId, tournamentId, null, bot);
+    }
+
+    private void show(Long chatId, Long tournamentId, Integer editMessageId, TelegramBot bot) {
         try {
             Optional<Tournament> tournamentOpt = tournamentService.getTournamentById(tournamentId);
             if (tournamentOpt.isEmpty()) {
                 String message = "❌ Turnir topilmadi.";
-                if (update.hasCallbackQuery()) {
-                    bot.editMessage(chatId, update.getCallbackQuery().getMessage().getMessageId(), message);
+                if (editMessageId != null) {
+                    bot.editMessage(chatId, editMessageId, message);
                 } else {
                     bot.sendMessage(chatId, message);
                 }
@@ -86,8 +104,8 @@ public class StandingsCommand implements TelegramCommand {
 
             if (teams.isEmpty()) {
                 String message = "📊 Bu turnirda hali ishtirokchilar yo'q.";
-                if (update.hasCallbackQuery()) {
-                    bot.editMessage(chatId, update.getCallbackQuery().getMessage().getMessageId(), message);
+                if (editMessageId != null) {
+                    bot.editMessage(chatId, editMessageId, message);
                 } else {
                     bot.sendMessage(chatId, message);
                 }
@@ -96,11 +114,18 @@ public class StandingsCommand implements TelegramCommand {
 
             // Calculate standings based on tournament type
             List<TeamStanding> standings;
-            boolean isPlayoff = tournament.getType() == TournamentType.PLAYOFF;
+            boolean isPlayoff = tournament.getType() == TournamentType.PLAYOFF
+                    || tournament.getType() == TournamentType.DOUBLE_ELIMINATION
+                    || (tournament.getType() == TournamentType.GROUP_KNOCKOUT && groupStageService.hasKnockoutStarted(tournament));
             
-            if (isPlayoff) {
+            if (tournament.getType() == TournamentType.DOUBLE_ELIMINATION) {
+                standings = doubleEliminationService.calculatePlacements(tournament);
+            } else if (isPlayoff) {
                 // Use bracket-based placement for single elimination
                 standings = singleEliminationService.calculateBracketPlacements(tournament);
+            } else if (tournament.getType() == TournamentType.GROUP_KNOCKOUT) {
+                // Group tables, each team prefixed with its group
+                standings = groupStageService.getGroupStageTable(tournament);
             } else {
                 // Use league-style points-based standings
                 standings = calculateStandings(teams, matches);
@@ -154,8 +179,8 @@ public class StandingsCommand implements TelegramCommand {
             // Create back button keyboard
             InlineKeyboardMarkup keyboard = createBackKeyboard(tournamentId);
 
-            if (update.hasCallbackQuery()) {
-                bot.editMessage(chatId, update.getCallbackQuery().getMessage().getMessageId(), message.toString(), keyboard);
+            if (editMessageId != null) {
+                bot.editMessage(chatId, editMessageId, message.toString(), keyboard);
             } else {
                 bot.sendMessage(chatId, message.toString(), keyboard);
             }
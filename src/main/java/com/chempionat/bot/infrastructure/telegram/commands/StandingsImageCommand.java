@@ -1,14 +1,12 @@
 package com.chempionat.bot.infrastructure.telegram.commands;
 
 import com.chempionat.bot.application.service.ImageCacheService;
-import com.chempionat.bot.application.service.SingleEliminationService;
+import com.chempionat.bot.application.service.StandingsService;
 import com.chempionat.bot.application.service.TeamStanding;
 import com.chempionat.bot.application.service.TournamentService;
-import com.chempionat.bot.domain.enums.TournamentType;
-import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Team;
 import com.chempionat.bot.domain.model.Tournament;
-import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.infrastructure.telegram.RenderLoadGuard;
 import com.chempionat.bot.infrastructure.telegram.TelegramBot;
 import com.chempionat.bot.infrastructure.telegram.TelegramCommand;
 import lombok.RequiredArgsConstructor;
@@ -18,28 +16,37 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Command to display tournament standings as a PNG image with pagination.
- * Callback format: standingsimg:{tournamentId}:{page}
+ * Callback format: standingsimg:{tournamentId}:{page}, or standingsimg:{tournamentId}:{@value #ALL_PAGES}
+ * to send every page at once as an album.
+ * Under load ({@link RenderLoadGuard}) it sends only images already cached; on a cache miss it
+ * answers with {@link StandingsCommand} text and pushes the image later.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class StandingsImageCommand implements TelegramCommand {
 
+    private static final String ALL_PAGES = "all";
+
     private final TournamentService tournamentService;
-    private final MatchRepository matchRepository;
     private final ImageCacheService imageCacheService;
-    private final SingleEliminationService singleEliminationService;
+    private final StandingsService standingsService;
+    private final StandingsCommand standingsCommand;
+    private final RenderLoadGuard renderLoadGuard;
 
     @Override
     public void execute(Update update, TelegramBot bot) {
         Long chatId;
         Long tournamentId = null;
         int page = 0;
+        boolean allPages = false;
         Integer messageIdToDelete = null;
 
         if (update.hasMessage() && update.getMessage().hasText()) {
@@ -56,7 +63,8 @@ public class StandingsImageCommand implements TelegramCommand {
             try {
                 tournamentId = Long.parseLong(parts[1]);
                 if (parts.length > 2) {
-                    page = Integer.parseInt(parts[2]);
+                    allPages = ALL_PAGES.equals(parts[2]);
+                    page = allPages ? 0 : Integer.parseInt(parts[2]);
                 }
             } catch (NumberFormatException e) {
                 bot.sendMessage(chatId, "❌ Noto'g'ri turnir ID formati.");
@@ -74,7 +82,8 @@ public class StandingsImageCommand implements TelegramCommand {
                 if (parts.length >= 2) {
                     tournamentId = Long.parseLong(parts[1]);
                     if (parts.length >= 3) {
-                        page = Integer.parseInt(parts[2]);
+                        allPages = ALL_PAGES.equals(parts[2]);
+                        page = allPages ? 0 : Integer.parseInt(parts[2]);
                     }
                 }
             } else if (callbackData.startsWith("standings:")) {
@@ -102,7 +111,6 @@ public class StandingsImageCommand implements TelegramCommand {
 
             Tournament tournament = tournamentOpt.get();
             List<Team> teams = tournamentService.getTournamentTeams(tournamentId);
-            List<Match> matches = matchRepository.findByTournamentAndHomeScoreIsNotNull(tournament);
 
             if (teams.isEmpty()) {
                 bot.sendMessage(chatId, "📊 Bu turnirda hali ishtirokchilar yo'q.");
@@ -110,20 +118,38 @@ public class StandingsImageCommand implements TelegramCommand {
             }
 
             // Calculate standings based on tournament type
-            List<TeamStanding> standings;
-            if (tournament.getType() == TournamentType.PLAYOFF) {
-                // Use bracket-based placement for single elimination
-                standings = singleEliminationService.calculateBracketPlacements(tournament);
-            } else {
-                // Use league-style points-based standings
-                standings = calculateStandings(teams, matches);
-            }
+            List<TeamStanding> standings = standingsService.calculateStandings(tournament);
 
             int totalPages = imageCacheService.getStandingsTotalPages(standings.size());
             page = Math.max(0, Math.min(page, totalPages - 1));
 
+            // Under load only images already in the cache are sent; anything else falls back to text
+            boolean degraded = renderLoadGuard.isDegraded();
+
+            if (allPages) {
+                List<byte[]> pages = degraded
+                        ? imageCacheService.getCachedStandingsImages(tournament, totalPages)
+                        : imageCacheService.getAllStandingsImages(tournament, standings);
+                if (pages == null) {
+                    sendDeferred(chatId, tournamentId, 0, bot);
+                    return;
+                }
+                if (messageIdToDelete != null) {
+                    bot.deleteMessage(chatId, messageIdToDelete);
+                }
+                bot.sendAlbum(chatId, pages, "standings_" + tournamentId, imageCacheService.getStandingsCaption(standings));
+                bot.sendMessage(chatId, "⬇️", createPaginationKeyboard(tournamentId, 0, totalPages));
+                return;
+            }
+
             // Generate image
-            byte[] imageData = imageCacheService.getStandingsImage(tournament, standings, page);
+            byte[] imageData = degraded
+                    ? imageCacheService.getCachedStandingsImage(tournament, page)
+                    : imageCacheService.getStandingsImage(tournament, standings, page);
+            if (imageData == null) {
+                sendDeferred(chatId, tournamentId, page, bot);
+                return;
+            }
 
             // Generate caption with top 3 teams
             String caption = imageCacheService.getStandingsCaption(standings);
@@ -131,50 +157,49 @@ public class StandingsImageCommand implements TelegramCommand {
             // Create pagination keyboard
             InlineKeyboardMarkup keyboard = createPaginationKeyboard(tournamentId, page, totalPages);
 
-            // Delete old message if this is a callback (pagination)
-            if (messageIdToDelete != null) {
-                bot.deleteMessage(chatId, messageIdToDelete);
-            }
-
-            // Send image with caption
             String filename = "standings_" + tournamentId + "_" + page + ".png";
-            bot.sendPhoto(chatId, imageData, filename, caption, keyboard);
+            if (update.hasCallbackQuery()) {
+                // Pagination and refresh edit the photo in place
+                bot.replacePhoto(update.getCallbackQuery(), imageData, filename, caption, keyboard);
+            } else {
+                bot.sendPhoto(chatId, imageData, filename, caption, keyboard);
+            }
 
+        } catch (RejectedExecutionException e) {
+            bot.sendMessage(chatId, "⏳ Server band. Iltimos, birozdan keyin qayta urinib ko'ring.");
         } catch (Exception e) {
             log.error("Error showing standings image for tournament {}", tournamentId, e);
             bot.sendMessage(chatId, "❌ Xatolik yuz berdi. Iltimos qayta urinib ko'ring.");
         }
     }
 
-    private List<TeamStanding> calculateStandings(List<Team> teams, List<Match> matches) {
-        Map<Long, TeamStanding> standingsMap = new HashMap<>();
+    /**
+     * Answer with text now and push the image once the bot is no longer under load.
+     */
+    private void sendDeferred(Long chatId, Long tournamentId, int page, TelegramBot bot) {
+        standingsCommand.sendStandings(chatId, tournamentId, bot);
+        bot.sendMessage(chatId, RenderLoadGuard.DEFERRED_NOTICE);
+        renderLoadGuard.degrade("standings", chatId, () -> pushImage(chatId, tournamentId, page, bot));
+    }
 
-        // Initialize standings for all teams
-        for (Team team : teams) {
-            standingsMap.put(team.getId(), new TeamStanding(team.getId(), team.getName()));
+    /**
+     * Send a standings page deferred while the bot was under load.
+     */
+    private void pushImage(Long chatId, Long tournamentId, int page, TelegramBot bot) {
+        Optional<Tournament> tournamentOpt = tournamentService.getTournamentById(tournamentId);
+        if (tournamentOpt.isEmpty()) {
+            return;
         }
-
-        // Calculate stats from matches
-        for (Match match : matches) {
-            if (match.getHomeScore() == null || match.getAwayScore() == null) {
-                continue;
-            }
-
-            TeamStanding homeStanding = standingsMap.get(match.getHomeTeam().getId());
-            TeamStanding awayStanding = standingsMap.get(match.getAwayTeam().getId());
-
-            if (homeStanding == null || awayStanding == null) {
-                continue;
-            }
-
-            homeStanding.addMatch(match.getHomeScore(), match.getAwayScore());
-            awayStanding.addMatch(match.getAwayScore(), match.getHomeScore());
+        List<TeamStanding> standings = standingsService.calculateStandings(tournamentOpt.get());
+        if (standings.isEmpty()) {
+            return;
         }
-
-        // Sort standings
-        return standingsMap.values().stream()
-                .sorted()
-                .collect(Collectors.toList());
+        int totalPages = imageCacheService.getStandingsTotalPages(standings.size());
+        page = Math.max(0, Math.min(page, totalPages - 1));
+        byte[] imageData = imageCacheService.getStandingsImage(tournamentOpt.get(), standings, page);
+        bot.sendPhoto(chatId, imageData, "standings_" + tournamentId + "_" + page + ".png",
+                imageCacheService.getStandingsCaption(standings),
+                createPaginationKeyboard(tournamentId, page, totalPages));
     }
 
     private InlineKeyboardMarkup createPaginationKeyboard(Long tournamentId, int currentPage, int totalPages) {
@@ -211,10 +236,20 @@ public class StandingsImageCommand implements TelegramCommand {
             }
 
             rows.add(paginationRow);
+
+            // All pages in one album
+            rows.add(List.of(InlineKeyboardButton.builder()
+                    .text("🗂 Barcha sahifalar")
+                    .callbackData("standingsimg:" + tournamentId + ":" + ALL_PAGES)
+                    .build()));
         }
 
-        // Back button
+        // Refresh and back buttons
         List<InlineKeyboardButton> backRow = new ArrayList<>();
+        backRow.add(InlineKeyboardButton.builder()
+                .text("🔄 Yangilash")
+                .callbackData("standingsimg:" + tournamentId + ":" + currentPage)
+                .build());
         InlineKeyboardButton backButton = InlineKeyboardButton.builder()
                 .text("⬅️ Ortga")
                 .callbackData("view_tournament:" + tournamentId)
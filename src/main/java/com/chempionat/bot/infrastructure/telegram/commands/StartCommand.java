@@ -132,7 +132,13 @@ public class StartCommand implements TelegramCommand {
                     "📝 Turi: %s\n" +
                     "👥 Ishtirokchilar: %d",
                     tournament.getName(),
-                    tournament.getType().name().equals("LEAGUE") ? "Liga" : "Pley-off",
+                    switch (tournament.getType()) {
+                        case LEAGUE -> "Liga";
+                        case PLAYOFF -> "Pley-off";
+                        case SWISS -> "Shveytsariya";
+                        case GROUP_KNOCKOUT -> "Guruh + pley-off";
+                        case DOUBLE_ELIMINATION -> "Double elimination";
+                    },
                     teamsCount
             );
             
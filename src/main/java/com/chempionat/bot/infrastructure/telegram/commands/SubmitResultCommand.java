@@ -201,6 +201,7 @@ public class SubmitResultCommand implements TelegramCommand {
                 null
             ).stream()
             .filter(m -> !Boolean.TRUE.equals(m.getIsBye()))
+            .filter(Match::hasBothTeams)
             .filter(m -> !m.getHomeTeam().getId().equals(m.getAwayTeam().getId()))
             .filter(m -> m.getHomeTeam().getUser().getId().equals(user.getId()))
             .filter(m -> m.getState() == MatchLifecycleState.CREATED || m.getState() == MatchLifecycleState.REJECTED)
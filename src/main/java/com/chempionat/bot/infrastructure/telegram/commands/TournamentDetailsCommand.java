@@ -49,7 +49,8 @@ public class TournamentDetailsCommand implements TelegramCommand {
             Tournament tournament = tournamentService.getTournamentById(tournamentId)
                     .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
             String message = buildTournamentDetailsMessage(tournament);
-            boolean isLeague = tournament.getType() == TournamentType.LEAGUE;
+            boolean isLeague = tournament.getType() != TournamentType.PLAYOFF
+                    && tournament.getType() != TournamentType.DOUBLE_ELIMINATION;
             
             // Check if user is participant
             Optional<User> userOpt = userService.getUserByTelegramId(userId);
@@ -198,6 +199,9 @@ public class TournamentDetailsCommand implements TelegramCommand {
         return switch (type) {
             case LEAGUE -> "Liga";
             case PLAYOFF -> "Play-off";
+            case SWISS -> "Shveytsariya tizimi";
+            case GROUP_KNOCKOUT -> "Guruh bosqichi + Play-off";
+            case DOUBLE_ELIMINATION -> "Ikki marta yutqazish (Double elimination)";
         };
     }
 
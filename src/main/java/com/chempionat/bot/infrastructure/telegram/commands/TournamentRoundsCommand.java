@@ -1,9 +1,9 @@
 package com.chempionat.bot.infrastructure.telegram.commands;
 
+import com.chempionat.bot.application.service.RoundService;
 import com.chempionat.bot.application.service.TournamentService;
 import com.chempionat.bot.domain.model.Match;
 import com.chempionat.bot.domain.model.Tournament;
-import com.chempionat.bot.domain.repository.MatchRepository;
 import com.chempionat.bot.infrastructure.telegram.TelegramBot;
 import com.chempionat.bot.infrastructure.telegram.TelegramCommand;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +17,6 @@ import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKe
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -25,7 +24,7 @@ import java.util.stream.Collectors;
 public class TournamentRoundsCommand implements TelegramCommand {
 
     private final TournamentService tournamentService;
-    private final MatchRepository matchRepository;
+    private final RoundService roundService;
 
     @Override
     public void execute(Update update, TelegramBot bot) {
@@ -40,14 +39,15 @@ public class TournamentRoundsCommand implements TelegramCommand {
         try {
             Tournament tournament = tournamentService.getTournamentById(tournamentId)
                     .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
-            List<Match> matches = matchRepository.findByTournament(tournament);
+            // Includes virtual rounds of lazily scheduled leagues
+            Map<Integer, List<Match>> matchesByRound = roundService.getMatchesByRound(tournament);
 
-            if (matches.isEmpty()) {
+            if (matchesByRound.isEmpty()) {
                 bot.sendMessage(chatId, "📭 Hozircha o'yinlar yo'q");
                 return;
             }
 
-            String message = buildRoundsMessage(tournament, matches);
+            String message = buildRoundsMessage(tournament, matchesByRound);
             InlineKeyboardMarkup keyboard = createBackKeyboard(tournamentId);
             
             bot.sendMessage(chatId, message, keyboard);
@@ -58,17 +58,13 @@ public class TournamentRoundsCommand implements TelegramCommand {
         }
     }
 
-    private String buildRoundsMessage(Tournament tournament, List<Match> matches) {
+    private String buildRoundsMessage(Tournament tournament, Map<Integer, List<Match>> matchesByRound) {
         StringBuilder sb = new StringBuilder();
         
         sb.append("📅 ").append(tournament.getName()).append(" - Turlar\n\n");
         
-        // Group matches by round
-        Map<Integer, List<Match>> matchesByRound = matches.stream()
-            .collect(Collectors.groupingBy(Match::getRound));
-        
-        int maxRound = matches.stream()
-            .mapToInt(Match::getRound)
+        int maxRound = matchesByRound.keySet().stream()
+            .mapToInt(Integer::intValue)
             .max()
             .orElse(0);
         
@@ -85,7 +81,10 @@ public class TournamentRoundsCommand implements TelegramCommand {
             }
             
             for (Match match : roundMatches) {
-                if (match.getIsBye() != null && match.getIsBye()) {
+                if (!match.hasBothTeams()) {
+                    // Knockout slot waiting for the winners of the previous round
+                    sb.append("  ⏳ Raqiblar hali aniqlanmagan\n");
+                } else if (match.getIsBye() != null && match.getIsBye()) {
                     // Show as rest round
                     String username = match.getHomeTeam().getUser().getUsername();
                     if (username != null) {
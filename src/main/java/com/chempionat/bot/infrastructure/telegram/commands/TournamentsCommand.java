@@ -159,6 +159,9 @@ public class TournamentsCommand implements TelegramCommand {
         return switch (type) {
             case "LEAGUE" -> "🏆 Liga (Round-robin)";
             case "PLAYOFF" -> "🥇 Olimpiya tizimi (Play-off)";
+            case "SWISS" -> "♟ Shveytsariya tizimi (Swiss)";
+            case "GROUP_KNOCKOUT" -> "🌐 Guruh bosqichi + Play-off";
+            case "DOUBLE_ELIMINATION" -> "🔁 Ikki marta yutqazish (Double elimination)";
             default -> type;
         };
     }
@@ -0,0 +1,10 @@
+-- V10: Full bracket skeleton
+-- Knockout matches of later rounds are created at tournament start without teams
+-- and filled in as winners advance
+
+ALTER TABLE matches ALTER COLUMN home_team_id DROP NOT NULL;
+ALTER TABLE matches ALTER COLUMN away_team_id DROP NOT NULL;
+
+COMMENT ON COLUMN matches.home_team_id IS 'Home team, NULL while the feeding bracket match is undecided';
+COMMENT ON COLUMN matches.away_team_id IS 'Away team, NULL while the feeding bracket match is undecided';
+COMMENT ON COLUMN matches.bracket_position IS 'Heap-ordered bracket slot: 1 is the final, slot p is fed by 2p and 2p + 1';
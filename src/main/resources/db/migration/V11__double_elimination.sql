@@ -0,0 +1,16 @@
+-- V11: Double elimination bracket
+-- Winners bracket matches also link to the losers bracket match their loser drops into
+
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS loser_next_match_id BIGINT;
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS loser_to_home BOOLEAN;
+
+ALTER TABLE matches
+    ADD CONSTRAINT fk_match_loser_next_match
+    FOREIGN KEY (loser_next_match_id)
+    REFERENCES matches(id)
+    ON DELETE SET NULL;
+
+CREATE INDEX IF NOT EXISTS idx_matches_loser_next_match ON matches(loser_next_match_id);
+
+COMMENT ON COLUMN matches.loser_next_match_id IS 'Double elimination: losers bracket match the loser drops into';
+COMMENT ON COLUMN matches.loser_to_home IS 'True if loser goes to home_team slot, false for away_team slot';
@@ -0,0 +1,27 @@
+-- V12: Constraint-based match time slots
+-- Organizers define the daily slot grid, players define when they can play
+
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS slot_minutes INTEGER;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS slot_capacity INTEGER;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS max_matches_per_day INTEGER;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS day_start_time TIME;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS day_end_time TIME;
+
+CREATE TABLE IF NOT EXISTS player_availability (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    day_of_week VARCHAR(10),
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_player_availability_user ON player_availability(user_id);
+CREATE INDEX IF NOT EXISTS idx_matches_scheduled_time ON matches(scheduled_time);
+
+COMMENT ON COLUMN tournaments.slot_minutes IS 'Length of one match slot in minutes (60 when NULL)';
+COMMENT ON COLUMN tournaments.slot_capacity IS 'Matches that can be played in the same slot (unlimited when NULL)';
+COMMENT ON COLUMN tournaments.max_matches_per_day IS 'Matches per player per day (1 when NULL)';
+COMMENT ON COLUMN tournaments.day_start_time IS 'First slot of the day (10:00 when NULL)';
+COMMENT ON COLUMN tournaments.day_end_time IS 'End of the last slot of the day (22:00 when NULL)';
+COMMENT ON COLUMN player_availability.day_of_week IS 'Day the window applies to, NULL for every day';
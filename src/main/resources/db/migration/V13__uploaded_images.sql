@@ -0,0 +1,14 @@
+-- V13: Telegram file_id reuse for rendered images
+-- Identical PNG bytes are sent by file_id instead of being uploaded again
+
+CREATE TABLE IF NOT EXISTS uploaded_images (
+    id BIGSERIAL PRIMARY KEY,
+    content_hash VARCHAR(64) NOT NULL UNIQUE,
+    telegram_file_id VARCHAR(255) NOT NULL,
+    size_bytes INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON COLUMN uploaded_images.content_hash IS 'Hex SHA-256 of the uploaded PNG bytes';
+COMMENT ON COLUMN uploaded_images.telegram_file_id IS 'file_id Telegram returned for the upload (largest photo size)';
+COMMENT ON COLUMN uploaded_images.size_bytes IS 'Upload size, used to report bytes saved by reuse';
@@ -0,0 +1,6 @@
+-- V14: Per-tournament data version for image cache keys
+-- Bumped after every committed change to a tournament, its teams, matches or results
+
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS data_version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN tournaments.data_version IS 'Increases after each committed change to data shown in tournament images';
@@ -0,0 +1,38 @@
+-- V15: Persisted broadcasts
+-- Each recipient's delivery is tracked, so a broadcast interrupted by a restart resumes where it stopped
+
+CREATE TABLE IF NOT EXISTS broadcasts (
+    id BIGSERIAL PRIMARY KEY,
+    kind VARCHAR(50) NOT NULL,
+    tournament_id BIGINT REFERENCES tournaments(id) ON DELETE SET NULL,
+    status VARCHAR(20) NOT NULL,
+    image BYTEA,
+    image_name VARCHAR(255),
+    total_recipients INTEGER NOT NULL,
+    sent_count INTEGER NOT NULL DEFAULT 0,
+    failed_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS broadcast_recipients (
+    id BIGSERIAL PRIMARY KEY,
+    broadcast_id BIGINT NOT NULL REFERENCES broadcasts(id) ON DELETE CASCADE,
+    telegram_id BIGINT NOT NULL,
+    text TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    sent_at TIMESTAMP,
+    UNIQUE (broadcast_id, telegram_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_broadcasts_status ON broadcasts(status);
+CREATE INDEX IF NOT EXISTS idx_broadcast_recipients_status ON broadcast_recipients(broadcast_id, status);
+
+COMMENT ON COLUMN broadcasts.kind IS 'What the broadcast announces, e.g. tournament_start';
+COMMENT ON COLUMN broadcasts.image IS 'Photo sent with every message (text is the caption), NULL for text messages';
+COMMENT ON COLUMN broadcasts.sent_count IS 'Delivered messages, filled in when the broadcast completes';
+COMMENT ON COLUMN broadcasts.failed_count IS 'Messages given up on, filled in when the broadcast completes';
+COMMENT ON COLUMN broadcast_recipients.text IS 'Message for this recipient, with the template variables filled in';
+COMMENT ON COLUMN broadcast_recipients.attempts IS 'Send attempts so far, including rate limited ones';
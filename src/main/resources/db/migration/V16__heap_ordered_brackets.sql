@@ -0,0 +1,38 @@
+-- V16: Heap-ordered bracket positions for older knockout brackets
+-- Older brackets numbered the first round 1..n and later rounds with a 1000 * round offset.
+-- First round match i (in old order) becomes slot n + i; every later match takes half the
+-- slot of the match that feeds it, following next_match_id.
+
+WITH RECURSIVE bracket_matches AS (
+    SELECT m.id, m.tournament_id, m.round, m.bracket_position, m.next_match_id
+    FROM matches m
+    JOIN tournaments t ON t.id = m.tournament_id
+    WHERE t.type IN ('PLAYOFF', 'GROUP_KNOCKOUT')
+      AND m.bracket_position IS NOT NULL
+),
+first_round AS (
+    SELECT b.id, b.tournament_id, b.bracket_position, b.next_match_id,
+           COUNT(*) OVER (PARTITION BY b.tournament_id) AS round_size,
+           ROW_NUMBER() OVER (PARTITION BY b.tournament_id ORDER BY b.bracket_position) AS round_index
+    FROM bracket_matches b
+    WHERE b.round = (SELECT MIN(f.round) FROM bracket_matches f WHERE f.tournament_id = b.tournament_id)
+),
+legacy_tournaments AS (
+    SELECT tournament_id
+    FROM first_round
+    WHERE round_index = 1 AND bracket_position <> round_size
+),
+slots (id, next_match_id, slot) AS (
+    SELECT f.id, f.next_match_id, f.round_size + f.round_index - 1
+    FROM first_round f
+    WHERE f.tournament_id IN (SELECT tournament_id FROM legacy_tournaments)
+    UNION ALL
+    SELECT b.id, b.next_match_id, s.slot / 2
+    FROM slots s
+    JOIN bracket_matches b ON b.id = s.next_match_id
+)
+UPDATE matches m
+SET bracket_position = s.slot
+FROM (SELECT id, MIN(slot) AS slot FROM slots GROUP BY id) s
+WHERE m.id = s.id
+  AND m.bracket_position <> s.slot;
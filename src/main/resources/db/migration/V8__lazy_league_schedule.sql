@@ -0,0 +1,12 @@
+-- V8: Round-on-demand league schedules
+-- Large leagues keep only a compact pairing seed and write rounds as they are needed
+
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS lazy_schedule BOOLEAN DEFAULT FALSE;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS schedule_seed TEXT;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS materialized_rounds INTEGER;
+
+UPDATE tournaments SET lazy_schedule = FALSE WHERE lazy_schedule IS NULL;
+
+COMMENT ON COLUMN tournaments.lazy_schedule IS 'True if league rounds are materialized on demand from schedule_seed';
+COMMENT ON COLUMN tournaments.schedule_seed IS 'Comma-separated team IDs in circle-method order, 0 marks the bye slot';
+COMMENT ON COLUMN tournaments.materialized_rounds IS 'Highest round already written to matches for a lazy league';
@@ -0,0 +1,13 @@
+-- V9: Group stage + knockout format
+-- Teams are split into round-robin groups, top finishers advance to a knockout bracket
+
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS group_number INTEGER;
+
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS group_count INTEGER;
+ALTER TABLE tournaments ADD COLUMN IF NOT EXISTS advance_per_group INTEGER;
+
+CREATE INDEX IF NOT EXISTS idx_teams_group ON teams(tournament_id, group_number);
+
+COMMENT ON COLUMN teams.group_number IS 'Group number (1-based) in group stage + knockout tournaments';
+COMMENT ON COLUMN tournaments.group_count IS 'Number of groups, derived from team count when NULL';
+COMMENT ON COLUMN tournaments.advance_per_group IS 'Top finishers per group advancing to the knockout bracket';
@@ -0,0 +1,167 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.MatchStage;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BracketSvgRenderer and the region tiles of BracketImageRenderer.
+ */
+class BracketSvgRendererTest {
+
+    private static final MatchStage[] STAGES = {MatchStage.ROUND_OF_128, MatchStage.ROUND_OF_64,
+            MatchStage.ROUND_OF_32, MatchStage.ROUND_OF_16, MatchStage.QUARTER_FINAL,
+            MatchStage.SEMI_FINAL, MatchStage.FINAL};
+
+    private final BracketSvgRenderer svgRenderer = new BracketSvgRenderer();
+
+    @Test
+    void testWrite_ProducesWellFormedSvgWithEveryMatch() throws Exception {
+        List<Match> bracket = bracket(64);
+        bracket.get(0).getHomeTeam().setName("<Tigers> & \"Co\"");
+
+        StringWriter out = new StringWriter();
+        svgRenderer.write("Cup", bracket, out);
+
+        Document svg = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(out.toString().getBytes(StandardCharsets.UTF_8)));
+        assertEquals("svg", svg.getDocumentElement().getTagName());
+        // One group per match, one connector per non-final match
+        assertEquals(63, svg.getElementsByTagName("g").getLength() - 1);
+        assertEquals(62, svg.getElementsByTagName("path").getLength());
+        assertTrue(out.toString().contains("&lt;Tigers&gt; &amp; &quot;Co&quot;"));
+    }
+
+    @Test
+    void testWrite_RejectsDoubleElimination() {
+        Match upper = Match.builder().id(1L).round(1).stage(MatchStage.UPPER_BRACKET).build();
+
+        assertFalse(svgRenderer.supports(List.of(upper)));
+        assertThrows(IllegalArgumentException.class, () -> svgRenderer.write("Cup", List.of(upper), new StringWriter()));
+    }
+
+    @Test
+    void testRegions_LargeBracketSplitsIntoQuarterTiles() throws Exception {
+        BracketImageRenderer renderer = new BracketImageRenderer(null, null,
+                new PngEncoder(PngEncoder.ColorMode.INDEXED, 6, PngEncoder.Filter.NONE, new SimpleMeterRegistry()));
+        List<Match> bracket = bracket(64);
+
+        assertTrue(renderer.shouldRenderRegions(bracket));
+        assertFalse(renderer.shouldRenderRegions(bracket(16)));
+        assertEquals(5, renderer.getRegionTileCount(bracket));
+
+        // A quarter holds 8 first-round matches up to its quarter-final: 4 columns
+        BufferedImage quarter = ImageIO.read(new ByteArrayInputStream(renderer.renderRegion("Cup", bracket, 0)));
+        BracketLayout full = BracketLayout.singleElimination(bracket).orElseThrow();
+        BracketLayout region = full.region(0, 4);
+        assertEquals(List.of(MatchStage.ROUND_OF_64, MatchStage.ROUND_OF_32, MatchStage.ROUND_OF_16,
+                MatchStage.QUARTER_FINAL), region.getStages());
+        assertEquals(8, region.getLeaves());
+        assertTrue(quarter.getHeight() < 1100);
+
+        BracketLayout finals = full.finals(4);
+        assertEquals(List.of(MatchStage.SEMI_FINAL, MatchStage.FINAL), finals.getStages());
+        assertEquals(3, finals.boxes().size());
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(renderer.renderRegion("Cup", bracket, 4))));
+    }
+
+    @Test
+    void testDoubleElimination_ColumnsFollowPlayRounds() throws Exception {
+        BracketImageRenderer renderer = new BracketImageRenderer(null, null,
+                new PngEncoder(PngEncoder.ColorMode.INDEXED, 6, PngEncoder.Filter.NONE, new SimpleMeterRegistry()));
+
+        // 8 teams: upper rounds play in 1, 2, 4; lower rounds in 2..5; grand final in 6
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(renderer.render("Cup", doubleElimination(8))));
+
+        assertFalse(renderer.shouldRenderRegions(doubleElimination(32)));
+        assertEquals(6 * (200 + 40) + 2 * 30, image.getWidth());
+    }
+
+    @Test
+    void testDoubleElimination_LargeBracketSplitsIntoUpperAndLowerTiles() throws Exception {
+        BracketImageRenderer renderer = new BracketImageRenderer(null, null,
+                new PngEncoder(PngEncoder.ColorMode.INDEXED, 6, PngEncoder.Filter.NONE, new SimpleMeterRegistry()));
+        List<Match> bracket = doubleElimination(64);
+
+        assertTrue(renderer.shouldRenderRegions(bracket));
+        assertEquals(2, renderer.getRegionTileCount(bracket));
+
+        // Upper tile: 6 rounds, 32 matches high; lower tile: 10 rounds and the grand final, 16 matches high
+        BufferedImage upper = ImageIO.read(new ByteArrayInputStream(renderer.renderRegion("Cup", bracket, 0)));
+        BufferedImage lower = ImageIO.read(new ByteArrayInputStream(renderer.renderRegion("Cup", bracket, 1)));
+        assertEquals(6 * 240 + 60, upper.getWidth());
+        assertEquals(11 * 240 + 60, lower.getWidth());
+        assertTrue(upper.getHeight() < 32 * 80 + 400);
+        assertTrue(lower.getHeight() < 16 * 80 + 400);
+    }
+
+    /**
+     * Double elimination bracket shaped like DoubleEliminationService builds it (no BYEs, no links).
+     */
+    private static List<Match> doubleElimination(int teams) {
+        List<Match> matches = new ArrayList<>();
+        int upperRounds = Integer.numberOfTrailingZeros(teams);
+        long id = 1;
+        for (int r = 1; r <= upperRounds; r++) {
+            for (int i = 0; i < teams >> r; i++) {
+                matches.add(Match.builder().id(id++).round(r == 1 ? 1 : 2 * r - 2)
+                        .stage(MatchStage.UPPER_BRACKET).isBye(false).bracketPosition((int) id).build());
+            }
+        }
+        for (int l = 1; l <= 2 * (upperRounds - 1); l++) {
+            for (int i = 0; i < teams >> ((l + 1) / 2 + 1); i++) {
+                matches.add(Match.builder().id(id++).round(l + 1)
+                        .stage(MatchStage.LOWER_BRACKET).isBye(false).bracketPosition((int) id).build());
+            }
+        }
+        matches.add(Match.builder().id(id).round(2 * upperRounds)
+                .stage(MatchStage.GRAND_FINAL).isBye(false).bracketPosition((int) id).build());
+        return matches;
+    }
+
+    /**
+     * Complete single elimination bracket with the given number of teams (a power of two).
+     */
+    private static List<Match> bracket(int teams) {
+        List<Match> matches = new ArrayList<>();
+        List<Match> previous = new ArrayList<>();
+        int firstStage = STAGES.length - Integer.numberOfTrailingZeros(teams);
+        long id = 1;
+        int round = 1;
+        for (int size = teams / 2; size >= 1; size /= 2, round++) {
+            List<Match> current = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Match match = Match.builder().id(id).round(round).stage(STAGES[firstStage + round - 1])
+                        .isBye(false).bracketPosition(size + i).build();
+                id++;
+                if (previous.isEmpty()) {
+                    match.setHomeTeam(Team.builder().id(id * 2).name("Team " + (2 * i + 1)).build());
+                    match.setAwayTeam(Team.builder().id(id * 2 + 1).name("Team " + (2 * i + 2)).build());
+                    match.setHomeScore(2);
+                    match.setAwayScore(1);
+                } else {
+                    previous.get(2 * i).setNextMatch(match);
+                    previous.get(2 * i + 1).setNextMatch(match);
+                }
+                current.add(match);
+            }
+            matches.addAll(current);
+            previous = current;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,140 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.BroadcastStatus;
+import com.chempionat.bot.domain.enums.DeliveryStatus;
+import com.chempionat.bot.domain.model.Broadcast;
+import com.chempionat.bot.domain.model.BroadcastRecipient;
+import com.chempionat.bot.domain.repository.BroadcastRecipientRepository;
+import com.chempionat.bot.domain.repository.BroadcastRepository;
+import com.chempionat.bot.infrastructure.telegram.TelegramBot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BroadcastService.
+ */
+@ExtendWith(MockitoExtension.class)
+class BroadcastServiceTest {
+
+    @Mock
+    private BroadcastRepository broadcastRepository;
+
+    @Mock
+    private BroadcastRecipientRepository recipientRepository;
+
+    @Mock
+    private TelegramBot telegramBot;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolTaskExecutor dispatcher = executor(1);
+    private final ThreadPoolTaskExecutor senders = executor(2);
+    private BroadcastService service;
+    private Broadcast broadcast;
+
+    @BeforeEach
+    void setUp() {
+        service = new BroadcastService(broadcastRepository, recipientRepository, telegramBot, meterRegistry,
+                dispatcher, senders, 1000, 3);
+        broadcast = Broadcast.builder().id(7L).kind("tournament_start").status(BroadcastStatus.RUNNING)
+                .totalRecipients(2).build();
+        lenient().when(broadcastRepository.findById(7L)).thenReturn(Optional.of(broadcast));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+        senders.shutdown();
+    }
+
+    @Test
+    void testFill_ReplacesKnownPlaceholders() {
+        assertEquals("Salom Ali, {unknown}",
+                BroadcastService.fill("Salom {name}, {unknown}", Map.of("name", "Ali")));
+    }
+
+    @Test
+    void testRun_DeliversPendingRecipientsAndCompletes() throws Exception {
+        BroadcastRecipient first = recipient(1L);
+        BroadcastRecipient second = recipient(2L);
+        when(recipientRepository.findTop100ByBroadcastIdAndStatusOrderByIdAsc(7L, DeliveryStatus.PENDING))
+                .thenReturn(List.of(first, second), List.of());
+        when(recipientRepository.countByBroadcastIdAndStatus(7L, DeliveryStatus.SENT)).thenReturn(2L);
+
+        service.run(7L);
+
+        verify(telegramBot).deliver(1L, "hello 1", null, null);
+        verify(telegramBot).deliver(2L, "hello 2", null, null);
+        assertEquals(DeliveryStatus.SENT, first.getStatus());
+        assertEquals(DeliveryStatus.SENT, second.getStatus());
+        assertEquals(BroadcastStatus.COMPLETED, broadcast.getStatus());
+        assertEquals(2, broadcast.getSentCount());
+        assertNotNull(broadcast.getCompletedAt());
+        assertEquals(2, meterRegistry.get("broadcast.messages").tag("result", "sent").counter().count());
+    }
+
+    @Test
+    void testRun_BlockedUserFailsWithoutRetry() throws Exception {
+        BroadcastRecipient blocked = recipient(1L);
+        when(recipientRepository.findTop100ByBroadcastIdAndStatusOrderByIdAsc(7L, DeliveryStatus.PENDING))
+                .thenReturn(List.of(blocked), List.of());
+        TelegramApiRequestException forbidden = mock(TelegramApiRequestException.class);
+        when(forbidden.getErrorCode()).thenReturn(403);
+        doThrow(forbidden).when(telegramBot).deliver(eq(1L), any(), any(), any());
+
+        service.run(7L);
+
+        assertEquals(DeliveryStatus.FAILED, blocked.getStatus());
+        assertEquals(1, blocked.getAttempts());
+        verify(recipientRepository).save(blocked);
+        assertEquals(BroadcastStatus.COMPLETED, broadcast.getStatus());
+    }
+
+    @Test
+    void testRun_RateLimitedSendIsRetried() throws Exception {
+        BroadcastRecipient recipient = recipient(1L);
+        when(recipientRepository.findTop100ByBroadcastIdAndStatusOrderByIdAsc(7L, DeliveryStatus.PENDING))
+                .thenReturn(List.of(recipient), List.of());
+        ResponseParameters retryNow = new ResponseParameters();
+        retryNow.setRetryAfter(0);
+        TelegramApiRequestException tooMany = mock(TelegramApiRequestException.class);
+        when(tooMany.getErrorCode()).thenReturn(429);
+        when(tooMany.getParameters()).thenReturn(retryNow);
+        doThrow(tooMany).doNothing().when(telegramBot).deliver(eq(1L), any(), any(), any());
+
+        service.run(7L);
+
+        assertEquals(DeliveryStatus.SENT, recipient.getStatus());
+        assertEquals(2, recipient.getAttempts());
+        assertEquals(1, meterRegistry.get("broadcast.messages").tag("result", "retried").counter().count());
+    }
+
+    private BroadcastRecipient recipient(Long telegramId) {
+        return BroadcastRecipient.builder().broadcastId(7L).telegramId(telegramId)
+                .text("hello " + telegramId).status(DeliveryStatus.PENDING).attempts(0).build();
+    }
+
+    private static ThreadPoolTaskExecutor executor(int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,243 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.MatchStage;
+import com.chempionat.bot.domain.enums.TournamentStatus;
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.model.User;
+import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.domain.repository.TeamRepository;
+import com.chempionat.bot.domain.repository.TournamentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DoubleEliminationService.
+ * Repositories are backed by an in-memory match list so full events can be played.
+ */
+@ExtendWith(MockitoExtension.class)
+class DoubleEliminationServiceTest {
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private TournamentRepository tournamentRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private MatchSlotScheduler matchSlotScheduler;
+
+    private DoubleEliminationService service;
+    private Tournament tournament;
+    private final List<Match> stored = new ArrayList<>();
+    private final Map<Long, Match> byId = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        SingleEliminationService singleEliminationService = new SingleEliminationService(
+                matchRepository, tournamentRepository, teamRepository, notificationService, matchSlotScheduler);
+        service = new DoubleEliminationService(matchRepository, teamRepository, tournamentRepository,
+                singleEliminationService, matchSlotScheduler);
+        tournament = Tournament.builder().id(1L).name("Double").type(TournamentType.DOUBLE_ELIMINATION)
+                .status(TournamentStatus.IN_PROGRESS).isActive(true).build();
+
+        lenient().when(matchRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Match> matches = inv.getArgument(0);
+            matches.forEach(this::store);
+            return matches;
+        });
+        lenient().when(matchRepository.save(any(Match.class))).thenAnswer(inv -> store(inv.getArgument(0)));
+        lenient().when(matchRepository.assignHomeTeam(anyLong(), any())).thenAnswer(inv -> {
+            byId.get(inv.<Long>getArgument(0)).setHomeTeam(inv.getArgument(1));
+            return 1;
+        });
+        lenient().when(matchRepository.assignAwayTeam(anyLong(), any())).thenAnswer(inv -> {
+            byId.get(inv.<Long>getArgument(0)).setAwayTeam(inv.getArgument(1));
+            return 1;
+        });
+        lenient().when(matchRepository.linkToNextMatch(anyLong(), any(), any())).thenAnswer(inv -> {
+            Match match = byId.get(inv.<Long>getArgument(0));
+            match.setNextMatch(inv.getArgument(1));
+            match.setWinnerToHome(inv.getArgument(2));
+            return 1;
+        });
+    }
+
+    @Test
+    void testGenerateBracket_EveryMatchHasTwoEntrants() {
+        for (int teamCount : new int[]{2, 3, 5, 6, 8, 13, 64}) {
+            stored.clear();
+            byId.clear();
+            List<Team> teams = createTeams(teamCount);
+
+            List<Match> firstRound = service.generateBracket(tournament, teams);
+
+            int bracketSize = Integer.highestOneBit(teamCount - 1) * 2;
+            assertEquals(bracketSize / 2, firstRound.size());
+            long byes = stored.stream().filter(Match::getIsBye).count();
+            assertEquals(bracketSize - teamCount, byes);
+            // Without a reset: 2n - 2 real matches
+            assertEquals(2L * (teamCount - 1), stored.size() - byes, "Team count " + teamCount);
+
+            Map<Match, Integer> feeds = new IdentityHashMap<>();
+            for (Match match : stored) {
+                if (match.getNextMatch() != null) {
+                    feeds.merge(match.getNextMatch(), 1, Integer::sum);
+                }
+                if (match.getLoserNextMatch() != null) {
+                    feeds.merge(match.getLoserNextMatch(), 1, Integer::sum);
+                }
+            }
+            for (Match match : stored) {
+                if (match.getRound() > 1) {
+                    assertEquals(2, feeds.getOrDefault(match, 0), "Match without two entrants: " + match.getStage());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFullEvent_EveryTeamButChampionLosesTwice() {
+        Random random = new Random(11);
+        for (int teamCount : new int[]{2, 3, 7, 16, 29}) {
+            stored.clear();
+            byId.clear();
+            tournament.setStatus(TournamentStatus.IN_PROGRESS);
+            List<Team> teams = createTeams(teamCount);
+            service.generateBracket(tournament, teams);
+
+            Map<Long, Integer> losses = playEvent(random);
+
+            assertEquals(TournamentStatus.FINISHED, tournament.getStatus());
+            long champions = teams.stream().filter(t -> losses.getOrDefault(t.getId(), 0) < 2).count();
+            assertEquals(1, champions, "Team count " + teamCount);
+            assertTrue(losses.values().stream().allMatch(l -> l <= 2));
+        }
+    }
+
+    @Test
+    void testGrandFinal_LowerBracketWinCreatesReset() {
+        List<Team> teams = createTeams(4);
+        service.generateBracket(tournament, teams);
+        playUntilGrandFinal();
+
+        Match grandFinal = stored.stream().filter(m -> m.getStage() == MatchStage.GRAND_FINAL).findFirst().orElseThrow();
+        grandFinal.setHomeScore(0);
+        grandFinal.setAwayScore(1);
+        service.propagateResult(grandFinal);
+
+        Match reset = grandFinal.getNextMatch();
+        assertNotNull(reset);
+        assertEquals(MatchStage.GRAND_FINAL_RESET, reset.getStage());
+        assertSame(grandFinal.getHomeTeam(), reset.getHomeTeam());
+        assertSame(grandFinal.getAwayTeam(), reset.getAwayTeam());
+        assertNotEquals(TournamentStatus.FINISHED, tournament.getStatus());
+
+        reset.setHomeScore(2);
+        reset.setAwayScore(1);
+        service.propagateResult(reset);
+        assertEquals(TournamentStatus.FINISHED, tournament.getStatus());
+
+        when(teamRepository.findByTournament(tournament)).thenReturn(teams);
+        when(matchRepository.findByTournamentOrderedByBracketPosition(tournament)).thenReturn(stored);
+        List<TeamStanding> placements = service.calculatePlacements(tournament);
+        assertEquals(4, placements.size());
+        assertEquals(reset.getHomeTeam().getId(), placements.get(0).getTeamId());
+        assertEquals(reset.getAwayTeam().getId(), placements.get(1).getTeamId());
+    }
+
+    @Test
+    void testPropagateResult_NotifiesLowerBracketWinnerAboutAdvancement() {
+        List<Team> teams = createTeams(4);
+        for (Team team : teams) {
+            team.setUser(User.builder().id(team.getId()).telegramId(1000L + team.getId()).build());
+        }
+        service.generateBracket(tournament, teams);
+        for (Match match : playableMatches()) {
+            match.setHomeScore(1);
+            match.setAwayScore(0);
+            service.propagateResult(match);
+        }
+
+        Match lowerFirst = stored.stream()
+                .filter(m -> m.getStage() == MatchStage.LOWER_BRACKET && m.hasBothTeams())
+                .findFirst().orElseThrow();
+        lowerFirst.setHomeScore(2);
+        lowerFirst.setAwayScore(0);
+        service.propagateResult(lowerFirst);
+
+        verify(notificationService).notifyUser(eq(lowerFirst.getHomeTeam().getUser().getTelegramId()),
+                contains("Quyi to'r"));
+    }
+
+    private Map<Long, Integer> playEvent(Random random) {
+        Map<Long, Integer> losses = new HashMap<>();
+        List<Match> playable;
+        while (!(playable = playableMatches()).isEmpty()) {
+            for (Match match : playable) {
+                boolean homeWins = random.nextBoolean();
+                match.setHomeScore(homeWins ? 1 : 0);
+                match.setAwayScore(homeWins ? 0 : 1);
+                Team loser = homeWins ? match.getAwayTeam() : match.getHomeTeam();
+                losses.merge(loser.getId(), 1, Integer::sum);
+                service.propagateResult(match);
+            }
+        }
+        return losses;
+    }
+
+    private void playUntilGrandFinal() {
+        List<Match> playable;
+        while (!(playable = playableMatches()).isEmpty()) {
+            for (Match match : playable) {
+                if (match.getStage() == MatchStage.GRAND_FINAL) {
+                    return;
+                }
+                match.setHomeScore(1);
+                match.setAwayScore(0);
+                service.propagateResult(match);
+            }
+        }
+    }
+
+    private List<Match> playableMatches() {
+        return stored.stream()
+                .filter(m -> !m.getIsBye() && m.hasBothTeams() && m.getHomeScore() == null)
+                .sorted(Comparator.comparing(Match::getRound))
+                .toList();
+    }
+
+    private Match store(Match match) {
+        if (match.getId() == null) {
+            match.setId((long) stored.size() + 1);
+            stored.add(match);
+            byId.put(match.getId(), match);
+        }
+        return match;
+    }
+
+    private List<Team> createTeams(int count) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            teams.add(Team.builder().id((long) i).name("Team " + i).tournament(tournament).build());
+        }
+        return teams;
+    }
+}
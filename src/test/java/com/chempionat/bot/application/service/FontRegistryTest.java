@@ -0,0 +1,90 @@
+package com.chempionat.bot.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FontRegistry and the truncation built on it.
+ */
+class FontRegistryTest {
+
+    private FontMetrics fm;
+    private final ImageRenderer renderer = new ImageRenderer(null) {
+    };
+
+    @BeforeEach
+    void setUp() {
+        Graphics2D g2d = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB).createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(FontRegistry.sansSerif(Font.PLAIN, 16));
+        fm = g2d.getFontMetrics();
+        g2d.dispose();
+    }
+
+    @Test
+    void testSansSerif_ReturnsSharedInstance() {
+        assertSame(FontRegistry.sansSerif(Font.BOLD, 18), FontRegistry.sansSerif(Font.BOLD, 18));
+        assertNotSame(FontRegistry.sansSerif(Font.BOLD, 18), FontRegistry.sansSerif(Font.PLAIN, 18));
+    }
+
+    @Test
+    void testStringWidth_MatchesFontMetrics() {
+        FontRegistry.GlyphAdvances advances = FontRegistry.advances(fm);
+        for (String text : new String[]{"", "Team 1", "@very_long_username_2024", "Тошкент Юлдузлари", "Oʻzbekiston"}) {
+            assertEquals(fm.stringWidth(text), advances.stringWidth(text), text);
+        }
+    }
+
+    @Test
+    void testTruncateText_MatchesCharByCharSearch() {
+        Random random = new Random(5);
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 _@ЎўҚқ";
+        for (int i = 0; i < 500; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            int maxWidth = random.nextInt(300);
+
+            assertEquals(linearTruncate(text.toString(), maxWidth), renderer.truncateText(text.toString(), maxWidth, fm));
+        }
+    }
+
+    @Test
+    void testTruncateText_KeepsSurrogatePairsWhole() {
+        String text = "⚽🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆🏆";
+        String truncated = renderer.truncateText(text, 60, fm);
+
+        assertTrue(truncated.endsWith("..."));
+        String kept = truncated.substring(0, truncated.length() - 3);
+        assertFalse(Character.isHighSurrogate(kept.charAt(kept.length() - 1)));
+    }
+
+    @Test
+    void testTruncateText_NullIsEmpty() {
+        assertEquals("", renderer.truncateText(null, 100, fm));
+    }
+
+    /**
+     * The previous implementation: grow the prefix one char at a time and re-measure.
+     */
+    private String linearTruncate(String text, int maxWidth) {
+        if (fm.stringWidth(text) <= maxWidth) return text;
+        int ellipsisWidth = fm.stringWidth("...");
+        StringBuilder truncated = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (fm.stringWidth(truncated.toString() + c) + ellipsisWidth > maxWidth) {
+                break;
+            }
+            truncated.append(c);
+        }
+        return truncated + "...";
+    }
+}
@@ -0,0 +1,140 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Tournament;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ImagePrerenderService.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ImagePrerenderServiceTest {
+
+    @Mock
+    private TournamentService tournamentService;
+
+    @Mock
+    private StandingsService standingsService;
+
+    @Mock
+    private RoundService roundService;
+
+    @Mock
+    private SingleEliminationService singleEliminationService;
+
+    @Mock
+    private ImageCacheService imageCacheService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolTaskExecutor executor;
+    private ImagePrerenderService service;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testSubmit_RendersStandingsRoundPageAndBracket() {
+        service = createService(4);
+        Tournament tournament = tournament(1L, TournamentType.PLAYOFF);
+        List<TeamStanding> standings = List.of(new TeamStanding(1L, "A"));
+        List<Match> roundMatches = matches(20);
+        List<Match> bracket = matches(3);
+        when(tournamentService.getTournamentById(1L)).thenReturn(Optional.of(tournament));
+        when(standingsService.calculateStandings(tournament)).thenReturn(standings);
+        when(roundService.getMatchesForRoundByKickoff(tournament, 2)).thenReturn(roundMatches);
+        when(imageCacheService.getFixturesPageOf(roundMatches, 15L)).thenReturn(1);
+        when(singleEliminationService.getBracketTree(tournament)).thenReturn(bracket);
+
+        service.submit(1L, 15L, 2);
+
+        verify(imageCacheService, timeout(5000)).getBracketImage(tournament, bracket);
+        verify(imageCacheService).getStandingsImage(tournament, standings, 0);
+        verify(imageCacheService).getFixturesRoundImage(tournament, 2, roundMatches, 1);
+        verify(imageCacheService, never()).getFixturesRoundImage(tournament, 2, roundMatches, 0);
+    }
+
+    @Test
+    void testSubmit_MergesQueuedTournamentAndDropsWhenQueueFull() throws Exception {
+        service = createService(1);
+        Tournament busy = tournament(1L, TournamentType.LEAGUE);
+        Tournament queued = tournament(2L, TournamentType.LEAGUE);
+        when(tournamentService.getTournamentById(1L)).thenReturn(Optional.of(busy));
+        when(tournamentService.getTournamentById(2L)).thenReturn(Optional.of(queued));
+        when(roundService.getMatchesForRoundByKickoff(any(), anyInt())).thenReturn(matches(4));
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(standingsService.calculateStandings(busy)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(standingsService.calculateStandings(queued)).thenReturn(List.of());
+
+        service.submit(1L, 10L, 1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        service.submit(2L, 20L, 1);
+        service.submit(2L, 21L, 2);
+        service.submit(3L, 30L, 1);
+        release.countDown();
+
+        // Both changes of tournament 2 are rendered by one task; tournament 3 did not fit
+        verify(roundService, timeout(5000)).getMatchesForRoundByKickoff(queued, 2);
+        verify(roundService).getMatchesForRoundByKickoff(queued, 1);
+        verify(standingsService, times(1)).calculateStandings(queued);
+        verify(tournamentService, never()).getTournamentById(3L);
+        assertEquals(2, meterRegistry.get("image.prerender").tag("result", "submitted").counter().count());
+        assertEquals(1, meterRegistry.get("image.prerender").tag("result", "merged").counter().count());
+        assertEquals(1, meterRegistry.get("image.prerender").tag("result", "dropped").counter().count());
+    }
+
+    private ImagePrerenderService createService(int queueCapacity) {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return new ImagePrerenderService(tournamentService, standingsService, roundService,
+                singleEliminationService, imageCacheService, meterRegistry, true, executor);
+    }
+
+    private static Tournament tournament(Long id, TournamentType type) {
+        Tournament tournament = new Tournament();
+        tournament.setId(id);
+        tournament.setType(type);
+        return tournament;
+    }
+
+    private static List<Match> matches(int count) {
+        List<Match> matches = new ArrayList<>();
+        IntStream.range(0, count).forEach(i -> {
+            Match match = new Match();
+            match.setId((long) i);
+            matches.add(match);
+        });
+        return matches;
+    }
+}
@@ -0,0 +1,172 @@
+package com.chempionat.bot.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ImageRenderExecutor and RasterPool.
+ */
+class ImageRenderExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ImageRenderExecutor renderExecutor;
+
+    @AfterEach
+    void tearDown() {
+        renderExecutor.shutdown();
+    }
+
+    @Test
+    void testRender_RunsOnRenderThreadAndRecordsTime() {
+        renderExecutor = new ImageRenderExecutor(meterRegistry, 2, 4);
+
+        byte[] result = renderExecutor.render(() -> Thread.currentThread().getName().getBytes());
+
+        assertTrue(new String(result).startsWith("render-"));
+        assertEquals(1, meterRegistry.get("image.render.duration").timer().count());
+    }
+
+    @Test
+    void testRender_PropagatesRenderFailure() {
+        renderExecutor = new ImageRenderExecutor(meterRegistry, 1, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> renderExecutor.render(() -> {
+            throw new IllegalArgumentException("bad input");
+        }));
+        // The slot was given back
+        assertArrayEquals(new byte[]{1}, renderExecutor.render(() -> new byte[]{1}));
+    }
+
+    @Test
+    void testRender_RejectsWhenSaturated() throws Exception {
+        renderExecutor = new ImageRenderExecutor(meterRegistry, 1, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<byte[]> slow = caller.submit(() -> renderExecutor.render(() -> {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return new byte[]{1};
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(RejectedExecutionException.class, () -> renderExecutor.render(() -> new byte[]{2}));
+            assertEquals(1, meterRegistry.get("image.render.rejected").counter().count());
+
+            release.countDown();
+            assertArrayEquals(new byte[]{1}, slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRenderAll_RendersInParallelAndKeepsOrder() {
+        renderExecutor = new ImageRenderExecutor(meterRegistry, 3, 0);
+        // Each render waits for all three to start, so this only completes if they run together
+        CyclicBarrier allStarted = new CyclicBarrier(3);
+        List<Callable<byte[]>> renders = List.of(
+                () -> {
+                    allStarted.await(5, TimeUnit.SECONDS);
+                    return new byte[]{0};
+                },
+                () -> {
+                    allStarted.await(5, TimeUnit.SECONDS);
+                    return new byte[]{1};
+                },
+                () -> {
+                    allStarted.await(5, TimeUnit.SECONDS);
+                    return new byte[]{2};
+                });
+
+        List<byte[]> images = renderExecutor.renderAll(renders);
+
+        assertEquals(3, images.size());
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(new byte[]{(byte) i}, images.get(i));
+        }
+        assertEquals(3, meterRegistry.get("image.render.duration").timer().count());
+    }
+
+    @Test
+    void testRenderAll_CancelsBatchWhenPoolIsSaturated() throws Exception {
+        renderExecutor = new ImageRenderExecutor(meterRegistry, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Callable<byte[]>> renders = List.of(
+                () -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return new byte[]{0};
+                },
+                () -> new byte[]{1},
+                () -> new byte[]{2});
+
+        assertThrows(RejectedExecutionException.class, () -> renderExecutor.renderAll(renders));
+        release.countDown();
+
+        // Cancelled renders gave their slots back
+        awaitIdle();
+        assertEquals(2, renderExecutor.renderAll(List.of(() -> new byte[]{3}, () -> new byte[]{4})).size());
+    }
+
+    @Test
+    void testRenderAll_StartedRenderKeepsSlotUntilItReturns() throws Exception {
+        renderExecutor = new ImageRenderExecutor(meterRegistry, 2, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Callable<byte[]>> renders = List.of(
+                () -> {
+                    started.await(5, TimeUnit.SECONDS);
+                    throw new IllegalStateException("render failed");
+                },
+                () -> {
+                    started.countDown();
+                    // Like a Java2D render, ignores the interrupt from cancel
+                    while (release.getCount() > 0) {
+                        Thread.onSpinWait();
+                    }
+                    return new byte[]{1};
+                });
+
+        assertThrows(IllegalStateException.class, () -> renderExecutor.renderAll(renders));
+
+        // The cancelled render is still drawing, so only one slot is free
+        assertEquals(0.5, renderExecutor.getLoad());
+        assertThrows(RejectedExecutionException.class, () -> renderExecutor.renderAll(List.of(
+                () -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return new byte[]{2};
+                },
+                () -> new byte[]{3})));
+
+        release.countDown();
+        awaitIdle();
+        assertEquals(2, renderExecutor.renderAll(List.of(() -> new byte[]{2}, () -> new byte[]{3})).size());
+    }
+
+    @Test
+    void testRasterPool_ReusesReleasedCanvasOfSameSize() {
+        renderExecutor = new ImageRenderExecutor(meterRegistry, 1, 0);
+        BufferedImage first = RasterPool.acquire(321, 123);
+        RasterPool.release(first);
+
+        assertSame(first, RasterPool.acquire(321, 123));
+        assertNotSame(first, RasterPool.acquire(321, 123));
+        assertEquals(BufferedImage.TYPE_INT_RGB, first.getType());
+        assertTrue(meterRegistry.get("image.raster.pool").tag("result", "hit").functionCounter().count() >= 1);
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (renderExecutor.getLoad() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.PlayerAvailability;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.model.User;
+import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.domain.repository.PlayerAvailabilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MatchSlotScheduler.
+ * Builds circle-method leagues and checks every scheduling constraint on the result.
+ */
+@ExtendWith(MockitoExtension.class)
+class MatchSlotSchedulerTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 3, 2); // Monday
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private PlayerAvailabilityRepository playerAvailabilityRepository;
+
+    private MatchSlotScheduler scheduler;
+    private Tournament tournament;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new MatchSlotScheduler(matchRepository, playerAvailabilityRepository);
+        tournament = Tournament.builder().id(1L).name("League").type(TournamentType.LEAGUE).build();
+    }
+
+    @Test
+    void testDefaults_OneMatchPerPlayerPerDayInRoundOrder() {
+        List<Team> teams = createTeams(7);
+        List<Match> matches = roundRobin(teams);
+
+        scheduler.assign(grid(), matches, List.of(), Map.of());
+
+        assertConstraints(matches, 1, Integer.MAX_VALUE);
+        // Unlimited capacity: round r is played on day r
+        for (Match match : matches) {
+            assertEquals(FIRST_DAY.plusDays(match.getRound() - 1), match.getScheduledTime().toLocalDate());
+            assertEquals(LocalTime.of(10, 0), match.getScheduledTime().toLocalTime());
+        }
+    }
+
+    @Test
+    void testSlotCapacity_SpreadsMatchesOverTheDay() {
+        tournament.setSlotCapacity(2);
+        tournament.setMaxMatchesPerDay(2);
+        List<Match> matches = roundRobin(createTeams(12));
+
+        scheduler.assign(grid(), matches, List.of(), Map.of());
+
+        assertConstraints(matches, 2, 2);
+    }
+
+    @Test
+    void testAvailability_MatchesPlacedInsidePlayerWindows() {
+        List<Team> teams = createTeams(6);
+        User restricted = teams.get(0).getUser();
+        PlayerAvailability weekend = PlayerAvailability.builder()
+                .user(restricted).dayOfWeek(DayOfWeek.SATURDAY)
+                .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(22, 0)).build();
+        List<Match> matches = roundRobin(teams);
+
+        scheduler.assign(grid(), matches, List.of(), Map.of(restricted.getId(), List.of(weekend)));
+
+        assertConstraints(matches, 1, Integer.MAX_VALUE);
+        for (Match match : matches) {
+            if (match.getHomeTeam() == teams.get(0) || match.getAwayTeam() == teams.get(0)) {
+                LocalDateTime time = match.getScheduledTime();
+                assertEquals(DayOfWeek.SATURDAY, time.getDayOfWeek());
+                assertFalse(time.toLocalTime().isBefore(LocalTime.of(18, 0)));
+                assertTrue(time.toLocalTime().isBefore(LocalTime.of(22, 0)));
+            }
+        }
+    }
+
+    @Test
+    void testExistingMatches_KeepTheirSlots() {
+        List<Team> teams = createTeams(4);
+        List<Match> matches = roundRobin(teams);
+        List<Match> firstRound = matches.stream().filter(m -> m.getRound() == 1).toList();
+        List<Match> laterRounds = matches.stream().filter(m -> m.getRound() > 1).toList();
+
+        scheduler.assign(grid(), firstRound, List.of(), Map.of());
+        scheduler.assign(grid(), laterRounds, firstRound, Map.of());
+
+        assertConstraints(matches, 1, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testScheduledMatches_KeepTheirTimeWhenPassedAgain() {
+        List<Match> matches = roundRobin(createTeams(4));
+        scheduler.assign(grid(), matches, List.of(), Map.of());
+        List<LocalDateTime> times = matches.stream().map(Match::getScheduledTime).toList();
+
+        int scheduled = scheduler.assign(grid(), matches, matches, Map.of());
+
+        assertEquals(0, scheduled);
+        assertEquals(times, matches.stream().map(Match::getScheduledTime).toList());
+    }
+
+    @Test
+    void testLargeLeague_SchedulesQuickly() {
+        tournament.setSlotCapacity(40);
+        tournament.setMaxMatchesPerDay(2);
+        List<Team> teams = createTeams(500);
+        Map<Long, List<PlayerAvailability>> windows = new HashMap<>();
+        for (int i = 0; i < teams.size(); i += 5) {
+            User user = teams.get(i).getUser();
+            windows.put(user.getId(), List.of(PlayerAvailability.builder().user(user)
+                    .startTime(LocalTime.of(17, 0)).endTime(LocalTime.of(22, 0)).build()));
+        }
+        List<Match> matches = roundRobin(teams);
+
+        long start = System.nanoTime();
+        scheduler.assign(grid(), matches, List.of(), windows);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 5000, "Scheduling took " + elapsedMs + " ms");
+        assertConstraints(matches, 2, 40);
+    }
+
+    private MatchSlotScheduler.SlotGrid grid() {
+        return MatchSlotScheduler.SlotGrid.of(tournament, FIRST_DAY);
+    }
+
+    private void assertConstraints(List<Match> matches, int maxPerDay, int capacity) {
+        Map<LocalDateTime, Integer> slotLoad = new HashMap<>();
+        Map<String, Integer> playerDay = new HashMap<>();
+        Set<String> playerSlot = new HashSet<>();
+        Map<Long, Integer> lastRound = new HashMap<>();
+        Map<Long, LocalDateTime> lastTime = new HashMap<>();
+
+        List<Match> ordered = new ArrayList<>(matches);
+        ordered.sort(Comparator.comparing(Match::getRound));
+        for (Match match : ordered) {
+            LocalDateTime time = match.getScheduledTime();
+            assertNotNull(time);
+            assertTrue(slotLoad.merge(time, 1, Integer::sum) <= capacity, "Slot over capacity: " + time);
+            for (Team team : List.of(match.getHomeTeam(), match.getAwayTeam())) {
+                assertTrue(playerSlot.add(team.getId() + "@" + time), "Double booked: " + team.getName());
+                assertTrue(playerDay.merge(team.getId() + "@" + time.toLocalDate(), 1, Integer::sum) <= maxPerDay,
+                        "Too many matches in a day: " + team.getName());
+                Integer previousRound = lastRound.put(team.getId(), match.getRound());
+                LocalDateTime previousTime = lastTime.put(team.getId(), time);
+                if (previousRound != null && previousRound < match.getRound()) {
+                    assertTrue(previousTime.isBefore(time), "Rounds out of order for " + team.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Circle method single round robin (no byes: odd fields just skip the bye pairing).
+     */
+    private List<Match> roundRobin(List<Team> teams) {
+        List<Team> circle = new ArrayList<>(teams);
+        if (circle.size() % 2 != 0) {
+            circle.add(null);
+        }
+        int n = circle.size();
+        List<Match> matches = new ArrayList<>();
+        for (int round = 1; round < n; round++) {
+            for (int i = 0; i < n / 2; i++) {
+                Team home = circle.get(i);
+                Team away = circle.get(n - 1 - i);
+                if (home != null && away != null) {
+                    matches.add(Match.builder().tournament(tournament).homeTeam(home).awayTeam(away)
+                            .round(round).isBye(false).build());
+                }
+            }
+            circle.add(1, circle.remove(n - 1));
+        }
+        return matches;
+    }
+
+    private List<Team> createTeams(int count) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            User user = User.builder().id((long) i).telegramId(1000L + i).firstName("Player " + i).build();
+            teams.add(Team.builder().id((long) i).name("Team " + i).tournament(tournament).user(user).build());
+        }
+        return teams;
+    }
+}
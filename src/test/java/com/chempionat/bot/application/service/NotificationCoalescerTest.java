@@ -0,0 +1,74 @@
+package com.chempionat.bot.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NotificationCoalescer.
+ */
+class NotificationCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    private NotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        scheduler.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testAdd_MergesMessagesWithinWindowPerUser() throws Exception {
+        coalescer = new NotificationCoalescer((id, text) -> sent.add(id + ":" + text), 100, scheduler, meterRegistry);
+
+        coalescer.add(1L, "approved");
+        coalescer.add(2L, "round started");
+        coalescer.add(1L, "next opponent");
+        Thread.sleep(400);
+
+        assertEquals(2, sent.size());
+        assertTrue(sent.contains("2:round started"));
+        String digest = sent.stream().filter(text -> text.startsWith("1:")).findFirst().orElseThrow();
+        assertTrue(digest.indexOf("approved") < digest.indexOf("next opponent"));
+        assertEquals(3, meterRegistry.get("notification.coalesced").tag("stage", "buffered").counter().count());
+        assertEquals(2, meterRegistry.get("notification.coalesced").tag("stage", "sent").counter().count());
+    }
+
+    @Test
+    void testFlush_SendsBufferedMessagesAtOnce() {
+        coalescer = new NotificationCoalescer((id, text) -> sent.add(text), 60_000, scheduler, meterRegistry);
+
+        coalescer.add(1L, "approved");
+        coalescer.flush(1L);
+        coalescer.flush(1L);
+
+        assertEquals(List.of("approved"), sent);
+    }
+
+    @Test
+    void testMerge_SplitsAtTelegramLengthLimit() {
+        String longMessage = "x".repeat(3000);
+
+        List<String> digests = NotificationCoalescer.merge(List.of(longMessage, longMessage, "short"));
+
+        assertEquals(2, digests.size());
+        assertEquals(longMessage, digests.get(0));
+        assertTrue(digests.get(1).startsWith(longMessage) && digests.get(1).endsWith("short"));
+        assertTrue(digests.stream().allMatch(digest -> digest.length() <= NotificationCoalescer.MAX_MESSAGE_LENGTH));
+    }
+}
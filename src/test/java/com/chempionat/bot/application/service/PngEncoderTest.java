@@ -0,0 +1,214 @@
+package com.chempionat.bot.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.zip.Adler32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PngEncoder.
+ * Encoded files are decoded back with ImageIO and compared pixel by pixel.
+ */
+class PngEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PngEncoder encoder = new PngEncoder(PngEncoder.ColorMode.INDEXED, 6, PngEncoder.Filter.NONE, meterRegistry);
+
+    @Test
+    void testTruecolor_LosslessForEveryFilter() throws IOException {
+        BufferedImage image = noiseImage(97, 41, 1 << 24);
+        for (PngEncoder.Filter filter : PngEncoder.Filter.values()) {
+            PngEncoder.EncodedPng encoded = encoder.encode(image,
+                    new PngEncoder.Options(PngEncoder.ColorMode.TRUECOLOR, 9, filter));
+
+            assertEquals(0, encoded.paletteSize());
+            assertSamePixels(image, decode(encoded.bytes()), filter.name());
+        }
+    }
+
+    @Test
+    void testIndexed_ExactWhenFewColours() throws IOException {
+        BufferedImage image = renderedCard();
+        for (PngEncoder.Filter filter : PngEncoder.Filter.values()) {
+            PngEncoder.EncodedPng encoded = encoder.encode(image,
+                    new PngEncoder.Options(PngEncoder.ColorMode.INDEXED, 6, filter));
+
+            assertTrue(encoded.paletteSize() <= 256);
+            assertSamePixels(image, decode(encoded.bytes()), filter.name());
+        }
+    }
+
+    @Test
+    void testIndexed_QuantisesManyColoursToNearestPaletteEntry() throws IOException {
+        BufferedImage image = noiseImage(120, 80, 4096);
+
+        PngEncoder.EncodedPng encoded = encoder.encode(image,
+                new PngEncoder.Options(PngEncoder.ColorMode.INDEXED, 6, PngEncoder.Filter.ADAPTIVE));
+        BufferedImage decoded = decode(encoded.bytes());
+
+        assertEquals(256, encoded.paletteSize());
+        long error = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                error += distance(image.getRGB(x, y), decoded.getRGB(x, y));
+            }
+        }
+        double meanError = Math.sqrt((double) error / (image.getWidth() * image.getHeight()));
+        // Uniform noise over the whole cube: 256 cells of ~40 levels per side give ~20 RMS at best
+        assertTrue(meanError < 30, "Mean colour error " + meanError);
+    }
+
+    @Test
+    void testIndexed_SmallerThanTruecolorForRenderedImages() {
+        BufferedImage image = renderedCard();
+
+        int indexed = encoder.encode(image, encoder.getOptions()).bytes().length;
+        int truecolor = encoder.encode(image,
+                new PngEncoder.Options(PngEncoder.ColorMode.TRUECOLOR, 6, PngEncoder.Filter.ADAPTIVE)).bytes().length;
+
+        assertTrue(indexed < truecolor, indexed + " >= " + truecolor);
+    }
+
+    @Test
+    void testEncode_RecordsSizeAndTime() {
+        byte[] bytes = encoder.encode(renderedCard());
+
+        assertEquals(1, meterRegistry.get("image.png.encode").timer().count());
+        assertEquals(bytes.length, meterRegistry.get("image.png.bytes").summary().totalAmount());
+    }
+
+    @Test
+    void testOptions_RejectsInvalidDeflateLevel() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PngEncoder.Options(PngEncoder.ColorMode.INDEXED, 10, PngEncoder.Filter.NONE));
+    }
+
+    @Test
+    void testBanded_LosslessAndReencodesOnlyChangedBands() throws IOException {
+        int[] bandStarts = {40, 80, 120};
+        for (PngEncoder.ColorMode mode : PngEncoder.ColorMode.values()) {
+            for (PngEncoder.Filter filter : new PngEncoder.Filter[]{PngEncoder.Filter.NONE, PngEncoder.Filter.PAETH}) {
+                SimpleMeterRegistry registry = new SimpleMeterRegistry();
+                PngEncoder bandedEncoder = new PngEncoder(mode, 6, filter, registry);
+                BufferedImage image = renderedCard();
+
+                PngEncoder.BandedPng png = bandedEncoder.encodeBanded(image, bandStarts);
+                assertEquals(4, png.getBandCount());
+                assertSamePixels(image, decode(png.getBytes()), mode + " " + filter);
+
+                // Repaint inside band 2 with colours the image already has
+                Graphics2D g2d = image.createGraphics();
+                g2d.setColor(new Color(0x1a, 0x1a, 0x2e));
+                g2d.fillRect(0, 80, 400, 40);
+                g2d.dispose();
+                BitSet changed = new BitSet();
+                changed.set(2);
+
+                PngEncoder.BandedPng reencoded = bandedEncoder.reencode(png, image, changed);
+                assertSamePixels(image, decode(reencoded.getBytes()), mode + " " + filter + " reencoded");
+                // PAETH filters against the row above, so the band below the change is redone too
+                double expectedReused = filter == PngEncoder.Filter.NONE ? 3 : 2;
+                assertEquals(expectedReused,
+                        registry.get("image.png.bands").tag("result", "reused").counter().count());
+            }
+        }
+    }
+
+    @Test
+    void testBanded_ReencodesFullyWhenChangedBandHasNewColour() throws IOException {
+        BufferedImage image = renderedCard();
+        PngEncoder.BandedPng png = encoder.encodeBanded(image, new int[]{80});
+
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(new Color(0xcc, 0x11, 0x22));
+        g2d.fillRect(30, 100, 50, 20);
+        g2d.dispose();
+        BitSet changed = new BitSet();
+        changed.set(1);
+
+        assertSamePixels(image, decode(encoder.reencode(png, image, changed).getBytes()), "new colour");
+        assertEquals(0, meterRegistry.get("image.png.bands").tag("result", "reused").counter().count());
+    }
+
+    @Test
+    void testCombineAdler_MatchesChecksumOfConcatenation() {
+        byte[] first = new byte[70_000];
+        byte[] second = new byte[12_345];
+        new Random(7).nextBytes(first);
+        new Random(8).nextBytes(second);
+        Adler32 whole = new Adler32();
+        whole.update(first);
+        whole.update(second);
+        Adler32 a = new Adler32();
+        a.update(first);
+        Adler32 b = new Adler32();
+        b.update(second);
+
+        assertEquals(whole.getValue(), PngEncoder.BandedPng.combineAdler(a.getValue(), b.getValue(), second.length));
+        assertEquals(a.getValue(), PngEncoder.BandedPng.combineAdler(1, a.getValue(), first.length));
+    }
+
+    private BufferedImage renderedCard() {
+        BufferedImage image = new BufferedImage(400, 160, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(new Color(0x1a, 0x1a, 0x2e));
+        g2d.fillRect(0, 0, 400, 160);
+        g2d.setColor(new Color(0x16, 0x21, 0x3e));
+        g2d.fillRoundRect(10, 10, 380, 60, 15, 15);
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(FontRegistry.sansSerif(Font.BOLD, 20));
+        g2d.drawString("Standings", 24, 48);
+        g2d.setColor(new Color(0x00, 0xff, 0x88));
+        g2d.drawString("3 – 1", 24, 120);
+        g2d.dispose();
+        return image;
+    }
+
+    private BufferedImage noiseImage(int width, int height, int colors) {
+        Random random = new Random(3);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int value = random.nextInt(colors);
+                // Spread the values over the whole RGB cube
+                int rgb = colors == 1 << 24 ? value : (value * 4093) & 0xffffff;
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bytes));
+        assertNotNull(decoded, "Not a readable PNG");
+        return decoded;
+    }
+
+    private void assertSamePixels(BufferedImage expected, BufferedImage actual, String message) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), message + " at " + x + "," + y);
+            }
+        }
+    }
+
+    private int distance(int a, int b) {
+        int dr = (a >> 16 & 0xff) - (b >> 16 & 0xff);
+        int dg = (a >> 8 & 0xff) - (b >> 8 & 0xff);
+        int db = (a & 0xff) - (b & 0xff);
+        return dr * dr + dg * dg + db * db;
+    }
+}
@@ -0,0 +1,90 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.Role;
+import com.chempionat.bot.domain.model.User;
+import com.chempionat.bot.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RoleIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+class RoleIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RoleIndex roleIndex;
+
+    @BeforeEach
+    void setUp() {
+        roleIndex = new RoleIndex(userRepository);
+        when(userRepository.findAllRoles()).thenReturn(List.of(
+                role(1L, Role.ADMIN), role(2L, Role.ORGANIZER), role(3L, Role.USER), role(4L, Role.ADMIN)));
+    }
+
+    @Test
+    void testLookups_LoadOnceFromRepository() {
+        assertEquals(Optional.of(Role.ORGANIZER), roleIndex.getRole(2L));
+        assertTrue(roleIndex.hasRole(1L, Role.ADMIN));
+        assertTrue(roleIndex.hasRole(2L, Role.ADMIN, Role.ORGANIZER));
+        assertFalse(roleIndex.hasRole(3L, Role.ADMIN, Role.ORGANIZER));
+        assertFalse(roleIndex.hasRole(99L, Role.USER));
+        assertEquals(List.of(1L, 4L), roleIndex.getTelegramIds(Role.ADMIN));
+        assertEquals(List.of(), roleIndex.getTelegramIds(Role.MODERATOR));
+
+        verify(userRepository, times(1)).findAllRoles();
+    }
+
+    @Test
+    void testUpdate_AppliesRoleChangeWithoutReload() {
+        roleIndex.load();
+
+        roleIndex.update(user(3L, Role.ORGANIZER));
+        roleIndex.update(user(5L, Role.USER));
+
+        assertEquals(List.of(2L, 3L), roleIndex.getTelegramIds(Role.ORGANIZER));
+        assertEquals(Optional.of(Role.USER), roleIndex.getRole(5L));
+        verify(userRepository, times(1)).findAllRoles();
+    }
+
+    @Test
+    void testReload_DropsRemovedUsers() {
+        roleIndex.load();
+        when(userRepository.findAllRoles()).thenReturn(List.of(role(1L, Role.USER)));
+
+        roleIndex.reload();
+
+        assertEquals(Optional.empty(), roleIndex.getRole(4L));
+        assertEquals(List.of(), roleIndex.getTelegramIds(Role.ADMIN));
+        assertThrows(IllegalArgumentException.class, () -> roleIndex.getTelegramIds(Role.USER));
+    }
+
+    private User user(Long telegramId, Role role) {
+        return User.builder().id(telegramId).telegramId(telegramId).role(role).build();
+    }
+
+    private static UserRepository.TelegramRole role(Long telegramId, Role role) {
+        return new UserRepository.TelegramRole() {
+            @Override
+            public Long getTelegramId() {
+                return telegramId;
+            }
+
+            @Override
+            public Role getRole() {
+                return role;
+            }
+        };
+    }
+}
@@ -17,11 +17,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
@@ -44,6 +47,9 @@ class SingleEliminationServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private MatchSlotScheduler matchSlotScheduler;
+
     @Captor
     private ArgumentCaptor<List<Match>> matchListCaptor;
 
@@ -51,7 +57,8 @@ class SingleEliminationServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new SingleEliminationService(matchRepository, tournamentRepository, teamRepository, notificationService);
+        service = new SingleEliminationService(matchRepository, tournamentRepository, teamRepository, notificationService,
+                matchSlotScheduler);
     }
 
     @Test
@@ -137,11 +144,11 @@ class SingleEliminationServiceTest {
         verify(matchRepository).saveAll(matchListCaptor.capture());
         List<Match> savedMatches = matchListCaptor.getValue();
 
-        // 4 teams = 2 first-round matches only (semifinals)
-        // Next rounds are created dynamically as winners advance
-        assertEquals(2, savedMatches.size());
+        // 4 teams = 2 semifinals + final, saved in one batch
+        assertEquals(3, savedMatches.size());
+        assertEquals(2, matches.size());
 
-        // Verify stages - all matches should be SEMI_FINAL (first round for 4 teams)
+        // Verify stages - first round matches should be SEMI_FINAL (first round for 4 teams)
         long semiFinalCount = savedMatches.stream()
                 .filter(m -> m.getStage() == MatchStage.SEMI_FINAL)
                 .count();
@@ -149,7 +156,7 @@ class SingleEliminationServiceTest {
         assertEquals(2, semiFinalCount);
 
         // Verify first round matches have teams assigned
-        for (Match match : savedMatches) {
+        for (Match match : matches) {
             assertNotNull(match.getHomeTeam());
             assertNotNull(match.getAwayTeam());
             assertFalse(match.getIsBye());
@@ -178,9 +185,9 @@ class SingleEliminationServiceTest {
         verify(matchRepository).saveAll(matchListCaptor.capture());
         List<Match> savedMatches = matchListCaptor.getValue();
 
-        // 8 teams = 4 first-round matches (QF) only
-        // Next rounds are created dynamically as winners advance
-        assertEquals(4, savedMatches.size());
+        // 8 teams = 4 QF + 2 SF + final
+        assertEquals(7, savedMatches.size());
+        assertEquals(4, matches.size());
 
         // Verify stages - all should be QUARTER_FINAL (first round for 8 teams)
         long qfCount = savedMatches.stream()
@@ -210,21 +217,19 @@ class SingleEliminationServiceTest {
         // Assert
         verify(matchRepository, atLeastOnce()).saveAll(matchListCaptor.capture());
         
-        // Get the first saveAll call (initial first-round matches)
-        List<Match> savedMatches = matchListCaptor.getAllValues().get(0);
-
-        // 8-team bracket, but only first round = 4 matches
-        assertEquals(4, savedMatches.size());
+        // Whole 8-team bracket in one batch, first round = 4 matches
+        assertEquals(7, matchListCaptor.getAllValues().get(0).size());
+        assertEquals(4, matches.size());
 
         // Count BYE matches
-        long byeCount = savedMatches.stream()
+        long byeCount = matches.stream()
                 .filter(m -> Boolean.TRUE.equals(m.getIsBye()))
                 .count();
 
         assertEquals(3, byeCount, "Should have 3 BYE matches for 5 teams in 8-team bracket");
 
         // BYE matches should be auto-approved
-        for (Match match : savedMatches) {
+        for (Match match : matches) {
             if (Boolean.TRUE.equals(match.getIsBye())) {
                 assertEquals(MatchLifecycleState.APPROVED, match.getState());
             }
@@ -232,8 +237,8 @@ class SingleEliminationServiceTest {
     }
 
     @Test
-    void testGenerateBracket_FirstRoundOnly() {
-        // Test that only first-round matches are created, next rounds are created dynamically
+    void testGenerateBracket_CreatesFullSkeleton() {
+        // The whole tree is created up front with next-match links; later rounds start empty
         Tournament tournament = createTournament(1L, "Test Tournament");
         List<Team> teams = createTeams(4);
 
@@ -253,13 +258,19 @@ class SingleEliminationServiceTest {
         verify(matchRepository).saveAll(matchListCaptor.capture());
         List<Match> savedMatches = matchListCaptor.getValue();
 
-        // All matches should be round 1
-        assertTrue(savedMatches.stream().allMatch(m -> m.getRound() == 1),
-                "Only first-round matches should be created initially");
-        
-        // No match should have nextMatch set initially (created dynamically)
-        assertTrue(savedMatches.stream().allMatch(m -> m.getNextMatch() == null),
-                "Next matches are created dynamically when winners advance");
+        // Parents are saved before the matches that link to them
+        Match finalMatch = savedMatches.get(0);
+        assertEquals(1, finalMatch.getBracketPosition());
+        assertEquals(MatchStage.FINAL, finalMatch.getStage());
+        assertEquals(2, finalMatch.getRound());
+        assertNull(finalMatch.getHomeTeam());
+        assertNull(finalMatch.getAwayTeam());
+        assertFalse(finalMatch.hasBothTeams());
+
+        assertTrue(matches.stream().allMatch(m -> m.getRound() == 1));
+        assertTrue(matches.stream().allMatch(m -> m.getNextMatch() == finalMatch));
+        assertTrue(matches.get(0).getWinnerToHome());
+        assertFalse(matches.get(1).getWinnerToHome());
     }
 
     @Test
@@ -426,10 +437,15 @@ class SingleEliminationServiceTest {
 
         // Assert
         verify(matchRepository, atLeastOnce()).saveAll(matchListCaptor.capture());
-        List<Match> savedMatches = matchListCaptor.getAllValues().get(0);
+        List<Match> savedMatches = matches;
 
         // 4-team bracket, first round = 2 matches (1 BYE + 1 real)
         assertEquals(2, savedMatches.size());
+
+        // BYE winner is already placed in the final
+        Match finalMatch = matchListCaptor.getAllValues().get(0).get(0);
+        assertEquals(savedMatches.get(0).getHomeTeam(), finalMatch.getHomeTeam());
+        assertNull(finalMatch.getAwayTeam());
         
         // Count BYE matches
         long byeCount = savedMatches.stream()
@@ -447,4 +463,178 @@ class SingleEliminationServiceTest {
         assertTrue(savedMatches.stream().allMatch(m -> m.getStage() == MatchStage.SEMI_FINAL),
                 "All first-round matches should be SEMI_FINAL for 3-4 teams");
     }
+
+    @Test
+    void testBuildSeedOrder_8Slots() {
+        assertArrayEquals(new int[]{1, 8, 4, 5, 2, 7, 3, 6}, service.buildSeedOrder(8));
+    }
+
+    @Test
+    void testGenerateSeededBracket_6Teams_TopSeedsGetByes() {
+        Tournament tournament = createTournament(1L, "Test Tournament");
+        List<Team> seeded = createTeams(6);
+
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Match> firstRound = service.generateSeededBracket(tournament, seeded, 4);
+
+        assertEquals(4, firstRound.size());
+        assertTrue(firstRound.stream().allMatch(m -> m.getRound() == 4), "Knockout rounds follow the group rounds");
+
+        // Seeds 1 and 2 receive the two BYEs
+        List<Team> byeTeams = firstRound.stream()
+                .filter(m -> Boolean.TRUE.equals(m.getIsBye()))
+                .map(Match::getHomeTeam)
+                .toList();
+        assertEquals(List.of(seeded.get(0), seeded.get(1)), byeTeams);
+
+        // Seed 4 meets seed 5 and seed 3 meets seed 6
+        Match fourVsFive = firstRound.get(1);
+        assertEquals(seeded.get(3), fourVsFive.getHomeTeam());
+        assertEquals(seeded.get(4), fourVsFive.getAwayTeam());
+        Match threeVsSix = firstRound.get(3);
+        assertEquals(seeded.get(2), threeVsSix.getHomeTeam());
+        assertEquals(seeded.get(5), threeVsSix.getAwayTeam());
+    }
+
+    @Test
+    void testGenerateBracket_UsesHeapBracketPositions() {
+        Tournament tournament = createTournament(1L, "Test Tournament");
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Match> firstRound = service.generateBracket(tournament, createTeams(8));
+
+        // 4 first-round matches sit in slots 4..7; their parents are 2, 2, 3, 3
+        assertEquals(List.of(4, 5, 6, 7), firstRound.stream().map(Match::getBracketPosition).toList());
+    }
+
+    @Test
+    void testPropagateWinner_FillsTeamSlotOfPreCreatedMatch() {
+        Tournament tournament = createTournament(1L, "Test Tournament");
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Match> matches = invocation.getArgument(0);
+            long id = 1L;
+            for (Match m : matches) {
+                m.setId(id++);
+            }
+            return matches;
+        });
+        List<Match> semis = service.generateBracket(tournament, createTeams(4));
+        Match top = semis.get(0);
+        Match bottom = semis.get(1);
+        Match finalMatch = top.getNextMatch();
+
+        bottom.setHomeScore(0);
+        bottom.setAwayScore(2);
+        bottom.setState(MatchLifecycleState.APPROVED);
+        service.propagateWinner(bottom);
+
+        top.setHomeScore(3);
+        top.setAwayScore(1);
+        top.setState(MatchLifecycleState.APPROVED);
+        service.propagateWinner(top);
+
+        // Odd slot feeds the away side, even slot the home side; one update each
+        verify(matchRepository).assignAwayTeam(finalMatch.getId(), bottom.getAwayTeam());
+        verify(matchRepository).assignHomeTeam(finalMatch.getId(), top.getHomeTeam());
+        verify(matchSlotScheduler, times(2)).scheduleWhenTeamsKnown(finalMatch.getId());
+        BracketModel.Slot finalSlot = service.getBracketModel(tournament).finalSlot();
+        assertEquals(top.getHomeTeam().getId(), finalSlot.homeTeamId());
+        assertEquals(bottom.getAwayTeam().getId(), finalSlot.awayTeamId());
+        assertEquals(bottom.getAwayTeam().getId(), service.getBracketModel(tournament).get(3).winnerId());
+
+        verify(matchRepository, never()).save(any(Match.class));
+        verify(matchRepository, never()).findByTournamentAndRound(any(), any());
+        verify(matchRepository, never()).findByTournamentOrderedByBracketPosition(any());
+    }
+
+    @Test
+    void testPropagateWinner_CachedBracketChangesOnlyAfterCommit() {
+        Tournament tournament = createTournament(1L, "Test Tournament");
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Match> matches = invocation.getArgument(0);
+            long id = 1L;
+            for (Match m : matches) {
+                m.setId(id++);
+            }
+            return matches;
+        });
+        Match top = service.generateBracket(tournament, createTeams(4)).get(0);
+        top.setHomeScore(3);
+        top.setAwayScore(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.propagateWinner(top);
+
+            // Not committed yet: the cached bracket still shows the old state
+            assertNull(service.getBracketModel(tournament).finalSlot().homeTeamId());
+            assertFalse(service.getBracketModel(tournament).get(2).hasResult());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(top.getHomeTeam().getId(), service.getBracketModel(tournament).finalSlot().homeTeamId());
+        assertEquals(top.getHomeTeam().getId(), service.getBracketModel(tournament).get(2).winnerId());
+    }
+
+    @Test
+    void testCalculateBracketPlacements_OrdersByEliminationLevel() {
+        Tournament tournament = createTournament(1L, "Test Tournament");
+        List<Team> teams = createTeams(4);
+        Match finalMatch = bracketMatch(1, teams.get(0), teams.get(2), 2, 1, MatchStage.FINAL);
+        Match semi1 = bracketMatch(2, teams.get(0), teams.get(1), 1, 0, MatchStage.SEMI_FINAL);
+        Match semi2 = bracketMatch(3, teams.get(3), teams.get(2), 0, 1, MatchStage.SEMI_FINAL);
+        when(teamRepository.findByTournament(tournament)).thenReturn(teams);
+        when(matchRepository.findByTournamentOrderedByBracketPosition(tournament))
+                .thenReturn(List.of(finalMatch, semi1, semi2));
+
+        List<TeamStanding> placements = service.calculateBracketPlacements(tournament);
+
+        assertEquals(List.of(1L, 3L, 2L, 4L), placements.stream().map(TeamStanding::getTeamId).toList());
+        assertEquals(List.of(1, 2, 3, 4), placements.stream().map(TeamStanding::getPosition).toList());
+
+        // Second call is served from the cached bracket
+        service.calculateBracketPlacements(tournament);
+        verify(matchRepository, times(1)).findByTournamentOrderedByBracketPosition(tournament);
+    }
+
+    @Test
+    void testLoadBracket_ReadsHeapSlotsWithoutWriting() {
+        Tournament tournament = createTournament(1L, "Test Tournament");
+        List<Team> teams = createTeams(4);
+        Match finalMatch = bracketMatch(1, teams.get(0), teams.get(3), null, null, MatchStage.FINAL);
+        Match semi1 = bracketMatch(2, teams.get(0), teams.get(1), 1, 0, MatchStage.SEMI_FINAL);
+        Match semi2 = bracketMatch(3, teams.get(2), teams.get(3), 0, 1, MatchStage.SEMI_FINAL);
+        Match unslotted = bracketMatch(2000, teams.get(1), teams.get(2), null, null, MatchStage.FINAL);
+        finalMatch.setId(12L);
+        semi1.setId(10L);
+        semi2.setId(11L);
+        unslotted.setId(13L);
+        when(matchRepository.findByTournamentOrderedByBracketPosition(tournament))
+                .thenReturn(List.of(finalMatch, semi1, semi2, unslotted));
+
+        BracketModel bracket = service.getBracketModel(tournament);
+
+        assertEquals(12L, bracket.finalSlot().matchId());
+        assertEquals(10L, bracket.get(2).matchId());
+        assertEquals(11L, bracket.get(3).matchId());
+        verify(matchRepository, never()).saveAll(any());
+    }
+
+    private Match bracketMatch(int position, Team home, Team away, Integer homeScore, Integer awayScore, MatchStage stage) {
+        return Match.builder()
+                .homeTeam(home)
+                .awayTeam(away)
+                .homeScore(homeScore)
+                .awayScore(awayScore)
+                .round(stage == MatchStage.FINAL ? 2 : 1)
+                .stage(stage)
+                .bracketPosition(position)
+                .isBye(false)
+                .state(MatchLifecycleState.APPROVED)
+                .build();
+    }
 }
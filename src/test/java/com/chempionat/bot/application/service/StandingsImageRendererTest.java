@@ -0,0 +1,99 @@
+package com.chempionat.bot.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for incremental standings renders.
+ */
+class StandingsImageRendererTest {
+
+    private static final int ROWS_TOP = 30 + 80 + 70;
+    private static final int ROW_HEIGHT = 50;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Truecolor, so pixels compare exactly (a quantised palette depends on the whole image)
+    private final StandingsImageRenderer renderer = new StandingsImageRenderer(
+            new PngEncoder(PngEncoder.ColorMode.TRUECOLOR, 6, PngEncoder.Filter.NONE, meterRegistry));
+
+    @Test
+    void testRender_RepaintsOnlyChangedRowsAndMatchesFullRender() throws IOException {
+        List<TeamStanding> standings = standings(20);
+        renderer.render(1L, "League", standings, 0);
+
+        // One result: rows 5 and 6 change, everything else stays
+        standings.get(4).setPoints(99);
+        standings.get(5).setGoalsFor(42);
+        BufferedImage incremental = decode(renderer.render(1L, "League", standings, 0));
+        BufferedImage full = decode(renderer.render(null, "League", standings, 0));
+
+        assertSameRows(full, incremental, standings.size());
+        double reused = meterRegistry.get("image.png.bands").tag("result", "reused").counter().count();
+        double encoded = meterRegistry.get("image.png.bands").tag("result", "encoded").counter().count();
+        // 22 bands for the first render, then the two rows (and possibly the footer) again
+        assertTrue(reused >= 19, "reused " + reused);
+        assertTrue(encoded <= 22 + 3, "encoded " + encoded);
+    }
+
+    @Test
+    void testRender_RendersInFullWhenLayoutChanges() throws IOException {
+        List<TeamStanding> standings = standings(12);
+        renderer.render(2L, "Cup", standings, 0);
+
+        standings.add(standing(13));
+        BufferedImage incremental = decode(renderer.render(2L, "Cup", standings, 0));
+        BufferedImage full = decode(renderer.render(null, "Cup", standings, 0));
+
+        assertEquals(full.getHeight(), incremental.getHeight());
+        assertSameRows(full, incremental, standings.size());
+    }
+
+    private List<TeamStanding> standings(int count) {
+        List<TeamStanding> standings = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            standings.add(standing(i));
+        }
+        return standings;
+    }
+
+    private TeamStanding standing(int i) {
+        return TeamStanding.builder()
+                .teamId((long) i)
+                .teamName("Team " + i)
+                .played(10)
+                .won(10 - i % 10)
+                .drawn(i % 3)
+                .lost(i % 4)
+                .goalsFor(30 - i)
+                .goalsAgainst(i)
+                .goalDifference(30 - 2 * i)
+                .points(40 - i)
+                .build();
+    }
+
+    /**
+     * Compare everything above the footer (the footer shows the current minute).
+     */
+    private void assertSameRows(BufferedImage expected, BufferedImage actual, int rows) {
+        for (int y = 0; y < ROWS_TOP + rows * ROW_HEIGHT; y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel " + x + "," + y);
+            }
+        }
+    }
+
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bytes));
+        assertNotNull(decoded, "Not a readable PNG");
+        return decoded;
+    }
+}
@@ -0,0 +1,174 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.repository.MatchRepository;
+import com.chempionat.bot.domain.repository.TeamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SwissPairingService.
+ * Plays full Swiss events with random results and checks pairing invariants.
+ */
+@ExtendWith(MockitoExtension.class)
+class SwissPairingServiceTest {
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private MatchSlotScheduler matchSlotScheduler;
+
+    @Mock
+    private TournamentLockService tournamentLockService;
+
+    private SwissPairingService service;
+    private Tournament tournament;
+
+    @BeforeEach
+    void setUp() {
+        service = new SwissPairingService(matchRepository, teamRepository, matchSlotScheduler, tournamentLockService);
+        tournament = Tournament.builder().id(1L).name("Swiss").type(TournamentType.SWISS).build();
+    }
+
+    @Test
+    void testCalculateTotalRounds() {
+        assertEquals(1, service.calculateTotalRounds(2));
+        assertEquals(2, service.calculateTotalRounds(4));
+        assertEquals(3, service.calculateTotalRounds(5));
+        assertEquals(10, service.calculateTotalRounds(1000));
+    }
+
+    @Test
+    void testFirstRound_OddTeamsGetsOneBye() {
+        List<Team> teams = createTeams(7);
+
+        List<Match> round = service.generateFirstRound(tournament, teams);
+
+        assertEquals(4, round.size());
+        assertEquals(1, round.stream().filter(Match::getIsBye).count());
+        assertEveryTeamOnce(teams, round);
+    }
+
+    @Test
+    void testFullEvent_NoRematchesAndNoRepeatedByes() {
+        List<Team> teams = createTeams(33);
+        List<Match> history = playEvent(teams, new Random(7));
+
+        Set<String> pairs = new HashSet<>();
+        Set<Long> byes = new HashSet<>();
+        for (Match match : history) {
+            if (match.getIsBye()) {
+                assertTrue(byes.add(match.getHomeTeam().getId()), "Team received a second bye");
+                continue;
+            }
+            long a = Math.min(match.getHomeTeam().getId(), match.getAwayTeam().getId());
+            long b = Math.max(match.getHomeTeam().getId(), match.getAwayTeam().getId());
+            assertTrue(pairs.add(a + "-" + b), "Rematch " + a + "-" + b);
+        }
+    }
+
+    @Test
+    void testLargeField_PairsEachRoundQuickly() {
+        List<Team> teams = createTeams(1024);
+        Random random = new Random(42);
+        List<Match> history = new ArrayList<>();
+
+        for (int round = 1; round <= service.calculateTotalRounds(teams.size()); round++) {
+            long start = System.nanoTime();
+            List<Match> pairing = service.pairRound(tournament, SwissPairingService.rankForPairing(teams, history), history, round);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue(elapsedMs < 1000, "Round " + round + " took " + elapsedMs + " ms");
+            assertEveryTeamOnce(teams, pairing);
+            playRound(pairing, random);
+            history.addAll(pairing);
+        }
+    }
+
+    @Test
+    void testOddField_ByeCountsAsWinWhenPairing() {
+        List<Team> teams = createTeams(7);
+        List<Match> history = new ArrayList<>(List.of(
+                played(teams.get(0), teams.get(1), 1, 0),
+                played(teams.get(2), teams.get(3), 1, 0),
+                played(teams.get(4), teams.get(5), 1, 0),
+                Match.builder().tournament(tournament).homeTeam(teams.get(6)).awayTeam(teams.get(6))
+                        .round(1).isBye(true).build()));
+        when(tournamentLockService.lock(tournament)).thenReturn(tournament);
+        when(matchRepository.findByTournament(tournament)).thenReturn(history);
+        when(teamRepository.findByTournament(tournament)).thenReturn(teams);
+
+        List<Match> round = service.pairNextRoundIfDue(tournament);
+
+        List<TeamStanding> ranking = SwissPairingService.rankForPairing(teams, history);
+        assertEquals(7L, ranking.get(3).getTeamId());
+        assertEquals(3, ranking.get(3).getPoints());
+        Match byeTeamMatch = round.stream()
+                .filter(m -> !m.getIsBye() && (m.getHomeTeam().getId() == 7L || m.getAwayTeam().getId() == 7L))
+                .findFirst().orElseThrow();
+        long opponent = byeTeamMatch.getHomeTeam().getId() == 7L
+                ? byeTeamMatch.getAwayTeam().getId() : byeTeamMatch.getHomeTeam().getId();
+        assertTrue(Set.of(1L, 3L, 5L).contains(opponent), "Bye team should stay in the 3-point group");
+        assertEveryTeamOnce(teams, round);
+    }
+
+    private Match played(Team home, Team away, int homeScore, int awayScore) {
+        return Match.builder().tournament(tournament).homeTeam(home).awayTeam(away).round(1)
+                .homeScore(homeScore).awayScore(awayScore).isBye(false).build();
+    }
+
+    private List<Match> playEvent(List<Team> teams, Random random) {
+        List<Match> history = new ArrayList<>();
+        for (int round = 1; round <= service.calculateTotalRounds(teams.size()); round++) {
+            List<Match> pairing = service.pairRound(tournament, SwissPairingService.rankForPairing(teams, history), history, round);
+            assertEveryTeamOnce(teams, pairing);
+            playRound(pairing, random);
+            history.addAll(pairing);
+        }
+        return history;
+    }
+
+    private void playRound(List<Match> pairing, Random random) {
+        for (Match match : pairing) {
+            if (!match.getIsBye()) {
+                match.setHomeScore(random.nextInt(4));
+                match.setAwayScore(random.nextInt(4));
+            }
+        }
+    }
+
+    private void assertEveryTeamOnce(List<Team> teams, List<Match> round) {
+        Map<Long, Integer> appearances = new HashMap<>();
+        for (Match match : round) {
+            appearances.merge(match.getHomeTeam().getId(), 1, Integer::sum);
+            if (!match.getIsBye()) {
+                appearances.merge(match.getAwayTeam().getId(), 1, Integer::sum);
+            }
+        }
+        assertEquals(teams.size(), appearances.size());
+        assertTrue(appearances.values().stream().allMatch(count -> count == 1));
+    }
+
+    private List<Team> createTeams(int count) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            teams.add(Team.builder().id((long) i).name("Team " + i).tournament(tournament).build());
+        }
+        return teams;
+    }
+}
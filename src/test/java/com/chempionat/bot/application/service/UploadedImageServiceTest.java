@@ -0,0 +1,116 @@
+package com.chempionat.bot.application.service;
+
+import com.chempionat.bot.domain.model.UploadedImage;
+import com.chempionat.bot.domain.repository.UploadedImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UploadedImageService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UploadedImageServiceTest {
+
+    @Mock
+    private UploadedImageRepository uploadedImageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UploadedImageService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UploadedImageService(uploadedImageRepository, meterRegistry, transactionManager);
+    }
+
+    @Test
+    void testHash_SameBytesSameHash() {
+        String hash = service.hash(new byte[]{1, 2, 3});
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, service.hash(new byte[]{1, 2, 3}));
+        assertNotEquals(hash, service.hash(new byte[]{1, 2, 4}));
+    }
+
+    @Test
+    void testRememberedUpload_IsReusedWithoutDatabaseLookup() {
+        when(uploadedImageRepository.findByContentHash("abc")).thenReturn(Optional.empty());
+
+        assertTrue(service.findFileId("abc", 1000).isEmpty());
+        service.remember("abc", "file-1", 1000);
+        assertEquals(Optional.of("file-1"), service.findFileId("abc", 1000));
+        assertEquals(Optional.of("file-1"), service.findFileId("abc", 1000));
+
+        ArgumentCaptor<UploadedImage> saved = ArgumentCaptor.forClass(UploadedImage.class);
+        verify(uploadedImageRepository).saveAndFlush(saved.capture());
+        assertEquals("file-1", saved.getValue().getTelegramFileId());
+        assertEquals(1000, saved.getValue().getSizeBytes());
+        // One lookup for the miss, one inside remember; hits come from memory
+        verify(uploadedImageRepository, times(2)).findByContentHash("abc");
+
+        assertEquals(2, meterRegistry.get("telegram.photo.reuse").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("telegram.photo.reuse").tag("result", "miss").counter().count());
+        assertEquals(2000, meterRegistry.get("telegram.photo.bytes.saved").counter().count());
+        assertEquals(2.0 / 3, service.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testPersistedFileId_UsedAfterRestart() {
+        when(uploadedImageRepository.findByContentHash("abc")).thenReturn(Optional.of(
+                UploadedImage.builder().contentHash("abc").telegramFileId("file-1").sizeBytes(500).build()));
+
+        assertEquals(Optional.of("file-1"), service.findFileId("abc", 500));
+        assertEquals(Optional.of("file-1"), service.findFileId("abc", 500));
+
+        verify(uploadedImageRepository, times(1)).findByContentHash("abc");
+    }
+
+    @Test
+    void testForget_NextLookupMisses() {
+        when(uploadedImageRepository.findByContentHash("abc")).thenReturn(Optional.empty());
+        service.remember("abc", "file-1", 100);
+
+        service.forget("abc");
+
+        assertTrue(service.findFileId("abc", 100).isEmpty());
+        verify(uploadedImageRepository).deleteByContentHash("abc");
+    }
+
+    @Test
+    void testRemember_ExistingRowKeepsSingleEntry() {
+        UploadedImage existing = UploadedImage.builder().contentHash("abc").telegramFileId("file-1").sizeBytes(100).build();
+        when(uploadedImageRepository.findByContentHash("abc")).thenReturn(Optional.of(existing));
+
+        service.remember("abc", "file-1", 100);
+
+        verify(uploadedImageRepository, never()).save(any());
+    }
+
+    @Test
+    void testRemember_LostInsertRaceRollsBackOnlyItsOwnTransaction() {
+        when(uploadedImageRepository.findByContentHash("abc")).thenReturn(Optional.empty());
+        when(uploadedImageRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertDoesNotThrow(() -> service.remember("abc", "file-2", 100));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertEquals(Optional.of("file-2"), service.findFileId("abc", 100));
+    }
+}
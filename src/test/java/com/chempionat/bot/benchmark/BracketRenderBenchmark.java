@@ -0,0 +1,97 @@
+package com.chempionat.bot.benchmark;
+
+import com.chempionat.bot.application.service.BracketImageRenderer;
+import com.chempionat.bot.application.service.BracketSvgRenderer;
+import com.chempionat.bot.application.service.PngEncoder;
+import com.chempionat.bot.domain.enums.MatchStage;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 128-team bracket: one full raster image versus region tiles versus SVG.
+ * Not part of the test suite; run with {@code main} (add {@code -prof gc} for allocation rates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BracketRenderBenchmark {
+
+    private static final MatchStage[] STAGES = {MatchStage.ROUND_OF_128, MatchStage.ROUND_OF_64,
+            MatchStage.ROUND_OF_32, MatchStage.ROUND_OF_16, MatchStage.QUARTER_FINAL,
+            MatchStage.SEMI_FINAL, MatchStage.FINAL};
+
+    private BracketImageRenderer imageRenderer;
+    private BracketSvgRenderer svgRenderer;
+    private List<Match> bracket;
+
+    @Setup
+    public void setUp() {
+        imageRenderer = new BracketImageRenderer(null, null, new PngEncoder(PngEncoder.ColorMode.INDEXED, 6,
+                PngEncoder.Filter.NONE, new SimpleMeterRegistry()));
+        svgRenderer = new BracketSvgRenderer();
+
+        bracket = new ArrayList<>();
+        List<Match> previous = new ArrayList<>();
+        long id = 1;
+        for (int r = 0, size = 64; size >= 1; r++, size /= 2) {
+            List<Match> round = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Match match = Match.builder().id(id++).round(r + 1).stage(STAGES[r]).isBye(false)
+                        .bracketPosition(size + i).build();
+                if (previous.isEmpty()) {
+                    match.setHomeTeam(Team.builder().id(id * 2).name("Team " + (2 * i + 1)).build());
+                    match.setAwayTeam(Team.builder().id(id * 2 + 1).name("Team " + (2 * i + 2)).build());
+                } else {
+                    previous.get(2 * i).setNextMatch(match);
+                    previous.get(2 * i + 1).setNextMatch(match);
+                }
+                round.add(match);
+            }
+            bracket.addAll(round);
+            previous = round;
+        }
+    }
+
+    @Benchmark
+    public byte[] fullImage() throws IOException {
+        return imageRenderer.render("Benchmark Cup", bracket);
+    }
+
+    @Benchmark
+    public int regionTiles() throws IOException {
+        int bytes = 0;
+        for (int tile = 0; tile < imageRenderer.getRegionTileCount(bracket); tile++) {
+            bytes += imageRenderer.renderRegion("Benchmark Cup", bracket, tile).length;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public int svg() throws IOException {
+        StringWriter out = new StringWriter();
+        svgRenderer.write("Benchmark Cup", bracket, out);
+        return out.getBuffer().length();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BracketRenderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.chempionat.bot.benchmark;
+
+import com.chempionat.bot.application.service.BracketImageRenderer;
+import com.chempionat.bot.application.service.FixturesImageRenderer;
+import com.chempionat.bot.application.service.PngEncoder;
+import com.chempionat.bot.application.service.StandingsImageRenderer;
+import com.chempionat.bot.application.service.TeamStanding;
+import com.chempionat.bot.domain.enums.MatchStage;
+import com.chempionat.bot.domain.model.Match;
+import com.chempionat.bot.domain.model.Team;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render time per page with and without cached static layers.
+ * Not part of the test suite; run with {@code main} or {@code org.openjdk.jmh.Main ImageRenderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageRenderBenchmark {
+
+    @Param({"true", "false"})
+    private boolean staticLayerCache;
+
+    private StandingsImageRenderer standingsRenderer;
+    private FixturesImageRenderer fixturesRenderer;
+    private BracketImageRenderer bracketRenderer;
+
+    private List<TeamStanding> standings;
+    private List<Match> roundMatches;
+    private List<Match> bracket;
+
+    @Setup
+    public void setUp() {
+        PngEncoder pngEncoder = new PngEncoder(PngEncoder.ColorMode.INDEXED, 6, PngEncoder.Filter.NONE,
+                new SimpleMeterRegistry());
+        standingsRenderer = new StandingsImageRenderer(pngEncoder);
+        fixturesRenderer = new FixturesImageRenderer(pngEncoder);
+        bracketRenderer = new BracketImageRenderer(null, null, pngEncoder);
+        standingsRenderer.setStaticLayerCacheEnabled(staticLayerCache);
+        fixturesRenderer.setStaticLayerCacheEnabled(staticLayerCache);
+        bracketRenderer.setStaticLayerCacheEnabled(staticLayerCache);
+
+        List<Team> teams = new ArrayList<>();
+        standings = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            Team team = Team.builder().id((long) i).name("Team " + i).build();
+            teams.add(team);
+            TeamStanding standing = new TeamStanding(team.getId(), team.getName());
+            standing.setPlayed(10);
+            standing.setWon(i % 7);
+            standing.setPoints(40 - i);
+            standings.add(standing);
+        }
+
+        roundMatches = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            roundMatches.add(Match.builder().id((long) i + 1)
+                    .homeTeam(teams.get(2 * i)).awayTeam(teams.get(2 * i + 1))
+                    .round(1).isBye(false).homeScore(i % 3).awayScore(1)
+                    .scheduledTime(LocalDateTime.of(2026, 3, 2, 18, 0)).build());
+        }
+
+        bracket = new ArrayList<>();
+        long id = 1;
+        List<Match> previous = new ArrayList<>();
+        MatchStage[] stages = {MatchStage.ROUND_OF_32, MatchStage.ROUND_OF_16, MatchStage.QUARTER_FINAL,
+                MatchStage.SEMI_FINAL, MatchStage.FINAL};
+        for (int r = 0, size = 16; size >= 1; r++, size /= 2) {
+            List<Match> round = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Match match = Match.builder().id(id++).round(r + 1)
+                        .stage(stages[r]).isBye(false)
+                        .bracketPosition((int) id).build();
+                if (previous.isEmpty()) {
+                    match.setHomeTeam(teams.get(2 * i));
+                    match.setAwayTeam(teams.get(2 * i + 1));
+                } else {
+                    previous.get(2 * i).setNextMatch(match);
+                    previous.get(2 * i + 1).setNextMatch(match);
+                }
+                round.add(match);
+            }
+            bracket.addAll(round);
+            previous = round;
+        }
+    }
+
+    @Benchmark
+    public byte[] standingsPage() throws IOException {
+        return standingsRenderer.render("Benchmark League", standings, 0);
+    }
+
+    /**
+     * Re-render of a kept page after one result changed two rows.
+     */
+    @Benchmark
+    public byte[] standingsPageAfterResult() throws IOException {
+        TeamStanding changed = standings.get(5);
+        changed.setPoints(changed.getPoints() == 99 ? 98 : 99);
+        standings.get(6).setGoalsFor(changed.getPoints());
+        return standingsRenderer.render(1L, "Benchmark League", standings, 0);
+    }
+
+    @Benchmark
+    public byte[] fixturesRoundPage() throws IOException {
+        return fixturesRenderer.renderRound("Benchmark League", 1, roundMatches, 0);
+    }
+
+    @Benchmark
+    public byte[] bracket() throws IOException {
+        return bracketRenderer.render("Benchmark Cup", bracket);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ImageRenderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.chempionat.bot.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DiskImageStore.
+ */
+class DiskImageStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPutAndGet_RoundTrip() {
+        DiskImageStore store = new DiskImageStore(directory, 1024, "v1");
+
+        store.put("standings:1:v3", new byte[]{1, 2, 3});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, store.get("standings:1:v3"));
+        assertNull(store.get("standings:1:v4"));
+        assertEquals(3, store.getTotalBytes());
+    }
+
+    @Test
+    void testPut_EvictsLeastRecentlyUsedBeyondLimit() {
+        DiskImageStore store = new DiskImageStore(directory, 250, "v1");
+        store.put("a", new byte[100]);
+        store.put("b", new byte[100]);
+        store.get("a");
+
+        store.put("c", new byte[100]);
+
+        assertNotNull(store.get("a"));
+        assertNull(store.get("b"));
+        assertNotNull(store.get("c"));
+        assertEquals(200, store.getTotalBytes());
+        assertFalse(Files.exists(directory.resolve(DiskImageStore.fileName("b"))));
+    }
+
+    @Test
+    void testWarmStart_KeepsEntriesAcrossInstances() throws Exception {
+        DiskImageStore first = new DiskImageStore(directory, 1024, "v1");
+        first.put("a", new byte[]{7});
+        first.put("b", new byte[]{8, 9});
+        Files.write(directory.resolve("leftover.img.tmp1"), new byte[10]);
+
+        DiskImageStore second = new DiskImageStore(directory, 1024, "v1");
+
+        assertEquals(2, second.size());
+        assertEquals(3, second.getTotalBytes());
+        assertArrayEquals(new byte[]{8, 9}, second.get("b"));
+        assertFalse(Files.exists(directory.resolve("leftover.img.tmp1")));
+    }
+
+    @Test
+    void testWarmStart_TrimsToLoweredLimit() {
+        DiskImageStore first = new DiskImageStore(directory, 1024, "v1");
+        first.put("a", new byte[100]);
+        first.put("b", new byte[100]);
+
+        DiskImageStore second = new DiskImageStore(directory, 150, "v1");
+
+        assertEquals(1, second.size());
+        assertTrue(second.getTotalBytes() <= 150);
+    }
+
+    @Test
+    void testWarmStart_NewRendererVersionWipesDirectory() {
+        DiskImageStore first = new DiskImageStore(directory, 1024, "v1");
+        first.put("a", new byte[]{1});
+
+        DiskImageStore second = new DiskImageStore(directory, 1024, "v2");
+
+        assertEquals(0, second.size());
+        assertNull(second.get("a"));
+        assertFalse(Files.exists(directory.resolve(DiskImageStore.fileName("a"))));
+    }
+
+    @Test
+    void testPut_IgnoresEmptyImage() {
+        DiskImageStore store = new DiskImageStore(directory, 1024, "v1");
+
+        store.put("a", new byte[0]);
+
+        assertNull(store.get("a"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testEvictAndClear_RemoveFiles() {
+        DiskImageStore store = new DiskImageStore(directory, 1024, "v1");
+        store.put("a", new byte[]{1});
+        store.put("b", new byte[]{2});
+
+        store.evict("a");
+        assertNull(store.get("a"));
+        assertEquals(1, store.size());
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(0, store.getTotalBytes());
+        assertNull(store.get("b"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.chempionat.bot.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TieredImageCache.
+ */
+class TieredImageCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DiskImageStore disk;
+    private TieredImageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        disk = new DiskImageStore(directory, 1024 * 1024, "v1");
+        cache = new TieredImageCache("images", Caffeine.newBuilder().build(), disk, meterRegistry);
+    }
+
+    @Test
+    void testGet_LoadsOnceAndWritesBothTiers() {
+        AtomicInteger renders = new AtomicInteger();
+
+        byte[] first = cache.get("key", () -> {
+            renders.incrementAndGet();
+            return new byte[]{1, 2};
+        });
+        byte[] second = cache.get("key", () -> {
+            renders.incrementAndGet();
+            return new byte[]{3};
+        });
+
+        assertArrayEquals(new byte[]{1, 2}, first);
+        assertSame(first, second);
+        assertEquals(1, renders.get());
+        assertArrayEquals(new byte[]{1, 2}, disk.get("key"));
+    }
+
+    @Test
+    void testGet_RestartServedFromDisk() {
+        cache.put("key", new byte[]{5});
+
+        TieredImageCache restarted = new TieredImageCache("images", Caffeine.newBuilder().build(),
+                new DiskImageStore(directory, 1024 * 1024, "v1"), meterRegistry);
+
+        assertArrayEquals(new byte[]{5}, (byte[]) restarted.get("key").get());
+        assertArrayEquals(new byte[]{5}, restarted.get("key", () -> fail("should not render")));
+    }
+
+    @Test
+    void testEvict_RemovesFromBothTiers() {
+        cache.put("key", new byte[]{5});
+
+        cache.evict("key");
+
+        assertNull(cache.get("key"));
+        assertNull(disk.get("key"));
+    }
+
+    @Test
+    void testGet_MemoryHitReturnsStoredArrayWithoutCopy() {
+        Cache<Object, Object> memory = Caffeine.newBuilder().build();
+        TieredImageCache memoryOnly = new TieredImageCache("images", memory, null, meterRegistry);
+
+        byte[] loaded = memoryOnly.get("key", () -> new byte[]{1, 2, 3});
+
+        assertEquals(3, TieredImageCache.weigh(memory.getIfPresent("key")));
+        assertSame(loaded, memoryOnly.get("key").get());
+        assertSame(loaded, memoryOnly.get("key", () -> fail("should not render")));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesRenderOnce() throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            results.add(callers.submit(() -> cache.get("key", () -> {
+                renders.incrementAndGet();
+                rendering.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return new byte[]{4, 2};
+            })));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(callers.submit(() -> cache.get("key", () -> {
+                    renders.incrementAndGet();
+                    return new byte[]{0};
+                })));
+            }
+            // Release only once every caller is waiting on the in-flight render
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.get("image.render.coalesced").counter().count() < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(new byte[]{4, 2}, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, renders.get());
+        assertEquals(7, meterRegistry.get("image.render.coalesced").counter().count());
+    }
+
+    @Test
+    void testGet_FailedRenderIsNotCachedAndPropagates() {
+        assertThrows(org.springframework.cache.Cache.ValueRetrievalException.class,
+                () -> cache.get("key", () -> {
+                    throw new IllegalStateException("render failed");
+                }));
+
+        assertArrayEquals(new byte[]{1}, cache.get("key", () -> new byte[]{1}));
+    }
+}
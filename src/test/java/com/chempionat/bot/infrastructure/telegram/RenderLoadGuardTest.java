@@ -0,0 +1,93 @@
+package com.chempionat.bot.infrastructure.telegram;
+
+import com.chempionat.bot.application.service.ImageRenderExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RenderLoadGuard.
+ */
+class RenderLoadGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ImageRenderExecutor renderExecutor = mock(ImageRenderExecutor.class);
+    private RenderLoadGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        // Not scheduled outside Spring: the tests push deferred images themselves
+        guard = new RenderLoadGuard(renderExecutor, meterRegistry, true, 0.75, 3, 2);
+    }
+
+    @Test
+    void testIsDegraded_OnRenderLoadOrUpdateBacklog() {
+        when(renderExecutor.getLoad()).thenReturn(0.5);
+        assertFalse(guard.isDegraded());
+        assertEquals(Status.UP, guard.health().getStatus());
+
+        when(renderExecutor.getLoad()).thenReturn(0.8);
+        assertTrue(guard.isDegraded());
+        assertEquals(RenderLoadGuard.DEGRADED, guard.health().getStatus());
+
+        when(renderExecutor.getLoad()).thenReturn(0.0);
+        guard.onUpdatesReceived(3);
+        assertTrue(guard.isDegraded());
+        guard.onUpdateHandled();
+        assertFalse(guard.isDegraded());
+    }
+
+    @Test
+    void testIsDegraded_NeverWhenDisabled() {
+        guard = new RenderLoadGuard(renderExecutor, meterRegistry, false, 0.75, 3, 2);
+        when(renderExecutor.getLoad()).thenReturn(1.0);
+
+        assertFalse(guard.isDegraded());
+        assertEquals(Status.UP, guard.health().getStatus());
+    }
+
+    @Test
+    void testPushDeferred_WaitsForCapacityAndKeepsLatestPerChat() {
+        List<String> sent = new ArrayList<>();
+        when(renderExecutor.getLoad()).thenReturn(1.0);
+        guard.degrade("standings", 1L, () -> sent.add("standings page 0"));
+        guard.degrade("standings", 1L, () -> sent.add("standings page 1"));
+        guard.degrade("fixtures", 1L, () -> sent.add("fixtures"));
+
+        guard.pushDeferred();
+        assertTrue(sent.isEmpty());
+        assertEquals(2, guard.getDeferredCount());
+        assertEquals(2, meterRegistry.get("image.degraded").tag("view", "standings").counter().count());
+
+        when(renderExecutor.getLoad()).thenReturn(0.0);
+        guard.pushDeferred();
+
+        assertEquals(List.of("standings page 1", "fixtures"), sent);
+        assertEquals(0, guard.getDeferredCount());
+        assertEquals(2, meterRegistry.get("image.degraded.push").tag("result", "sent").counter().count());
+    }
+
+    @Test
+    void testDegrade_DropsOldestBeyondLimit() {
+        List<Long> sent = new ArrayList<>();
+        when(renderExecutor.getLoad()).thenReturn(1.0);
+        for (long chatId = 1; chatId <= 3; chatId++) {
+            long chat = chatId;
+            guard.degrade("standings", chatId, () -> sent.add(chat));
+        }
+
+        when(renderExecutor.getLoad()).thenReturn(0.0);
+        guard.pushDeferred();
+
+        assertEquals(List.of(2L, 3L), sent);
+        assertEquals(1, meterRegistry.get("image.degraded.push").tag("result", "dropped").counter().count());
+    }
+}
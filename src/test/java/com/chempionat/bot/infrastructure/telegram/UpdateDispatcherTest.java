@@ -0,0 +1,106 @@
+package com.chempionat.bot.infrastructure.telegram;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UpdateDispatcher.
+ */
+class UpdateDispatcherTest {
+
+    private UpdateDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testDispatch_SlowUserDoesNotBlockOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherHandled = new CountDownLatch(1);
+        dispatcher = dispatcher(update -> {
+            if (update.getMessage().getFrom().getId() == 1L) {
+                await(release);
+            } else {
+                otherHandled.countDown();
+            }
+        }, 2, 10);
+
+        dispatcher.dispatch(update(1, 1L));
+        dispatcher.dispatch(update(2, 2L));
+
+        assertTrue(otherHandled.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void testDispatch_KeepsOrderPerUser() throws Exception {
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(20);
+        dispatcher = dispatcher(update -> {
+            handled.add(update.getUpdateId());
+            done.countDown();
+        }, 4, 100);
+
+        for (int id = 0; id < 20; id++) {
+            dispatcher.dispatch(update(id, 7L));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 20).boxed().toList(), handled);
+    }
+
+    @Test
+    void testDispatch_BlocksWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher = dispatcher(update -> await(release), 1, 2);
+        dispatcher.dispatch(update(1, 1L));
+        dispatcher.dispatch(update(2, 1L));
+
+        Thread poller = new Thread(() -> dispatcher.dispatch(update(3, 1L)));
+        poller.start();
+        poller.join(200);
+        assertTrue(poller.isAlive());
+
+        release.countDown();
+        poller.join(5000);
+        assertFalse(poller.isAlive());
+    }
+
+    private UpdateDispatcher dispatcher(Consumer<Update> handler, int threads, int maxPending) {
+        return new UpdateDispatcher(handler, threads, maxPending, new SimpleMeterRegistry());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Update update(int updateId, Long userId) {
+        User from = new User();
+        from.setId(userId);
+        Message message = new Message();
+        message.setFrom(from);
+        Update update = new Update();
+        update.setUpdateId(updateId);
+        update.setMessage(message);
+        return update;
+    }
+}
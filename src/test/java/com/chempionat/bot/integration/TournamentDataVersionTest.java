@@ -0,0 +1,101 @@
+package com.chempionat.bot.integration;
+
+import com.chempionat.bot.application.service.TournamentService;
+import com.chempionat.bot.domain.enums.Role;
+import com.chempionat.bot.domain.enums.TournamentType;
+import com.chempionat.bot.domain.model.Team;
+import com.chempionat.bot.domain.model.Tournament;
+import com.chempionat.bot.domain.model.User;
+import com.chempionat.bot.domain.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for the tournament data version used in image cache keys.
+ * Not transactional: the version is bumped after commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TournamentDataVersionTest {
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MatchResultRepository matchResultRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        matchResultRepository.deleteAll();
+        matchRepository.deleteAll();
+        teamRepository.deleteAll();
+        tournamentRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testDataVersion_IncreasesOncePerCommittedChange() {
+        User admin = createUser(2000001L, Role.ADMIN);
+        Tournament tournament = tournamentService.createTournament("Versioned", null, TournamentType.LEAGUE, admin);
+        long created = version(tournament);
+
+        tournamentService.joinTournament(tournament, createUser(2000002L, Role.USER), "Team A");
+        long afterJoin = version(tournament);
+        assertEquals(created + 1, afterJoin);
+
+        // Several changes in one transaction count as one
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Team team : teamRepository.findByTournament(tournament)) {
+                team.setName(team.getName() + " FC");
+                teamRepository.save(team);
+            }
+            Tournament managed = tournamentRepository.findById(tournament.getId()).orElseThrow();
+            managed.setName("Versioned Cup");
+            tournamentRepository.save(managed);
+        });
+        assertEquals(afterJoin + 1, version(tournament));
+
+        // Rolled back changes leave the version alone
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            Tournament managed = tournamentRepository.findById(tournament.getId()).orElseThrow();
+            managed.setName("Never saved");
+            tournamentRepository.saveAndFlush(managed);
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(afterJoin + 1, version(tournament));
+    }
+
+    private long version(Tournament tournament) {
+        return tournamentRepository.findById(tournament.getId()).orElseThrow().getDataVersion();
+    }
+
+    private User createUser(Long telegramId, Role role) {
+        User user = new User();
+        user.setTelegramId(telegramId);
+        user.setUsername("user" + telegramId);
+        user.setFirstName("User");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -2,7 +2,9 @@ package com.chempionat.bot.integration;
 
 import com.chempionat.bot.application.service.*;
 import com.chempionat.bot.domain.enums.MatchLifecycleState;
+import com.chempionat.bot.domain.enums.MatchStage;
 import com.chempionat.bot.domain.enums.Role;
+import com.chempionat.bot.domain.enums.TournamentStatus;
 import com.chempionat.bot.domain.enums.TournamentType;
 import com.chempionat.bot.domain.model.*;
 import com.chempionat.bot.domain.repository.*;
@@ -53,6 +55,12 @@ class TournamentSimulationTest {
     @Autowired
     private MatchResultRepository matchResultRepository;
 
+    @Autowired
+    private RoundService roundService;
+
+    @Autowired
+    private GroupStageService groupStageService;
+
     private User admin;
     private User player1;
     private User player2;
@@ -255,14 +263,17 @@ class TournamentSimulationTest {
         // For simplicity, our implementation might do 4 teams as 2 semi-finals + final (3 matches)
         // or round-robin depending on implementation
         assertTrue(matches.size() > 0, "Should generate matches");
+        // The whole bracket is created up front: 2 semi-finals + an empty final
+        assertEquals(3, matches.size());
+        assertEquals(1, matches.stream().filter(m -> !m.hasBothTeams()).count());
         System.out.println("✓ Generated " + matches.size() + " matches for Playoff format");
 
         System.out.println("\n--- Playoff Bracket ---");
         for (Match match : matches) {
             System.out.println(String.format("Match #%d: %s vs %s",
                     match.getId(),
-                    match.getHomeTeam().getName(),
-                    match.getAwayTeam().getName()));
+                    match.getHomeTeam() != null ? match.getHomeTeam().getName() : "TBD",
+                    match.getAwayTeam() != null ? match.getAwayTeam().getName() : "TBD"));
         }
 
         System.out.println("\n\n=== Playoff Tournament Simulation Completed Successfully ===\n");
@@ -312,6 +323,121 @@ class TournamentSimulationTest {
         System.out.println("\n=== Result Rejection Test Completed ===\n");
     }
 
+    @Test
+    void testLazyLeagueMaterializesRoundsOnDemand() {
+        Tournament tournament = tournamentService.createTournament(
+                "Lazy League", "Test", TournamentType.LEAGUE, admin);
+        tournament.setLazySchedule(true);
+        tournamentRepository.save(tournament);
+
+        tournamentService.joinTournament(tournament, player1, "Team A");
+        tournamentService.joinTournament(tournament, player2, "Team B");
+        tournamentService.joinTournament(tournament, player3, "Team C");
+        tournamentService.joinTournament(tournament, player4, "Team D");
+        tournamentService.startTournament(tournament.getId());
+
+        // Only the first round is written, the rest is read from the seed
+        List<Match> stored = matchRepository.findByTournament(tournament);
+        assertEquals(2, stored.size());
+        assertTrue(stored.stream().allMatch(m -> m.getRound() == 1));
+        assertEquals(3, roundService.getTotalRounds(tournament));
+        assertEquals(3, roundService.getMatchesByRound(tournament).size());
+        assertEquals(2, roundService.getMatchesForRound(tournament, 3).size());
+
+        // Finishing round 1 materializes round 2
+        for (Match match : stored) {
+            submitAndApproveResult(match, 1, 0, "screenshot.jpg");
+        }
+        assertEquals(2, matchRepository.findByTournamentAndRound(tournament, 2).size());
+        assertTrue(matchRepository.findByTournamentAndRound(tournament, 3).isEmpty());
+
+        // Opening round 3 writes it as well
+        assertEquals(2, roundService.materializeRound(tournament, 3).size());
+        assertEquals(6, matchRepository.findByTournament(tournament).size());
+        assertFalse(roundService.hasUnmaterializedRounds(tournament));
+
+        // Every pairing appears exactly once across the materialized rounds
+        Set<String> pairings = new HashSet<>();
+        for (Match match : matchRepository.findByTournament(tournament)) {
+            long a = Math.min(match.getHomeTeam().getId(), match.getAwayTeam().getId());
+            long b = Math.max(match.getHomeTeam().getId(), match.getAwayTeam().getId());
+            assertTrue(pairings.add(a + "-" + b), "Duplicate pairing " + a + "-" + b);
+        }
+    }
+
+    @Test
+    void testGroupStageAdvancesTopFinishersToKnockout() {
+        Tournament tournament = tournamentService.createTournament(
+                "Group Cup", "Test", TournamentType.GROUP_KNOCKOUT, admin);
+        for (int i = 1; i <= 8; i++) {
+            User user = createFakeUser(2000000L + i, "group_player_" + i, "Group", "Player " + i, Role.USER);
+            tournamentService.joinTournament(tournament, user, "Group Team " + i);
+        }
+        tournamentService.startTournament(tournament.getId());
+
+        // 8 teams -> 2 groups of 4 -> 2 * 6 group matches
+        List<Match> groupMatches = matchRepository.findByTournament(tournament);
+        assertEquals(12, groupMatches.size());
+        assertTrue(groupMatches.stream().allMatch(m -> m.getStage() == MatchStage.GROUP_STAGE));
+        assertFalse(groupStageService.isGroupStageComplete(tournament));
+
+        for (Match match : groupMatches) {
+            match.setHomeScore(2);
+            match.setAwayScore(1);
+            match.setState(MatchLifecycleState.APPROVED);
+        }
+        matchRepository.saveAll(groupMatches);
+
+        Map<Integer, List<TeamStanding>> standings = groupStageService.calculateGroupStandings(tournament);
+        assertEquals(2, standings.size());
+        assertTrue(standings.values().stream().allMatch(group -> group.size() == 4));
+
+        List<Match> bracket = groupStageService.advanceToKnockout(tournament);
+        assertEquals(2, bracket.size(), "Top 2 of each group play the semi-finals");
+        for (Match semi : bracket) {
+            assertNotEquals(semi.getHomeTeam().getGroupNumber(), semi.getAwayTeam().getGroupNumber(),
+                    "Group-mates should not meet in the first knockout round");
+        }
+        assertTrue(bracket.stream().allMatch(m -> m.getRound() > 3));
+        assertTrue(bracket.stream().allMatch(m -> m.getScheduledTime() != null),
+                "Knockout matches get a time slot when the bracket is drawn");
+
+        // Advancing again is a no-op
+        assertTrue(groupStageService.advanceToKnockout(tournament).isEmpty());
+    }
+
+    @Test
+    void testDoubleEliminationPlaysThroughToGrandFinal() {
+        Tournament tournament = tournamentService.createTournament(
+                "Double Cup", "Test", TournamentType.DOUBLE_ELIMINATION, admin);
+        tournamentService.joinTournament(tournament, player1, "DE Team 1");
+        tournamentService.joinTournament(tournament, player2, "DE Team 2");
+        tournamentService.joinTournament(tournament, player3, "DE Team 3");
+        tournamentService.joinTournament(tournament, player4, "DE Team 4");
+        tournamentService.startTournament(tournament.getId());
+
+        // 4 teams: 3 upper bracket + 2 lower bracket matches + grand final
+        List<Match> matches = matchRepository.findByTournament(tournament);
+        assertEquals(6, matches.size());
+        assertEquals(2, matches.stream().filter(Match::hasBothTeams).count());
+
+        // Home side always wins, so the upper bracket champion takes the grand final without a reset
+        List<Match> playable;
+        while (!(playable = matchRepository.findByTournament(tournament).stream()
+                .filter(m -> m.hasBothTeams() && m.getHomeScore() == null)
+                .toList()).isEmpty()) {
+            for (Match match : playable) {
+                submitAndApproveResult(match, 2, 0, null);
+            }
+        }
+
+        assertEquals(6, matchRepository.findByTournament(tournament).size());
+        assertTrue(matchRepository.findByTournament(tournament).stream().allMatch(m -> m.getScheduledTime() != null),
+                "Matches filled in as the bracket advances get a time slot");
+        assertEquals(TournamentStatus.FINISHED,
+                tournamentRepository.findById(tournament.getId()).orElseThrow().getStatus());
+    }
+
     @Test
     void testUserCannotJoinTournamentTwice() {
         System.out.println("\n=== Testing Duplicate Join Prevention ===\n");